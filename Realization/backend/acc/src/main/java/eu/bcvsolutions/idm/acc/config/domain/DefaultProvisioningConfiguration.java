@@ -44,4 +44,33 @@ public class DefaultProvisioningConfiguration extends AbstractConfiguration impl
 		//
 		return timeout;
 	}
+	
+	@Override
+	public int getMaxParallelism() {
+		int maxParallelism = getConfigurationService().getIntegerValue(PROPERTY_MAX_PARALLELISM, DEFAULT_MAX_PARALLELISM);
+		if (maxParallelism < 0) {
+			LOG.warn("Configured provisioning max parallelism has to be greater or equal than [0], given [{}]. Default [{}] will be used, change your configuration property [{}].",
+					maxParallelism, DEFAULT_MAX_PARALLELISM, PROPERTY_MAX_PARALLELISM);
+			return DEFAULT_MAX_PARALLELISM;
+		}
+		//
+		return maxParallelism;
+	}
+	
+	@Override
+	public long getWaitTimeout() {
+		long waitTimeout = getConfigurationService().getLongValue(PROPERTY_WAIT_TIMEOUT, DEFAULT_WAIT_TIMEOUT);
+		if (waitTimeout < 0) {
+			LOG.warn("Configured provisioning wait timeout has to be greater or equal than [0], given [{}]. Default [{}] will be used, change your configuration property [{}].",
+					waitTimeout, DEFAULT_WAIT_TIMEOUT, PROPERTY_WAIT_TIMEOUT);
+			return DEFAULT_WAIT_TIMEOUT;
+		}
+		//
+		return waitTimeout;
+	}
+	
+	@Override
+	public boolean isMergeOperations() {
+		return getConfigurationService().getBooleanValue(PROPERTY_MERGE_OPERATIONS, DEFAULT_MERGE_OPERATIONS);
+	}
 }
@@ -36,6 +36,38 @@ public interface ProvisioningConfiguration extends Configurable {
 	String PROPERTY_TIMEOUT = ConfigurationService.IDM_PRIVATE_PROPERTY_PREFIX
 			+ "acc.provisioning.timeout";
 	long DEFAULT_TIMEOUT = 180000;
+	
+	/**
+	 * Default maximum count of provisioning operations executed concurrently on one target system.
+	 * Can be overridden on the target system (max parallelism). Zero - unlimited.
+	 * Operations for the same system entity are executed sequentially always.
+	 * 
+	 * @since 13.1.0
+	 */
+	String PROPERTY_MAX_PARALLELISM = ConfigurationService.IDM_PRIVATE_PROPERTY_PREFIX
+			+ "acc.provisioning.maxParallelism";
+	int DEFAULT_MAX_PARALLELISM = 0;
+	
+	/**
+	 * Maximum time in milis, which provisioning operation waits for previous operation for the same system entity
+	 * and for the free slot on the target system (max parallelism). Waiting is not counted into provisioning timeout.
+	 * Operation fails after timeout and retry mechanism is used. Zero - wait until previous operations are completed (unlimited).
+	 * 
+	 * @since 13.1.0
+	 */
+	String PROPERTY_WAIT_TIMEOUT = ConfigurationService.IDM_PRIVATE_PROPERTY_PREFIX
+			+ "acc.provisioning.waitTimeout";
+	long DEFAULT_WAIT_TIMEOUT = 180000;
+	
+	/**
+	 * Merge queued operations for the same system entity before execution - e.g. consecutive updates are executed
+	 * as single update (with all changed attributes).
+	 * 
+	 * @since 13.1.0
+	 */
+	String PROPERTY_MERGE_OPERATIONS = ConfigurationService.IDM_PRIVATE_PROPERTY_PREFIX
+			+ "acc.provisioning.mergeOperations";
+	boolean DEFAULT_MERGE_OPERATIONS = false;
 
 	@Override
 	default String getConfigurableType() {
@@ -54,6 +86,9 @@ public interface ProvisioningConfiguration extends Configurable {
 		properties.add(PROPERTY_SEND_PASSWORD_ATTRIBUTES_TOGETHER);
 		properties.add(PROPERTY_ALLOW_AUTO_MAPPING_ON_EXISTING_ACCOUNT);
 		properties.add(PROPERTY_TIMEOUT);
+		properties.add(PROPERTY_MAX_PARALLELISM);
+		properties.add(PROPERTY_WAIT_TIMEOUT);
+		properties.add(PROPERTY_MERGE_OPERATIONS);
 		return properties;
 	}
 
@@ -107,4 +142,29 @@ public interface ProvisioningConfiguration extends Configurable {
 	 * @since 10.2.0
 	 */
 	long getTimeout();
+	
+	/**
+	 * Default maximum count of provisioning operations executed concurrently on one target system.
+	 * 
+	 * @return maximum count of concurrent operations, zero - unlimited
+	 * @since 13.1.0
+	 */
+	int getMaxParallelism();
+	
+	/**
+	 * Maximum time in milis, which provisioning operation waits for previous operation for the same system entity
+	 * and for the free slot on the target system.
+	 * 
+	 * @return wait timeout, zero - unlimited
+	 * @since 13.1.0
+	 */
+	long getWaitTimeout();
+	
+	/**
+	 * Merge queued operations for the same system entity before execution.
+	 * 
+	 * @return true - merge operations
+	 * @since 13.1.0
+	 */
+	boolean isMergeOperations();
 }
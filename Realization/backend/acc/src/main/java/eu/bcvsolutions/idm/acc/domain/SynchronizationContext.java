@@ -84,6 +84,8 @@ public class SynchronizationContext implements Serializable {
 	// Properties - map for additionally data. Good as cache for contract ...
 	private Map<String, Object> properties = new HashMap<String, Object>();
 	private boolean isEntityDifferent = false;
+	// Entities found by correlation attribute value for more items at once (shared for all items) - @since 13.1.0
+	private Map<String, List<UUID>> correlations;
 
 	public String getUid() {
 		return uid;
@@ -311,6 +313,29 @@ public class SynchronizationContext implements Serializable {
 		return this;
 	}
 
+	/**
+	 * Entities (identifiers) found by correlation attribute value - prefetched for more items at once.
+	 * Map is shared for all items in synchronization.
+	 * 
+	 * @return correlation value - found entity identifiers, {@code null} - prefetch is not used
+	 * @since 13.1.0
+	 */
+	public Map<String, List<UUID>> getCorrelations() {
+		return correlations;
+	}
+
+	/**
+	 * Entities (identifiers) found by correlation attribute value - prefetched for more items at once.
+	 * 
+	 * @param correlations correlation value - found entity identifiers
+	 * @return context
+	 * @since 13.1.0
+	 */
+	public SynchronizationContext addCorrelations(Map<String, List<UUID>> correlations) {
+		this.correlations = correlations;
+		return this;
+	}
+
 	public static SynchronizationContext cloneContext(SynchronizationContext context){
 		SynchronizationContext newContext = new SynchronizationContext();
 		newContext.addAccount(context.getAccount())
@@ -331,7 +356,8 @@ public class SynchronizationContext implements Serializable {
 		.addUid(context.getUid())
 		.addGeneratedUid(context.getGeneratedUid())
 		.addActionType(context.getActionType())
-		.addProtectionInterval(context.getProtectionInterval());
+		.addProtectionInterval(context.getProtectionInterval())
+		.addCorrelations(context.getCorrelations());
 		
 		return newContext;
 	}
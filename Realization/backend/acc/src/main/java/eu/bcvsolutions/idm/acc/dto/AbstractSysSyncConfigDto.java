@@ -49,6 +49,10 @@ public abstract class AbstractSysSyncConfigDto extends AbstractDto {
 	private boolean reconciliation = false;
 	private boolean differentialSync = false;
 	private boolean customFilter = false;
+	@Schema(description = "Count of synchronization items processed concurrently. Items are processed sequentially, when empty.")
+	private Integer parallelism; // @since 13.1.0
+	@Schema(description = "Entities are found by correlation attribute for more items (read from system) at once.")
+	private boolean correlationPrefetch = false; // @since 13.1.0
 	private String token;
 	private String customFilterScript;
 	private String rootsFilterScript;
@@ -291,4 +295,46 @@ public abstract class AbstractSysSyncConfigDto extends AbstractDto {
 	public void setRunning(Boolean running) {
 		this.running = running;
 	}
+	
+	/**
+	 * Count of synchronization items processed concurrently.
+	 * Items with the same uid are processed sequentially always.
+	 * 
+	 * @return count of concurrently processed items, {@code null} or one - items are processed sequentially
+	 * @since 13.1.0
+	 */
+	public Integer getParallelism() {
+		return parallelism;
+	}
+	
+	/**
+	 * Count of synchronization items processed concurrently.
+	 * 
+	 * @param parallelism count of concurrently processed items, {@code null} or one - items are processed sequentially
+	 * @since 13.1.0
+	 */
+	public void setParallelism(Integer parallelism) {
+		this.parallelism = parallelism;
+	}
+	
+	/**
+	 * Entities are found by correlation attribute for more items (read from system) at once.
+	 * Found entities are used, when account for item doesn't exist.
+	 * 
+	 * @return true - prefetch is enabled
+	 * @since 13.1.0
+	 */
+	public boolean isCorrelationPrefetch() {
+		return correlationPrefetch;
+	}
+	
+	/**
+	 * Entities are found by correlation attribute for more items (read from system) at once.
+	 * 
+	 * @param correlationPrefetch true - prefetch is enabled
+	 * @since 13.1.0
+	 */
+	public void setCorrelationPrefetch(boolean correlationPrefetch) {
+		this.correlationPrefetch = correlationPrefetch;
+	}
 }
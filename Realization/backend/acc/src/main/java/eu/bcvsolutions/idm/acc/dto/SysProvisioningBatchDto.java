@@ -28,6 +28,8 @@ public class SysProvisioningBatchDto extends AbstractDto {
 	@Embedded(dtoClass = SysSystemEntityDto.class)
 	private UUID systemEntity; // account uid, etc.
 	private ZonedDateTime nextAttempt;
+	private String claimedBy; // @since 13.1.0
+	private ZonedDateTime claimExpiration; // @since 13.1.0
 	
 	public SysProvisioningBatchDto() {
 	}
@@ -51,4 +53,44 @@ public class SysProvisioningBatchDto extends AbstractDto {
 	public void setSystemEntity(UUID systemEntity) {
 		this.systemEntity = systemEntity;
 	}
+
+	/**
+	 * Queue worker, which processes batch.
+	 * 
+	 * @return worker identifier
+	 * @since 13.1.0
+	 */
+	public String getClaimedBy() {
+		return claimedBy;
+	}
+	
+	/**
+	 * Queue worker, which processes batch.
+	 * 
+	 * @param claimedBy worker identifier
+	 * @since 13.1.0
+	 */
+	public void setClaimedBy(String claimedBy) {
+		this.claimedBy = claimedBy;
+	}
+	
+	/**
+	 * Claim is valid till expiration.
+	 * 
+	 * @return claim expiration
+	 * @since 13.1.0
+	 */
+	public ZonedDateTime getClaimExpiration() {
+		return claimExpiration;
+	}
+	
+	/**
+	 * Claim is valid till expiration.
+	 * 
+	 * @param claimExpiration claim expiration
+	 * @since 13.1.0
+	 */
+	public void setClaimExpiration(ZonedDateTime claimExpiration) {
+		this.claimExpiration = claimExpiration;
+	}
 }
@@ -37,6 +37,8 @@ public class SysSystemDto extends IdmSystemDto {
 	private SysBlockedOperationDto blockedOperation;
 	@Embedded(dtoClass = SysConnectorServerDto.class)
 	private UUID remoteServer;
+	@Schema(description = "Maximum count of provisioning operations executed concurrently on the system. Default (global) provisioning configuration is used, when empty.")
+	private Integer maxParallelism; // @since 13.1.0
 
 	public SysSystemDto() {
 	}
@@ -162,4 +164,25 @@ public class SysSystemDto extends IdmSystemDto {
 	public void setRemoteServer(UUID remoteServer) {
 		this.remoteServer = remoteServer;
 	}
+	
+	/**
+	 * Maximum count of provisioning operations executed concurrently on the system.
+	 * Operations for the same system entity are executed sequentially always.
+	 * 
+	 * @return maximum count of concurrent operations, {@code null} - default provisioning configuration is used, zero - unlimited
+	 * @since 13.1.0
+	 */
+	public Integer getMaxParallelism() {
+		return maxParallelism;
+	}
+	
+	/**
+	 * Maximum count of provisioning operations executed concurrently on the system.
+	 * 
+	 * @param maxParallelism maximum count of concurrent operations, {@code null} - default provisioning configuration is used, zero - unlimited
+	 * @since 13.1.0
+	 */
+	public void setMaxParallelism(Integer maxParallelism) {
+		this.maxParallelism = maxParallelism;
+	}
 }
@@ -9,9 +9,11 @@ import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
 import javax.persistence.Table;
 import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
 
 import java.time.ZonedDateTime;
 
+import eu.bcvsolutions.idm.core.api.domain.DefaultFieldLengths;
 import eu.bcvsolutions.idm.core.api.entity.AbstractEntity;
 
 /**
@@ -25,7 +27,8 @@ import eu.bcvsolutions.idm.core.api.entity.AbstractEntity;
 @Entity
 @Table(name = "sys_provisioning_batch", indexes = {
 		@Index(name = "idx_sys_p_b_next", columnList = "next_attempt"),
-		@Index(name = "idx_sys_p_b_sys_entity", columnList = "system_entity_id")
+		@Index(name = "idx_sys_p_b_sys_entity", columnList = "system_entity_id"),
+		@Index(name = "idx_sys_p_b_claim_exp", columnList = "claim_expiration")
 		})
 public class SysProvisioningBatch extends AbstractEntity {
 
@@ -38,6 +41,13 @@ public class SysProvisioningBatch extends AbstractEntity {
 	
 	@Column(name = "next_attempt")
 	private ZonedDateTime nextAttempt;
+	
+	@Size(max = DefaultFieldLengths.NAME)
+	@Column(name = "claimed_by", length = DefaultFieldLengths.NAME)
+	private String claimedBy; // @since 13.1.0
+	
+	@Column(name = "claim_expiration")
+	private ZonedDateTime claimExpiration; // @since 13.1.0
 
 	public ZonedDateTime getNextAttempt() {
 		return nextAttempt;
@@ -54,4 +64,44 @@ public class SysProvisioningBatch extends AbstractEntity {
 	public void setSystemEntity(SysSystemEntity systemEntity) {
 		this.systemEntity = systemEntity;
 	}
-}
\ No newline at end of file
+
+	/**
+	 * Queue worker, which processes batch.
+	 * 
+	 * @return worker identifier
+	 * @since 13.1.0
+	 */
+	public String getClaimedBy() {
+		return claimedBy;
+	}
+	
+	/**
+	 * Queue worker, which processes batch.
+	 * 
+	 * @param claimedBy worker identifier
+	 * @since 13.1.0
+	 */
+	public void setClaimedBy(String claimedBy) {
+		this.claimedBy = claimedBy;
+	}
+	
+	/**
+	 * Claim is valid till expiration - batch can be claimed by other worker after (e.g. previous worker was killed).
+	 * 
+	 * @return claim expiration
+	 * @since 13.1.0
+	 */
+	public ZonedDateTime getClaimExpiration() {
+		return claimExpiration;
+	}
+	
+	/**
+	 * Claim is valid till expiration - batch can be claimed by other worker after (e.g. previous worker was killed).
+	 * 
+	 * @param claimExpiration claim expiration
+	 * @since 13.1.0
+	 */
+	public void setClaimExpiration(ZonedDateTime claimExpiration) {
+		this.claimExpiration = claimExpiration;
+	}
+}
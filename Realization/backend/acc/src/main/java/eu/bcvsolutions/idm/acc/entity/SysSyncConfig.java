@@ -12,6 +12,7 @@ import javax.persistence.InheritanceType;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
 import javax.persistence.Table;
+import javax.validation.constraints.Min;
 import javax.validation.constraints.NotNull;
 import javax.validation.constraints.Size;
 
@@ -78,6 +79,16 @@ public class SysSyncConfig extends AbstractEntity {
 	@NotNull
 	@Column(name = "custom_filter", nullable = false)
 	private boolean customFilter = false;
+	
+	@Audited
+	@Min(1)
+	@Column(name = "parallelism")
+	private Integer parallelism; // @since 13.1.0 - count of concurrently processed items
+	
+	@Audited
+	@NotNull
+	@Column(name = "correlation_prefetch", nullable = false)
+	private boolean correlationPrefetch = false; // @since 13.1.0 - find entities by correlation attribute for more items at once
 
 	@NotAudited // token isn't audited any more
 	@Type(type = "org.hibernate.type.TextType")
@@ -343,4 +354,43 @@ public class SysSyncConfig extends AbstractEntity {
 		this.rootsFilterScript = rootsFilterScript;
 	}
 
+	/**
+	 * Count of synchronization items processed concurrently.
+	 * 
+	 * @return count of concurrently processed items, {@code null} or one - items are processed sequentially
+	 * @since 13.1.0
+	 */
+	public Integer getParallelism() {
+		return parallelism;
+	}
+
+	/**
+	 * Count of synchronization items processed concurrently.
+	 * 
+	 * @param parallelism count of concurrently processed items, {@code null} or one - items are processed sequentially
+	 * @since 13.1.0
+	 */
+	public void setParallelism(Integer parallelism) {
+		this.parallelism = parallelism;
+	}
+
+	/**
+	 * Entities are found by correlation attribute for more items (read from system) at once.
+	 * 
+	 * @return true - prefetch is enabled
+	 * @since 13.1.0
+	 */
+	public boolean isCorrelationPrefetch() {
+		return correlationPrefetch;
+	}
+
+	/**
+	 * Entities are found by correlation attribute for more items (read from system) at once.
+	 * 
+	 * @param correlationPrefetch true - prefetch is enabled
+	 * @since 13.1.0
+	 */
+	public void setCorrelationPrefetch(boolean correlationPrefetch) {
+		this.correlationPrefetch = correlationPrefetch;
+	}
 }
@@ -13,6 +13,7 @@ import javax.persistence.ManyToOne;
 import javax.persistence.OneToMany;
 import javax.persistence.Table;
 import javax.persistence.Version;
+import javax.validation.constraints.Min;
 import javax.validation.constraints.NotNull;
 import javax.validation.constraints.Size;
 
@@ -120,6 +121,11 @@ public class SysSystem extends AbstractEntity implements Codeable, FormableEntit
 	@ManyToOne(optional = true)
 	@JoinColumn(name = "remote_server_id", referencedColumnName = "id", foreignKey = @ForeignKey(value = ConstraintMode.NO_CONSTRAINT))
 	private SysRemoteServer remoteServer;
+	
+	@Audited
+	@Min(0)
+	@Column(name = "max_parallelism")
+	private Integer maxParallelism; // @since 13.1.0 - concurrent provisioning operations on the system
 
 	public String getName() {
 		return name;
@@ -274,4 +280,24 @@ public class SysSystem extends AbstractEntity implements Codeable, FormableEntit
 	public void setRemoteServer(SysRemoteServer remoteServer) {
 		this.remoteServer = remoteServer;
 	}
+	
+	/**
+	 * Maximum count of provisioning operations executed concurrently on the system.
+	 * 
+	 * @return maximum count of concurrent operations, {@code null} - default provisioning configuration is used, zero - unlimited
+	 * @since 13.1.0
+	 */
+	public Integer getMaxParallelism() {
+		return maxParallelism;
+	}
+	
+	/**
+	 * Maximum count of provisioning operations executed concurrently on the system.
+	 * 
+	 * @param maxParallelism maximum count of concurrent operations, {@code null} - default provisioning configuration is used, zero - unlimited
+	 * @since 13.1.0
+	 */
+	public void setMaxParallelism(Integer maxParallelism) {
+		this.maxParallelism = maxParallelism;
+	}
 }
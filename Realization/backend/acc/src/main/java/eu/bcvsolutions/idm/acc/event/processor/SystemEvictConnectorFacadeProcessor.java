@@ -0,0 +1,50 @@
+package eu.bcvsolutions.idm.acc.event.processor;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Description;
+import org.springframework.stereotype.Component;
+
+import eu.bcvsolutions.idm.acc.dto.SysSystemDto;
+import eu.bcvsolutions.idm.acc.event.SystemEvent.SystemEventType;
+import eu.bcvsolutions.idm.core.api.event.CoreEvent;
+import eu.bcvsolutions.idm.core.api.event.CoreEventProcessor;
+import eu.bcvsolutions.idm.core.api.event.DefaultEventResult;
+import eu.bcvsolutions.idm.core.api.event.EntityEvent;
+import eu.bcvsolutions.idm.core.api.event.EventResult;
+import eu.bcvsolutions.idm.ic.service.api.IcConnectorFacadeFactory;
+
+/**
+ * Evict initialized connector facades of system, after system (or connector configuration) is changed or deleted.
+ *
+ * @since 13.1.0
+ */
+@Component("accSystemEvictConnectorFacadeProcessor")
+@Description("Evict initialized connector facades, after system (or connector configuration) is changed or deleted.")
+public class SystemEvictConnectorFacadeProcessor extends CoreEventProcessor<SysSystemDto> implements SystemProcessor {
+
+	public static final String PROCESSOR_NAME = "system-evict-connector-facade-processor";
+	//
+	@Autowired private IcConnectorFacadeFactory connectorFacadeFactory;
+
+	public SystemEvictConnectorFacadeProcessor() {
+		super(SystemEventType.UPDATE, SystemEventType.DELETE, SystemEventType.EAV_SAVE);
+	}
+
+	@Override
+	public String getName() {
+		return PROCESSOR_NAME;
+	}
+
+	@Override
+	public EventResult<SysSystemDto> process(EntityEvent<SysSystemDto> event) {
+		connectorFacadeFactory.evictConnectorFacades(String.valueOf(event.getContent().getId()));
+		//
+		return new DefaultEventResult<>(event, this);
+	}
+
+	@Override
+	public int getOrder() {
+		// after system is saved / deleted
+		return CoreEvent.DEFAULT_ORDER + 100;
+	}
+}
@@ -1,6 +1,7 @@
 package eu.bcvsolutions.idm.acc.repository;
 
 import java.time.ZonedDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -50,4 +51,48 @@ public interface AccAccountRepository extends AbstractEntityRepository<AccAccoun
 	 * @return
 	 */
 	Page<AccAccount> findByEndOfProtectionLessThanAndInProtectionIsTrue(@Param("endOfProtection") ZonedDateTime endOfProtection, Pageable pageable);
+	
+	/**
+	 * Account identifiers and real uids (uid from system entity or account uid) on given system - ordered by account identifier.
+	 * Projection only - used for reconciliation.
+	 * 
+	 * @param systemId system
+	 * @param pageable page size (sort is ignored)
+	 * @return [id, real uid]
+	 * @since 13.1.0
+	 */
+	@Query("SELECT e.id, COALESCE(se.uid, e.uid) FROM AccAccount e LEFT JOIN e.systemEntity se WHERE "
+			+ "e.system.id = :systemId "
+			+ "ORDER BY e.id")
+	List<Object[]> findRealUids(@Param("systemId") UUID systemId, Pageable pageable);
+	
+	/**
+	 * Account identifiers and real uids (uid from system entity or account uid) on given system with identifier greater than given
+	 * (keyset pagination) - ordered by account identifier. Projection only - used for reconciliation.
+	 * 
+	 * @param systemId system
+	 * @param afterAccountId last account identifier from previous page
+	 * @param pageable page size (sort is ignored)
+	 * @return [id, real uid]
+	 * @since 13.1.0
+	 */
+	@Query("SELECT e.id, COALESCE(se.uid, e.uid) FROM AccAccount e LEFT JOIN e.systemEntity se WHERE "
+			+ "e.system.id = :systemId "
+			+ "AND e.id > :afterAccountId "
+			+ "ORDER BY e.id")
+	List<Object[]> findRealUids(@Param("systemId") UUID systemId, @Param("afterAccountId") UUID afterAccountId, Pageable pageable);
+	
+	/**
+	 * Uids (account uid and uid from system entity) of accounts on given system, which match given uids.
+	 * Projection only - used in synchronization.
+	 * 
+	 * @param systemId system
+	 * @param uids searched uids
+	 * @return [account uid, system entity uid]
+	 * @since 13.1.0
+	 */
+	@Query("SELECT e.uid, se.uid FROM AccAccount e LEFT JOIN e.systemEntity se WHERE "
+			+ "e.system.id = :systemId "
+			+ "AND (e.uid IN (:uids) OR se.uid IN (:uids))")
+	List<Object[]> findUids(@Param("systemId") UUID systemId, @Param("uids") Collection<String> uids);
 }
@@ -1,6 +1,7 @@
 package eu.bcvsolutions.idm.acc.repository;
 
 import java.time.ZonedDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -83,4 +84,73 @@ public interface SysProvisioningBatchRepository extends AbstractEntityRepository
 	@Modifying(clearAutomatically = true)
 	@Query("update SysProvisioningOperation o set o.batch = :newBatch where o.batch = :oldBatch")
 	int mergeBatch(@Param("oldBatch") SysProvisioningBatch oldBatch, @Param("newBatch") SysProvisioningBatch newBatch);
+	
+	/**
+	 * Returns batches with created operations, which are not claimed by other queue worker (or claim expired).
+	 * 
+	 * @param virtualSystem true - virtual system only, false - normal system, null - all systems
+	 * @param state operation state
+	 * @param now claim expiration
+	 * @param pageable
+	 * @return batch identifiers
+	 * @since 13.1.0
+	 */
+	@Query(value = "select e.id from #{#entityName} e where"
+			+ " (e.claimExpiration is null or e.claimExpiration < :now)"
+			+ " and exists (select o.id from SysProvisioningOperation o"
+			+ " where"
+			+ " o.batch = e"
+			+ " and"
+			+ " (:virtualSystem is null or o.system.virtual = :virtualSystem)"
+			+ " and"
+			+ " o.result.state = :state"
+			+ " and o.system.queue = TRUE)"
+			+ " order by e.created asc")
+	List<UUID> findUnclaimedBatchIds(
+			@Param("virtualSystem") Boolean virtualSystem, 
+			@Param("state") OperationState state, 
+			@Param("now") ZonedDateTime now,
+			Pageable pageable);
+	
+	/**
+	 * Claim batches by queue worker - batches already claimed by other worker concurrently are skipped.
+	 * 
+	 * @param ids batch identifiers
+	 * @param claimedBy queue worker
+	 * @param claimExpiration claim is valid till
+	 * @param now current time - expired claims can be claimed again
+	 * @return count of claimed batches
+	 * @since 13.1.0
+	 */
+	@Modifying(clearAutomatically = true, flushAutomatically = true)
+	@Query("update #{#entityName} e set e.claimedBy = :claimedBy, e.claimExpiration = :claimExpiration"
+			+ " where e.id in (:ids) and (e.claimExpiration is null or e.claimExpiration < :now)")
+	int claim(
+			@Param("ids") Collection<UUID> ids, 
+			@Param("claimedBy") String claimedBy, 
+			@Param("claimExpiration") ZonedDateTime claimExpiration,
+			@Param("now") ZonedDateTime now);
+	
+	/**
+	 * Renew claims of all batches claimed by given queue worker.
+	 * 
+	 * @param claimedBy queue worker
+	 * @param claimExpiration claim is valid till
+	 * @return count of renewed batches
+	 * @since 13.1.0
+	 */
+	@Modifying(clearAutomatically = true, flushAutomatically = true)
+	@Query("update #{#entityName} e set e.claimExpiration = :claimExpiration where e.claimedBy = :claimedBy")
+	int renew(@Param("claimedBy") String claimedBy, @Param("claimExpiration") ZonedDateTime claimExpiration);
+	
+	/**
+	 * Release all batches claimed by given queue worker.
+	 * 
+	 * @param claimedBy queue worker
+	 * @return count of released batches
+	 * @since 13.1.0
+	 */
+	@Modifying(clearAutomatically = true, flushAutomatically = true)
+	@Query("update #{#entityName} e set e.claimedBy = null, e.claimExpiration = null where e.claimedBy = :claimedBy")
+	int release(@Param("claimedBy") String claimedBy);
 }
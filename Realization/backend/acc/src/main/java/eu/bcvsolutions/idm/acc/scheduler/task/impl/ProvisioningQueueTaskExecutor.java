@@ -1,31 +1,60 @@
 package eu.bcvsolutions.idm.acc.scheduler.task.impl;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
 
 import org.quartz.DisallowConcurrentExecution;
 import org.quartz.PersistJobDataAfterExecution;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.security.concurrent.DelegatingSecurityContextRunnable;
 import org.springframework.stereotype.Component;
 
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
+import eu.bcvsolutions.idm.acc.config.domain.ProvisioningConfiguration;
 import eu.bcvsolutions.idm.acc.dto.SysProvisioningBatchDto;
+import eu.bcvsolutions.idm.acc.dto.SysSystemDto;
+import eu.bcvsolutions.idm.acc.dto.SysSystemEntityDto;
+import eu.bcvsolutions.idm.acc.entity.SysProvisioningBatch_;
 import eu.bcvsolutions.idm.acc.service.api.ProvisioningExecutor;
 import eu.bcvsolutions.idm.acc.service.api.SysProvisioningBatchService;
+import eu.bcvsolutions.idm.acc.service.api.SysSystemEntityService;
+import eu.bcvsolutions.idm.acc.service.api.SysSystemService;
+import eu.bcvsolutions.idm.core.api.domain.CoreResultCode;
 import eu.bcvsolutions.idm.core.api.domain.OperationState;
 import eu.bcvsolutions.idm.core.api.entity.OperationResult;
+import eu.bcvsolutions.idm.core.api.exception.ResultCodeException;
+import eu.bcvsolutions.idm.core.api.utils.DtoUtils;
+import eu.bcvsolutions.idm.core.config.DelegatingTransactionContextRunnable;
 import eu.bcvsolutions.idm.core.eav.api.domain.BaseFaceType;
 import eu.bcvsolutions.idm.core.eav.api.domain.PersistentType;
 import eu.bcvsolutions.idm.core.eav.api.dto.IdmFormAttributeDto;
 import eu.bcvsolutions.idm.core.scheduler.api.service.AbstractSchedulableStatefulExecutor;
+import io.micrometer.core.instrument.MeterRegistry;
 
 /**
  * Process provisioning operations in queue periodically.
  * 
+ * Batches are processed in more threads, if configured ({@link #PARAMETER_WORKERS}) - each worker claims page of batches,
+ * claimed batches are not processed by other workers => operations for the same system entity are executed in order.
+ * Claims are renewed periodically, while workers are running.
+ * 
  * @author Radek Tomiška
  *
  */
@@ -37,9 +66,15 @@ public class ProvisioningQueueTaskExecutor extends AbstractSchedulableStatefulEx
 	private static final org.slf4j.Logger LOG = org.slf4j.LoggerFactory.getLogger(ProvisioningQueueTaskExecutor.class);
 	public static final String TASK_NAME = "acc-provisioning-queue-long-running-task";
 	private static final String PARAMETER_VIRTUAL = "virtualSystem";
+	public static final int DEFAULT_CLAIM_SIZE = 10; // @since 13.1.0
+	public static final String METRIC_PROCESSED = "idm.provisioning.queue.processed"; // @since 13.1.0
 	//
 	@Autowired private ProvisioningExecutor provisioningExecutor;	
 	@Autowired private SysProvisioningBatchService provisioningBatchService;
+	@Autowired private SysSystemEntityService systemEntityService;
+	@Autowired private SysSystemService systemService;
+	@Autowired private ProvisioningConfiguration provisioningConfiguration;
+	@Autowired(required = false) private MeterRegistry meterRegistry;
 	//
 	private Boolean virtualSystem; // configured virtual system
 	
@@ -54,6 +89,17 @@ public class ProvisioningQueueTaskExecutor extends AbstractSchedulableStatefulEx
 		virtualSystem = getParameterConverter().toBoolean(properties, PARAMETER_VIRTUAL);
 	}
 	
+	/**
+	 * Batches are processed in single thread by default (one by one), or by more queue workers, if configured.
+	 */
+	@Override
+	public Boolean process() {
+		if (getWorkers() <= 1) {
+			return super.process();
+		}
+		return processInWorkers();
+	}
+	
 	@Override
 	public boolean isInProcessedQueue(SysProvisioningBatchDto dto) {
 		// we want to log items, but we want to execute them every times
@@ -76,9 +122,8 @@ public class ProvisioningQueueTaskExecutor extends AbstractSchedulableStatefulEx
 
 	@Override
 	public Page<SysProvisioningBatchDto> getItemsToProcess(Pageable pageable) {
-		// TODO: we want to execute provisioning in more threads - we aren't using pagination here to prevent collisions
+		// pagination is not used - batches are processed in more threads by queue workers, which claim own batches
 		// TODO: we can add Sort by some priority (CREATE ... etc.)
-		// TODO: we can add algorithm to reduce / merge provisioning operations by system entity
 		return provisioningBatchService.findBatchesToProcess(virtualSystem, null);
 	}
 
@@ -120,7 +165,7 @@ public class ProvisioningQueueTaskExecutor extends AbstractSchedulableStatefulEx
 				PersistentType.BOOLEAN);
 		virtualSystem.setFaceType(BaseFaceType.BOOLEAN_SELECT);
 		//
-		return Lists.newArrayList(virtualSystem);
+		return Lists.newArrayList(virtualSystem, getWorkersAttribute());
 	}
 	
 	public void setVirtual(boolean virtual) {
@@ -135,4 +180,190 @@ public class ProvisioningQueueTaskExecutor extends AbstractSchedulableStatefulEx
     public boolean isRecoverable() {
     	return true;
     }
+	
+	/**
+	 * Process batches by configured count of queue workers. Each worker claims page of batches to process - batches
+	 * remain claimed till the end of task => batch is processed once in one task run (as in single thread mode).
+	 * Claims are renewed periodically, while workers are running => claim cannot expire, while batch is processed
+	 * (batch can contain more operations) - claim expires, only when task ends unexpectedly (e.g. server is restarted).
+	 * 
+	 * @return true - completed, false - not complete (e.g. task was canceled)
+	 * @since 13.1.0
+	 */
+	protected boolean processInWorkers() {
+		this.counter = 0L;
+		this.count = provisioningBatchService.findBatchesToProcess(virtualSystem, PageRequest.of(0, 1)).getTotalElements();
+		//
+		String runId = String.valueOf(getLongRunningTaskId() == null ? UUID.randomUUID() : getLongRunningTaskId());
+		long claimDuration = provisioningConfiguration.getTimeout();
+		AtomicBoolean canContinue = new AtomicBoolean(true);
+		AtomicLong processed = new AtomicLong();
+		AtomicReference<ResultCodeException> failure = new AtomicReference<>();
+		Map<UUID, SystemThroughput> throughput = new ConcurrentHashMap<>();
+		int threads = getWorkers();
+		List<String> workerIds = new ArrayList<>(threads);
+		//
+		ExecutorService workers = Executors.newFixedThreadPool(
+				threads, 
+				new ThreadFactoryBuilder().setNameFormat("provisioning-queue-worker-%d").setDaemon(true).build());
+		long started = System.nanoTime();
+		boolean updateStateSucceed = true;
+		try {
+			for (int index = 0; index < threads; index++) {
+				String workerId = String.format("%s:%s", runId, index);
+				workerIds.add(workerId);
+				workers.execute(new DelegatingSecurityContextRunnable(new DelegatingTransactionContextRunnable(() -> {
+					processClaimedBatches(workerId, claimDuration, canContinue, processed, failure, throughput);
+				})));
+			}
+			workers.shutdown();
+			// workers are running - update task state and renew claims periodically
+			long renewed = System.currentTimeMillis();
+			while (!workers.awaitTermination(1, TimeUnit.SECONDS)) {
+				this.counter = processed.get();
+				updateStateSucceed = this.updateState();
+				if (!updateStateSucceed) {
+					// task was canceled - workers will end after currently processed batch
+					canContinue.set(false);
+				}
+				if (System.currentTimeMillis() - renewed > claimDuration / 2) {
+					workerIds.forEach(workerId -> provisioningBatchService.renewClaims(workerId, claimDuration));
+					renewed = System.currentTimeMillis();
+				}
+			}
+		} catch (InterruptedException ex) {
+			canContinue.set(false);
+			workers.shutdownNow();
+			Thread.currentThread().interrupt();
+		} finally {
+			// processed batches can be claimed by the next task run
+			workerIds.forEach(workerId -> provisioningBatchService.releaseBatches(workerId));
+		}
+		this.counter = processed.get();
+		updateStateSucceed &= this.updateState();
+		//
+		logThroughput(throughput, System.nanoTime() - started);
+		if (failure.get() != null) {
+			throw failure.get();
+		}
+		//
+		return updateStateSucceed;
+	}
+	
+	/**
+	 * Queue worker - process claimed batches, while some batch can be claimed.
+	 */
+	private void processClaimedBatches(
+			String workerId,
+			long claimDuration,
+			AtomicBoolean canContinue,
+			AtomicLong processed,
+			AtomicReference<ResultCodeException> failure,
+			Map<UUID, SystemThroughput> throughput) {
+		LOG.debug("Queue worker [{}] started.", workerId);
+		//
+		while (canContinue.get()) {
+			List<SysProvisioningBatchDto> batches = provisioningBatchService.claimBatchesToProcess(
+					virtualSystem, 
+					workerId, 
+					DEFAULT_CLAIM_SIZE, 
+					claimDuration);
+			if (batches.isEmpty()) {
+				break;
+			}
+			for (SysProvisioningBatchDto batch : batches) {
+				if (!canContinue.get()) {
+					break;
+				}
+				long started = System.nanoTime();
+				OperationResult result = processItem(batch).orElse(null);
+				UUID systemId = getSystemId(batch);
+				if (systemId != null) {
+					throughput
+						.computeIfAbsent(systemId, SystemThroughput::new)
+						.record(result, System.nanoTime() - started);
+				}
+				logItemProcessed(batch, result);
+				if (result != null && OperationState.isSuccessful(result.getState())) {
+					addToProcessedQueue(batch, result);
+				}
+				processed.incrementAndGet();
+				//
+				if (!continueOnException() && result != null && result.getException() != null) {
+					// the same behavior as in single thread mode - the first failure ends the task
+					Throwable ex = result.getException();
+					failure.compareAndSet(null, ex instanceof ResultCodeException 
+							? (ResultCodeException) ex 
+							: new ResultCodeException(
+									CoreResultCode.LONG_RUNNING_TASK_ITEM_FAILED, 
+									ImmutableMap.of("referencedEntityId", batch.getId()),
+									ex));
+					canContinue.set(false);
+				}
+			}
+		}
+		//
+		LOG.debug("Queue worker [{}] ended.", workerId);
+	}
+	
+	private UUID getSystemId(SysProvisioningBatchDto batch) {
+		try {
+			SysSystemEntityDto systemEntity = DtoUtils.getEmbedded(batch, SysProvisioningBatch_.systemEntity, (SysSystemEntityDto) null);
+			if (systemEntity == null) {
+				systemEntity = systemEntityService.get(batch.getSystemEntity());
+			}
+			return systemEntity == null ? null : systemEntity.getSystem();
+		} catch (Exception ex) {
+			LOG.debug("System for batch [{}] cannot be resolved, throughput will not be recorded.", batch.getId(), ex);
+			//
+			return null;
+		}
+	}
+	
+	private void logThroughput(Map<UUID, SystemThroughput> throughput, long duration) {
+		double seconds = Math.max(duration, 1) / 1_000_000_000d;
+		throughput.values().forEach(systemThroughput -> {
+			SysSystemDto system = systemService.get(systemThroughput.systemId);
+			String systemCode = system == null ? String.valueOf(systemThroughput.systemId) : system.getCode();
+			long batchCount = systemThroughput.processed.sum();
+			//
+			LOG.info("Provisioning queue - system [{}]: processed [{}] batches ([{}] failed), throughput [{}] batches/s, average batch duration [{}ms].",
+					systemCode, 
+					batchCount,
+					systemThroughput.failed.sum(),
+					String.format("%.2f", batchCount / seconds),
+					batchCount == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(systemThroughput.duration.sum() / batchCount));
+			if (meterRegistry != null) {
+				meterRegistry.counter(METRIC_PROCESSED, "system", systemCode, "state", OperationState.EXECUTED.name())
+					.increment(batchCount - systemThroughput.failed.sum());
+				meterRegistry.counter(METRIC_PROCESSED, "system", systemCode, "state", OperationState.EXCEPTION.name())
+					.increment(systemThroughput.failed.sum());
+			}
+		});
+	}
+	
+	/**
+	 * Processed batches on the system.
+	 * 
+	 * @since 13.1.0
+	 */
+	private static class SystemThroughput {
+		
+		private final UUID systemId;
+		private final LongAdder processed = new LongAdder();
+		private final LongAdder failed = new LongAdder();
+		private final LongAdder duration = new LongAdder();
+		
+		SystemThroughput(UUID systemId) {
+			this.systemId = systemId;
+		}
+		
+		void record(OperationResult result, long nanos) {
+			processed.increment();
+			duration.add(nanos);
+			if (result != null && !OperationState.isSuccessful(result.getState())) {
+				failed.increment();
+			}
+		}
+	}
 }
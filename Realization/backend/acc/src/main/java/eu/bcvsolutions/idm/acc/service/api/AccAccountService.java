@@ -1,9 +1,12 @@
 package eu.bcvsolutions.idm.acc.service.api;
 
 import java.time.ZonedDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
+import org.apache.commons.lang3.tuple.Pair;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
@@ -94,4 +97,27 @@ public interface AccAccountService extends//
 	 * @return password form value object in case it is present, otherwise null
 	 */
 	IdmFormValueDto getPasswordFormValue(AccAccountDto account);
+	
+	/**
+	 * Returns account identifiers with real uid (uid from system entity or account uid) on given system - ordered by account identifier.
+	 * Full accounts are not loaded - use keyset pagination (last account identifier from previous page) to iterate all system accounts.
+	 * 
+	 * @param systemId system
+	 * @param afterAccountId last account identifier from previous page, {@code null} - first page
+	 * @param pageSize max count of returned accounts
+	 * @return account identifier with real uid
+	 * @since 13.1.0
+	 */
+	List<Pair<UUID, String>> findRealUids(UUID systemId, UUID afterAccountId, int pageSize);
+	
+	/**
+	 * Returns given uids, which have account on given system (account uid or uid from system entity is equal).
+	 * Full accounts are not loaded.
+	 * 
+	 * @param systemId system
+	 * @param uids uids (e.g. read from system)
+	 * @return uids with account
+	 * @since 13.1.0
+	 */
+	Set<String> findUidsWithAccount(UUID systemId, Collection<String> uids);
 }
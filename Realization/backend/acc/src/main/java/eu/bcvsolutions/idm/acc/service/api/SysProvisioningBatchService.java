@@ -1,6 +1,7 @@
 package eu.bcvsolutions.idm.acc.service.api;
 
 import java.time.ZonedDateTime;
+import java.util.List;
 import java.util.UUID;
 
 import org.springframework.data.domain.Page;
@@ -53,4 +54,36 @@ public interface SysProvisioningBatchService extends ReadWriteDtoService<SysProv
 	 * @return
 	 */
 	SysProvisioningBatchDto findBatch(UUID systemEntity);
+	
+	/**
+	 * Claim batches to process (created requests) by queue worker. Claimed batches are not returned
+	 * to other workers (and to the same worker again), until claim is released or expires.
+	 * 
+	 * @param virtualSystem true - virtual system only, false - normal system, null - all systems
+	 * @param claimedBy queue worker identifier
+	 * @param size max count of claimed batches
+	 * @param claimDuration claim is valid for given duration [ms]
+	 * @return newly claimed batches
+	 * @since 13.1.0
+	 */
+	List<SysProvisioningBatchDto> claimBatchesToProcess(Boolean virtualSystem, String claimedBy, int size, long claimDuration);
+	
+	/**
+	 * Renew claims of all batches claimed by queue worker - queue worker is still running.
+	 * 
+	 * @param claimedBy queue worker identifier
+	 * @param claimDuration claim is valid for given duration [ms] from now
+	 * @return count of renewed batches
+	 * @since 13.1.0
+	 */
+	int renewClaims(String claimedBy, long claimDuration);
+	
+	/**
+	 * Release all batches claimed by queue worker.
+	 * 
+	 * @param claimedBy queue worker identifier
+	 * @return count of released batches
+	 * @since 13.1.0
+	 */
+	int releaseBatches(String claimedBy);
 }
@@ -118,6 +118,21 @@ public interface SysProvisioningOperationService extends
 	 * @return
 	 */
 	List<SysProvisioningOperationDto> getByTimelineAndBatchId(UUID batchId);
+	
+	/**
+	 * Merge queued operations for the same system entity (batch) - operations superseded by next operation
+	 * are removed from queue (archived as canceled with merged result code):
+	 * - consecutive create / update operations are merged into the last operation (attributes from the last operation are used, 
+	 *   create operation is completed by attributes from previous operations, update operation by passwords from previous operations),
+	 * - create / update operations followed by delete operation are superseded by delete operation,
+	 * - create operation followed by delete operation are both canceled, if account was not created on target system yet.
+	 * Running, blocked operations, operations without account object and operations from different role requests are not merged.
+	 * 
+	 * @param operations operations for the same system entity sorted by oldest to newest (see {@link #getByTimelineAndBatchId(UUID)})
+	 * @return operations to execute sorted by oldest to newest
+	 * @since 13.1.0
+	 */
+	List<SysProvisioningOperationDto> mergeOperations(List<SysProvisioningOperationDto> operations);
 
 	/**
 	 * Method returns oldest operation for batch id.
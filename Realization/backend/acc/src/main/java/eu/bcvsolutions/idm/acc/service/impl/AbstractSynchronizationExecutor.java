@@ -11,9 +11,12 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BooleanSupplier;
 import java.util.stream.Collectors;
 
 import javax.persistence.EntityManager;
@@ -113,10 +116,12 @@ import eu.bcvsolutions.idm.core.api.service.ReadWriteDtoService;
 import eu.bcvsolutions.idm.core.api.utils.DtoUtils;
 import eu.bcvsolutions.idm.core.api.utils.EntityUtils;
 import eu.bcvsolutions.idm.core.api.utils.ExceptionUtils;
+import eu.bcvsolutions.idm.core.eav.api.domain.PersistentType;
 import eu.bcvsolutions.idm.core.eav.api.dto.IdmFormAttributeDto;
 import eu.bcvsolutions.idm.core.eav.api.dto.IdmFormDefinitionDto;
 import eu.bcvsolutions.idm.core.eav.api.dto.IdmFormInstanceDto;
 import eu.bcvsolutions.idm.core.eav.api.dto.IdmFormValueDto;
+import eu.bcvsolutions.idm.core.eav.api.dto.filter.IdmFormValueFilter;
 import eu.bcvsolutions.idm.core.eav.api.service.FormService;
 import eu.bcvsolutions.idm.core.scheduler.api.service.AbstractSchedulableTaskExecutor;
 import eu.bcvsolutions.idm.core.security.api.domain.GuardedString;
@@ -157,6 +162,12 @@ public abstract class AbstractSynchronizationExecutor<DTO extends AbstractDto>
 			.getLogger(AbstractSynchronizationExecutor.class);
 
 	public static final String CACHE_NAME = IdmCacheManager.getCacheName(AccModuleDescriptor.MODULE_ID, "sync-mapping-cache");
+	// Count of accounts loaded at once in reconciliation (@since 13.1.0).
+	private static final int RECONCILIATION_PAGE_SIZE = 1000;
+	// Count of items, for which entities are found by correlation attribute at once (@since 13.1.0).
+	private static final int CORRELATION_PREFETCH_SIZE = 100;
+	// Count of concurrently processed items, after which action logs and token are persisted (@since 13.1.0).
+	private static final int CONCURRENT_FLUSH_SIZE = 100;
 
 	@Autowired
 	private WorkflowProcessInstanceService workflowProcessInstanceService;
@@ -210,6 +221,17 @@ public abstract class AbstractSynchronizationExecutor<DTO extends AbstractDto>
 	protected AbstractSchedulableTaskExecutor<Boolean> longRunningTaskExecutor;
 	// Context for whole sync.
 	protected SynchronizationContext syncContext;
+	// Items are processed concurrently, when parallelism is configured (@since 13.1.0).
+	private volatile SynchronizationItemDispatcher<SynchronizationContext> itemDispatcher;
+	// Last token read from system - used by reader, when items are processed concurrently.
+	private String lastReadToken;
+	// Shared synchronization log, action logs and token are changed under this lock, when items are processed concurrently.
+	private final Object itemStateLock = new Object();
+	// Action logs of concurrently processed items - persisted in chunks.
+	private final List<SysSyncActionLogDto> pendingActionLogs = new ArrayList<>();
+	private int pendingItems = 0;
+	// Items read from system waiting for correlation prefetch (@since 13.1.0).
+	private final List<Pair<SynchronizationContext, BooleanSupplier>> correlationBuffer = new ArrayList<>();
 
 	/**
 	 * Returns entity type for this synchronization executor
@@ -266,6 +288,13 @@ public abstract class AbstractSynchronizationExecutor<DTO extends AbstractDto>
 				log.addToLog(
 						"Synchronization is running as differential (entities will be updated only if least one attribute was changed).");
 			}
+			// Is correlation prefetch enabled?
+			correlationBuffer.clear();
+			if (config.isCorrelationPrefetch()) {
+				log.addToLog(MessageFormat.format(
+						"Entities will be found by correlation attribute for [{0}] items at once.", CORRELATION_PREFETCH_SIZE));
+				context.addCorrelations(new ConcurrentHashMap<>());
+			}
 
 			if (config.isCustomFilter() || config.isReconciliation()) {
 				// Custom filter Sync
@@ -283,14 +312,36 @@ public abstract class AbstractSynchronizationExecutor<DTO extends AbstractDto>
 				IcFilter filter = resolveSynchronizationFilter(config);
 				log.addToLog(MessageFormat.format("Start search with filter [{0}].", filter != null ? filter : "NONE"));
 				
-				connectorFacade.search(systemService.getConnectorInstance(system), connectorConfig, objectClass, filter,
-						new DefaultResultHandler(context, systemAccountsList));
+				startConcurrentProcessing(config, log);
+				try {
+					connectorFacade.search(systemService.getConnectorInstance(system), connectorConfig, objectClass, filter,
+							new DefaultResultHandler(context, systemAccountsList));
+					// process the rest of items waiting for correlation prefetch
+					processCorrelationBuffer();
+				} finally {
+					correlationBuffer.clear();
+					if (context.getCorrelations() != null) {
+						context.getCorrelations().clear();
+					}
+					finishConcurrentProcessing(config, log);
+				}
 			} else {
 				// Inner Sync
 				log.addToLog("Synchronization will use inner connector synchronization implementation.");
 				DefalutSyncResultHandler syncResultsHandler = new DefalutSyncResultHandler(context, systemAccountsList);
-				connectorFacade.synchronization(systemService.getConnectorInstance(system), connectorConfig, objectClass,
-						lastIcToken, syncResultsHandler);
+				startConcurrentProcessing(config, log);
+				try {
+					connectorFacade.synchronization(systemService.getConnectorInstance(system), connectorConfig, objectClass,
+							lastIcToken, syncResultsHandler);
+					// process the rest of items waiting for correlation prefetch
+					processCorrelationBuffer();
+				} finally {
+					correlationBuffer.clear();
+					if (context.getCorrelations() != null) {
+						context.getCorrelations().clear();
+					}
+					finishConcurrentProcessing(config, log);
+				}
 			}
 
 			// We do reconciliation (find missing account)
@@ -321,6 +372,139 @@ public abstract class AbstractSynchronizationExecutor<DTO extends AbstractDto>
 		}
 	}
 
+	/**
+	 * Start workers, when parallelism is configured - items read from system will be processed concurrently.
+	 * 
+	 * @param config synchronization configuration
+	 * @param log synchronization log
+	 * @since 13.1.0
+	 */
+	private void startConcurrentProcessing(AbstractSysSyncConfigDto config, SysSyncLogDto log) {
+		Integer parallelism = config.getParallelism();
+		if (parallelism == null || parallelism <= 1) {
+			return;
+		}
+		log.addToLog(MessageFormat.format("Synchronization items will be processed concurrently by [{0}] workers.", parallelism));
+		lastReadToken = config.isReconciliation() ? null : config.getToken();
+		synchronized (itemStateLock) {
+			pendingActionLogs.clear();
+			pendingItems = 0;
+		}
+		// bounded queue - reader (connector) is blocked, when workers are busy
+		itemDispatcher = new SynchronizationItemDispatcher<>(
+				parallelism,
+				parallelism * 10,
+				this::processItemConcurrently,
+				lastReadToken);
+	}
+	
+	/**
+	 * Wait to all items read from system are processed and release workers.
+	 * Token of the last processed item is set (all items read before are processed too).
+	 * 
+	 * @param config synchronization configuration
+	 * @param log synchronization log
+	 * @since 13.1.0
+	 */
+	private void finishConcurrentProcessing(AbstractSysSyncConfigDto config, SysSyncLogDto log) {
+		SynchronizationItemDispatcher<SynchronizationContext> dispatcher = itemDispatcher;
+		if (dispatcher == null) {
+			return;
+		}
+		try {
+			dispatcher.finish();
+		} finally {
+			itemDispatcher = null;
+			lastReadToken = null;
+			synchronized (itemStateLock) {
+				// action logs of the rest of processed items
+				flushActionLogs(log.getId());
+			}
+			if (!config.isReconciliation()) {
+				String token = dispatcher.getSafeToken();
+				log.setToken(token);
+				config.setToken(token);
+			}
+			if (dispatcher.getDeduplicated() > 0) {
+				log.addToLog(MessageFormat.format("[{0}] items read repeatedly with the same uid were processed only once (with the last read state).",
+						dispatcher.getDeduplicated()));
+			}
+		}
+	}
+	
+	/**
+	 * Process one item by worker. Counter and state of synchronization are updated synchronously.
+	 * Action logs and token (of all items processed in dispatch order) are persisted in chunks.
+	 * 
+	 * @param itemContext item
+	 * @return false - synchronization was canceled
+	 * @since 13.1.0
+	 */
+	private boolean processItemConcurrently(SynchronizationContext itemContext) {
+		AbstractSysSyncConfigDto config = itemContext.getConfig();
+		SysSyncLogDto log = itemContext.getLog();
+		boolean result = startItemSynchronization(itemContext);
+		//
+		synchronized (itemStateLock) {
+			if (++pendingItems >= CONCURRENT_FLUSH_SIZE) {
+				flushActionLogs(log.getId());
+				SynchronizationItemDispatcher<SynchronizationContext> dispatcher = itemDispatcher;
+				if (!config.isReconciliation() && dispatcher != null) {
+					// token of all processed items
+					String token = dispatcher.getSafeToken();
+					log.setToken(token);
+					config.setToken(token);
+					synchronizationConfigService.save(config);
+				}
+			}
+			// Update (increased counter) and check state of sync (maybe was cancelled from
+			// sync or LRT)
+			return updateAndCheckState(result, log);
+		}
+	}
+
+	/**
+	 * Process item read from system. When correlation prefetch is enabled, item is buffered - 
+	 * entities are found by correlation attribute for all buffered items at once, when buffer is full.
+	 * 
+	 * @param itemContext item
+	 * @param processor processes item
+	 * @return false - synchronization was canceled
+	 * @since 13.1.0
+	 */
+	private boolean handleItem(SynchronizationContext itemContext, BooleanSupplier processor) {
+		if (itemContext.getCorrelations() == null) {
+			return processor.getAsBoolean();
+		}
+		correlationBuffer.add(new ImmutablePair<>(itemContext, processor));
+		if (correlationBuffer.size() < CORRELATION_PREFETCH_SIZE) {
+			return true;
+		}
+		return processCorrelationBuffer();
+	}
+	
+	/**
+	 * Find entities by correlation attribute for all buffered items at once and process buffered items.
+	 * 
+	 * @return false - synchronization was canceled
+	 * @since 13.1.0
+	 */
+	private boolean processCorrelationBuffer() {
+		if (correlationBuffer.isEmpty()) {
+			return true;
+		}
+		List<Pair<SynchronizationContext, BooleanSupplier>> items = new ArrayList<>(correlationBuffer);
+		correlationBuffer.clear();
+		//
+		prefetchCorrelations(items.stream().map(Pair::getLeft).collect(Collectors.toList()));
+		for (Pair<SynchronizationContext, BooleanSupplier> item : items) {
+			if (!item.getRight().getAsBoolean()) {
+				return false;
+			}
+		}
+		return true;
+	}
+
 	// It is called in any case after the synchronization is completed.
 	protected void syncEnd(SysSyncLogDto log, SynchronizationContext syncContext) {
 		//
@@ -614,8 +798,15 @@ public abstract class AbstractSynchronizationExecutor<DTO extends AbstractDto>
 		// order of returned (searched) objects is random. We
 		// have to do !!STRING!! compare and save only
 		// grater token to config and log.
-		if (token != null && config.getToken() != null && token.compareTo(config.getToken()) <= -1) {
-			token = config.getToken();
+		SynchronizationItemDispatcher<SynchronizationContext> dispatcher = itemDispatcher;
+		String lastToken = dispatcher == null ? config.getToken() : lastReadToken;
+		if (token != null && lastToken != null && token.compareTo(lastToken) <= -1) {
+			token = lastToken;
+		}
+		if (dispatcher != null) {
+			// Item will be processed concurrently, token is saved after all previous items are processed
+			lastReadToken = token;
+			return dispatcher.submit(itemContext.getUid(), token, itemContext);
 		}
 		// Save token
 		log.setToken(token);
@@ -643,13 +834,17 @@ public abstract class AbstractSynchronizationExecutor<DTO extends AbstractDto>
 		SysSyncLogDto log = itemContext.getLog();
 		SysSyncItemLogDto itemLog = itemContext.getLogItem();
 		boolean ignored = false;
+		// Items are processed concurrently - action logs for item are merged with persisted action logs at end
+		boolean concurrent = itemDispatcher != null;
 
 		List<SysSyncActionLogDto> actionsLog = new ArrayList<>();
 		try {
 
-			SysSyncActionLogFilter actionFilter = new SysSyncActionLogFilter();
-			actionFilter.setSynchronizationLogId(log.getId());
-			actionsLog.addAll(syncActionLogService.find(actionFilter, null).getContent());
+			if (!concurrent) {
+				SysSyncActionLogFilter actionFilter = new SysSyncActionLogFilter();
+				actionFilter.setSynchronizationLogId(log.getId());
+				actionsLog.addAll(syncActionLogService.find(actionFilter, null).getContent());
+			}
 			itemContext.addActionLogs(actionsLog);
 
 			// Default setting for log item
@@ -686,16 +881,28 @@ public abstract class AbstractSynchronizationExecutor<DTO extends AbstractDto>
 			}
 			return true;
 		} finally {
-			synchronizationConfigService.save(config);
-			if (!ignored) {
-				boolean existingItemLog = existItemLogInActions(actionsLog, itemLog);
-				actionsLog = saveActionLogs(actionsLog, log.getId());
-				//
-				if (!existingItemLog) {
-					addToItemLog(itemLog, MessageFormat.format("Missing action log for UID [{0}]!", uid));
-					initSyncActionLog(SynchronizationActionType.UNKNOWN, OperationResultType.ERROR, itemLog, log,
-							actionsLog);
-					syncItemLogService.save(itemLog);
+			if (concurrent) {
+				// config with token is saved after item is processed
+				if (!ignored) {
+					if (!existItemLogInActions(actionsLog, itemLog)) {
+						addToItemLog(itemLog, MessageFormat.format("Missing action log for UID [{0}]!", uid));
+						initSyncActionLog(SynchronizationActionType.UNKNOWN, OperationResultType.ERROR, itemLog, log,
+								actionsLog);
+					}
+					collectActionLogs(actionsLog);
+				}
+			} else {
+				synchronizationConfigService.save(config);
+				if (!ignored) {
+					boolean existingItemLog = existItemLogInActions(actionsLog, itemLog);
+					actionsLog = saveActionLogs(actionsLog, log.getId());
+					//
+					if (!existingItemLog) {
+						addToItemLog(itemLog, MessageFormat.format("Missing action log for UID [{0}]!", uid));
+						initSyncActionLog(SynchronizationActionType.UNKNOWN, OperationResultType.ERROR, itemLog, log,
+								actionsLog);
+						syncItemLogService.save(itemLog);
+					}
 				}
 			}
 		}
@@ -718,17 +925,26 @@ public abstract class AbstractSynchronizationExecutor<DTO extends AbstractDto>
 		if (!log.isRunning()) {
 			return;
 		}
-		AccAccountFilter accountFilter = new AccAccountFilter();
-		accountFilter.setSystemId(system.getId());
-
-		List<AccAccountDto> accounts = accountService.find(accountFilter, null).getContent();
-
-		for (AccAccountDto account : accounts) {
-			if (!log.isRunning()) {
-				return;
-			}
-			String uid = account.getRealUid();
-			if (!allAccountsSet.contains(uid)) {
+		// Accounts are iterated by pages (keyset pagination by account identifier) - only identifier and uid is loaded,
+		// whole account is loaded for missing account only.
+		UUID lastAccountId = null;
+		List<Pair<UUID, String>> realUids;
+		do {
+			realUids = accountService.findRealUids(system.getId(), lastAccountId, RECONCILIATION_PAGE_SIZE);
+			for (Pair<UUID, String> realUid : realUids) {
+				if (!log.isRunning()) {
+					return;
+				}
+				lastAccountId = realUid.getLeft();
+				String uid = realUid.getRight();
+				if (allAccountsSet.contains(uid)) {
+					continue;
+				}
+				AccAccountDto account = accountService.get(lastAccountId);
+				if (account == null) {
+					// account was deleted in the meantime
+					continue;
+				}
 				SysSyncItemLogDto itemLog = new SysSyncItemLogDto();
 				boolean ignored = false;
 				try {
@@ -780,7 +996,7 @@ public abstract class AbstractSynchronizationExecutor<DTO extends AbstractDto>
 					}
 				}
 			}
-		}
+		} while (realUids.size() == RECONCILIATION_PAGE_SIZE);
 	}
 
 	/**
@@ -1543,7 +1759,10 @@ public abstract class AbstractSynchronizationExecutor<DTO extends AbstractDto>
 			SysSyncItemLogDto logItem, List<SysSyncActionLogDto> actionLogs, String uid, Exception e) {
 		String message = MessageFormat.format("Synchronization - exception during [{0}] for UID [{1}]",
 				synchronizationActionType, uid);
-		log.setContainsError(true);
+		synchronized (itemStateLock) {
+			// shared log - items can be processed concurrently
+			log.setContainsError(true);
+		}
 		logItem.setMessage(message);
 		// prefer IdM exception on the top
 		Throwable ex = e;
@@ -1580,6 +1799,23 @@ public abstract class AbstractSynchronizationExecutor<DTO extends AbstractDto>
 		if (value == null) {
 			return null;
 		}
+		// entities found by correlation attribute for more items at once - prefetched value is used once only
+		Map<String, List<UUID>> correlations = context.getCorrelations();
+		List<UUID> entityIds = correlations == null ? null : correlations.remove(value.toString());
+		if (entityIds != null) {
+			if (entityIds.isEmpty()) {
+				return null;
+			}
+			if (entityIds.size() > 1) {
+				throw new ProvisioningException(AccResultCode.SYNCHRONIZATION_CORRELATION_TO_MANY_RESULTS,
+						ImmutableMap.of("correlationAttribute", attribute.getName(), "value", value));
+			}
+			DTO entity = findById(entityIds.get(0));
+			if (entity != null) {
+				return entity;
+			}
+			// entity was deleted in the meantime - find entity again
+		}
 		if (attribute.isEntityAttribute()) {
 			return findByAttribute(attribute.getIdmPropertyName(), value.toString(), context);
 		} else if (attribute.isExtendedAttribute()) {
@@ -1609,6 +1845,129 @@ public abstract class AbstractSynchronizationExecutor<DTO extends AbstractDto>
 		return null;
 	}
 
+	/**
+	 * Find entities by correlation attribute for more items (read from system) at once - one query is used.
+	 * Entities are found for items without account only. Identifiers of found entities are cached in context by correlation value 
+	 * (values without entity are cached too) - cache contains values for the last chunk of items only.
+	 * Cached identifiers are used, when entity is found by correlation attribute for the item
+	 * (see {@link #findByCorrelationAttribute(AttributeMapping, List, SynchronizationContext)}).
+	 * 
+	 * Supported are entity attributes and extended attributes with short text persistent type (short text, code list).
+	 * Attributes with disabled cache are not supported (value will be transformed twice otherwise).
+	 * Prefetch is skipped, when entities cannot be found - the original query is used for each item.
+	 * 
+	 * @param itemContexts items read from system
+	 * @since 13.1.0
+	 */
+	protected void prefetchCorrelations(List<SynchronizationContext> itemContexts) {
+		if (CollectionUtils.isEmpty(itemContexts)) {
+			return;
+		}
+		SynchronizationContext context = itemContexts.get(0);
+		AbstractSysSyncConfigDto config = context.getConfig();
+		Map<String, List<UUID>> correlations = context.getCorrelations();
+		if (correlations == null) {
+			return;
+		}
+		// values prefetched for previous chunk are not used anymore
+		correlations.clear();
+		if (config.getCorrelationAttribute() == null) {
+			return;
+		}
+		SysSystemAttributeMappingDto attribute = systemAttributeMappingService.get(config.getCorrelationAttribute());
+		if (attribute == null || !attribute.isCached()) {
+			return;
+		}
+		IdmFormAttributeDto formAttribute = null;
+		if (attribute.isExtendedAttribute()) {
+			SystemEntityTypeRegistrable systemEntityType = systemEntityManager.getSystemEntityByCode(context.getEntityType());
+			formAttribute = formService.getAttribute(systemEntityType.getEntityType(), attribute.getIdmPropertyName());
+			if (formAttribute == null
+					|| formAttribute.isConfidential()
+					|| (formAttribute.getPersistentType() != PersistentType.SHORTTEXT
+						&& formAttribute.getPersistentType() != PersistentType.CODELIST)) {
+				return;
+			}
+		} else if (!attribute.isEntityAttribute()) {
+			return;
+		}
+		//
+		// entities are correlated for items without account only
+		Set<String> uids = itemContexts
+				.stream()
+				.map(SynchronizationContext::getUid)
+				.filter(Objects::nonNull)
+				.collect(Collectors.toSet());
+		Set<String> uidsWithAccount = accountService.findUidsWithAccount(context.getSystem().getId(), uids);
+		//
+		// correlation values
+		Set<String> values = new HashSet<>();
+		for (SynchronizationContext itemContext : itemContexts) {
+			if (uidsWithAccount.contains(itemContext.getUid())) {
+				continue;
+			}
+			IcConnectorObject icObject = itemContext.getIcObject();
+			if (icObject == null || icObject.getAttributes() == null) {
+				continue;
+			}
+			try {
+				Object value = getValueByMappedAttribute(attribute, icObject.getAttributes(), itemContext);
+				if (value == null || (formAttribute != null && !(value instanceof String))) {
+					continue;
+				}
+				values.add(value.toString());
+			} catch (RuntimeException ex) {
+				// item will be processed (and failure will be logged) without prefetch
+				LOG.debug("Correlation value for item [{}] cannot be resolved, item will be processed without prefetch.",
+						itemContext.getUid(), ex);
+			}
+		}
+		if (values.isEmpty()) {
+			return;
+		}
+		//
+		// found entity identifiers by correlation value
+		List<Pair<String, UUID>> foundEntities = new ArrayList<>();
+		try {
+			if (formAttribute == null) {
+				String propertyName = attribute.getIdmPropertyName();
+				CorrelationFilter filter = this.getEntityFilter(context);
+				filter.setProperty(propertyName);
+				filter.setValues(new ArrayList<>(values));
+				@SuppressWarnings("unchecked")
+				ReadWriteDtoService<DTO, BaseFilter> service = (ReadWriteDtoService<DTO, BaseFilter>) getService();
+				for (DTO entity : service.find((BaseFilter) filter, (Pageable) null).getContent()) {
+					Object entityValue = EntityUtils.getEntityValue(entity, propertyName);
+					foundEntities.add(new ImmutablePair<>(entityValue == null ? null : entityValue.toString(), entity.getId()));
+				}
+			} else {
+				IdmFormValueFilter<?> filter = new IdmFormValueFilter<>();
+				filter.setAttributeId(formAttribute.getId());
+				filter.setShortTextValues(new ArrayList<>(values));
+				for (IdmFormValueDto formValue : formService.findValues(filter, (Pageable) null).getContent()) {
+					foundEntities.add(new ImmutablePair<>(formValue.getShortTextValue(), (UUID) formValue.getOwnerId()));
+				}
+			}
+		} catch (Exception ex) {
+			LOG.warn("Entities cannot be found by correlation attribute [{}] for more items at once, "
+					+ "items will be processed without prefetch.", attribute.getName(), ex);
+			return;
+		}
+		//
+		for (String value : values) {
+			// database can compare values case insensitive (or ignore trailing spaces) - ambiguous values are not cached
+			List<Pair<String, UUID>> similarEntities = foundEntities
+					.stream()
+					.filter(found -> found.getLeft() != null && found.getLeft().trim().equalsIgnoreCase(value.trim()))
+					.collect(Collectors.toList());
+			if (similarEntities.stream().allMatch(found -> found.getLeft().equals(value))) {
+				correlations.put(
+						value,
+						similarEntities.stream().map(Pair::getRight).distinct().collect(Collectors.toList()));
+			}
+		}
+	}
+
 	/**
 	 * Return specific correlation filter
 	 *
@@ -2598,7 +2957,7 @@ public abstract class AbstractSynchronizationExecutor<DTO extends AbstractDto>
 					.addIcObject(connectorObject) //
 					.addGeneratedUid(null); //
 
-			return handleIcObject(itemContext);
+			return handleItem(itemContext, () -> handleIcObject(itemContext));
 		}
 	}
 	
@@ -2635,11 +2994,6 @@ public abstract class AbstractSynchronizationExecutor<DTO extends AbstractDto>
 			IcConnectorObject icObject = delta.getObject();
 			IcSyncToken token = delta.getToken();
 			String tokenObject = token.getValue() != null ? token.getValue().toString() : null;
-			// Save token
-			log.setToken(tokenObject);
-			if (!config.isReconciliation()) {
-				config.setToken(tokenObject);
-			}
 			//
 			if (config.isReconciliation()) {
 				systemAccountsList.add(uid);
@@ -2653,12 +3007,23 @@ public abstract class AbstractSynchronizationExecutor<DTO extends AbstractDto>
 					.addIcObject(icObject) //
 					.addGeneratedUid(null); //
 
-			boolean result = startItemSynchronization(itemContext);
-
-			// Update (increased counter) and check state of sync (maybe was cancelled from
-			// sync or LRT)
-			return updateAndCheckState(result, log);
+			return handleItem(itemContext, () -> {
+				SynchronizationItemDispatcher<SynchronizationContext> dispatcher = itemDispatcher;
+				if (dispatcher != null) {
+					// Token is saved after all previous items are processed, when items are processed concurrently
+					return dispatcher.submit(uid, tokenObject, itemContext);
+				}
+				// Save token
+				log.setToken(tokenObject);
+				if (!config.isReconciliation()) {
+					config.setToken(tokenObject);
+				}
+				boolean result = startItemSynchronization(itemContext);
 
+				// Update (increased counter) and check state of sync (maybe was cancelled from
+				// sync or LRT)
+				return updateAndCheckState(result, log);
+			});
 		}
 	}
 
@@ -2744,6 +3109,70 @@ public abstract class AbstractSynchronizationExecutor<DTO extends AbstractDto>
 		return new ArrayList<>(syncActionLogService.find(actionFilter, null).getContent());
 	}
 
+	/**
+	 * Collect action logs of one item (processed concurrently) - action log with the same action and result is updated
+	 * (counter and items). Collected action logs are persisted in chunks, see {@link #flushActionLogs(UUID)}.
+	 *
+	 * @param actionsLog item action logs
+	 * @since 13.1.0
+	 */
+	private void collectActionLogs(List<SysSyncActionLogDto> actionsLog) {
+		if (actionsLog.isEmpty()) {
+			return;
+		}
+		synchronized (itemStateLock) {
+			for (SysSyncActionLogDto actionLog : actionsLog) {
+				SysSyncActionLogDto pendingActionLog = findActionLog(pendingActionLogs, actionLog);
+				if (pendingActionLog == null) {
+					pendingActionLogs.add(actionLog);
+				} else {
+					pendingActionLog.setOperationCount(pendingActionLog.getOperationCount() + actionLog.getOperationCount());
+					actionLog.getLogItems().forEach(pendingActionLog::addLogItems);
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Merge collected action logs into persisted action logs. Has to be called under item state lock.
+	 *
+	 * @param syncLogId synchronization log
+	 * @since 13.1.0
+	 */
+	private void flushActionLogs(UUID syncLogId) {
+		pendingItems = 0;
+		if (pendingActionLogs.isEmpty()) {
+			return;
+		}
+		SysSyncActionLogFilter actionFilter = new SysSyncActionLogFilter();
+		actionFilter.setSynchronizationLogId(syncLogId);
+		List<SysSyncActionLogDto> persistedActionsLog = syncActionLogService.find(actionFilter, null).getContent();
+		//
+		List<SysSyncActionLogDto> mergedActionsLog = new ArrayList<>(pendingActionLogs.size());
+		for (SysSyncActionLogDto actionLog : pendingActionLogs) {
+			SysSyncActionLogDto persistedActionLog = findActionLog(persistedActionsLog, actionLog);
+			if (persistedActionLog == null) {
+				mergedActionsLog.add(actionLog);
+			} else {
+				persistedActionLog.setOperationCount(persistedActionLog.getOperationCount() + actionLog.getOperationCount());
+				// only new items are saved
+				persistedActionLog.setLogItems(actionLog.getLogItems());
+				mergedActionsLog.add(persistedActionLog);
+			}
+		}
+		syncActionLogService.saveAll(mergedActionsLog);
+		pendingActionLogs.clear();
+	}
+	
+	private SysSyncActionLogDto findActionLog(List<SysSyncActionLogDto> actionLogs, SysSyncActionLogDto actionLog) {
+		return actionLogs
+				.stream()
+				.filter(al -> actionLog.getSyncAction() == al.getSyncAction()
+						&& actionLog.getOperationResult() == al.getOperationResult())
+				.findFirst()
+				.orElse(null);
+	}
+
 	/**
 	 * Skip entity update
 	 *
@@ -3,9 +3,12 @@ package eu.bcvsolutions.idm.acc.service.impl;
 import java.text.MessageFormat;
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -20,9 +23,11 @@ import javax.persistence.criteria.Subquery;
 
 import org.apache.commons.lang.StringUtils;
 import org.apache.commons.lang3.BooleanUtils;
+import org.apache.commons.lang3.tuple.Pair;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.plugin.core.OrderAwarePluginRegistry;
 import org.springframework.plugin.core.PluginRegistry;
@@ -259,6 +264,42 @@ public class DefaultAccAccountService extends AbstractFormableService<AccAccount
 				accountRepository.findByEndOfProtectionLessThanAndInProtectionIsTrue(expirationDate, pageable));
 	}
 
+	@Override
+	@Transactional(readOnly = true)
+	public List<Pair<UUID, String>> findRealUids(UUID systemId, UUID afterAccountId, int pageSize) {
+		Assert.notNull(systemId, "System identifier is required.");
+		Assert.isTrue(pageSize > 0, "Page size has to be positive number.");
+		//
+		PageRequest pageRequest = PageRequest.of(0, pageSize);
+		List<Object[]> results = afterAccountId == null
+				? accountRepository.findRealUids(systemId, pageRequest)
+				: accountRepository.findRealUids(systemId, afterAccountId, pageRequest);
+		//
+		return results
+				.stream()
+				.map(result -> Pair.of((UUID) result[0], (String) result[1]))
+				.collect(Collectors.toList());
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public Set<String> findUidsWithAccount(UUID systemId, Collection<String> uids) {
+		Assert.notNull(systemId, "System identifier is required.");
+		if (uids == null || uids.isEmpty()) {
+			return new HashSet<>();
+		}
+		//
+		Set<String> results = new HashSet<>();
+		for (Object[] result : accountRepository.findUids(systemId, uids)) {
+			for (Object uid : result) {
+				if (uid != null && uids.contains(uid)) {
+					results.add((String) uid);
+				}
+			}
+		}
+		return results;
+	}
+
 	@Override
 	public IcConnectorObject getConnectorObject(AccAccountDto account, BasePermission... permissions) {
 		Assert.notNull(account, "Account cannot be null!");
@@ -38,11 +38,16 @@ import eu.bcvsolutions.idm.core.notification.api.service.NotificationManager;
 import eu.bcvsolutions.idm.core.security.api.service.SecurityService;
 import java.text.MessageFormat;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.FutureTask;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
@@ -54,8 +59,18 @@ import org.springframework.transaction.annotation.Transactional;
 import org.springframework.transaction.event.TransactionalEventListener;
 import org.springframework.util.Assert;
 
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+
 /**
  * Entry point to all provisioning operations.
+ * 
+ * Provisioning operations are executed concurrently:
+ * - operations for the same system entity are executed sequentially,
+ * - operations for different systems are executed in parallel - maximum count of concurrent operations 
+ *   can be configured for each system ({@link SysSystemDto#getMaxParallelism()}).
  *
  * @author Radek Tomiška
  */
@@ -63,6 +78,7 @@ import org.springframework.util.Assert;
 public class DefaultProvisioningExecutor implements ProvisioningExecutor {
 
 	private static final org.slf4j.Logger LOG = org.slf4j.LoggerFactory.getLogger(DefaultProvisioningExecutor.class);
+	public static final String METRIC_PREFIX = "idm.provisioning.system";
 	private final EntityEventManager entityEventManager;
 	private final SysProvisioningOperationService provisioningOperationService;
 	private final SysProvisioningBatchService batchService;
@@ -74,6 +90,13 @@ public class DefaultProvisioningExecutor implements ProvisioningExecutor {
 	//
 	@Autowired	private IdmRoleRequestService roleRequestService;
 	@Autowired	private LookupService lookupService;
+	@Autowired(required = false) private MeterRegistry meterRegistry;
+	//
+	// operation is persisted (batch is assigned) for one system entity at the same time
+	private final SystemEntityLocks persistLocks = new SystemEntityLocks();
+	// operations for the same system entity are executed sequentially
+	private final SystemEntityLocks executeLocks = new SystemEntityLocks();
+	private final Map<UUID, SystemLane> systemLanes = new ConcurrentHashMap<>();
 
 	@Autowired
 	public DefaultProvisioningExecutor(
@@ -107,20 +130,16 @@ public class DefaultProvisioningExecutor implements ProvisioningExecutor {
 
 	@Override
 	@Transactional
-	public synchronized void execute(SysProvisioningOperationDto provisioningOperation) {
+	public void execute(SysProvisioningOperationDto provisioningOperation) {
 		execute(provisioningOperation, false);
 	}
 	
 	@Override
 	@Transactional
-	public synchronized SysProvisioningOperationDto execute(SysProvisioningOperationDto provisioningOperation, boolean isDryRun) {
+	public SysProvisioningOperationDto execute(SysProvisioningOperationDto provisioningOperation, boolean isDryRun) {
 		// execute - after original transaction is commited
 		// only if system supports synchronous processing
-		SysSystemDto system = DtoUtils.getEmbedded(provisioningOperation, SysProvisioningOperation_.system.getName(), SysSystemDto.class, null);
-		if (system == null) {
-			system = systemService.get(provisioningOperation.getSystem());
-		}
-		Assert.notNull(system, "System is required.");
+		SysSystemDto system = getSystem(provisioningOperation);
 		if (!system.isQueue() || isDryRun) {
 			if (provisioningOperationService.isNew(provisioningOperation)) {
 				// In sync mode, we need to save operation now (for request and system state)
@@ -189,48 +208,75 @@ public class DefaultProvisioningExecutor implements ProvisioningExecutor {
 			//
 			CoreEvent<SysProvisioningOperationDto> event = new CoreEvent<SysProvisioningOperationDto>(provisioningOperation.getOperationType(), provisioningOperation);
 			try {
-				// set a global provisioning timeout even for synchronous call
-				FutureTask<EventContext<SysProvisioningOperationDto>> futureTask = new FutureTask<EventContext<SysProvisioningOperationDto>>(new Callable<EventContext<SysProvisioningOperationDto>>() {
-
-					@Override
-					public EventContext<SysProvisioningOperationDto> call() {
-						return entityEventManager.process(event);
-					}
-
-				});
-				// thread pool is not used here
-				Thread thread = new Thread(new DelegatingSecurityContextRunnable(new DelegatingTransactionContextRunnable(futureTask)));
-				thread.setName("provisioning: " + provisioningOperation.getSystem() + ":" + provisioningOperation.getSystemEntityUid());
-				thread.start();
-				//
 				// global timeout by configuration
 				long timeout = provisioningConfiguration.getTimeout();
+				//
+				// operations for the same system entity are executed sequentially, count of concurrent operations on the system can be limited
+				// => waiting has its own budget (zero - unlimited), not counted into provisioning timeout
+				long waitTimeout = provisioningConfiguration.getWaitTimeout();
+				long waitBudget = waitTimeout > 0 ? waitTimeout : Long.MAX_VALUE;
+				SystemLane lane = getSystemLane(getSystem(provisioningOperation));
+				UUID systemEntityId = provisioningOperation.getSystemEntity();
+				Semaphore permits = null;
+				long waitStarted = System.nanoTime();
+				lane.waiting.incrementAndGet();
+				try {
+					if (executeLocks.tryLock(systemEntityId, waitBudget)) {
+						try {
+							permits = lane.tryAcquire(waitBudget - TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - waitStarted));
+						} finally {
+							if (permits == null) {
+								executeLocks.unlock(systemEntityId);
+							}
+						}
+					}
+				} finally {
+					lane.waiting.decrementAndGet();
+				}
+				if (permits == null) {
+					// previous operation or system limit is still busy longer than configured wait timeout => retry mechanism will work
+					throw createTimeoutException(provisioningOperation, waitTimeout, null);
+				}
+				lane.recordWait(System.nanoTime() - waitStarted);
+				long executionStarted = System.nanoTime();
+				lane.running.incrementAndGet();
 				try {
-					// TODO: non blocking wait if possible (refactoring is needed + java 9 helps)
-					EventContext<SysProvisioningOperationDto> context = futureTask.get(
-							timeout,
-							TimeUnit.MILLISECONDS
-					);
+					// set a global provisioning timeout even for synchronous call
+					FutureTask<EventContext<SysProvisioningOperationDto>> futureTask = new FutureTask<EventContext<SysProvisioningOperationDto>>(new Callable<EventContext<SysProvisioningOperationDto>>() {
+
+						@Override
+						public EventContext<SysProvisioningOperationDto> call() {
+							return entityEventManager.process(event);
+						}
+
+					});
+					// thread pool is not used here
+					Thread thread = new Thread(new DelegatingSecurityContextRunnable(new DelegatingTransactionContextRunnable(futureTask)));
+					thread.setName("provisioning: " + provisioningOperation.getSystem() + ":" + provisioningOperation.getSystemEntityUid());
+					thread.start();
 					//
-					return context.getContent();
-				} catch (InterruptedException ex) {
-					futureTask.cancel(true);
-					// propagate exception to upper catch
-					throw ex;
-				} catch (TimeoutException ex) {
-					futureTask.cancel(true);
-					// put thread into queue and wait => timeout too => retry mecchanism will work
-					throw new ResultCodeException(
-							AccResultCode.PROVISIONING_TIMEOUT,
-							ImmutableMap.of(
-									"name", provisioningOperation.getSystemEntityUid(),
-									"system", provisioningOperation.getSystem(),
-									"operationType", provisioningOperation.getOperationType(),
-									"objectClass", provisioningOperation.getProvisioningContext().getConnectorObject().getObjectClass(),
-									"timeout", String.valueOf(timeout)
-							),
-							ex
-					);
+					try {
+						// TODO: non blocking wait if possible (refactoring is needed + java 9 helps)
+						EventContext<SysProvisioningOperationDto> context = futureTask.get(
+								timeout,
+								TimeUnit.MILLISECONDS
+						);
+						//
+						return context.getContent();
+					} catch (InterruptedException ex) {
+						futureTask.cancel(true);
+						// propagate exception to upper catch
+						throw ex;
+					} catch (TimeoutException ex) {
+						futureTask.cancel(true);
+						// put thread into queue and wait => timeout too => retry mecchanism will work
+						throw createTimeoutException(provisioningOperation, timeout, ex);
+					}
+				} finally {
+					lane.running.decrementAndGet();
+					lane.recordExecution(System.nanoTime() - executionStarted);
+					permits.release();
+					executeLocks.unlock(systemEntityId);
 				}
 			} catch (Exception ex) {
 				return provisioningOperationService.handleFailed(provisioningOperation, ex);
@@ -295,7 +341,7 @@ public class DefaultProvisioningExecutor implements ProvisioningExecutor {
 	 */
 	@Override
 	@Transactional(propagation = Propagation.NOT_SUPPORTED)
-	public synchronized OperationResult execute(SysProvisioningBatchDto batch) {
+	public OperationResult execute(SysProvisioningBatchDto batch) {
 		Assert.notNull(batch, "Provisioning batch is required.");
 		batch = batchService.get(batch.getId());
 		//	
@@ -309,6 +355,14 @@ public class DefaultProvisioningExecutor implements ProvisioningExecutor {
 			}
 			return new OperationResult.Builder(OperationState.EXECUTED).build();
 		}
+		if (provisioningConfiguration.isMergeOperations()) {
+			// e.g. consecutive updates are executed as single update
+			operations = provisioningOperationService.mergeOperations(operations);
+			if (operations.isEmpty()) {
+				// all operations were canceled (e.g. create and delete of the same account)
+				return new OperationResult.Builder(OperationState.EXECUTED).build();
+			}
+		}
 		for (SysProvisioningOperationDto provisioningOperation : operations) {
 			// operation is already running - not complete or executed manually between
 			if (provisioningOperation.getResultState() == OperationState.RUNNING) {
@@ -359,12 +413,7 @@ public class DefaultProvisioningExecutor implements ProvisioningExecutor {
 		Assert.notNull(provisioningOperation, "Provisioning operation is required.");
 		Assert.notNull(provisioningOperation.getSystemEntity(), "System entity is required.");
 		Assert.notNull(provisioningOperation.getProvisioningContext(), "Provisioning context is required.");
-		// get system from service, in provisioning operation may not exist
-		SysSystemDto system = DtoUtils.getEmbedded(provisioningOperation, SysProvisioningOperation_.system, (SysSystemDto) null);
-		if (system == null) {
-			system = systemService.get(provisioningOperation.getSystem());
-		}
-		Assert.notNull(system, "System is required.");
+		SysSystemDto system = getSystem(provisioningOperation);
 		provisioningOperation.getEmbedded().put(SysProvisioningOperation_.system.getName(), system); // make sure system will be in embedded - optimize
 		// dryRun provisioning - skip SysProvisioningOperationDto saving
 		if(provisioningOperation.isDryRun()) {
@@ -377,6 +426,17 @@ public class DefaultProvisioningExecutor implements ProvisioningExecutor {
 		// save new operation to provisioning log / queue
 		String uid = systemEntityService.getByProvisioningOperation(provisioningOperation).getUid();
 		// look out - system entity uid can be changed - we need to use system entity id
+		// batch is found or created for one system entity at the same time
+		UUID systemEntityId = provisioningOperation.getSystemEntity();
+		persistLocks.lock(systemEntityId);
+		try {
+			return persistOperation(provisioningOperation, system, uid);
+		} finally {
+			persistLocks.unlock(systemEntityId);
+		}
+	}
+	
+	private SysProvisioningOperationDto persistOperation(SysProvisioningOperationDto provisioningOperation, SysSystemDto system, String uid) {
 		SysProvisioningBatchDto batch = batchService.findBatch(provisioningOperation.getSystemEntity());
 		if (batch == null) {
 			// new batch
@@ -423,4 +483,225 @@ public class DefaultProvisioningExecutor implements ProvisioningExecutor {
 		//
 		return provisioningOperation;
 	}
+
+	/**
+	 * Get system from service, in provisioning operation may not exist.
+	 * 
+	 * @param provisioningOperation
+	 * @return
+	 */
+	private SysSystemDto getSystem(SysProvisioningOperationDto provisioningOperation) {
+		SysSystemDto system = DtoUtils.getEmbedded(provisioningOperation, SysProvisioningOperation_.system, (SysSystemDto) null);
+		if (system == null) {
+			system = systemService.get(provisioningOperation.getSystem());
+		}
+		Assert.notNull(system, "System is required.");
+		//
+		return system;
+	}
+	
+	/**
+	 * Provisioning timeout - operation will be retried.
+	 * 
+	 * @param provisioningOperation
+	 * @param timeout
+	 * @param ex
+	 * @return
+	 */
+	private ResultCodeException createTimeoutException(SysProvisioningOperationDto provisioningOperation, long timeout, Exception ex) {
+		return new ResultCodeException(
+				AccResultCode.PROVISIONING_TIMEOUT,
+				ImmutableMap.of(
+						"name", provisioningOperation.getSystemEntityUid(),
+						"system", provisioningOperation.getSystem(),
+						"operationType", provisioningOperation.getOperationType(),
+						"objectClass", provisioningOperation.getProvisioningContext().getConnectorObject().getObjectClass(),
+						"timeout", String.valueOf(timeout)
+				),
+				ex
+		);
+	}
+	
+	/**
+	 * Lane for the given system - configured max parallelism is refreshed.
+	 * 
+	 * @param system
+	 * @return
+	 * @since 13.1.0
+	 */
+	protected SystemLane getSystemLane(SysSystemDto system) {
+		Integer maxParallelism = system.getMaxParallelism();
+		if (maxParallelism == null) {
+			maxParallelism = provisioningConfiguration.getMaxParallelism();
+		}
+		SystemLane lane = systemLanes.computeIfAbsent(system.getId(), systemId -> new SystemLane(system.getCode()));
+		lane.setMaxParallelism(maxParallelism);
+		//
+		return lane;
+	}
+	
+	/**
+	 * Concurrent operations executed on the single system.
+	 * 
+	 * @since 13.1.0
+	 */
+	protected class SystemLane {
+		
+		private final AtomicInteger waiting = new AtomicInteger();
+		private final AtomicInteger running = new AtomicInteger();
+		private volatile int maxParallelism = -1;
+		private volatile Semaphore permits;
+		private Timer waitTimer;
+		private Timer executionTimer;
+		
+		SystemLane(String systemCode) {
+			if (meterRegistry == null) {
+				return;
+			}
+			Tags tags = Tags.of("system", systemCode);
+			Gauge
+				.builder(METRIC_PREFIX + ".waiting", waiting, AtomicInteger::get)
+				.description("Count of provisioning operations waiting for execution on the system.")
+				.tags(tags)
+				.register(meterRegistry);
+			Gauge
+				.builder(METRIC_PREFIX + ".running", running, AtomicInteger::get)
+				.description("Count of provisioning operations currently executed on the system.")
+				.tags(tags)
+				.register(meterRegistry);
+			waitTimer = Timer
+					.builder(METRIC_PREFIX + ".wait")
+					.description("Time spent by provisioning operation waiting for execution on the system.")
+					.tags(tags)
+					.register(meterRegistry);
+			executionTimer = Timer
+					.builder(METRIC_PREFIX + ".execution")
+					.description("Provisioning operation execution time.")
+					.tags(tags)
+					.register(meterRegistry);
+		}
+		
+		/**
+		 * Max parallelism is changed - operations already running with previous limit are released to previous semaphore.
+		 * 
+		 * @param maxParallelism zero - unlimited
+		 */
+		synchronized void setMaxParallelism(int maxParallelism) {
+			if (this.maxParallelism == maxParallelism) {
+				return;
+			}
+			this.maxParallelism = maxParallelism;
+			this.permits = new Semaphore(maxParallelism <= 0 ? Integer.MAX_VALUE : maxParallelism, true);
+		}
+		
+		/**
+		 * Acquire permit to execute operation on the system.
+		 * 
+		 * @param timeout [ms]
+		 * @return acquired semaphore (permit has to be released to this semaphore) or {@code null}, if timeout elapsed.
+		 * @throws InterruptedException
+		 */
+		Semaphore tryAcquire(long timeout) throws InterruptedException {
+			Semaphore semaphore = permits;
+			if (semaphore.tryAcquire(timeout < 0 ? 0 : timeout, TimeUnit.MILLISECONDS)) {
+				return semaphore;
+			}
+			return null;
+		}
+		
+		void recordWait(long nanos) {
+			if (waitTimer != null) {
+				waitTimer.record(nanos, TimeUnit.NANOSECONDS);
+			}
+		}
+		
+		void recordExecution(long nanos) {
+			if (executionTimer != null) {
+				executionTimer.record(nanos, TimeUnit.NANOSECONDS);
+			}
+		}
+		
+		public int getWaiting() {
+			return waiting.get();
+		}
+		
+		public int getRunning() {
+			return running.get();
+		}
+		
+		public int getMaxParallelism() {
+			return maxParallelism;
+		}
+	}
+	
+	/**
+	 * Lock for each system entity - lock is registered only while it's held or waited for
+	 * (operations for different system entities never share the lock).
+	 * 
+	 * @since 13.1.0
+	 */
+	protected static class SystemEntityLocks {
+		
+		private final Map<UUID, SystemEntityLock> locks = new ConcurrentHashMap<>();
+		
+		void lock(UUID systemEntityId) {
+			register(systemEntityId).lock();
+		}
+		
+		/**
+		 * Acquire lock for the given system entity.
+		 * 
+		 * @param systemEntityId
+		 * @param timeout [ms]
+		 * @return true, if lock was acquired - lock has to be released by {@link #unlock(UUID)}
+		 * @throws InterruptedException
+		 */
+		boolean tryLock(UUID systemEntityId, long timeout) throws InterruptedException {
+			SystemEntityLock lock = register(systemEntityId);
+			boolean locked = false;
+			try {
+				locked = lock.tryLock(timeout, TimeUnit.MILLISECONDS);
+				return locked;
+			} finally {
+				if (!locked) {
+					unregister(systemEntityId);
+				}
+			}
+		}
+		
+		void unlock(UUID systemEntityId) {
+			locks.get(systemEntityId).unlock();
+			unregister(systemEntityId);
+		}
+		
+		/**
+		 * Count of registered (held or waited for) locks.
+		 * 
+		 * @return
+		 */
+		int size() {
+			return locks.size();
+		}
+		
+		private SystemEntityLock register(UUID systemEntityId) {
+			return locks.compute(systemEntityId, (id, lock) -> {
+				SystemEntityLock registered = lock == null ? new SystemEntityLock() : lock;
+				registered.holders++;
+				return registered;
+			});
+		}
+		
+		private void unregister(UUID systemEntityId) {
+			locks.computeIfPresent(systemEntityId, (id, lock) -> --lock.holders == 0 ? null : lock);
+		}
+	}
+	
+	/**
+	 * Holders (owner and waiting threads) are counted under map entry lock.
+	 */
+	private static class SystemEntityLock extends ReentrantLock {
+		
+		private static final long serialVersionUID = 1L;
+		private int holders = 0;
+	}
 }
@@ -1,14 +1,22 @@
 package eu.bcvsolutions.idm.acc.service.impl;
 
 import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.Assert;
 
 import eu.bcvsolutions.idm.acc.config.domain.ProvisioningConfiguration;
 import eu.bcvsolutions.idm.acc.dto.SysProvisioningBatchDto;
@@ -114,4 +122,58 @@ public class DefaultSysProvisioningBatchService
 		//
 		return toDto(firstBatch);
 	}
+	
+	@Override
+	@Transactional
+	public List<SysProvisioningBatchDto> claimBatchesToProcess(Boolean virtualSystem, String claimedBy, int size, long claimDuration) {
+		Assert.hasLength(claimedBy, "Queue worker is required.");
+		Assert.isTrue(size > 0, "Claim size has to be greater than zero.");
+		//
+		List<UUID> batchIds;
+		int claimed;
+		do {
+			ZonedDateTime now = ZonedDateTime.now();
+			batchIds = repository.findUnclaimedBatchIds(virtualSystem, OperationState.CREATED, now, PageRequest.of(0, size));
+			if (batchIds.isEmpty()) {
+				return new ArrayList<>();
+			}
+			// batches claimed concurrently by other worker are skipped => try next batches, if all was claimed
+			claimed = repository.claim(batchIds, claimedBy, now.plus(claimDuration, ChronoUnit.MILLIS), now);
+			LOG.trace("Worker [{}] claimed [{}] from [{}] provisioning batches.", claimedBy, claimed, batchIds.size());
+		} while (claimed == 0);
+		//
+		// preserve order by created
+		Map<UUID, SysProvisioningBatch> batches = new HashMap<>(batchIds.size());
+		repository
+			.findAllById(batchIds)
+			.forEach(batch -> {
+				if (claimedBy.equals(batch.getClaimedBy())) {
+					batches.put(batch.getId(), batch);
+				}
+			});
+		//
+		return toDtos(
+				batchIds
+					.stream()
+					.map(batches::get)
+					.filter(Objects::nonNull)
+					.collect(Collectors.toList()), 
+				false);
+	}
+	
+	@Override
+	@Transactional
+	public int renewClaims(String claimedBy, long claimDuration) {
+		Assert.hasLength(claimedBy, "Queue worker is required.");
+		//
+		return repository.renew(claimedBy, ZonedDateTime.now().plus(claimDuration, ChronoUnit.MILLIS));
+	}
+	
+	@Override
+	@Transactional
+	public int releaseBatches(String claimedBy) {
+		Assert.hasLength(claimedBy, "Queue worker is required.");
+		//
+		return repository.release(claimedBy);
+	}
 }
@@ -6,9 +6,12 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
 
 import javax.persistence.EntityManager;
@@ -436,6 +439,175 @@ public class DefaultSysProvisioningOperationService
 		return (requests.isEmpty()) ? null : requests.get(requests.size() - 1);
 	}
 	
+	@Override
+	@Transactional
+	public List<SysProvisioningOperationDto> mergeOperations(List<SysProvisioningOperationDto> operations) {
+		Assert.notNull(operations, "Operations are required.");
+		//
+		List<SysProvisioningOperationDto> results = new ArrayList<>(operations.size());
+		SysProvisioningOperationDto previousOperation = null; // the last mergeable operation
+		boolean previousMerged = false;
+		boolean previousFailed = false; // some merged operation was (partially) executed on target system
+		Set<UUID> canceledSystemEntities = new HashSet<>(); // account was not created => system entity is orphaned
+		for (SysProvisioningOperationDto operation : operations) {
+			if (!isMergeable(operation)) {
+				if (previousOperation != null) {
+					results.add(previousMerged ? saveOperation(previousOperation) : previousOperation);
+					previousOperation = null;
+					previousMerged = false;
+				}
+				results.add(operation);
+				continue;
+			}
+			if (previousOperation == null 
+					|| ProvisioningEventType.DELETE == previousOperation.getOperationType() // delete => create is not merged
+					|| !Objects.equals(previousOperation.getRoleRequestId(), operation.getRoleRequestId())) {
+				if (previousOperation != null) {
+					results.add(previousMerged ? saveOperation(previousOperation) : previousOperation);
+				}
+				previousOperation = operation;
+				previousMerged = false;
+				previousFailed = operation.getResultState() == OperationState.EXCEPTION;
+				continue;
+			}
+			//
+			if (ProvisioningEventType.DELETE == operation.getOperationType()
+					&& ProvisioningEventType.CREATE == previousOperation.getOperationType()
+					&& !previousFailed
+					&& !isCreated(operation)) {
+				// account was not created on target system yet => nothing to delete, both operations are canceled
+				removeMergedOperation(previousOperation, operation);
+				removeMergedOperation(operation, previousOperation);
+				if (operation.getSystemEntity() != null) {
+					canceledSystemEntities.add(operation.getSystemEntity());
+				}
+				previousOperation = null;
+				previousMerged = false;
+				continue;
+			}
+			//
+			// merge previous operation into current
+			if (ProvisioningEventType.DELETE != operation.getOperationType()) {
+				Map<ProvisioningAttributeDto, Object> accountObject = new HashMap<>(getFullAccountObject(operation));
+				if (ProvisioningEventType.CREATE == previousOperation.getOperationType()) {
+					// all attributes have to be created
+					getFullAccountObject(previousOperation).forEach(accountObject::putIfAbsent);
+					operation.setOperationType(ProvisioningEventType.CREATE);
+				} else {
+					// update contains all attributes except passwords - passwords are sent only if they are changed,
+					// other attributes missing in current operation were removed from mapping and cannot be sent
+					getFullAccountObject(previousOperation).forEach((attribute, value) -> {
+						if (attribute.isPasswordAttribute()) {
+							accountObject.putIfAbsent(attribute, value);
+						}
+					});
+				}
+				operation.getProvisioningContext().setAccountObject(accountObject);
+			}
+			removeMergedOperation(previousOperation, operation);
+			previousOperation = operation;
+			previousMerged = true;
+			previousFailed |= operation.getResultState() == OperationState.EXCEPTION;
+		}
+		if (previousOperation != null) {
+			results.add(previousMerged ? saveOperation(previousOperation) : previousOperation);
+		}
+		canceledSystemEntities
+			.stream()
+			.filter(systemEntityId -> results.stream().noneMatch(result -> systemEntityId.equals(result.getSystemEntity())))
+			.forEach(this::deleteCanceledSystemEntity);
+		//
+		if (results.size() < operations.size()) {
+			LOG.debug("[{}] provisioning operations were merged into [{}] operations.", operations.size(), results.size());
+		}
+		return results;
+	}
+	
+	/**
+	 * Operation can be merged with other operations.
+	 * 
+	 * @param operation
+	 * @return
+	 */
+	private boolean isMergeable(SysProvisioningOperationDto operation) {
+		if (operation.isDryRun()) {
+			return false;
+		}
+		OperationState state = operation.getResultState();
+		if (state != OperationState.CREATED 
+				&& state != OperationState.NOT_EXECUTED 
+				&& state != OperationState.EXCEPTION) {
+			// running, blocked operations are not merged
+			return false;
+		}
+		ProvisioningEventType operationType = operation.getOperationType();
+		if (operationType == ProvisioningEventType.DELETE) {
+			return true;
+		}
+		if (operationType != ProvisioningEventType.CREATE && operationType != ProvisioningEventType.UPDATE) {
+			return false;
+		}
+		// connector object is prepared directly
+		return operation.getProvisioningContext() != null && operation.getProvisioningContext().getAccountObject() != null;
+	}
+	
+	/**
+	 * Account for the operation's system entity was created on target system.
+	 * 
+	 * @param operation
+	 * @return false, if system entity is still a wish (create operation was not executed yet)
+	 */
+	private boolean isCreated(SysProvisioningOperationDto operation) {
+		if (operation.getSystemEntity() == null) {
+			return true;
+		}
+		SysSystemEntityDto systemEntity = systemEntityService.get(operation.getSystemEntity());
+		//
+		return systemEntity == null || !systemEntity.isWish();
+	}
+	
+	/**
+	 * Delete system entity of canceled create operation - account was not created on target system and
+	 * system entity remains as wish otherwise.
+	 * 
+	 * @param systemEntityId
+	 */
+	private void deleteCanceledSystemEntity(UUID systemEntityId) {
+		SysSystemEntityDto systemEntity = systemEntityService.get(systemEntityId);
+		if (systemEntity == null || !systemEntity.isWish()) {
+			return;
+		}
+		SysProvisioningOperationFilter filter = new SysProvisioningOperationFilter();
+		filter.setSystemEntity(systemEntityId);
+		if (count(filter) > 0) {
+			// other operations are still queued (e.g. in other batch)
+			return;
+		}
+		systemEntityService.delete(systemEntity);
+		LOG.debug("System entity [{}] of canceled create operation was deleted.", systemEntity.getUid());
+	}
+	
+	/**
+	 * Merged operation is removed from queue and archived with merged result code.
+	 * 
+	 * @param mergedOperation
+	 * @param operation operation, where merged operation was merged into
+	 */
+	private void removeMergedOperation(SysProvisioningOperationDto mergedOperation, SysProvisioningOperationDto operation) {
+		SysSystemDto system = getSystem(mergedOperation);
+		ResultModel resultModel = new DefaultResultModel(
+				AccResultCode.PROVISIONING_MERGED, 
+				ImmutableMap.of(
+						"name", String.valueOf(mergedOperation.getSystemEntityUid()),
+						"system", system == null ? String.valueOf(mergedOperation.getSystem()) : system.getName(),
+						"operationType", mergedOperation.getOperationType(),
+						"objectClass", mergedOperation.getProvisioningContext().getConnectorObject().getObjectClass().getType(),
+						"mergedInto", operation.getId()));
+		mergedOperation.setResult(new OperationResult.Builder(OperationState.CANCELED).setModel(resultModel).build());
+		deleteOperation(mergedOperation);
+		LOG.debug(resultModel.toString());
+	}
+	
 	/**
 	 * Returns fully loaded AccountObject with guarded strings.
 	 * 
@@ -37,6 +37,7 @@ import org.springframework.util.Assert;
 import org.springframework.util.StringUtils;
 
 import com.google.common.base.Throwables;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Lists;
 
@@ -137,6 +138,8 @@ public class DefaultSysSystemAttributeMappingService
 
 	private static final org.slf4j.Logger log = org.slf4j.LoggerFactory
 			.getLogger(DefaultSysSystemAttributeMappingService.class);
+	// extra allowed classes for transformation scripts - constant allow-list => sandbox context is reused
+	private static final List<Class<?>> SCRIPT_EXTRA_ALLOWED_CLASSES = ImmutableList.<Class<?>>of(AbstractScriptEvaluator.Builder.class);
 
 	private final GroovyScriptService groovyScriptService;
 	private final FormService formService;
@@ -459,10 +462,7 @@ public class DefaultSysSystemAttributeMappingService
 																					// call another scripts
 			//
 			// Add access for script evaluator
-			List<Class<?>> extraClass = new ArrayList<>();
-			extraClass.add(AbstractScriptEvaluator.Builder.class);
-			//
-			return groovyScriptService.evaluate(script, variables, extraClass);
+			return groovyScriptService.evaluate(script, variables, SCRIPT_EXTRA_ALLOWED_CLASSES);
 		}
 		
 		// If script is empty and value is instance of IdmAttachmentWithDataDto, then
@@ -513,10 +513,7 @@ public class DefaultSysSystemAttributeMappingService
 					pluginExecutors.getPluginFor(IdmScriptCategory.TRANSFORM_FROM).orElse(null)); // add default script evaluator,
 																						// for call another scripts
 			// Add access for script evaluator
-			List<Class<?>> extraClass = new ArrayList<>();
-			extraClass.add(AbstractScriptEvaluator.Builder.class);
-			//
-			return groovyScriptService.evaluate(script, variables, extraClass);
+			return groovyScriptService.evaluate(script, variables, SCRIPT_EXTRA_ALLOWED_CLASSES);
 		}
 
 		return value;
@@ -22,9 +22,13 @@ import org.identityconnectors.framework.common.objects.OperationOptions;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.annotation.Lazy;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.util.Assert;
 
 import com.google.common.collect.ImmutableMap;
@@ -123,6 +127,7 @@ public class DefaultSysSystemService
 	@Lazy
 	@Qualifier("default-connector-type")
 	private DefaultConnectorType defaultConnectorType;
+	@Autowired private PlatformTransactionManager platformTransactionManager;
 
 	@Autowired
 	@Lazy
@@ -300,6 +305,8 @@ public class DefaultSysSystemService
 		} else {
 			configuration = new IcConnectorConfigurationImpl();
 		}
+		// initialized connector facades are evicted by system, when system is changed
+		configuration.setSystemKey(String.valueOf(system.getId()));
 		// Create configuration for pool
 		fillPoolingConnectorConfiguration(configuration, connectorInstance, system);
 
@@ -539,6 +546,8 @@ public class DefaultSysSystemService
 
 		if (formDefinition == null) {
 			formDefinition = createOperationOptionsFormDefinition(connectorInstance);
+		} else if (formDefinition.getMappedAttributeByCode(IcConnectorConfiguration.PREFETCH_NEXT_PAGE_KEY) == null) {
+			formDefinition = updateOperationOptionsFormDefinition(connectorInstance);
 		}
 		return formDefinition;
 	}
@@ -969,9 +978,52 @@ public class DefaultSysSystemService
 				PersistentType.INT, (short) 1));
 		formAttributes.add(createAttribute(OperationOptions.OP_ATTRIBUTES_TO_GET, OperationOptions.OP_ATTRIBUTES_TO_GET,
 				PersistentType.SHORTTEXT, (short) 2, true));
+		formAttributes.add(createPrefetchNextPageAttribute());
 
 		return getFormService().createDefinition(SysSystem.class, definitionCode, formAttributes);
 	}
+	
+	/**
+	 * Add operation options added in newer version into existing form definition.
+	 * Attribute is saved in new transaction - when attribute is added concurrently (e.g. on other node), 
+	 * unique code in form definition is violated and attribute saved by the concurrent transaction is used.
+	 *
+	 * @param connectorInstance
+	 * @return
+	 * @since 13.1.0
+	 */
+	private IdmFormDefinitionDto updateOperationOptionsFormDefinition(IcConnectorInstance connectorInstance) {
+		String definitionCode = getOperationOptionsFormDefinitionCode(connectorInstance.getConnectorKey());
+		IdmFormDefinitionDto formDefinition = getFormService().getDefinition(SysSystem.class, definitionCode);
+		IdmFormAttributeDto attribute = createPrefetchNextPageAttribute();
+		attribute.setFormDefinition(formDefinition.getId());
+		//
+		TransactionTemplate template = new TransactionTemplate(platformTransactionManager);
+		template.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+		try {
+			template.execute(status -> getFormService().saveAttribute(attribute));
+		} catch (DataIntegrityViolationException ex) {
+			LOG.debug("Attribute [{}] was added into form definition [{}] concurrently.", 
+					IcConnectorConfiguration.PREFETCH_NEXT_PAGE_KEY, definitionCode, ex);
+		}
+		//
+		return getFormService().getDefinition(SysSystem.class, definitionCode);
+	}
+	
+	/**
+	 * Search on connector with page size configured - next page will be searched on background, while current page is processed.
+	 * 
+	 * @return
+	 * @since 13.1.0
+	 */
+	private IdmFormAttributeDto createPrefetchNextPageAttribute() {
+		IdmFormAttributeDto attribute = createAttribute(IcConnectorConfiguration.PREFETCH_NEXT_PAGE_KEY, 
+				IcConnectorConfiguration.PREFETCH_NEXT_PAGE_KEY, PersistentType.BOOLEAN, (short) 3);
+		attribute.setDescription(
+				"Search on connector with page size configured - next page will be searched on background, while current page is processed.");
+		//
+		return attribute;
+	}
 
 	/**
 	 * Creates {@link IdmFormAttributeDto} using given attributes
@@ -0,0 +1,335 @@
+package eu.bcvsolutions.idm.acc.service.impl;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+import org.springframework.security.concurrent.DelegatingSecurityContextRunnable;
+import org.springframework.util.Assert;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import eu.bcvsolutions.idm.core.api.exception.CoreException;
+import eu.bcvsolutions.idm.core.config.DelegatingTransactionContextRunnable;
+
+/**
+ * Dispatch synchronization items (read from connector) to workers, which process items concurrently.
+ *
+ * <ul>
+ *   <li>Reader (connector) thread is blocked, when queue of pending items is full.</li>
+ *   <li>Items with the same uid are never processed concurrently. Pending item with the same uid is replaced by the newer item
+ *   (deduplication - the last state read from the system is processed only).</li>
+ *   <li>Safe token is provided - token of the last item, which was processed together with all items read before.</li>
+ *   <li>Processing is stopped, when processor returns {@code false} (e.g. synchronization was canceled) or fails -
+ *   pending items are dropped, items in progress are completed.</li>
+ * </ul>
+ *
+ * @param <T> processed item
+ * @since 13.1.0
+ */
+public class SynchronizationItemDispatcher<T> {
+
+	private static final org.slf4j.Logger LOG = org.slf4j.LoggerFactory.getLogger(SynchronizationItemDispatcher.class);
+	//
+	private final int capacity;
+	private final Function<T, Boolean> processor;
+	private final ExecutorService executor;
+	private final ReentrantLock lock = new ReentrantLock();
+	private final Condition notFull = lock.newCondition();
+	private final Condition changed = lock.newCondition();
+	// pending items by uid - ordered by first read
+	private final LinkedHashMap<String, PendingItem<T>> pending = new LinkedHashMap<>();
+	private final Set<String> inProgress = new HashSet<>();
+	// token watermark
+	private final TreeSet<Long> outstanding = new TreeSet<>();
+	private final TreeMap<Long, String> completed = new TreeMap<>();
+	private long sequence = 0;
+	private String safeToken;
+	private long deduplicated = 0;
+	private boolean stopped = false;
+	private boolean finished = false;
+	private RuntimeException failure;
+
+	/**
+	 * Starts workers.
+	 *
+	 * @param parallelism count of workers
+	 * @param capacity max count of pending items - reader is blocked, when queue is full
+	 * @param processor processes one item - returns {@code false}, when processing should be stopped.
+	 * @param initialToken token before synchronization starts
+	 */
+	public SynchronizationItemDispatcher(int parallelism, int capacity, Function<T, Boolean> processor, String initialToken) {
+		Assert.isTrue(parallelism > 0, "Parallelism has to be positive number.");
+		Assert.isTrue(capacity > 0, "Capacity has to be positive number.");
+		Assert.notNull(processor, "Processor is required.");
+		//
+		this.capacity = capacity;
+		this.processor = processor;
+		this.safeToken = initialToken;
+		this.executor = Executors.newFixedThreadPool(
+				parallelism,
+				new ThreadFactoryBuilder().setNameFormat("sync-worker-%d").setDaemon(true).build());
+		for (int i = 0; i < parallelism; i++) {
+			executor.execute(new DelegatingSecurityContextRunnable(new DelegatingTransactionContextRunnable(this::work)));
+		}
+	}
+
+	/**
+	 * Submit item to process. Pending item with the same uid is replaced.
+	 * Caller is blocked, when queue is full.
+	 *
+	 * @param uid item uid
+	 * @param token item token (can be {@code null})
+	 * @param item item
+	 * @return {@code false}, when processing was stopped (and item was not submitted).
+	 */
+	public boolean submit(String uid, String token, T item) {
+		Assert.hasLength(uid, "Uid is required.");
+		//
+		lock.lock();
+		try {
+			PendingItem<T> pendingItem = pending.get(uid);
+			while (!stopped && pendingItem == null && pending.size() >= capacity) {
+				notFull.await();
+				pendingItem = pending.get(uid);
+			}
+			if (stopped) {
+				return false;
+			}
+			long itemSequence = ++sequence;
+			if (pendingItem != null) {
+				// newer item with the same uid will be processed - read item is completed immediately,
+				// watermark cannot be moved over the pending item
+				pendingItem.item = item;
+				deduplicated++;
+				LOG.trace("Pending item with uid [{}] was replaced by newer item.", uid);
+				complete(itemSequence, token);
+			} else {
+				outstanding.add(itemSequence);
+				pending.put(uid, new PendingItem<>(itemSequence, token, item));
+			}
+			changed.signalAll();
+			//
+			return true;
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			stop();
+			//
+			return false;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Stop processing - pending items are dropped.
+	 */
+	public void stop() {
+		lock.lock();
+		try {
+			if (!stopped) {
+				LOG.debug("Processing was stopped, [{}] pending items will be dropped.", pending.size());
+			}
+			stopped = true;
+			pending.clear();
+			notFull.signalAll();
+			changed.signalAll();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Wait to all submitted items are processed (or processing is stopped) and release workers.
+	 * The first exception thrown by the processor is rethrown.
+	 */
+	public void finish() {
+		lock.lock();
+		try {
+			finished = true;
+			changed.signalAll();
+			while (!pending.isEmpty() || !inProgress.isEmpty()) {
+				changed.await();
+			}
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			stop();
+		} finally {
+			lock.unlock();
+			executor.shutdownNow();
+		}
+		try {
+			executor.awaitTermination(1, TimeUnit.MINUTES);
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+		if (failure != null) {
+			throw failure;
+		}
+	}
+
+	/**
+	 * Token of the last item, which was processed together with all items read (submitted) before.
+	 *
+	 * @return token
+	 */
+	public String getSafeToken() {
+		lock.lock();
+		try {
+			return safeToken;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Count of pending items replaced by newer item with the same uid.
+	 *
+	 * @return count
+	 */
+	public long getDeduplicated() {
+		lock.lock();
+		try {
+			return deduplicated;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Processing was stopped.
+	 *
+	 * @return true - stopped
+	 */
+	public boolean isStopped() {
+		lock.lock();
+		try {
+			return stopped;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	private void work() {
+		while (true) {
+			String uid;
+			PendingItem<T> pendingItem;
+			lock.lock();
+			try {
+				Map.Entry<String, PendingItem<T>> next = next();
+				while (next == null) {
+					if ((stopped || finished) && pending.isEmpty()) {
+						return;
+					}
+					changed.await();
+					next = next();
+				}
+				uid = next.getKey();
+				pendingItem = next.getValue();
+				pending.remove(uid);
+				inProgress.add(uid);
+				notFull.signalAll();
+			} catch (InterruptedException ex) {
+				return;
+			} finally {
+				lock.unlock();
+			}
+			//
+			boolean result = false;
+			try {
+				result = Boolean.TRUE.equals(processor.apply(pendingItem.item));
+			} catch (RuntimeException ex) {
+				LOG.error("Processing of item with uid [{}] failed.", uid, ex);
+				setFailure(ex);
+			} catch (Exception ex) {
+				LOG.error("Processing of item with uid [{}] failed.", uid, ex);
+				setFailure(new CoreException(ex));
+			} finally {
+				lock.lock();
+				try {
+					inProgress.remove(uid);
+					complete(pendingItem.sequence, pendingItem.token);
+					changed.signalAll();
+				} finally {
+					lock.unlock();
+				}
+			}
+			if (!result) {
+				stop();
+			}
+		}
+	}
+
+	/**
+	 * The first pending item, which uid is not processed now.
+	 */
+	private Map.Entry<String, PendingItem<T>> next() {
+		Iterator<Map.Entry<String, PendingItem<T>>> iterator = pending.entrySet().iterator();
+		while (iterator.hasNext()) {
+			Map.Entry<String, PendingItem<T>> entry = iterator.next();
+			if (!inProgress.contains(entry.getKey())) {
+				return entry;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Mark item as completed and move token watermark - has to be called in lock.
+	 */
+	private void complete(long itemSequence, String token) {
+		outstanding.remove(itemSequence);
+		completed.put(itemSequence, token);
+		Long lowestOutstanding = outstanding.isEmpty() ? null : outstanding.first();
+		Iterator<Map.Entry<Long, String>> iterator = completed.entrySet().iterator();
+		while (iterator.hasNext()) {
+			Map.Entry<Long, String> entry = iterator.next();
+			if (lowestOutstanding != null && entry.getKey() > lowestOutstanding) {
+				break;
+			}
+			if (entry.getValue() != null) {
+				safeToken = entry.getValue();
+			}
+			iterator.remove();
+		}
+	}
+
+	private void setFailure(RuntimeException ex) {
+		lock.lock();
+		try {
+			if (failure == null) {
+				failure = ex;
+			}
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Pending item with order and token.
+	 *
+	 * @param <T> item
+	 */
+	private static class PendingItem<T> {
+
+		private final long sequence;
+		private final String token;
+		private T item;
+
+		PendingItem(long sequence, String token, T item) {
+			this.sequence = sequence;
+			this.token = token;
+			this.item = item;
+		}
+	}
+}
@@ -0,0 +1,9 @@
+--
+-- CzechIdM 13 Flyway script
+-- BCV solutions s.r.o.
+--
+-- Maximum count of provisioning operations executed concurrently on the system.
+
+ALTER TABLE sys_system ADD COLUMN max_parallelism int4 NULL;
+ALTER TABLE sys_system_a ADD COLUMN max_parallelism int4 NULL;
+ALTER TABLE sys_system_a ADD COLUMN max_parallelism_m bool NULL;
@@ -0,0 +1,9 @@
+--
+-- CzechIdM 13 Flyway script
+-- BCV solutions s.r.o.
+--
+-- Provisioning batch is claimed by queue worker - batches are processed concurrently.
+
+ALTER TABLE sys_provisioning_batch ADD COLUMN claimed_by varchar(255) NULL;
+ALTER TABLE sys_provisioning_batch ADD COLUMN claim_expiration timestamp NULL;
+CREATE INDEX idx_sys_p_b_claim_exp ON sys_provisioning_batch USING btree (claim_expiration);
@@ -0,0 +1,9 @@
+--
+-- CzechIdM 13 Flyway script
+-- BCV solutions s.r.o.
+--
+-- Count of synchronization items processed concurrently.
+
+ALTER TABLE sys_sync_config ADD COLUMN parallelism int4 NULL;
+ALTER TABLE sys_sync_config_a ADD COLUMN parallelism int4 NULL;
+ALTER TABLE sys_sync_config_a ADD COLUMN parallelism_m bool NULL;
@@ -0,0 +1,9 @@
+--
+-- CzechIdM 13 Flyway script
+-- BCV solutions s.r.o.
+--
+-- Find entities by correlation attribute for more synchronization items at once.
+
+ALTER TABLE sys_sync_config ADD COLUMN correlation_prefetch boolean NOT NULL DEFAULT false;
+ALTER TABLE sys_sync_config_a ADD COLUMN correlation_prefetch boolean;
+ALTER TABLE sys_sync_config_a ADD COLUMN correlation_prefetch_m boolean;
@@ -0,0 +1,9 @@
+--
+-- CzechIdM 13 Flyway script
+-- BCV solutions s.r.o.
+--
+-- Maximum count of provisioning operations executed concurrently on the system.
+
+ALTER TABLE sys_system ADD max_parallelism int NULL;
+ALTER TABLE sys_system_a ADD max_parallelism int NULL;
+ALTER TABLE sys_system_a ADD max_parallelism_m bit NULL;
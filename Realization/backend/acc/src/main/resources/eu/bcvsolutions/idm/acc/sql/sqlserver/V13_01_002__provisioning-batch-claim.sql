@@ -0,0 +1,9 @@
+--
+-- CzechIdM 13 Flyway script
+-- BCV solutions s.r.o.
+--
+-- Provisioning batch is claimed by queue worker - batches are processed concurrently.
+
+ALTER TABLE sys_provisioning_batch ADD claimed_by nvarchar(255) NULL;
+ALTER TABLE sys_provisioning_batch ADD claim_expiration datetime2(6) NULL;
+CREATE INDEX idx_sys_p_b_claim_exp ON sys_provisioning_batch (claim_expiration);
@@ -0,0 +1,9 @@
+--
+-- CzechIdM 13 Flyway script
+-- BCV solutions s.r.o.
+--
+-- Count of synchronization items processed concurrently.
+
+ALTER TABLE sys_sync_config ADD parallelism int NULL;
+ALTER TABLE sys_sync_config_a ADD parallelism int NULL;
+ALTER TABLE sys_sync_config_a ADD parallelism_m bit NULL;
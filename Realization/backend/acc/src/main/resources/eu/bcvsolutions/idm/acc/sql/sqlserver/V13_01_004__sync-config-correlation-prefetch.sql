@@ -0,0 +1,9 @@
+--
+-- CzechIdM 13 Flyway script
+-- BCV solutions s.r.o.
+--
+-- Find entities by correlation attribute for more synchronization items at once.
+
+ALTER TABLE sys_sync_config ADD correlation_prefetch bit NOT NULL DEFAULT 0;
+ALTER TABLE sys_sync_config_a ADD correlation_prefetch bit;
+ALTER TABLE sys_sync_config_a ADD correlation_prefetch_m bit;
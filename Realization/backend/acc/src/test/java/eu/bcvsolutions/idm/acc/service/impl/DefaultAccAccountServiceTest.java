@@ -1,11 +1,15 @@
 package eu.bcvsolutions.idm.acc.service.impl;
 
 import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
 
 import javax.persistence.EntityManager;
 import javax.persistence.Query;
 
 import eu.bcvsolutions.idm.core.api.config.datasource.CoreEntityManager;
+import org.apache.commons.lang3.tuple.Pair;
 import org.junit.After;
 import org.junit.Assert;
 import org.junit.Before;
@@ -20,6 +24,7 @@ import eu.bcvsolutions.idm.acc.dto.AccAccountDto;
 import eu.bcvsolutions.idm.acc.dto.AccIdentityAccountDto;
 import eu.bcvsolutions.idm.acc.dto.SysSchemaAttributeDto;
 import eu.bcvsolutions.idm.acc.dto.SysSystemDto;
+import eu.bcvsolutions.idm.acc.dto.SysSystemEntityDto;
 import eu.bcvsolutions.idm.acc.dto.filter.SysSchemaAttributeFilter;
 import eu.bcvsolutions.idm.acc.entity.AccAccount;
 import eu.bcvsolutions.idm.acc.entity.TestResource;
@@ -311,6 +316,52 @@ public class DefaultAccAccountServiceTest extends AbstractIntegrationTest {
 
 	}
 
+	@Test
+	public void testFindRealUids() {
+		SysSystemDto system = helper.createSystem(TestResource.TABLE_NAME);
+		SysSystemDto otherSystem = helper.createSystem(TestResource.TABLE_NAME);
+		//
+		List<String> uids = new ArrayList<>();
+		for (int i = 0; i < 5; i++) {
+			AccAccountDto account = new AccAccountDto();
+			account.setEntityType(IdentitySynchronizationExecutor.SYSTEM_ENTITY_TYPE);
+			account.setSystem(system.getId());
+			account.setUid(helper.createName());
+			if (i == 0) {
+				// real uid from system entity
+				SysSystemEntityDto systemEntity = helper.createSystemEntity(system);
+				account.setSystemEntity(systemEntity.getId());
+				uids.add(systemEntity.getUid());
+			} else {
+				uids.add(account.getUid());
+			}
+			accountService.save(account);
+		}
+		AccAccountDto otherAccount = new AccAccountDto();
+		otherAccount.setEntityType(IdentitySynchronizationExecutor.SYSTEM_ENTITY_TYPE);
+		otherAccount.setSystem(otherSystem.getId());
+		otherAccount.setUid(helper.createName());
+		accountService.save(otherAccount);
+		//
+		// iterate by pages
+		List<String> realUids = new ArrayList<>();
+		UUID lastAccountId = null;
+		List<Pair<UUID, String>> page;
+		do {
+			page = accountService.findRealUids(system.getId(), lastAccountId, 2);
+			Assert.assertTrue(page.size() <= 2);
+			for (Pair<UUID, String> realUid : page) {
+				Assert.assertNotEquals(lastAccountId, realUid.getLeft());
+				lastAccountId = realUid.getLeft();
+				realUids.add(realUid.getRight());
+			}
+		} while (!page.isEmpty());
+		//
+		Assert.assertEquals(5, realUids.size());
+		Assert.assertTrue(realUids.containsAll(uids));
+		Assert.assertFalse(realUids.contains(otherAccount.getUid()));
+	}
+
 	@Transactional
 	public void persistResource(TestResource resource) {
 		entityManager.persist(resource);
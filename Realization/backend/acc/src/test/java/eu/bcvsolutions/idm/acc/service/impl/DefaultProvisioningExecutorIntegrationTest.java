@@ -389,6 +389,69 @@ public class DefaultProvisioningExecutorIntegrationTest extends AbstractIntegrat
 		assertNotNull(getHelper().findResource(uid));
 	}
 	
+	@Test
+	public void testAsynchronousSystemInMoreThreads() {
+		SysSystemDto system = getHelper().createTestResourceSystem(true);
+		system.setQueue(true);
+		system = systemService.save(system);
+		//
+		List<String> uids = new ArrayList<>();
+		List<UUID> systemEntities = new ArrayList<>();
+		for (int i = 0; i < 5; i++) {
+			SysProvisioningOperationDto provisioningOperation = createProvisioningOperation(system, "firstname");
+			Map<ProvisioningAttributeDto, Object> accoutObject = provisioningOperation.getProvisioningContext().getAccountObject();
+			uids.add((String) accoutObject.get(getProvisioningAttribute(TestHelper.ATTRIBUTE_MAPPING_NAME)));
+			systemEntities.add(provisioningOperation.getSystemEntity());
+			provisioningExecutor.execute(provisioningOperation);
+		}
+		uids.forEach(uid -> assertNull(getHelper().findResource(uid)));
+		//
+		ProvisioningQueueTaskExecutor provisioningQueueExecutor = new ProvisioningQueueTaskExecutor();
+		provisioningQueueExecutor.setWorkers(3);
+		Boolean result = longRunningTaskManager.executeSync(provisioningQueueExecutor);
+		assertTrue(result);
+		IdmLongRunningTaskDto lrt = longRunningTaskManager.getLongRunningTask(provisioningQueueExecutor);
+		assertEquals(5L, lrt.getCount().longValue());
+		assertEquals(5L, lrt.getCounter().longValue());
+		uids.forEach(uid -> assertNotNull(getHelper().findResource(uid)));
+		// claims are released
+		systemEntities.forEach(systemEntity -> {
+			SysProvisioningBatchDto batch = provisioningBatchService.findBatch(systemEntity);
+			assertNull(batch.getClaimedBy());
+			assertNull(batch.getClaimExpiration());
+		});
+	}
+	
+	@Test
+	public void testRenewBatchClaims() {
+		SysSystemDto system = getHelper().createTestResourceSystem(true);
+		system.setQueue(true);
+		system = systemService.save(system);
+		SysProvisioningOperationDto provisioningOperation = createProvisioningOperation(system, "firstname");
+		provisioningExecutor.execute(provisioningOperation);
+		String workerId = UUID.randomUUID().toString();
+		//
+		try {
+			List<SysProvisioningBatchDto> batches = provisioningBatchService.claimBatchesToProcess(null, workerId, 100, 1000);
+			SysProvisioningBatchDto batch = batches
+					.stream()
+					.filter(b -> b.getSystemEntity().equals(provisioningOperation.getSystemEntity()))
+					.findFirst()
+					.orElse(null);
+			assertNotNull(batch);
+			ZonedDateTime claimExpiration = provisioningBatchService.get(batch.getId()).getClaimExpiration();
+			assertTrue(claimExpiration.isBefore(ZonedDateTime.now().plusMinutes(1)));
+			//
+			assertTrue(provisioningBatchService.renewClaims(workerId, 3600000) > 0);
+			//
+			batch = provisioningBatchService.get(batch.getId());
+			assertEquals(workerId, batch.getClaimedBy());
+			assertTrue(batch.getClaimExpiration().isAfter(ZonedDateTime.now().plusMinutes(30)));
+		} finally {
+			provisioningBatchService.releaseBatches(workerId);
+		}
+	}
+	
 	@Test
 	public void testClearProvisioningBatchOnReadonlySystem() {
 		SysSystemDto system = getHelper().createTestResourceSystem(true);
@@ -650,7 +713,7 @@ public class DefaultProvisioningExecutorIntegrationTest extends AbstractIntegrat
 		provisioningExecutor.execute(secondOperation);
 		//
 		secondOperation = provisioningOperationService.get(secondOperation);
-		batch = provisioningBatchService.get(batch);
+		batch = provisioningBatchService.get(batch.getId());
 		Assert.assertNotNull(batch.getNextAttempt());
 		//
 		// retry - the operation is still running
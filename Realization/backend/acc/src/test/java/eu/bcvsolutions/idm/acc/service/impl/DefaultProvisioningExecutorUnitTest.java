@@ -0,0 +1,142 @@
+package eu.bcvsolutions.idm.acc.service.impl;
+
+import static org.mockito.Mockito.when;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+
+import eu.bcvsolutions.idm.acc.config.domain.ProvisioningConfiguration;
+import eu.bcvsolutions.idm.acc.dto.SysSystemDto;
+import eu.bcvsolutions.idm.acc.service.api.SysProvisioningBatchService;
+import eu.bcvsolutions.idm.acc.service.api.SysProvisioningOperationService;
+import eu.bcvsolutions.idm.acc.service.api.SysSystemEntityService;
+import eu.bcvsolutions.idm.acc.service.api.SysSystemService;
+import eu.bcvsolutions.idm.acc.service.impl.DefaultProvisioningExecutor.SystemEntityLocks;
+import eu.bcvsolutions.idm.acc.service.impl.DefaultProvisioningExecutor.SystemLane;
+import eu.bcvsolutions.idm.core.api.service.EntityEventManager;
+import eu.bcvsolutions.idm.core.notification.api.service.NotificationManager;
+import eu.bcvsolutions.idm.core.security.api.service.SecurityService;
+import eu.bcvsolutions.idm.test.api.AbstractUnitTest;
+
+/**
+ * Provisioning executor - system lanes with configured max parallelism, system entity locks.
+ */
+public class DefaultProvisioningExecutorUnitTest extends AbstractUnitTest {
+
+	@Mock private EntityEventManager entityEventManager;
+	@Mock private SysProvisioningOperationService provisioningOperationService;
+	@Mock private SysProvisioningBatchService batchService;
+	@Mock private NotificationManager notificationManager;
+	@Mock private SysSystemService systemService;
+	@Mock private SecurityService securityService;
+	@Mock private ProvisioningConfiguration provisioningConfiguration;
+	@Mock private SysSystemEntityService systemEntityService;
+	//
+	@InjectMocks
+	private DefaultProvisioningExecutor executor;
+
+	@Test
+	public void testSystemLaneIsUnlimitedByDefault() throws Exception {
+		when(provisioningConfiguration.getMaxParallelism()).thenReturn(ProvisioningConfiguration.DEFAULT_MAX_PARALLELISM);
+		SysSystemDto system = createSystem(null);
+		//
+		SystemLane lane = executor.getSystemLane(system);
+		for (int i = 0; i < 100; i++) {
+			Assert.assertNotNull(lane.tryAcquire(0));
+		}
+	}
+
+	@Test
+	public void testSystemLaneMaxParallelism() throws Exception {
+		SysSystemDto system = createSystem(1);
+		//
+		SystemLane lane = executor.getSystemLane(system);
+		Assert.assertEquals(1, lane.getMaxParallelism());
+		Semaphore permits = lane.tryAcquire(0);
+		Assert.assertNotNull(permits);
+		Assert.assertNull(lane.tryAcquire(0));
+		//
+		permits.release();
+		Assert.assertNotNull(lane.tryAcquire(0));
+	}
+
+	@Test
+	public void testSystemLaneMaxParallelismChanged() throws Exception {
+		SysSystemDto system = createSystem(1);
+		//
+		SystemLane lane = executor.getSystemLane(system);
+		Assert.assertNotNull(lane.tryAcquire(0));
+		Assert.assertNull(lane.tryAcquire(0));
+		//
+		system.setMaxParallelism(2);
+		Assert.assertSame(lane, executor.getSystemLane(system));
+		Assert.assertEquals(2, lane.getMaxParallelism());
+		Assert.assertNotNull(lane.tryAcquire(0));
+		Assert.assertNotNull(lane.tryAcquire(0));
+		Assert.assertNull(lane.tryAcquire(0));
+	}
+
+	@Test
+	public void testSystemLaneUnlimitedWait() throws Exception {
+		SysSystemDto system = createSystem(1);
+		//
+		SystemLane lane = executor.getSystemLane(system);
+		Semaphore permits = lane.tryAcquire(0);
+		Assert.assertNotNull(permits);
+		Thread release = new Thread(() -> {
+			try {
+				Thread.sleep(100);
+			} catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			}
+			permits.release();
+		});
+		release.start();
+		// unlimited wait budget - waits for previous operation
+		Assert.assertNotNull(lane.tryAcquire(Long.MAX_VALUE));
+	}
+
+	@Test
+	public void testSystemEntityLocks() throws Exception {
+		SystemEntityLocks locks = new SystemEntityLocks();
+		UUID systemEntityOne = UUID.randomUUID();
+		UUID systemEntityTwo = UUID.randomUUID();
+		//
+		Assert.assertTrue(locks.tryLock(systemEntityOne, 0));
+		Assert.assertEquals(1, locks.size());
+		// other thread - the same system entity is locked, other system entity is not
+		Assert.assertFalse(tryLockInOtherThread(locks, systemEntityOne));
+		Assert.assertTrue(tryLockInOtherThread(locks, systemEntityTwo));
+		Assert.assertEquals(2, locks.size());
+		//
+		locks.unlock(systemEntityOne);
+		Assert.assertEquals(1, locks.size()); // released lock is not registered
+		Assert.assertTrue(tryLockInOtherThread(locks, systemEntityOne));
+	}
+
+	private boolean tryLockInOtherThread(SystemEntityLocks locks, UUID systemEntityId) throws Exception {
+		return CompletableFuture.supplyAsync(() -> {
+			try {
+				return locks.tryLock(systemEntityId, 10);
+			} catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				return false;
+			}
+		}).get();
+	}
+
+	private SysSystemDto createSystem(Integer maxParallelism) {
+		SysSystemDto system = new SysSystemDto();
+		system.setId(UUID.randomUUID());
+		system.setName("test-" + system.getId());
+		system.setMaxParallelism(maxParallelism);
+		//
+		return system;
+	}
+}
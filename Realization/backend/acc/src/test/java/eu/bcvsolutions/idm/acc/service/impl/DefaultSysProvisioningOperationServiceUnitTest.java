@@ -1,12 +1,24 @@
 package eu.bcvsolutions.idm.acc.service.impl;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 import java.io.Serializable;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 
 import org.junit.Test;
 import org.mockito.InjectMocks;
@@ -15,15 +27,23 @@ import org.modelmapper.ModelMapper;
 
 import com.google.common.collect.Lists;
 
+import eu.bcvsolutions.idm.acc.domain.AccResultCode;
 import eu.bcvsolutions.idm.acc.domain.AttributeMappingStrategyType;
 import eu.bcvsolutions.idm.acc.domain.ProvisioningContext;
+import eu.bcvsolutions.idm.acc.domain.ProvisioningEventType;
 import eu.bcvsolutions.idm.acc.dto.ProvisioningAttributeDto;
+import eu.bcvsolutions.idm.acc.dto.SysProvisioningOperationDto;
+import eu.bcvsolutions.idm.acc.dto.SysSystemEntityDto;
+import eu.bcvsolutions.idm.acc.dto.SysSystemDto;
+import eu.bcvsolutions.idm.acc.dto.filter.SysProvisioningOperationFilter;
 import eu.bcvsolutions.idm.acc.repository.SysProvisioningBatchRepository;
 import eu.bcvsolutions.idm.acc.repository.SysProvisioningOperationRepository;
 import eu.bcvsolutions.idm.acc.service.api.SysProvisioningArchiveService;
 import eu.bcvsolutions.idm.acc.service.api.SysProvisioningBatchService;
 import eu.bcvsolutions.idm.acc.service.api.SysSystemEntityService;
 import eu.bcvsolutions.idm.acc.service.api.SysSystemService;
+import eu.bcvsolutions.idm.core.api.domain.OperationState;
+import eu.bcvsolutions.idm.core.api.entity.OperationResult;
 import eu.bcvsolutions.idm.core.api.service.ConfidentialStorage;
 import eu.bcvsolutions.idm.core.notification.api.service.NotificationManager;
 import eu.bcvsolutions.idm.core.security.api.domain.ConfidentialString;
@@ -31,6 +51,7 @@ import eu.bcvsolutions.idm.core.security.api.domain.GuardedString;
 import eu.bcvsolutions.idm.core.security.api.service.SecurityService;
 import eu.bcvsolutions.idm.ic.impl.IcAttributeImpl;
 import eu.bcvsolutions.idm.ic.impl.IcConnectorObjectImpl;
+import eu.bcvsolutions.idm.ic.impl.IcObjectClassImpl;
 import eu.bcvsolutions.idm.test.api.AbstractVerifiableUnitTest;
 
 /**
@@ -165,4 +186,197 @@ public class DefaultSysProvisioningOperationServiceUnitTest extends AbstractVeri
 		assertEquals(service.createAccountObjectPropertyKey(guarded.getKey(), 0), ((ConfidentialString)((List<?>)accoutObject.get(guarded)).get(0)).getKey());
 		assertEquals(service.createAccountObjectPropertyKey(guarded.getKey(), 1), ((ConfidentialString)((List<?>)accoutObject.get(guarded)).get(1)).getKey());
 	}
+	
+	@Test
+	public void testMergeConsecutiveUpdates() {
+		DefaultSysProvisioningOperationService mergeService = spyService();
+		ProvisioningAttributeDto firstname = new ProvisioningAttributeDto("firstname", AttributeMappingStrategyType.SET);
+		ProvisioningAttributeDto lastname = new ProvisioningAttributeDto("lastname", AttributeMappingStrategyType.SET);
+		SysProvisioningOperationDto one = createOperation(ProvisioningEventType.UPDATE, null, firstname, "one");
+		SysProvisioningOperationDto two = createOperation(ProvisioningEventType.UPDATE, null, lastname, "two");
+		SysProvisioningOperationDto three = createOperation(ProvisioningEventType.UPDATE, null, firstname, "three");
+		//
+		List<SysProvisioningOperationDto> operations = mergeService.mergeOperations(Lists.newArrayList(one, two, three));
+		//
+		assertEquals(1, operations.size());
+		SysProvisioningOperationDto operation = operations.get(0);
+		assertEquals(three.getId(), operation.getId());
+		assertEquals(ProvisioningEventType.UPDATE, operation.getOperationType());
+		assertEquals("three", operation.getProvisioningContext().getAccountObject().get(firstname));
+		// attribute missing in the last update is not sent
+		assertFalse(operation.getProvisioningContext().getAccountObject().containsKey(lastname));
+		assertEquals(OperationState.CANCELED, one.getResultState());
+		assertEquals(AccResultCode.PROVISIONING_MERGED.name(), one.getResult().getModel().getStatusEnum());
+		assertEquals(OperationState.CANCELED, two.getResultState());
+		verify(mergeService).deleteOperation(one);
+		verify(mergeService).deleteOperation(two);
+		verify(mergeService).saveOperation(three);
+	}
+	
+	@Test
+	public void testMergeUpdatesWithPassword() {
+		DefaultSysProvisioningOperationService mergeService = spyService();
+		ProvisioningAttributeDto firstname = new ProvisioningAttributeDto("firstname", AttributeMappingStrategyType.SET);
+		ProvisioningAttributeDto password = new ProvisioningAttributeDto("__PASSWORD__", AttributeMappingStrategyType.SET);
+		password.setPasswordAttribute(true);
+		SysProvisioningOperationDto one = createOperation(ProvisioningEventType.UPDATE, null, password, "one");
+		SysProvisioningOperationDto two = createOperation(ProvisioningEventType.UPDATE, null, firstname, "two");
+		//
+		List<SysProvisioningOperationDto> operations = mergeService.mergeOperations(Lists.newArrayList(one, two));
+		//
+		assertEquals(1, operations.size());
+		Map<ProvisioningAttributeDto, Object> accountObject = operations.get(0).getProvisioningContext().getAccountObject();
+		assertEquals("one", accountObject.get(password));
+		assertEquals("two", accountObject.get(firstname));
+	}
+	
+	@Test
+	public void testMergeCreateWithUpdatedAttributes() {
+		DefaultSysProvisioningOperationService mergeService = spyService();
+		ProvisioningAttributeDto firstname = new ProvisioningAttributeDto("firstname", AttributeMappingStrategyType.SET);
+		ProvisioningAttributeDto lastname = new ProvisioningAttributeDto("lastname", AttributeMappingStrategyType.CREATE);
+		SysProvisioningOperationDto create = createOperation(ProvisioningEventType.CREATE, null, lastname, "one");
+		SysProvisioningOperationDto update = createOperation(ProvisioningEventType.UPDATE, null, firstname, "two");
+		//
+		List<SysProvisioningOperationDto> operations = mergeService.mergeOperations(Lists.newArrayList(create, update));
+		//
+		assertEquals(1, operations.size());
+		Map<ProvisioningAttributeDto, Object> accountObject = operations.get(0).getProvisioningContext().getAccountObject();
+		assertEquals(ProvisioningEventType.CREATE, operations.get(0).getOperationType());
+		assertEquals("one", accountObject.get(lastname));
+		assertEquals("two", accountObject.get(firstname));
+	}
+	
+	@Test
+	public void testCancelCreateAndDeleteNotCreatedAccount() {
+		DefaultSysProvisioningOperationService mergeService = spyService();
+		ProvisioningAttributeDto firstname = new ProvisioningAttributeDto("firstname", AttributeMappingStrategyType.SET);
+		SysProvisioningOperationDto create = createOperation(ProvisioningEventType.CREATE, null, firstname, "one");
+		SysProvisioningOperationDto update = createOperation(ProvisioningEventType.UPDATE, null, firstname, "two");
+		SysProvisioningOperationDto delete = createOperation(ProvisioningEventType.DELETE, null, firstname, "two");
+		SysSystemEntityDto systemEntity = new SysSystemEntityDto("one", "IDENTITY");
+		systemEntity.setId(UUID.randomUUID());
+		systemEntity.setWish(true);
+		delete.setSystemEntity(systemEntity.getId());
+		when(systemEntityService.get(systemEntity.getId())).thenReturn(systemEntity);
+		doReturn(0L).when(mergeService).count(any(SysProvisioningOperationFilter.class));
+		//
+		List<SysProvisioningOperationDto> operations = mergeService.mergeOperations(Lists.newArrayList(create, update, delete));
+		//
+		assertTrue(operations.isEmpty());
+		assertEquals(OperationState.CANCELED, update.getResultState());
+		assertEquals(OperationState.CANCELED, delete.getResultState());
+		verify(mergeService).deleteOperation(create);
+		verify(mergeService).deleteOperation(update);
+		verify(mergeService).deleteOperation(delete);
+		verify(mergeService, never()).saveOperation(any());
+		verify(systemEntityService, times(2)).get(systemEntity.getId());
+		verify(systemEntityService).delete(systemEntity); // orphaned wish
+	}
+	
+	@Test
+	public void testMergeCreateAndDeleteCreatedAccount() {
+		DefaultSysProvisioningOperationService mergeService = spyService();
+		ProvisioningAttributeDto firstname = new ProvisioningAttributeDto("firstname", AttributeMappingStrategyType.SET);
+		SysProvisioningOperationDto create = createOperation(ProvisioningEventType.CREATE, null, firstname, "one");
+		create.setResult(new OperationResult(OperationState.EXCEPTION)); // create could be executed partially
+		SysProvisioningOperationDto delete = createOperation(ProvisioningEventType.DELETE, null, firstname, "one");
+		//
+		List<SysProvisioningOperationDto> operations = mergeService.mergeOperations(Lists.newArrayList(create, delete));
+		//
+		assertEquals(1, operations.size());
+		assertEquals(delete.getId(), operations.get(0).getId());
+		verify(mergeService).deleteOperation(create);
+		verify(mergeService, never()).deleteOperation(delete);
+	}
+	
+	@Test
+	public void testMergeCreateAndUpdate() {
+		DefaultSysProvisioningOperationService mergeService = spyService();
+		ProvisioningAttributeDto firstname = new ProvisioningAttributeDto("firstname", AttributeMappingStrategyType.SET);
+		SysProvisioningOperationDto create = createOperation(ProvisioningEventType.CREATE, null, firstname, "one");
+		SysProvisioningOperationDto update = createOperation(ProvisioningEventType.UPDATE, null, firstname, "two");
+		//
+		List<SysProvisioningOperationDto> operations = mergeService.mergeOperations(Lists.newArrayList(create, update));
+		//
+		assertEquals(1, operations.size());
+		assertEquals(update.getId(), operations.get(0).getId());
+		assertEquals(ProvisioningEventType.CREATE, operations.get(0).getOperationType());
+		assertEquals("two", operations.get(0).getProvisioningContext().getAccountObject().get(firstname));
+		verify(mergeService).deleteOperation(create);
+	}
+	
+	@Test
+	public void testMergeUpdateAndDelete() {
+		DefaultSysProvisioningOperationService mergeService = spyService();
+		ProvisioningAttributeDto firstname = new ProvisioningAttributeDto("firstname", AttributeMappingStrategyType.SET);
+		SysProvisioningOperationDto update = createOperation(ProvisioningEventType.UPDATE, null, firstname, "one");
+		SysProvisioningOperationDto delete = createOperation(ProvisioningEventType.DELETE, null, firstname, "one");
+		//
+		List<SysProvisioningOperationDto> operations = mergeService.mergeOperations(Lists.newArrayList(update, delete));
+		//
+		assertEquals(1, operations.size());
+		assertEquals(delete.getId(), operations.get(0).getId());
+		assertEquals(ProvisioningEventType.DELETE, operations.get(0).getOperationType());
+		verify(mergeService).deleteOperation(update);
+	}
+	
+	@Test
+	public void testNotMergeDeleteAndCreate() {
+		DefaultSysProvisioningOperationService mergeService = spyService();
+		ProvisioningAttributeDto firstname = new ProvisioningAttributeDto("firstname", AttributeMappingStrategyType.SET);
+		SysProvisioningOperationDto delete = createOperation(ProvisioningEventType.DELETE, null, firstname, "one");
+		SysProvisioningOperationDto create = createOperation(ProvisioningEventType.CREATE, null, firstname, "two");
+		//
+		List<SysProvisioningOperationDto> operations = mergeService.mergeOperations(Lists.newArrayList(delete, create));
+		//
+		assertEquals(2, operations.size());
+		verify(mergeService, never()).deleteOperation(any());
+	}
+	
+	@Test
+	public void testNotMergeRunningAndDifferentRequest() {
+		DefaultSysProvisioningOperationService mergeService = spyService();
+		ProvisioningAttributeDto firstname = new ProvisioningAttributeDto("firstname", AttributeMappingStrategyType.SET);
+		SysProvisioningOperationDto running = createOperation(ProvisioningEventType.UPDATE, null, firstname, "one");
+		running.setResult(new OperationResult(OperationState.RUNNING));
+		SysProvisioningOperationDto one = createOperation(ProvisioningEventType.UPDATE, UUID.randomUUID(), firstname, "two");
+		SysProvisioningOperationDto two = createOperation(ProvisioningEventType.UPDATE, UUID.randomUUID(), firstname, "three");
+		//
+		List<SysProvisioningOperationDto> operations = mergeService.mergeOperations(Lists.newArrayList(running, one, two));
+		//
+		assertEquals(3, operations.size());
+		assertEquals(running.getId(), operations.get(0).getId());
+		verify(mergeService, never()).deleteOperation(any());
+	}
+	
+	private DefaultSysProvisioningOperationService spyService() {
+		DefaultSysProvisioningOperationService mergeService = spy(service);
+		doNothing().when(mergeService).deleteOperation(any());
+		doAnswer(invocation -> invocation.getArgument(0)).when(mergeService).saveOperation(any());
+		SysSystemDto system = new SysSystemDto();
+		system.setName("test");
+		doReturn(system).when(mergeService).getSystem(any());
+		//
+		return mergeService;
+	}
+	
+	private SysProvisioningOperationDto createOperation(
+			ProvisioningEventType operationType, 
+			UUID roleRequestId, 
+			ProvisioningAttributeDto attribute, 
+			Object value) {
+		Map<ProvisioningAttributeDto, Object> accountObject = new HashMap<>();
+		accountObject.put(attribute, value);
+		SysProvisioningOperationDto operation = new SysProvisioningOperationDto.Builder()
+				.setSystem(UUID.randomUUID())
+				.setOperationType(operationType)
+				.setProvisioningContext(new ProvisioningContext(accountObject, new IcConnectorObjectImpl(null, new IcObjectClassImpl("__ACCOUNT__"), null)))
+				.build();
+		operation.setId(UUID.randomUUID());
+		operation.setRoleRequestId(roleRequestId);
+		operation.setResult(new OperationResult(OperationState.CREATED));
+		//
+		return operation;
+	}
 }
@@ -26,6 +26,7 @@ import eu.bcvsolutions.idm.core.eav.api.dto.IdmFormDefinitionDto;
 import eu.bcvsolutions.idm.core.eav.api.dto.IdmFormInstanceDto;
 import eu.bcvsolutions.idm.core.eav.api.service.FormService;
 import eu.bcvsolutions.idm.core.security.api.domain.GuardedString;
+import eu.bcvsolutions.idm.ic.api.IcConnectorConfiguration;
 import eu.bcvsolutions.idm.ic.api.IcConnectorInstance;
 import eu.bcvsolutions.idm.ic.connid.service.impl.ConnIdIcConnectorService;
 import eu.bcvsolutions.idm.ic.connid.service.impl.DefaultIcConnectorFacadeFactory;
@@ -81,6 +82,7 @@ public class OperationOptionsIntegrationTest extends AbstractIntegrationTest {
 
 		Assert.assertNotNull(formInstance.getMappedAttributeByCode(OperationOptions.OP_PAGE_SIZE));
 		Assert.assertNotNull(formInstance.getMappedAttributeByCode(OperationOptions.OP_ATTRIBUTES_TO_GET));
+		Assert.assertNotNull(formInstance.getMappedAttributeByCode(IcConnectorConfiguration.PREFETCH_NEXT_PAGE_KEY));
 	}
 
 	@Test
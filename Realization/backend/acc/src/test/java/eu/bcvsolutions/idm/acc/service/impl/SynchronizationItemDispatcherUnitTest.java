@@ -0,0 +1,153 @@
+package eu.bcvsolutions.idm.acc.service.impl;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import eu.bcvsolutions.idm.core.api.exception.CoreException;
+import eu.bcvsolutions.idm.test.api.AbstractUnitTest;
+
+/**
+ * Concurrent processing of synchronization items.
+ */
+public class SynchronizationItemDispatcherUnitTest extends AbstractUnitTest {
+
+	@Test
+	public void testProcessAllItems() {
+		List<String> processed = Collections.synchronizedList(new ArrayList<>());
+		SynchronizationItemDispatcher<String> dispatcher = new SynchronizationItemDispatcher<>(4, 2, item -> {
+			processed.add(item);
+			return true;
+		}, "0");
+		//
+		for (int i = 1; i <= 100; i++) {
+			Assert.assertTrue(dispatcher.submit(String.valueOf(i), String.format("%03d", i), String.valueOf(i)));
+		}
+		dispatcher.finish();
+		//
+		Assert.assertEquals(100, processed.size());
+		Assert.assertEquals("100", dispatcher.getSafeToken());
+		Assert.assertFalse(dispatcher.isStopped());
+	}
+
+	@Test
+	public void testSameUidIsNotProcessedConcurrently() throws InterruptedException {
+		Set<String> inProgress = ConcurrentHashMap.newKeySet();
+		AtomicInteger conflicts = new AtomicInteger();
+		SynchronizationItemDispatcher<String> dispatcher = new SynchronizationItemDispatcher<>(4, 10, uid -> {
+			if (!inProgress.add(uid)) {
+				conflicts.incrementAndGet();
+			}
+			try {
+				Thread.sleep(1);
+			} catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			}
+			inProgress.remove(uid);
+			return true;
+		}, null);
+		//
+		for (int i = 0; i < 200; i++) {
+			String uid = String.valueOf(i % 3);
+			dispatcher.submit(uid, null, uid);
+		}
+		dispatcher.finish();
+		//
+		Assert.assertEquals(0, conflicts.get());
+	}
+
+	@Test
+	public void testPendingItemIsReplaced() throws InterruptedException {
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		List<String> processed = Collections.synchronizedList(new ArrayList<>());
+		SynchronizationItemDispatcher<String> dispatcher = new SynchronizationItemDispatcher<>(1, 10, item -> {
+			started.countDown();
+			try {
+				release.await(10, TimeUnit.SECONDS);
+			} catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			}
+			processed.add(item);
+			return true;
+		}, null);
+		//
+		dispatcher.submit("blocking", "1", "blocking");
+		Assert.assertTrue(started.await(10, TimeUnit.SECONDS));
+		dispatcher.submit("one", "2", "one-first");
+		dispatcher.submit("one", "3", "one-second");
+		// watermark cannot be moved over the pending item
+		Assert.assertNull(dispatcher.getSafeToken());
+		release.countDown();
+		dispatcher.finish();
+		//
+		Assert.assertEquals(2, processed.size());
+		Assert.assertTrue(processed.contains("one-second"));
+		Assert.assertFalse(processed.contains("one-first"));
+		Assert.assertEquals(1, dispatcher.getDeduplicated());
+		Assert.assertEquals("3", dispatcher.getSafeToken());
+	}
+
+	@Test
+	public void testSafeTokenWaitsForPreviousItems() throws InterruptedException {
+		CountDownLatch release = new CountDownLatch(1);
+		CountDownLatch processedSecond = new CountDownLatch(1);
+		SynchronizationItemDispatcher<String> dispatcher = new SynchronizationItemDispatcher<>(2, 10, item -> {
+			if ("first".equals(item)) {
+				try {
+					release.await(10, TimeUnit.SECONDS);
+				} catch (InterruptedException ex) {
+					Thread.currentThread().interrupt();
+				}
+			} else {
+				processedSecond.countDown();
+			}
+			return true;
+		}, "0");
+		//
+		dispatcher.submit("first", "1", "first");
+		dispatcher.submit("second", "2", "second");
+		Assert.assertTrue(processedSecond.await(10, TimeUnit.SECONDS));
+		Assert.assertEquals("0", dispatcher.getSafeToken());
+		release.countDown();
+		dispatcher.finish();
+		//
+		Assert.assertEquals("2", dispatcher.getSafeToken());
+	}
+
+	@Test
+	public void testStopProcessing() {
+		AtomicInteger counter = new AtomicInteger();
+		SynchronizationItemDispatcher<String> dispatcher = new SynchronizationItemDispatcher<>(2, 2, item -> {
+			return counter.incrementAndGet() < 5;
+		}, null);
+		//
+		boolean submitted = true;
+		for (int i = 0; i < 1000 && submitted; i++) {
+			submitted = dispatcher.submit(String.valueOf(i), null, String.valueOf(i));
+		}
+		dispatcher.finish();
+		//
+		Assert.assertFalse(submitted);
+		Assert.assertTrue(dispatcher.isStopped());
+		Assert.assertTrue(counter.get() < 1000);
+	}
+
+	@Test(expected = CoreException.class)
+	public void testRethrowFailure() {
+		SynchronizationItemDispatcher<String> dispatcher = new SynchronizationItemDispatcher<>(2, 2, item -> {
+			throw new CoreException("mock");
+		}, null);
+		//
+		dispatcher.submit("one", null, "one");
+		dispatcher.finish();
+	}
+}
@@ -1308,6 +1308,59 @@ public class IdentitySyncTest extends AbstractIntegrationTest {
 		assertEquals(testLastName, updatedIdentity3.getLastName());
 	}
 
+	@Test
+	public void testLinkAndCreateIdentityWithCorrelationPrefetch() {
+		SysSystemDto system = initData();
+		Assert.assertNotNull(system);
+		SysSyncIdentityConfigDto config = doCreateSyncConfig(system);
+		config.setUnlinkedAction(SynchronizationUnlinkedActionType.LINK_AND_UPDATE_ENTITY);
+		config.setCorrelationPrefetch(true);
+		config = (SysSyncIdentityConfigDto) syncConfigService.save(config);
+
+		this.getBean().deleteAllResourceData();
+
+		String testLastName = "test-last-name-same-" + System.currentTimeMillis();
+		String testFirstName = "test-first-name-";
+		// correlated identities
+		String user1 = "test-1-" + System.currentTimeMillis();
+		IdmIdentityDto identity1 = helper.createIdentity(user1);
+		this.getBean().setTestData(user1, testFirstName + 1, testLastName);
+		String user2 = "test-2-" + System.currentTimeMillis();
+		IdmIdentityDto identity2 = helper.createIdentity(user2);
+		this.getBean().setTestData(user2, testFirstName + 2, testLastName);
+		// uncorrelated identity
+		String user3 = "test-3-" + System.currentTimeMillis();
+		this.getBean().setTestData(user3, testFirstName + 3, testLastName);
+		Assert.assertNull(identityService.getByUsername(user3));
+
+		helper.startSynchronization(config);
+
+		SysSyncLogDto log = checkSyncLog(config, SynchronizationActionType.LINK_AND_UPDATE_ENTITY, 2,
+				OperationResultType.SUCCESS);
+		Assert.assertFalse(log.isRunning());
+		Assert.assertFalse(log.isContainsError());
+		checkSyncLog(config, SynchronizationActionType.CREATE_ENTITY, 1, OperationResultType.SUCCESS);
+
+		IdmIdentityDto updatedIdentity1 = identityService.getByUsername(user1);
+		IdmIdentityDto updatedIdentity2 = identityService.getByUsername(user2);
+		IdmIdentityDto createdIdentity3 = identityService.getByUsername(user3);
+		assertEquals(identity1.getId(), updatedIdentity1.getId());
+		assertEquals(identity2.getId(), updatedIdentity2.getId());
+		assertEquals(testFirstName + 1, updatedIdentity1.getFirstName());
+		assertEquals(testFirstName + 2, updatedIdentity2.getFirstName());
+		Assert.assertNotNull(createdIdentity3);
+		assertEquals(testFirstName + 3, createdIdentity3.getFirstName());
+		assertEquals(testLastName, createdIdentity3.getLastName());
+
+		// all items are linked now - correlation is not used
+		helper.startSynchronization(config);
+
+		log = checkSyncLog(config, SynchronizationActionType.UPDATE_ENTITY, 3, OperationResultType.SUCCESS);
+		Assert.assertFalse(log.isRunning());
+		Assert.assertFalse(log.isContainsError());
+		assertEquals(createdIdentity3.getId(), identityService.getByUsername(user3).getId());
+	}
+
 	@Test
 	public void testTaskExecution() throws InterruptedException {
 		getHelper().setConfigurationValue(SchedulerConfiguration.PROPERTY_TASK_ASYNCHRONOUS_ENABLED, true);
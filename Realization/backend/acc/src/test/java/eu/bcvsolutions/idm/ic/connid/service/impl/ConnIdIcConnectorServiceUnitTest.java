@@ -0,0 +1,193 @@
+package eu.bcvsolutions.idm.ic.connid.service.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.identityconnectors.framework.api.ConnectorFacade;
+import org.identityconnectors.framework.common.objects.ConnectorObjectBuilder;
+import org.identityconnectors.framework.common.objects.ObjectClass;
+import org.identityconnectors.framework.common.objects.OperationOptions;
+import org.identityconnectors.framework.common.objects.ResultsHandler;
+import org.identityconnectors.framework.common.objects.SearchResult;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+
+import eu.bcvsolutions.idm.ic.api.IcConnectorInstance;
+import eu.bcvsolutions.idm.ic.api.IcConnectorConfiguration;
+import eu.bcvsolutions.idm.ic.impl.IcConnectorConfigurationImpl;
+import eu.bcvsolutions.idm.ic.impl.IcConnectorInstanceImpl;
+import eu.bcvsolutions.idm.ic.impl.IcConnectorKeyImpl;
+import eu.bcvsolutions.idm.ic.impl.IcObjectClassImpl;
+import eu.bcvsolutions.idm.ic.service.api.IcConnectorFacade;
+import eu.bcvsolutions.idm.ic.service.api.IcConnectorFacadeFactory;
+import eu.bcvsolutions.idm.ic.service.api.IcConnectorService;
+import eu.bcvsolutions.idm.test.api.AbstractUnitTest;
+
+/**
+ * Iterative paged search (with prefetch) on connector.
+ */
+public class ConnIdIcConnectorServiceUnitTest extends AbstractUnitTest {
+
+	private static final int PAGE_SIZE = 2;
+	//
+	@Mock private IcConnectorFacade icConnectorAggregator;
+	@Mock private IcConnectorFacadeFactory facadeFactory;
+	@Mock private ConnectorFacade connectorFacade;
+	//
+	private ConnIdIcConnectorService service;
+	private IcConnectorInstance connectorInstance;
+	
+	@Before
+	public void init() {
+		Map<String, IcConnectorService> connectors = new HashMap<>();
+		when(icConnectorAggregator.getIcConnectors()).thenReturn(connectors);
+		when(facadeFactory.getConnectorFacade(any(), any())).thenReturn(connectorFacade);
+		service = new ConnIdIcConnectorService(icConnectorAggregator, facadeFactory);
+		connectorInstance = new IcConnectorInstanceImpl(null, new IcConnectorKeyImpl("connId", "bundle", "1.0", "connector"), false);
+	}
+	
+	@Test
+	public void testPagedSearchAllPages() {
+		mockPages(3, false);
+		List<String> uids = new ArrayList<>();
+		//
+		service.search(connectorInstance, createConfiguration(false), new IcObjectClassImpl("__ACCOUNT__"), null, connectorObject -> {
+			uids.add(connectorObject.getUidValue());
+			return true;
+		});
+		//
+		assertEquals(6, uids.size());
+		assertEquals("0-0", uids.get(0));
+		assertEquals("2-1", uids.get(5));
+		ArgumentCaptor<OperationOptions> options = ArgumentCaptor.forClass(OperationOptions.class);
+		verify(connectorFacade, times(3)).search(any(ObjectClass.class), any(), any(ResultsHandler.class), options.capture());
+		assertNull(options.getAllValues().get(0).getPagedResultsCookie());
+		assertEquals("1", options.getAllValues().get(1).getPagedResultsCookie());
+		assertEquals("2", options.getAllValues().get(2).getPagedResultsCookie());
+	}
+	
+	@Test
+	public void testPagedSearchCookieExhausted() {
+		// the last page returns cookie, but no remaining results
+		mockPages(2, true);
+		List<String> uids = new ArrayList<>();
+		//
+		service.search(connectorInstance, createConfiguration(false), new IcObjectClassImpl("__ACCOUNT__"), null, connectorObject -> {
+			uids.add(connectorObject.getUidValue());
+			return true;
+		});
+		//
+		assertEquals(4, uids.size());
+		verify(connectorFacade, times(2)).search(any(ObjectClass.class), any(), any(ResultsHandler.class), any(OperationOptions.class));
+	}
+	
+	@Test
+	public void testPagedSearchStoppedByHandler() {
+		mockPages(3, false);
+		List<String> uids = new ArrayList<>();
+		//
+		service.search(connectorInstance, createConfiguration(false), new IcObjectClassImpl("__ACCOUNT__"), null, connectorObject -> {
+			uids.add(connectorObject.getUidValue());
+			return uids.size() < 3;
+		});
+		//
+		assertEquals(3, uids.size());
+		verify(connectorFacade, times(2)).search(any(ObjectClass.class), any(), any(ResultsHandler.class), any(OperationOptions.class));
+	}
+	
+	@Test
+	public void testPrefetchSearchAllPages() {
+		mockPages(3, true);
+		List<String> uids = new ArrayList<>();
+		//
+		service.search(connectorInstance, createConfiguration(true), new IcObjectClassImpl("__ACCOUNT__"), null, connectorObject -> {
+			uids.add(connectorObject.getUidValue());
+			return true;
+		});
+		//
+		assertEquals(6, uids.size());
+		for (int index = 0; index < uids.size(); index++) {
+			assertEquals(String.format("%s-%s", index / PAGE_SIZE, index % PAGE_SIZE), uids.get(index));
+		}
+		verify(connectorFacade, times(3)).search(any(ObjectClass.class), any(), any(ResultsHandler.class), any(OperationOptions.class));
+	}
+	
+	@Test
+	public void testPrefetchSearchCanceled() throws Exception {
+		List<Integer> searchedPages = mockPages(10, false);
+		List<String> uids = new ArrayList<>();
+		//
+		service.search(connectorInstance, createConfiguration(true), new IcObjectClassImpl("__ACCOUNT__"), null, connectorObject -> {
+			uids.add(connectorObject.getUidValue());
+			return false;
+		});
+		//
+		assertEquals(1, uids.size());
+		// producer is stopped - at most one page is prepared in advance, while the next page is searched
+		Thread.sleep(500);
+		int searched = searchedPages.size();
+		assertTrue(String.valueOf(searched), searched <= 3);
+		Thread.sleep(300);
+		assertEquals(searched, searchedPages.size());
+	}
+	
+	@Test(expected = NoClassDefFoundError.class)
+	public void testPrefetchSearchPropagateError() {
+		when(connectorFacade.search(any(ObjectClass.class), any(), any(ResultsHandler.class), any(OperationOptions.class)))
+			.thenThrow(new NoClassDefFoundError("connector"));
+		//
+		service.search(connectorInstance, createConfiguration(true), new IcObjectClassImpl("__ACCOUNT__"), null, connectorObject -> true);
+	}
+	
+	/**
+	 * Connector returns pages with {@link #PAGE_SIZE} objects, uid is "page-index", cookie is the next page number.
+	 * 
+	 * @param pageCount number of pages
+	 * @param cookieOnLastPage last page returns cookie with no remaining results
+	 * @return searched page numbers
+	 */
+	private List<Integer> mockPages(int pageCount, boolean cookieOnLastPage) {
+		List<Integer> searchedPages = new CopyOnWriteArrayList<>();
+		when(connectorFacade.search(any(ObjectClass.class), any(), any(ResultsHandler.class), any(OperationOptions.class))).thenAnswer(invocation -> {
+			ResultsHandler handler = invocation.getArgument(2);
+			OperationOptions options = invocation.getArgument(3);
+			int page = options.getPagedResultsCookie() == null ? 0 : Integer.valueOf(options.getPagedResultsCookie());
+			searchedPages.add(page);
+			for (int index = 0; index < PAGE_SIZE; index++) {
+				String uid = String.format("%s-%s", page, index);
+				if (!handler.handle(new ConnectorObjectBuilder().setUid(uid).setName(uid).setObjectClass(ObjectClass.ACCOUNT).build())) {
+					return new SearchResult(null, -1);
+				}
+			}
+			int remaining = (pageCount - page - 1) * PAGE_SIZE;
+			if (remaining > 0) {
+				return new SearchResult(String.valueOf(page + 1), remaining);
+			}
+			return new SearchResult(cookieOnLastPage ? String.valueOf(page + 1) : null, 0);
+		});
+		return searchedPages;
+	}
+	
+	private IcConnectorConfiguration createConfiguration(boolean prefetch) {
+		Map<String, Object> operationOptions = new HashMap<>();
+		operationOptions.put(OperationOptions.OP_PAGE_SIZE, PAGE_SIZE);
+		operationOptions.put(IcConnectorConfiguration.PREFETCH_NEXT_PAGE_KEY, prefetch);
+		IcConnectorConfigurationImpl configuration = new IcConnectorConfigurationImpl();
+		configuration.setOperationOptions(operationOptions);
+		//
+		return configuration;
+	}
+}
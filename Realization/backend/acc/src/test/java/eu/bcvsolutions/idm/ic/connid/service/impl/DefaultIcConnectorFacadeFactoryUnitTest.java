@@ -0,0 +1,159 @@
+package eu.bcvsolutions.idm.ic.connid.service.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.identityconnectors.framework.api.ConnectorFacade;
+import org.junit.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+
+import com.google.common.collect.Lists;
+
+import eu.bcvsolutions.idm.core.api.config.cache.domain.CacheObjectWrapper;
+import eu.bcvsolutions.idm.core.api.service.IdmCacheManager;
+import eu.bcvsolutions.idm.core.security.api.domain.GuardedString;
+import eu.bcvsolutions.idm.ic.api.IcConnectorInstance;
+import eu.bcvsolutions.idm.ic.impl.IcConfigurationPropertiesImpl;
+import eu.bcvsolutions.idm.ic.impl.IcConfigurationPropertyImpl;
+import eu.bcvsolutions.idm.ic.impl.IcConnectorConfigurationImpl;
+import eu.bcvsolutions.idm.ic.impl.IcConnectorInstanceImpl;
+import eu.bcvsolutions.idm.ic.impl.IcConnectorKeyImpl;
+import eu.bcvsolutions.idm.ic.service.api.IcConnectorFacadeFactory;
+import eu.bcvsolutions.idm.test.api.AbstractVerifiableUnitTest;
+
+/**
+ * Connector facade cache key and eviction.
+ */
+public class DefaultIcConnectorFacadeFactoryUnitTest extends AbstractVerifiableUnitTest {
+
+	@Mock private ConnIdIcConfigurationService configurationServiceConnId;
+	@Mock private IdmCacheManager cacheManager;
+	//
+	@InjectMocks
+	private DefaultIcConnectorFacadeFactory factory;
+	
+	@Test
+	public void testCacheKeyIsStableForGuardedStringArrays() {
+		IcConnectorInstance connectorInstance = createConnectorInstance();
+		//
+		String keyOne = factory.getCacheKey(connectorInstance, createConfiguration(
+				new org.identityconnectors.common.security.GuardedString("one".toCharArray()),
+				new GuardedString[] { new GuardedString("one"), new GuardedString("two") },
+				new org.identityconnectors.common.security.GuardedString[] {
+						new org.identityconnectors.common.security.GuardedString("one".toCharArray())
+				},
+				Lists.newArrayList("one", "two")));
+		String keyTwo = factory.getCacheKey(connectorInstance, createConfiguration(
+				new org.identityconnectors.common.security.GuardedString("one".toCharArray()),
+				new GuardedString[] { new GuardedString("one"), new GuardedString("two") },
+				new org.identityconnectors.common.security.GuardedString[] {
+						new org.identityconnectors.common.security.GuardedString("one".toCharArray())
+				},
+				Lists.newArrayList("one", "two")));
+		//
+		assertEquals(keyOne, keyTwo);
+	}
+	
+	@Test
+	public void testCacheKeyIsChangedWithValue() {
+		IcConnectorInstance connectorInstance = createConnectorInstance();
+		//
+		String key = factory.getCacheKey(connectorInstance, createConfiguration(
+				new org.identityconnectors.common.security.GuardedString("one".toCharArray()),
+				new GuardedString[] { new GuardedString("one") },
+				new org.identityconnectors.common.security.GuardedString[] {
+						new org.identityconnectors.common.security.GuardedString("one".toCharArray())
+				},
+				"one"));
+		// changed password
+		assertNotEquals(key, factory.getCacheKey(connectorInstance, createConfiguration(
+				new org.identityconnectors.common.security.GuardedString("two".toCharArray()),
+				new GuardedString[] { new GuardedString("one") },
+				new org.identityconnectors.common.security.GuardedString[] {
+						new org.identityconnectors.common.security.GuardedString("one".toCharArray())
+				},
+				"one")));
+		// changed array element
+		assertNotEquals(key, factory.getCacheKey(connectorInstance, createConfiguration(
+				new org.identityconnectors.common.security.GuardedString("one".toCharArray()),
+				new GuardedString[] { new GuardedString("two") },
+				new org.identityconnectors.common.security.GuardedString[] {
+						new org.identityconnectors.common.security.GuardedString("one".toCharArray())
+				},
+				"one")));
+		// changed array size
+		assertNotEquals(key, factory.getCacheKey(connectorInstance, createConfiguration(
+				new org.identityconnectors.common.security.GuardedString("one".toCharArray()),
+				new GuardedString[] { new GuardedString("one") },
+				new org.identityconnectors.common.security.GuardedString[] {
+						new org.identityconnectors.common.security.GuardedString("one".toCharArray()),
+						new org.identityconnectors.common.security.GuardedString("one".toCharArray())
+				},
+				"one")));
+		// changed operation option
+		assertNotEquals(key, factory.getCacheKey(connectorInstance, createConfiguration(
+				new org.identityconnectors.common.security.GuardedString("one".toCharArray()),
+				new GuardedString[] { new GuardedString("one") },
+				new org.identityconnectors.common.security.GuardedString[] {
+						new org.identityconnectors.common.security.GuardedString("one".toCharArray())
+				},
+				"two")));
+	}
+	
+	@Test
+	public void testEvictConnectorFacadesOfSystemOnly() {
+		IcConnectorInstance connectorInstance = createConnectorInstance();
+		IcConnectorConfigurationImpl configurationOne = createConfiguration("one", "one", "one", "one");
+		configurationOne.setSystemKey("systemOne");
+		IcConnectorConfigurationImpl configurationTwo = createConfiguration("two", "two", "two", "two");
+		configurationTwo.setSystemKey("systemTwo");
+		String keyOne = factory.getCacheKey(connectorInstance, configurationOne);
+		String keyTwo = factory.getCacheKey(connectorInstance, configurationTwo);
+		ConnectorFacade facade = mock(ConnectorFacade.class);
+		when(cacheManager.getValue(IcConnectorFacadeFactory.CACHE_NAME, keyOne)).thenReturn(new CacheObjectWrapper<>(facade));
+		when(cacheManager.getValue(IcConnectorFacadeFactory.CACHE_NAME, keyTwo)).thenReturn(new CacheObjectWrapper<>(facade));
+		//
+		assertEquals(facade, factory.getConnectorFacade(connectorInstance, configurationOne));
+		assertEquals(facade, factory.getConnectorFacade(connectorInstance, configurationTwo));
+		//
+		factory.evictConnectorFacades("systemOne");
+		factory.evictConnectorFacades("systemOne"); // already evicted
+		factory.evictConnectorFacades("systemUnknown");
+		//
+		verify(cacheManager).getValue(IcConnectorFacadeFactory.CACHE_NAME, keyOne);
+		verify(cacheManager).getValue(IcConnectorFacadeFactory.CACHE_NAME, keyTwo);
+		verify(cacheManager).evictValue(IcConnectorFacadeFactory.CACHE_NAME, keyOne);
+		verify(cacheManager, never()).evictValue(IcConnectorFacadeFactory.CACHE_NAME, keyTwo);
+		verify(cacheManager, never()).evictCache(IcConnectorFacadeFactory.CACHE_NAME);
+	}
+	
+	private IcConnectorInstance createConnectorInstance() {
+		return new IcConnectorInstanceImpl(null, new IcConnectorKeyImpl("connId", "bundle", "1.0", "connector"), false);
+	}
+	
+	private IcConnectorConfigurationImpl createConfiguration(
+			Object password, 
+			Object passwords, 
+			Object connIdPasswords, 
+			Object operationOption) {
+		IcConfigurationPropertiesImpl properties = new IcConfigurationPropertiesImpl();
+		properties.getProperties().add(new IcConfigurationPropertyImpl("password", password));
+		properties.getProperties().add(new IcConfigurationPropertyImpl("passwords", passwords));
+		properties.getProperties().add(new IcConfigurationPropertyImpl("connIdPasswords", connIdPasswords));
+		IcConnectorConfigurationImpl configuration = new IcConnectorConfigurationImpl();
+		configuration.setConfigurationProperties(properties);
+		Map<String, Object> operationOptions = new HashMap<>();
+		operationOptions.put("option", operationOption);
+		configuration.setOperationOptions(operationOptions);
+		//
+		return configuration;
+	}
+}
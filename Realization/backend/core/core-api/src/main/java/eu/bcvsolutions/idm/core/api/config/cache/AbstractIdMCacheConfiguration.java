@@ -24,6 +24,9 @@ public abstract class AbstractIdMCacheConfiguration implements IdMCacheConfigura
 	private final boolean onlyLocal;
 	private final long size;
 	private final Duration ttl;
+	private final long nearCacheSize;
+	private final Duration nearCacheTtl;
+	private final long heapSize;
 
 	protected AbstractIdMCacheConfiguration(
 			String cacheName, 
@@ -43,6 +46,25 @@ public abstract class AbstractIdMCacheConfiguration implements IdMCacheConfigura
 			boolean onlyLocal, 
 			long size,
 			Duration ttl) {
+		this(cacheName, keyType, valueType, properties, onlyLocal, size, ttl, 0, null, 0);
+	}
+	
+	/**
+	 * Configuration with near cache and max heap size.
+	 * 
+	 * @since 13.1.0
+	 */
+	protected AbstractIdMCacheConfiguration(
+			String cacheName, 
+			Class<?> keyType, 
+			Class<?> valueType, 
+			ImmutableMap<String, Object> properties, 
+			boolean onlyLocal, 
+			long size,
+			Duration ttl,
+			long nearCacheSize,
+			Duration nearCacheTtl,
+			long heapSize) {
 		this.cacheName = cacheName;
 		this.keyType = keyType;
 		this.valueType = valueType;
@@ -50,6 +72,9 @@ public abstract class AbstractIdMCacheConfiguration implements IdMCacheConfigura
 		this.onlyLocal = onlyLocal;
 		this.size = size;
 		this.ttl = ttl == null ? INFINITE_TTL : ttl;
+		this.nearCacheSize = nearCacheSize;
+		this.nearCacheTtl = nearCacheTtl == null ? INFINITE_TTL : nearCacheTtl;
+		this.heapSize = heapSize;
 	}
 
 	@Override
@@ -97,6 +122,21 @@ public abstract class AbstractIdMCacheConfiguration implements IdMCacheConfigura
 	public Duration getTtl() {
 		return ttl;
 	}
+	
+	@Override
+	public long getNearCacheSize() {
+		return nearCacheSize;
+	}
+	
+	@Override
+	public Duration getNearCacheTtl() {
+		return nearCacheTtl;
+	}
+	
+	@Override
+	public long getHeapSize() {
+		return heapSize;
+	}
 
 	/**
 	 * Builder for cache configuration. It ensures, that ll required configuration options are set before creating
@@ -113,6 +153,9 @@ public abstract class AbstractIdMCacheConfiguration implements IdMCacheConfigura
 		protected final Map<String, Object> properties = new HashMap<>();
 		protected Long size = null;
 		protected Duration ttl = null;
+		protected long nearCacheSize = 0;
+		protected Duration nearCacheTtl = null;
+		protected long heapSize = 0;
 
 		public Builder<K, V> withName(final String name) {
 			this.cacheName = name;
@@ -139,10 +182,47 @@ public abstract class AbstractIdMCacheConfiguration implements IdMCacheConfigura
 			return this;
 		}
 		
+		/**
+		 * Max number of entries held in local on-heap cache.
+		 * 
+		 * @param size number of entries
+		 * @return builder
+		 * @since 13.1.0
+		 */
+		public Builder<K, V> withCacheSize(long size) {
+			return witchCacheSize(size);
+		}
+		
+		/**
+		 * Max heap size of local on-heap cache in bytes - cache is bounded by heap size instead of entry count.
+		 * 
+		 * @param heapSize max heap size in bytes
+		 * @return builder
+		 * @since 13.1.0
+		 */
+		public Builder<K, V> withHeapSize(long heapSize) {
+			this.heapSize = heapSize;
+			return this;
+		}
+		
 		public Builder<K, V> withTtl(Duration ttl) {
 			this.ttl = ttl;
 			return this;
 		}
+		
+		/**
+		 * On-heap near cache in front of distributed cache (used, when distributed cache server is configured).
+		 * 
+		 * @param size number of entries, which near cache can hold
+		 * @param ttl near cache entry expiration
+		 * @return builder
+		 * @since 13.1.0
+		 */
+		public Builder<K, V> withNearCache(long size, Duration ttl) {
+			this.nearCacheSize = size;
+			this.nearCacheTtl = ttl;
+			return this;
+		}
 
 		public abstract AbstractIdMCacheConfiguration build();
 
@@ -11,6 +11,8 @@ import com.google.common.collect.ImmutableMap;
  * Implementation of {@link IdMCacheConfiguration} which is used to define distributed caches. Note that if no distributed
  * cache server is configured, then this cache may be initialized as on-heap only.
  *
+ * Distributed cache can be fronted by on-heap near cache, see {@link Builder#withNearCache(long, Duration)}.
+ *
  * @author Peter Štrunc <peter.strunc@bcvsolutions.eu>
  */
 public class DistributedIdMCacheConfiguration extends AbstractIdMCacheConfiguration {
@@ -33,7 +35,26 @@ public class DistributedIdMCacheConfiguration extends AbstractIdMCacheConfigurat
 			boolean onlyLocal, 
 			long size,
 			Duration ttl) {
-		super(cacheName, keyType, valueType, properties, onlyLocal, size, ttl);
+		this(cacheName, keyType, valueType, properties, onlyLocal, size, ttl, 0, null, 0);
+	}
+	
+	/**
+	 * Distributed cache with near cache and max heap size.
+	 * 
+	 * @since 13.1.0
+	 */
+	protected DistributedIdMCacheConfiguration(
+			String cacheName, 
+			Class<? extends Serializable> keyType,
+			Class<? extends Serializable> valueType,
+			ImmutableMap<String, Object> properties,
+			boolean onlyLocal, 
+			long size,
+			Duration ttl,
+			long nearCacheSize,
+			Duration nearCacheTtl,
+			long heapSize) {
+		super(cacheName, keyType, valueType, properties, onlyLocal, size, ttl, nearCacheSize, nearCacheTtl, heapSize);
 	}
 
 	public static <K extends Serializable, V extends Serializable> DistributedIdMCacheConfiguration.Builder <K, V> builder() {
@@ -55,7 +76,10 @@ public class DistributedIdMCacheConfiguration extends AbstractIdMCacheConfigurat
 					ImmutableMap.copyOf(properties),
 					false, 
 					size == null ? DEFAULT_HEAP_CACHE_SIZE : size,
-					ttl
+					ttl,
+					nearCacheSize,
+					nearCacheTtl,
+					heapSize
 			);
 		}
 	}
@@ -78,4 +78,38 @@ public interface IdMCacheConfiguration {
 	default Duration getTtl() {
 		return INFINITE_TTL;
 	}
+	
+	/**
+	 * Count of entries held in on-heap near cache in front of distributed cache. 
+	 * Near cache is used, when distributed cache server is configured only.
+	 * 
+	 * @return number of entries, which near cache can hold. {@code 0} - near cache is disabled (default).
+	 * @since 13.1.0
+	 */
+	default long getNearCacheSize() {
+		return 0;
+	}
+	
+	/**
+	 * Near cache entry expiration - entries changed on other cluster node are invalidated asynchronously,
+	 * this time limits how long can be the stale entry returned from near cache at most.
+	 * A {@link Duration duration} that represents an infinite time by default, never returns {@code null}.
+	 * 
+	 * @return time to live duration.
+	 * @since 13.1.0
+	 */
+	default Duration getNearCacheTtl() {
+		return INFINITE_TTL;
+	}
+	
+	/**
+	 * Max heap size of local on-heap cache in bytes. If heap size is set, then entry count ({@link #getSize()}) is not used
+	 * and cache is bounded by (estimated) heap size of entries.
+	 * 
+	 * @return max heap size in bytes. {@code 0} - entry count ({@link #getSize()}) is used (default).
+	 * @since 13.1.0
+	 */
+	default long getHeapSize() {
+		return 0;
+	}
 }
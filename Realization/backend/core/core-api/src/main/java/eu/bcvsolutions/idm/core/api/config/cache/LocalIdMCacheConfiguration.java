@@ -34,7 +34,25 @@ public class LocalIdMCacheConfiguration extends AbstractIdMCacheConfiguration {
 			boolean onlyLocal, 
 			long size,
 			Duration ttl) {
-		super(cacheName, keyType, valueType, properties, onlyLocal, size, ttl);
+		this(cacheName, keyType, valueType, properties, onlyLocal, size, ttl, 0);
+	}
+	
+	/**
+	 * Local cache with max heap size.
+	 * 
+	 * @since 13.1.0
+	 */
+	protected LocalIdMCacheConfiguration(
+			String cacheName, 
+			Class<?> keyType, 
+			Class<?> valueType, 
+			ImmutableMap<String, 
+			Object> properties, 
+			boolean onlyLocal, 
+			long size,
+			Duration ttl,
+			long heapSize) {
+		super(cacheName, keyType, valueType, properties, onlyLocal, size, ttl, 0, null, heapSize);
 	}
 
 	public static <K, V> LocalIdMCacheConfiguration.Builder <K, V> builder() {
@@ -55,7 +73,8 @@ public class LocalIdMCacheConfiguration extends AbstractIdMCacheConfiguration {
 					valueType, 
 					ImmutableMap.copyOf(properties),
 					true, size == null ? DEFAULT_HEAP_CACHE_SIZE : size,
-					ttl);
+					ttl,
+					heapSize);
 		}
 	}
 
@@ -2,11 +2,11 @@ package eu.bcvsolutions.idm.core.api.config.domain;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.Executor;
 
 import eu.bcvsolutions.idm.core.api.service.Configurable;
 import eu.bcvsolutions.idm.core.api.service.ConfigurationService;
 import eu.bcvsolutions.idm.core.scheduler.api.config.SchedulerConfiguration;
+import eu.bcvsolutions.idm.core.scheduler.api.service.PartitionedExecutor;
 
 /**
  * Configuration for event processing.
@@ -74,11 +74,11 @@ public interface EventConfiguration extends Configurable {
 	}
 	
 	/**
-	 * Asynchronous event executor 
+	 * Asynchronous event executor - events are partitioned by (super) owner into ordered lanes.
 	 * 
 	 * @return
 	 */
-	Executor getExecutor();
+	PartitionedExecutor getExecutor();
 	
 	/**
 	 * Returns true, if asynchronous event processing is enabled
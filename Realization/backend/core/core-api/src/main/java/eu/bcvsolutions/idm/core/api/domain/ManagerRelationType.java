@@ -0,0 +1,18 @@
+package eu.bcvsolutions.idm.core.api.domain;
+
+/**
+ * How is manager related to subordinate contract.
+ * 
+ * @since 13.1.0
+ */
+public enum ManagerRelationType {
+
+	/**
+	 * Manager is configured manually as contract guarantee.
+	 */
+	GUARANTEE,
+	/**
+	 * Manager has contract on parent tree node of subordinate contract work position.
+	 */
+	TREE;
+}
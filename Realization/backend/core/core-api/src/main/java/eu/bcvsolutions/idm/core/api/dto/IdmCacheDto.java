@@ -14,6 +14,15 @@ public class IdmCacheDto extends AbstractComponentDto {
     private static final long serialVersionUID = 1L;
     //
     private long size;
+    private long hitCount; // @since 13.1.0
+    private long missCount; // @since 13.1.0
+    private long nearCacheHitCount; // @since 13.1.0
+    private long nearCacheSize; // @since 13.1.0
+    private float averageGetTime; // @since 13.1.0
+    private long putCount; // @since 13.1.0
+    private long removalCount; // @since 13.1.0
+    private long evictionCount; // @since 13.1.0
+    private long heapSize; // @since 13.1.0
 
     /**
      * Item count in cache.
@@ -32,4 +41,184 @@ public class IdmCacheDto extends AbstractComponentDto {
     public void setSize(long size) {
         this.size = size;
     }
+
+    /**
+     * Count of values found in cache (including near cache).
+     * 
+     * @return count
+     * @since 13.1.0
+     */
+    public long getHitCount() {
+        return hitCount;
+    }
+    
+    /**
+     * Count of values found in cache (including near cache).
+     * 
+     * @param hitCount count
+     * @since 13.1.0
+     */
+    public void setHitCount(long hitCount) {
+        this.hitCount = hitCount;
+    }
+    
+    /**
+     * Count of values not found in cache.
+     * 
+     * @return count
+     * @since 13.1.0
+     */
+    public long getMissCount() {
+        return missCount;
+    }
+    
+    /**
+     * Count of values not found in cache.
+     * 
+     * @param missCount count
+     * @since 13.1.0
+     */
+    public void setMissCount(long missCount) {
+        this.missCount = missCount;
+    }
+    
+    /**
+     * Count of values found in on-heap near cache (distributed cache was not used).
+     * 
+     * @return count
+     * @since 13.1.0
+     */
+    public long getNearCacheHitCount() {
+        return nearCacheHitCount;
+    }
+    
+    /**
+     * Count of values found in on-heap near cache (distributed cache was not used).
+     * 
+     * @param nearCacheHitCount count
+     * @since 13.1.0
+     */
+    public void setNearCacheHitCount(long nearCacheHitCount) {
+        this.nearCacheHitCount = nearCacheHitCount;
+    }
+    
+    /**
+     * Item count in on-heap near cache.
+     * 
+     * @return item count
+     * @since 13.1.0
+     */
+    public long getNearCacheSize() {
+        return nearCacheSize;
+    }
+    
+    /**
+     * Item count in on-heap near cache.
+     * 
+     * @param nearCacheSize item count
+     * @since 13.1.0
+     */
+    public void setNearCacheSize(long nearCacheSize) {
+        this.nearCacheSize = nearCacheSize;
+    }
+    
+    /**
+     * Average time to get value from cache in microseconds.
+     * 
+     * @return microseconds
+     * @since 13.1.0
+     */
+    public float getAverageGetTime() {
+        return averageGetTime;
+    }
+    
+    /**
+     * Average time to get value from cache in microseconds.
+     * 
+     * @param averageGetTime microseconds
+     * @since 13.1.0
+     */
+    public void setAverageGetTime(float averageGetTime) {
+        this.averageGetTime = averageGetTime;
+    }
+    
+    /**
+     * Count of values put into cache.
+     * 
+     * @return count
+     * @since 13.1.0
+     */
+    public long getPutCount() {
+        return putCount;
+    }
+    
+    /**
+     * Count of values put into cache.
+     * 
+     * @param putCount count
+     * @since 13.1.0
+     */
+    public void setPutCount(long putCount) {
+        this.putCount = putCount;
+    }
+    
+    /**
+     * Count of values removed (evicted) from cache by manager.
+     * 
+     * @return count
+     * @since 13.1.0
+     */
+    public long getRemovalCount() {
+        return removalCount;
+    }
+    
+    /**
+     * Count of values removed (evicted) from cache by manager.
+     * 
+     * @param removalCount count
+     * @since 13.1.0
+     */
+    public void setRemovalCount(long removalCount) {
+        this.removalCount = removalCount;
+    }
+    
+    /**
+     * Count of values evicted from cache, when cache size was exceeded.
+     * 
+     * @return count
+     * @since 13.1.0
+     */
+    public long getEvictionCount() {
+        return evictionCount;
+    }
+    
+    /**
+     * Count of values evicted from cache, when cache size was exceeded.
+     * 
+     * @param evictionCount count
+     * @since 13.1.0
+     */
+    public void setEvictionCount(long evictionCount) {
+        this.evictionCount = evictionCount;
+    }
+    
+    /**
+     * Estimated heap size of cache items in bytes (estimated from sampled items).
+     * 
+     * @return bytes
+     * @since 13.1.0
+     */
+    public long getHeapSize() {
+        return heapSize;
+    }
+    
+    /**
+     * Estimated heap size of cache items in bytes (estimated from sampled items).
+     * 
+     * @param heapSize bytes
+     * @since 13.1.0
+     */
+    public void setHeapSize(long heapSize) {
+        this.heapSize = heapSize;
+    }
 }
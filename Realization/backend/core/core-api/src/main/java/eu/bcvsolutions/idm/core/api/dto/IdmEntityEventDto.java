@@ -51,6 +51,8 @@ public class IdmEntityEventDto extends AbstractDto implements InstanceIdentifiab
 	@NotNull
 	private String instanceId;
 	private OperationResultDto result;
+	@Size(max = 64)
+	private String fingerprint; // content hash - duplicate events detection
 	
 	public IdmEntityEventDto() {
 	}
@@ -238,4 +240,25 @@ public class IdmEntityEventDto extends AbstractDto implements InstanceIdentifiab
 	public void setEventEnded(ZonedDateTime eventEnded) {
 		this.eventEnded = eventEnded;
 	}
+	
+	/**
+	 * Event content fingerprint - hash of event type, parent event type, properties and original source.
+	 * Events with the same owner and fingerprint are duplicates.
+	 * 
+	 * @return fingerprint or {@code null} - fingerprint cannot be computed (e.g. original source is not DTO)
+	 * @since 13.1.0
+	 */
+	public String getFingerprint() {
+		return fingerprint;
+	}
+	
+	/**
+	 * Event content fingerprint - hash of event type, parent event type, properties and original source.
+	 * 
+	 * @param fingerprint fingerprint
+	 * @since 13.1.0
+	 */
+	public void setFingerprint(String fingerprint) {
+		this.fingerprint = fingerprint;
+	}
 }
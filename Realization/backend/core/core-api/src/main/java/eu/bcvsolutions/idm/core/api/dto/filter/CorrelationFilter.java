@@ -1,5 +1,7 @@
 package eu.bcvsolutions.idm.core.api.dto.filter;
 
+import java.util.List;
+
 /**
  * Filter for search entity by correlation property.
  *
@@ -49,5 +51,25 @@ public interface CorrelationFilter extends BaseDataFilter {
     default void setValue(String value) {
     	set(PARAMETER_CORRELATION_VALUE, value);
     }
+    
+    /**
+     * Property values (~ dto/entity field value) - entities with one of given values are found (OR).
+     * 
+     * @return values
+     * @since 13.1.0
+     */
+    default List<String> getValues() {
+    	return getParameterConverter().toStrings(getData(), PARAMETER_CORRELATION_VALUE);
+    }
+    
+    /**
+     * Property values (~ dto/entity field value) - entities with one of given values are found (OR).
+     * 
+     * @param values values
+     * @since 13.1.0
+     */
+    default void setValues(List<String> values) {
+    	put(PARAMETER_CORRELATION_VALUE, values);
+    }
 
 }
\ No newline at end of file
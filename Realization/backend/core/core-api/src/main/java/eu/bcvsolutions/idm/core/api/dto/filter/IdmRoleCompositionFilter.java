@@ -31,6 +31,18 @@ public class IdmRoleCompositionFilter extends DataFilter implements ExternalIden
 	 * All for role
 	 */
 	public static final String PARAMETER_ROLE_ID = "roleId";
+	/**
+	 * Compositions of all sub roles (all levels in depth) of given superior role - materialized closure is used.
+	 * 
+	 * @since 13.1.0
+	 */
+	public static final String PARAMETER_TRANSITIVE_SUPERIOR_ID = "transitiveSuperiorId";
+	/**
+	 * Compositions of all superior roles (all levels in height) of given sub role - materialized closure is used.
+	 * 
+	 * @since 13.1.0
+	 */
+	public static final String PARAMETER_TRANSITIVE_SUB_ID = "transitiveSubId";
 
 	public IdmRoleCompositionFilter() {
 		this(new LinkedMultiValueMap<>());
@@ -65,4 +77,44 @@ public class IdmRoleCompositionFilter extends DataFilter implements ExternalIden
 	public void setRoleId(UUID roleId) {
 		data.set(PARAMETER_ROLE_ID, roleId);
 	}
+	
+	/**
+	 * Compositions of all sub roles (all levels in depth) of given superior role.
+	 * 
+	 * @return superior role
+	 * @since 13.1.0
+	 */
+	public UUID getTransitiveSuperiorId() {
+		return DtoUtils.toUuid(data.getFirst(PARAMETER_TRANSITIVE_SUPERIOR_ID));
+	}
+	
+	/**
+	 * Compositions of all sub roles (all levels in depth) of given superior role.
+	 * 
+	 * @param transitiveSuperiorId superior role
+	 * @since 13.1.0
+	 */
+	public void setTransitiveSuperiorId(UUID transitiveSuperiorId) {
+		data.set(PARAMETER_TRANSITIVE_SUPERIOR_ID, transitiveSuperiorId);
+	}
+	
+	/**
+	 * Compositions of all superior roles (all levels in height) of given sub role.
+	 * 
+	 * @return sub role
+	 * @since 13.1.0
+	 */
+	public UUID getTransitiveSubId() {
+		return DtoUtils.toUuid(data.getFirst(PARAMETER_TRANSITIVE_SUB_ID));
+	}
+	
+	/**
+	 * Compositions of all superior roles (all levels in height) of given sub role.
+	 * 
+	 * @param transitiveSubId sub role
+	 * @since 13.1.0
+	 */
+	public void setTransitiveSubId(UUID transitiveSubId) {
+		data.set(PARAMETER_TRANSITIVE_SUB_ID, transitiveSubId);
+	}
 }
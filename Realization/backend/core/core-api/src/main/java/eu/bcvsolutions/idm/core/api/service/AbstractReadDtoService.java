@@ -658,12 +658,19 @@ public abstract class AbstractReadDtoService<DTO extends BaseDto, E extends Base
 	 * If the method {@link AbstractReadDtoService#supportsToDtoWithFilter()} return true
 	 * the method {@link AbstractReadDtoService#toDto(BaseEntity, BaseDto, BaseFilter)} will be called.
 	 * Otherwise will be called method {@link AbstractReadDtoService#toDto(BaseEntity, BaseDto)}.
+	 * When permissions are requested in filter ({@link PermissionContext}), permissions are evaluated for the whole page in one pass
+	 * (evaluated permissions are cached for each entity and used, when context is applied on dto).
 	 *
 	 * @param entityPage
 	 * @param filter
 	 * @return
 	 */
 	protected Page<DTO> toDtoPage(Page<E> entityPage, F filter) {
+		if (filter instanceof PermissionContext 
+				&& ((PermissionContext) filter).getAddPermissions()
+				&& entityPage.hasContent()) {
+			getAuthorizationManager().getPermissions(entityPage.getContent());
+		}
 		List<DTO> dtos = null;
 		// Check if service supports filter mapping and use correct method
 		if (supportsToDtoWithFilter()) {
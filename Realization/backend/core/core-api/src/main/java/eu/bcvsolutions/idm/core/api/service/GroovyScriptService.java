@@ -40,5 +40,21 @@ public interface GroovyScriptService {
 	 * @return
 	 */
 	Object evaluate(String script, Map<String, Object> variables, List<Class<?>> extraAllowedClasses);
+	
+	/**
+	 * Evaluates script and returns the result.
+	 * Script is secured with groovy sandbox. Only classes defined in GroovySandboxFilter, classes
+	 * from given variables will allowed in script and classes from extraAllowedCalsses parameter.
+	 * 
+	 * @param script
+	 * @param variables
+	 * @param extraAllowedClasses
+	 * @param scriptCode script code - script is identified by code in metrics (e.g. script evaluated by script evaluator)
+	 * @return
+	 * @since 13.1.0
+	 */
+	default Object evaluate(String script, Map<String, Object> variables, List<Class<?>> extraAllowedClasses, String scriptCode) {
+		return evaluate(script, variables, extraAllowedClasses);
+	}
 
 }
\ No newline at end of file
@@ -1,11 +1,13 @@
 package eu.bcvsolutions.idm.core.api.service;
 
+import java.util.List;
 import java.util.Set;
 import java.util.UUID;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import eu.bcvsolutions.idm.core.api.CoreModule;
 import eu.bcvsolutions.idm.core.api.domain.AutomaticRoleAttributeRuleType;
 import eu.bcvsolutions.idm.core.api.dto.AbstractIdmAutomaticRoleDto;
 import eu.bcvsolutions.idm.core.api.dto.IdmAutomaticRoleAttributeDto;
@@ -36,6 +38,24 @@ public interface IdmAutomaticRoleAttributeService extends
 	@Deprecated
 	String SKIP_RECALCULATION = AutomaticRoleManager.SKIP_RECALCULATION;
 	
+	/**
+	 * Version of compiled rules - rules are compiled into in-memory index, index is compiled again when version is evicted.
+	 * 
+	 * @since 13.1.0
+	 */
+	String RULE_INDEX_CACHE_NAME = IdmCacheManager.getCacheName(CoreModule.MODULE_ID, "automatic-role-attribute-rule-index-cache");
+	
+	/**
+	 * Rules are evaluated in memory for changed contract (or identity). Sql is used for automatic roles with rules,
+	 * which cannot be compiled, and for bulk recalculation. Disabled by default - in memory string comparison is case sensitive
+	 * and trailing spaces are significant. Enable only if database collation compares strings the same way
+	 * (e.g. not for case insensitive MSSQL collation).
+	 * 
+	 * @since 13.1.0
+	 */
+	String PROPERTY_RULE_INDEX_ENABLED = ConfigurationService.IDM_PRIVATE_PROPERTY_PREFIX + "core.automaticRole.attribute.ruleIndex.enabled";
+	boolean DEFAULT_RULE_INDEX_ENABLED = false;
+	
 	/**
 	 * Remove identity role (must be automatic role). This method doesn't use standard role request 
 	 * and remove {@link IdmIdentityRoleDto} directly.
@@ -88,6 +108,28 @@ public interface IdmAutomaticRoleAttributeService extends
 	 */
 	Page<UUID> getContractsForAutomaticRole(UUID automaticRoleId, boolean passed, Pageable pageable);
 	
+	/**
+	 * Return newly passed contracts by given automatic role by attribute (contracts without automatic role, which pass all rules).
+	 * Contracts are loaded by one query without entities - identifier, identity and validity are filled only
+	 * (usable for bulk assignment).
+	 *
+	 * @param automaticRoleId automatic role by attribute
+	 * @return contracts (identifier, identity and validity are filled only)
+	 * @since 13.1.0
+	 */
+	List<IdmIdentityContractDto> findContractsToAssign(UUID automaticRoleId);
+	
+	/**
+	 * Return identity roles assigned by given automatic role by attribute on contracts, which don't pass rules anymore.
+	 * Identity roles are loaded by one query without entities - identifier, contract and embedded contract with identity are filled only
+	 * (usable for bulk removal).
+	 *
+	 * @param automaticRoleId automatic role by attribute
+	 * @return identity roles (identifier, contract and embedded contract with identity are filled only)
+	 * @since 13.1.0
+	 */
+	List<IdmIdentityRoleDto> findIdentityRolesToRemove(UUID automaticRoleId);
+	
 	/**
 	 * Add automatic role to contract. This method doesn't use standard role request 
 	 * and add {@link IdmIdentityRoleDto} directly.
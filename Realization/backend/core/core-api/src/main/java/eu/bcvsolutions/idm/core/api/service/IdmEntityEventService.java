@@ -1,7 +1,9 @@
 package eu.bcvsolutions.idm.core.api.service;
 
 import java.time.ZonedDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 import org.springframework.data.domain.Page;
@@ -73,4 +75,28 @@ public interface IdmEntityEventService extends
 	 * @since 11.1.0
 	 */
 	int switchInstanceId(String previuosInstanceId, String newInstanceId);
+	
+	/**
+	 * Find created events (in the queue) with the same owner and content fingerprint as given events - duplicates of given events.
+	 * Given events are not returned. Events without fingerprint are ignored. Postponed events (execute date after given date) are ignored.
+	 * 
+	 * @param instanceId server instance
+	 * @param executeDate events with execute date before or equal given date (ready to be executed)
+	 * @param events events with fingerprint
+	 * @return duplicate created events
+	 * @since 13.1.0
+	 */
+	List<IdmEntityEventDto> findDuplicates(String instanceId, ZonedDateTime executeDate, Collection<IdmEntityEventDto> events);
+	
+	/**
+	 * Delete given events and their states in batch (set-based) - used for collapsing duplicate events in the queue.
+	 * Events with child events are not deleted.
+	 * 
+	 * Lookout: entity event processors are not called (events are not deleted one by one).
+	 * 
+	 * @param eventIds events to delete
+	 * @return deleted event identifiers
+	 * @since 13.1.0
+	 */
+	Set<UUID> deleteDuplicates(Collection<UUID> eventIds);
 }
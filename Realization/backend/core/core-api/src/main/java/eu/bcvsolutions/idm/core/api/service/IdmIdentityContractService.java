@@ -1,6 +1,7 @@
 package eu.bcvsolutions.idm.core.api.service;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -43,6 +44,14 @@ public interface IdmIdentityContractService extends
 	 */
 	String SKIP_HR_PROCESSES = "skip_hr_processes";
 	
+	/**
+	 * Materialized closure of managers and subordinates is valid => closure is used for filtering managers and subordinates.
+	 * Closure is not valid, till closure is rebuilt (by long running task).
+	 * 
+	 * @since 13.1.0
+	 */
+	String PROPERTY_MANAGER_CLOSURE_VALID = ConfigurationService.IDM_PRIVATE_PROPERTY_PREFIX + "core.identityContract.managerClosure.valid";
+	
 	/**
 	 * Returns working positions for given identity
 	 * 
@@ -139,4 +148,14 @@ public interface IdmIdentityContractService extends
 	 * @since 10.2.0
 	 */
 	void sortByPrimeContract(List<IdmIdentityContractDto> contracts);
+	
+	/**
+	 * Recount materialized closure of managers and subordinates for given contracts - contract is used
+	 * as subordinate contract (managers by guarantees and by tree structure) or as manager contract (subordinates by tree structure).
+	 * Closure of other contracts is not changed.
+	 * 
+	 * @param contractIds contracts
+	 * @since 13.1.0
+	 */
+	void recountManagerClosure(Collection<UUID> contractIds);
 }
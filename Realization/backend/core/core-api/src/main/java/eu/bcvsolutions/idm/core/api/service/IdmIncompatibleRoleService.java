@@ -5,6 +5,7 @@ import java.util.List;
 import java.util.Set;
 import java.util.UUID;
 
+import eu.bcvsolutions.idm.core.api.CoreModule;
 import eu.bcvsolutions.idm.core.api.domain.Codeable;
 import eu.bcvsolutions.idm.core.api.dto.IdmIncompatibleRoleDto;
 import eu.bcvsolutions.idm.core.api.dto.ResolvedIncompatibleRoleDto;
@@ -23,6 +24,14 @@ public interface IdmIncompatibleRoleService extends
 	AuthorizableService<IdmIncompatibleRoleDto>,
 	ScriptEnabled {
 	
+	/**
+	 * Version of conflict matrix - incompatible roles are compiled into in-memory index,
+	 * index is compiled again when version is evicted (incompatible roles or role composition is changed).
+	 * 
+	 * @since 13.1.0
+	 */
+	String INDEX_CACHE_NAME = IdmCacheManager.getCacheName(CoreModule.MODULE_ID, "incompatible-role-index-cache");
+	
 	/**
 	 * Returns all defined incompatible roles for the given role. Given role can be defined as superior or sub (both sides).
 	 * 
@@ -1,6 +1,8 @@
 package eu.bcvsolutions.idm.core.api.service;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 
@@ -31,6 +33,14 @@ public interface IdmRoleCompositionService extends
 	 */
 	String ALL_SUB_ROLES_CACHE_NAME = IdmCacheManager.getCacheName(CoreModule.MODULE_ID, "all-sub-roles");
 	
+	/**
+	 * Materialized transitive closure of role composition is valid => closure is used for resolving all sub and superior roles.
+	 * Closure is not valid, till closure is rebuilt (by long running task).
+	 * 
+	 * @since 13.1.0
+	 */
+	String PROPERTY_CLOSURE_VALID = ConfigurationService.IDM_PRIVATE_PROPERTY_PREFIX + "core.roleComposition.closure.valid";
+	
 	/**
 	 * Return list of sub roles (only one level in depth)
 	 * of role given by its role ID. Returning available sub roles by given permissions (AND).
@@ -127,4 +137,24 @@ public interface IdmRoleCompositionService extends
 	 */
 	Set<IdmRoleDto> resolveDistinctRoles(List<IdmRoleCompositionDto> compositions);
 	
+	/**
+	 * Recount materialized transitive closure (all sub roles in all levels in depth) for given superior roles.
+	 * Closure of other superior roles is not changed. Only compositions of given superior roles and their sub roles are loaded.
+	 * 
+	 * @param superiorIds superior roles
+	 * @since 13.1.0
+	 */
+	void recountClosure(Collection<UUID> superiorIds);
+	
+	/**
+	 * Recount materialized transitive closure (all sub roles in all levels in depth) for given superior roles 
+	 * by given (already loaded) compositions - e.g. when whole closure is rebuilt by pages of superior roles.
+	 * Closure of other superior roles is not changed.
+	 * 
+	 * @param superiorIds superior roles
+	 * @param directSubRoles direct sub roles by superior role - has to contain compositions of all sub roles of given superior roles
+	 * @since 13.1.0
+	 */
+	void recountClosure(Collection<UUID> superiorIds, Map<UUID, ? extends Collection<UUID>> directSubRoles);
+	
 }
@@ -27,7 +27,7 @@ public class IdmFormValueFilter<O extends FormableEntity> extends DataFilter {
 	public static final String PARAMETER_OWNER = "owner";
 	public static final String PARAMETER_PERSISTENT_TYPE = "persistentType";
 	public static final String PARAMETER_STRING_VALUE = "stringValue"; // equals
-	public static final String PARAMETER_SHORT_TEXT_VALUE = "shortTextValue"; // equals
+	public static final String PARAMETER_SHORT_TEXT_VALUE = "shortTextValue"; // equals, list - OR
 	public static final String PARAMETER_STRING_VALUE_LIKE = "stringValueLike"; // like
 	public static final String PARAMETER_SHORT_TEXT_VALUE_LIKE = "shortTextValueLike"; // like
 	public static final String PARAMETER_BOOLEAN_VALUE = "booleanValue"; // equals
@@ -120,6 +120,26 @@ public class IdmFormValueFilter<O extends FormableEntity> extends DataFilter {
 		set(PARAMETER_SHORT_TEXT_VALUE, shortTextValue);
 	}
 	
+	/**
+	 * Multiple short text values can be find - OR.
+	 * 
+	 * @return short text values
+	 * @since 13.1.0
+	 */
+	public List<String> getShortTextValues() {
+		return getParameterConverter().toStrings(getData(), PARAMETER_SHORT_TEXT_VALUE);
+	}
+	
+	/**
+	 * Multiple short text values can be find - OR.
+	 * 
+	 * @param shortTextValues short text values
+	 * @since 13.1.0
+	 */
+	public void setShortTextValues(List<String> shortTextValues) {
+		put(PARAMETER_SHORT_TEXT_VALUE, shortTextValues);
+	}
+	
 	/**
 	 * String value - like operator is used.
 	 * 
@@ -54,6 +54,18 @@ public interface IdmNotificationTemplateService extends
 	 * @return
 	 */
 	IdmMessageDto buildMessage(IdmMessageDto message);
+	
+	/**
+	 * Build messages by {@link IdmNotificationTemplateDto} - batch rendering (e.g. one template for many recipients).
+	 * Each used template is loaded and compiled once. Messages without template are returned unchanged.
+	 * 
+	 * @param messages messages with template and parameters
+	 * @param showGuardedString show or hide guarded string parameters
+	 * @return built messages in the same order
+	 * @see #buildMessage(IdmMessageDto, boolean)
+	 * @since 13.1.0
+	 */
+	List<IdmMessageDto> buildMessages(List<IdmMessageDto> messages, boolean showGuardedString);
 
 	/**
 	 * Method find all system templates.
@@ -3,7 +3,6 @@ package eu.bcvsolutions.idm.core.scheduler.api.config;
 import java.util.concurrent.LinkedBlockingQueue;
 
 import eu.bcvsolutions.idm.core.api.service.ConfigurationService;
-import eu.bcvsolutions.idm.core.api.service.EntityEventManager;
 import eu.bcvsolutions.idm.core.scheduler.api.service.LongRunningTaskManager;
 
 /**
@@ -24,6 +23,13 @@ public interface SchedulerConfiguration {
 	 */
 	String EVENT_EXECUTOR_NAME = "eventExecutor";
 	
+	/**
+	 * Used with event processing - single thread, which loads created events from queue and dispatches them into event executor lanes.
+	 * 
+	 * @since 13.1.0
+	 */
+	String EVENT_DISPATCHER_NAME = "eventDispatcher";
+	
 	/**
 	 * Enable / disable scheduler
 	 */
@@ -95,21 +101,23 @@ public interface SchedulerConfiguration {
 	int DEFAULT_TASK_EXECUTOR_THREAD_PRIORITY = 5;
 	
 	/**
-	 * Event executor core pool size. Uses CPU count +1 as default.
+	 * Event executor core pool size ~ count of ordered lanes, events are partitioned by (super) owner into lanes. 
+	 * Each lane is processed by one thread. Uses CPU count +1 as default.
 	 */
 	String PROPERTY_EVENT_EXECUTOR_CORE_POOL_SIZE = "scheduler.event.executor.corePoolSize";
 	
 	/**
-	 * Event executor max pool size. Uses CPU corePoolSize * 2 as default. 
-	 * maxPoolSize has to be higher than corePoolSize (IllegalArgumentException is thrown otherwise).
-	 * When queueCapacity is full, then new threads are created from corePoolSize to maxPoolSize.
+	 * Event executor max pool size.
+	 * 
+	 * @deprecated @since 13.1.0 event executor uses fixed count of ordered lanes, see {@link #PROPERTY_EVENT_EXECUTOR_CORE_POOL_SIZE}.
 	 */
+	@Deprecated
 	String PROPERTY_EVENT_EXECUTOR_MAX_POOL_SIZE = "scheduler.event.executor.maxPoolSize";
 	
 	/**
-	 * Waiting events to be processed. Uses 1000 as default - prevent to prepare events repetitively and use additional threads till maxPoolSize.
-	 * {@link LinkedBlockingQueue} is used for queue => capacity is initialized dynamically.
-	 * {@link AbotrPolicy} is set for rejected tasks - reject exception has to be processed by a caller ({@link EntityEventManager}).
+	 * Waiting events to be processed in one lane. Uses 50 as default.
+	 * {@link LinkedBlockingQueue} is used for lane queue => capacity is initialized dynamically.
+	 * Dispatcher doesn't wait, when lane queue is full - event remains in queue (database) and will be dispatched again later.
 	 */
 	String PROPERTY_EVENT_EXECUTOR_QUEUE_CAPACITY = "scheduler.event.executor.queueCapacity";
 	int DEFAULT_EVENT_EXECUTOR_QUEUE_CAPACITY = 50;
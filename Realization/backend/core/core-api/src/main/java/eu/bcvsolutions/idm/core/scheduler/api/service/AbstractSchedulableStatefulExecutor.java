@@ -3,12 +3,26 @@ package eu.bcvsolutions.idm.core.scheduler.api.service;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Queue;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
 
 import javax.persistence.EntityManager;
 
@@ -22,6 +36,7 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.domain.Sort.Direction;
+import org.springframework.security.concurrent.DelegatingSecurityContextRunnable;
 import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.TransactionStatus;
@@ -31,16 +46,21 @@ import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.util.Assert;
 
 import com.google.common.collect.ImmutableMap;
-import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
 import eu.bcvsolutions.idm.core.api.config.datasource.CoreEntityManager;
 import eu.bcvsolutions.idm.core.api.domain.CoreResultCode;
 import eu.bcvsolutions.idm.core.api.domain.OperationState;
+import eu.bcvsolutions.idm.core.api.domain.TransactionContext;
+import eu.bcvsolutions.idm.core.api.domain.TransactionContextHolder;
 import eu.bcvsolutions.idm.core.api.dto.AbstractDto;
 import eu.bcvsolutions.idm.core.api.dto.DefaultResultModel;
 import eu.bcvsolutions.idm.core.api.entity.BaseEntity;
 import eu.bcvsolutions.idm.core.api.entity.OperationResult;
+import eu.bcvsolutions.idm.core.api.exception.CoreException;
 import eu.bcvsolutions.idm.core.api.exception.ResultCodeException;
+import eu.bcvsolutions.idm.core.eav.api.domain.PersistentType;
+import eu.bcvsolutions.idm.core.eav.api.dto.IdmFormAttributeDto;
 import eu.bcvsolutions.idm.core.scheduler.api.dto.IdmLongRunningTaskDto;
 import eu.bcvsolutions.idm.core.scheduler.api.dto.IdmProcessedTaskItemDto;
 import eu.bcvsolutions.idm.core.scheduler.api.dto.filter.IdmProcessedTaskItemFilter;
@@ -54,6 +74,10 @@ import eu.bcvsolutions.idm.core.scheduler.api.exception.DryRunNotSupportedExcept
  * All stateful processes work with entity IDs (of type UUID) as
  * references to already processed items. 
  * 
+ * Items can be processed by more workers in parallel, if configured ({@link #PARAMETER_WORKERS}). Each item is processed
+ * in new transaction then, processed items (log and queue items) are persisted in batches together with task state.
+ * Configure more workers only for tasks, which can process items concurrently ({@link #processItem(AbstractDto)} is thread safe).
+ * 
  * @author Jan Helbich
  * @author Radek Tomiška
  *
@@ -66,8 +90,13 @@ public abstract class AbstractSchedulableStatefulExecutor<DTO extends AbstractDt
 	
 	private static final Logger LOG = LoggerFactory.getLogger(AbstractSchedulableStatefulExecutor.class);
 	private static final int DEFAULT_PAGE_SIZE = 100;
+	protected static final int DEFAULT_WORKERS = 1; // @since 13.1.0
+	private static final int STATE_UPDATE_ITEMS = 100; // processed items are persisted and task state is updated after given count of items ...
+	private static final long STATE_UPDATE_INTERVAL = 1000; // ... or after given time [ms] at least
 	private boolean continueOnException = false; 
 	private boolean requireNewTransaction = false;
+	private int workers = DEFAULT_WORKERS;
+	private volatile Map<UUID, Boolean> processedQueuePage = null; // processed queue state of candidates on currently processed page
 	//
 	@Autowired private IdmProcessedTaskItemService itemService;
 	@Autowired private PlatformTransactionManager platformTransactionManager;
@@ -75,10 +104,45 @@ public abstract class AbstractSchedulableStatefulExecutor<DTO extends AbstractDt
 	@CoreEntityManager
 	private EntityManager entityManager;
 
+	@Override
+	public void init(Map<String, Object> properties) {
+		super.init(properties);
+		//
+		Long givenWorkers = getParameterConverter().toLong(properties, PARAMETER_WORKERS);
+		workers = givenWorkers == null || givenWorkers < 1 ? DEFAULT_WORKERS : Math.toIntExact(givenWorkers);
+	}
+
+	@Override
+	public List<String> getPropertyNames() {
+		List<String> propertyNames = super.getPropertyNames();
+		if (!propertyNames.contains(PARAMETER_WORKERS)) {
+			propertyNames.add(PARAMETER_WORKERS);
+		}
+		return propertyNames;
+	}
+	
+	@Override
+	public Map<String, Object> getProperties() {
+		Map<String, Object> properties = super.getProperties();
+		properties.put(PARAMETER_WORKERS, getWorkers());
+		return properties;
+	}
+	
+	@Override
+	public List<IdmFormAttributeDto> getFormAttributes() {
+		List<IdmFormAttributeDto> formAttributes = super.getFormAttributes();
+		formAttributes.removeIf(formAttribute -> PARAMETER_WORKERS.equals(formAttribute.getCode()));
+		formAttributes.add(getWorkersAttribute());
+		return formAttributes;
+	}
+
 	@Override
 	public Boolean process() {
 		this.counter = 0L;
 		//
+		if (getWorkers() > 1) {
+			return executeProcessInWorkers();
+		}
 		return executeProcess();
 	}
 
@@ -113,6 +177,23 @@ public abstract class AbstractSchedulableStatefulExecutor<DTO extends AbstractDt
 		return itemService.findAllRefEntityIdsInQueueByScheduledTaskId(this.getScheduledTaskId());
 	}
 	
+	@Override
+	public Set<UUID> getProcessedItemRefsFromQueue(Collection<DTO> dtos) {
+		if (!supportsQueue() || dtos == null || dtos.isEmpty()) {
+			return new HashSet<>();
+		}
+		//
+		UUID scheduledTaskId = this.getScheduledTaskId();
+		if (scheduledTaskId == null) {
+			LOG.debug("Running stateful tasks outside scheduler programatically.");
+			//
+			return new HashSet<>();
+		}
+		return itemService.findRefEntityIdsInQueue(
+				scheduledTaskId, 
+				dtos.stream().map(DTO::getId).collect(Collectors.toList()));
+	}
+	
 	@Override
 	public boolean isInProcessedQueue(DTO dto) {
 		if (!supportsQueue()) {
@@ -120,6 +201,15 @@ public abstract class AbstractSchedulableStatefulExecutor<DTO extends AbstractDt
 		}
 		Assert.notNull(dto, "DTO is required for LRT processing.");
 		//
+		// candidates on currently processed page are resolved by one query
+		Map<UUID, Boolean> processedPage = processedQueuePage;
+		if (processedPage != null) {
+			Boolean processed = processedPage.get(dto.getId());
+			if (processed != null) {
+				return processed;
+			}
+		}
+		//
 		Page<IdmProcessedTaskItemDto> p = getItemFromQueue(dto.getId());
 		
 		return p.getTotalElements() > 0;
@@ -139,6 +229,24 @@ public abstract class AbstractSchedulableStatefulExecutor<DTO extends AbstractDt
 		// remove entity from processed queue
 		itemService.deleteItem(scheduledTaskId, entityRef);
 	}
+	
+	@Override
+	public void removeFromProcessedQueue(Collection<UUID> entityRefs) {
+		if (!supportsQueue()) {
+			return;
+		}
+		Assert.notNull(entityRefs, "Entity identifiers are requred for remove from queue.");
+		if (entityRefs.isEmpty()) {
+			return;
+		}
+		UUID scheduledTaskId = this.getScheduledTaskId();
+		if (scheduledTaskId == null) {
+			// nothing to delete
+			return;
+		}
+		// remove entities from processed queue
+		itemService.deleteItems(scheduledTaskId, entityRefs);
+	}
 
 	@Override
 	public void removeFromProcessedQueue(DTO dto) {
@@ -188,6 +296,42 @@ public abstract class AbstractSchedulableStatefulExecutor<DTO extends AbstractDt
 	public void setRequireNewTransaction(boolean requireNewTransaction) {
 		this.requireNewTransaction = requireNewTransaction;
 	}
+	
+	/**
+	 * Form attribute for configure count of workers - usable in overriden {@link #getFormAttributes()}.
+	 * 
+	 * @return workers form attribute
+	 * @since 13.1.0
+	 */
+	protected IdmFormAttributeDto getWorkersAttribute() {
+		IdmFormAttributeDto workers = new IdmFormAttributeDto(
+				PARAMETER_WORKERS,
+				PARAMETER_WORKERS, 
+				PersistentType.LONG);
+		workers.setDefaultValue(String.valueOf(DEFAULT_WORKERS));
+		//
+		return workers;
+	}
+	
+	/**
+	 * Count of workers processing items in parallel.
+	 * 
+	 * @return one worker by default - items are processed one by one
+	 * @since 13.1.0
+	 */
+	public int getWorkers() {
+		return workers;
+	}
+	
+	/**
+	 * Count of workers processing items in parallel.
+	 * 
+	 * @param workers count of workers
+	 * @since 13.1.0
+	 */
+	public void setWorkers(int workers) {
+		this.workers = workers;
+	}
 
 	/**
 	 * Process long running task.
@@ -212,19 +356,16 @@ public abstract class AbstractSchedulableStatefulExecutor<DTO extends AbstractDt
 			if (count == null) {
 				count = candidates.getTotalElements();
 			}
+			processedQueuePage = getProcessedQueuePage(candidates);
 			//
 			for (Iterator<DTO> i = candidates.iterator(); i.hasNext() && canContinue;) {
 				DTO candidate = i.next();
 				Assert.notNull(candidate, "DTO candidate is required for LRT processing.");
 				Assert.notNull(candidate.getId(), "DTO candidate has to be persisted for LRT processing.");
 				//
-				Optional<OperationResult> result = processCandidate(candidate, dryRun);
-				if (!result.isPresent() 
-						|| result.get().getState().isSuccessful() // executed
-						|| result.get().getState().isRunnable()) { // running (e.q. asynchronously)
-					if (supportsQueue()) {
-						processedRefs.add(candidate.getId());
-					}					
+				Optional<OperationResult> result = processCandidate(candidate, dryRun, requireNewTransaction(), null);
+				if (isProcessed(result) && supportsQueue()) {
+					processedRefs.add(candidate.getId());
 				}
 				updateStateSucceed = this.updateState();
 				canContinue &= updateStateSucceed;
@@ -239,10 +380,166 @@ public abstract class AbstractSchedulableStatefulExecutor<DTO extends AbstractDt
 			pageable = candidates.nextPageable();
 			//
 		} while (canContinue);
+		processedQueuePage = null;
+		//
+		cleanProcessedQueue(processedRefs);
+		//
+		return updateStateSucceed;
+	}
+	
+	/**
+	 * Process long running task by configured count of workers. Page of candidates is processed in parallel,
+	 * next page is loaded, when all candidates on the current page are processed.
+	 * 
+	 * @return true - completed, false - not complete
+	 */
+	private boolean executeProcessInWorkers() {
+		Set<UUID> processedRefs = ConcurrentHashMap.newKeySet();
+		Queue<IdmProcessedTaskItemDto> processedItems = new ConcurrentLinkedQueue<>();
+		AtomicBoolean canContinue = new AtomicBoolean(true);
+		AtomicReference<RuntimeException> failure = new AtomicReference<>();
+		boolean updateStateSucceed = true;
+		boolean dryRun = longRunningTaskService.get(this.getLongRunningTaskId()).isDryRun();
+		Pageable pageable = PageRequest.of(
+				0, 
+				getPageSize(),
+				Sort.by(Direction.ASC, BaseEntity.PROPERTY_ID)
+		);
+		TransactionContext transactionContext = TransactionContextHolder.getContext();
+		ExecutorService executor = Executors.newFixedThreadPool(
+				getWorkers(),
+				new ThreadFactoryBuilder().setNameFormat(getClass().getSimpleName() + "-worker-%d").setDaemon(true).build());
+		long lastStateUpdate = System.currentTimeMillis();
+		try {
+			Page<DTO> candidates;
+			do {
+				candidates = this.getItemsToProcess(pageable);
+				//
+				if (count == null) {
+					count = candidates.getTotalElements();
+				}
+				processedQueuePage = getProcessedQueuePage(candidates);
+				//
+				List<Future<?>> futures = new ArrayList<>(candidates.getNumberOfElements());
+				for (DTO candidate : candidates) {
+					Assert.notNull(candidate, "DTO candidate is required for LRT processing.");
+					Assert.notNull(candidate.getId(), "DTO candidate has to be persisted for LRT processing.");
+					//
+					futures.add(executor.submit(new DelegatingSecurityContextRunnable(() -> {
+						if (!canContinue.get()) {
+							// task was canceled or failed - the rest of items is skipped
+							return;
+						}
+						TransactionContextHolder.setContext(transactionContext);
+						try {
+							Optional<OperationResult> result = processCandidate(candidate, dryRun, true, processedItems);
+							if (isProcessed(result) && supportsQueue()) {
+								processedRefs.add(candidate.getId());
+							}
+						} catch (RuntimeException ex) {
+							// the first failure ends the task (as in single thread mode)
+							failure.compareAndSet(null, ex);
+							canContinue.set(false);
+						} finally {
+							TransactionContextHolder.clearContext();
+						}
+					})));
+				}
+				// wait for page is processed - task state is updated periodically
+				for (Future<?> future : futures) {
+					boolean done = false;
+					while (!done) {
+						try {
+							future.get(STATE_UPDATE_INTERVAL, TimeUnit.MILLISECONDS);
+							done = true;
+						} catch (TimeoutException ex) {
+							// item is still processed
+						} catch (ExecutionException ex) {
+							failure.compareAndSet(null, new CoreException(ex.getCause()));
+							canContinue.set(false);
+							done = true;
+						}
+						if (processedItems.size() >= STATE_UPDATE_ITEMS 
+								|| System.currentTimeMillis() - lastStateUpdate >= STATE_UPDATE_INTERVAL) {
+							updateStateSucceed = updateState(processedItems);
+							lastStateUpdate = System.currentTimeMillis();
+							if (!updateStateSucceed) {
+								// task was canceled - workers end after currently processed items
+								canContinue.set(false);
+							}
+						}
+					}
+				}
+				updateStateSucceed &= updateState(processedItems);
+				lastStateUpdate = System.currentTimeMillis();
+				canContinue.compareAndSet(true, updateStateSucceed);
+				//
+				// flush and clear session - if LRT is wrapped in parent transaction, we need to clear it
+				if (getHibernateSession().isOpen()) {
+					getHibernateSession().flush();
+					getHibernateSession().clear();
+				}
+				pageable = candidates.nextPageable();
+			} while (canContinue.get() && candidates.hasNext());
+		} catch (InterruptedException ex) {
+			canContinue.set(false);
+			executor.shutdownNow();
+			Thread.currentThread().interrupt();
+			updateStateSucceed = false;
+		} finally {
+			executor.shutdown();
+			processedQueuePage = null;
+			// processed items have to be persisted even when task fails
+			updateState(processedItems);
+		}
 		//
+		if (failure.get() != null) {
+			throw failure.get();
+		}
+		//
+		cleanProcessedQueue(processedRefs);
+		//
+		return updateStateSucceed;
+	}
+	
+	/**
+	 * Persist processed items and update task state (counters).
+	 * 
+	 * @param processedItems processed items (log and queue items) - persisted items are removed
+	 * @return true - task can continue, false - task was canceled
+	 */
+	private boolean updateState(Queue<IdmProcessedTaskItemDto> processedItems) {
+		List<IdmProcessedTaskItemDto> items = new ArrayList<>(processedItems.size());
+		IdmProcessedTaskItemDto item;
+		while ((item = processedItems.poll()) != null) {
+			items.add(item);
+		}
+		if (!items.isEmpty()) {
+			// items are persisted in new transaction (as log items one by one)
+			TransactionTemplate template = new TransactionTemplate(platformTransactionManager);
+			template.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+			template.execute(new TransactionCallbackWithoutResult() {
+				
+				@Override
+				protected void doInTransactionWithoutResult(TransactionStatus status) {
+					itemService.saveAll(items);
+				}
+			});
+		}
+		synchronized (this) {
+			return this.updateState();
+		}
+	}
+	
+	/**
+	 * Remove items not processed in this task run from processed queue.
+	 * 
+	 * @param processedRefs items processed in this task run
+	 */
+	private void cleanProcessedQueue(Set<UUID> processedRefs) {
 		// if task doesn't support queue, we can end
 		if (!supportsQueue()) {
-			return updateStateSucceed;
+			return;
 		}
 		//
 		// check task was not canceled or interrupted, then clean history
@@ -251,24 +548,75 @@ public abstract class AbstractSchedulableStatefulExecutor<DTO extends AbstractDt
 		OperationState resultState = task.getResultState();
 		if (resultState.isSuccessful() // executed (set manually somehow ... just for sure)
 				|| resultState.isRunnable()) { // running is the correct state in this phase
-			List<UUID> queueEntityRefs = Lists.newArrayList(this.getProcessedItemRefsFromQueue());
+			Set<UUID> queueEntityRefs = new HashSet<>(this.getProcessedItemRefsFromQueue());
 			// processed should remain in history (is not related to whole task is canceled)
 			queueEntityRefs.removeAll(processedRefs);
-			queueEntityRefs.forEach(entityRef -> this.removeFromProcessedQueue(entityRef));
+			this.removeFromProcessedQueue(queueEntityRefs);
 		}
-		//
-		return updateStateSucceed;
+	}
+	
+	/**
+	 * Processed queue state of candidates on the page - one query for the whole page.
+	 * 
+	 * @param candidates page of candidates
+	 * @return candidate identifier => is in processed queue, {@code null} - queue is not supported
+	 */
+	private Map<UUID, Boolean> getProcessedQueuePage(Page<DTO> candidates) {
+		if (!supportsQueue() || !candidates.hasContent()) {
+			return null;
+		}
+		Set<UUID> processed = getProcessedItemRefsFromQueue(candidates.getContent());
+		Map<UUID, Boolean> processedPage = new HashMap<>(candidates.getNumberOfElements());
+		candidates.forEach(candidate -> {
+			if (candidate != null && candidate.getId() != null) {
+				processedPage.put(candidate.getId(), processed.contains(candidate.getId()));
+			}
+		});
+		return processedPage;
+	}
+	
+	/**
+	 * Candidate was processed - should be in processed queue.
+	 * 
+	 * @param result processing result
+	 * @return true - processed
+	 */
+	private boolean isProcessed(Optional<OperationResult> result) {
+		return !result.isPresent() 
+				|| result.get().getState().isSuccessful() // executed
+				|| result.get().getState().isRunnable(); // running (e.q. asynchronously)
+	}
+	
+	private synchronized void skipCandidate() {
+		--count;
+	}
+	
+	private synchronized void candidateProcessed() {
+		++counter;
 	}
 	
 	private Session getHibernateSession() {
 		return (Session) this.entityManager.getDelegate();
 	}
 
-	private Optional<OperationResult> processCandidate(DTO candidate, boolean dryRun) {
+	/**
+	 * Process candidate.
+	 * 
+	 * @param candidate processed candidate
+	 * @param dryRun dry run mode
+	 * @param newTransaction process candidate in new transaction
+	 * @param processedItems processed items are persisted later in batch, if given, otherwise item is persisted immediately
+	 * @return processing result
+	 */
+	private Optional<OperationResult> processCandidate(
+			DTO candidate, 
+			boolean dryRun, 
+			boolean newTransaction,
+			Queue<IdmProcessedTaskItemDto> processedItems) {
 		if (isInProcessedQueue(candidate)) {
 			// item was processed earlier - just drop the count by one
 			// FIXME: this is confusing => task ends with 0 count, if all items are skipped (processed before)
-			--count;
+			skipCandidate();
 			return Optional.empty();
 		}
 		// Is not possible to get real cause from UnexpectedRollbackException,
@@ -284,7 +632,7 @@ public abstract class AbstractSchedulableStatefulExecutor<DTO extends AbstractDt
 					.Builder(OperationState.NOT_EXECUTED)
 					.setModel(new DefaultResultModel(CoreResultCode.DRY_RUN))
 					.build()));
-		} else if (requireNewTransaction()) {
+		} else if (newTransaction) {
 			TransactionTemplate template = new TransactionTemplate(platformTransactionManager);
 			template.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
 			//
@@ -305,7 +653,7 @@ public abstract class AbstractSchedulableStatefulExecutor<DTO extends AbstractDt
 			results.add(this.processItemInternal(candidate));
 		}
 		//
-		++counter;
+		candidateProcessed();
 		Optional<OperationResult> result;
 		if (!results.isEmpty()) {
 			result = results.get(0);
@@ -319,9 +667,13 @@ public abstract class AbstractSchedulableStatefulExecutor<DTO extends AbstractDt
 		//
 		if (result.isPresent()) {
 			OperationResult opResult = result.get();
-			this.logItemProcessed(candidate, opResult);
-			if (OperationState.isSuccessful(opResult.getState())) {
-				this.addToProcessedQueue(candidate, opResult);
+			if (processedItems != null) {
+				processedItems.addAll(createProcessedItems(candidate, opResult));
+			} else {
+				this.logItemProcessed(candidate, opResult);
+				if (OperationState.isSuccessful(opResult.getState())) {
+					this.addToProcessedQueue(candidate, opResult);
+				}
 			}
 			LOG.debug("Statefull process [{}] intermediate result: [{}], count: [{}/{}]",
 					getClass().getSimpleName(), opResult.getState(), count, counter);
@@ -348,6 +700,37 @@ public abstract class AbstractSchedulableStatefulExecutor<DTO extends AbstractDt
 		return result;
 	}
 	
+	/**
+	 * Log and queue items for processed candidate - the same items as {@link #logItemProcessed(AbstractDto, OperationResult)}
+	 * and {@link #addToProcessedQueue(AbstractDto, OperationResult)} persists.
+	 * 
+	 * @param candidate processed candidate
+	 * @param opResult processing result
+	 * @return items to persist
+	 */
+	private List<IdmProcessedTaskItemDto> createProcessedItems(DTO candidate, OperationResult opResult) {
+		List<IdmProcessedTaskItemDto> items = new ArrayList<>(2);
+		if (getLongRunningTaskId() != null) {
+			IdmProcessedTaskItemDto logItem = createProcessedItem(candidate, opResult);
+			logItem.setLongRunningTask(getLongRunningTaskId());
+			items.add(logItem);
+		}
+		if (supportsQueue() && getScheduledTaskId() != null && OperationState.isSuccessful(opResult.getState())) {
+			IdmProcessedTaskItemDto queueItem = createProcessedItem(candidate, opResult);
+			queueItem.setScheduledTaskQueueOwner(getScheduledTaskId());
+			items.add(queueItem);
+		}
+		return items;
+	}
+	
+	private IdmProcessedTaskItemDto createProcessedItem(DTO candidate, OperationResult opResult) {
+		IdmProcessedTaskItemDto item = new IdmProcessedTaskItemDto();
+		item.setReferencedEntityId(candidate.getId());
+		item.setReferencedDtoType(candidate.getClass().getCanonicalName());
+		item.setOperationResult(opResult);
+		return item;
+	}
+	
 	private Optional<OperationResult> processItemInternal(DTO candidate) {
 		try {
 			return processItem(candidate);
@@ -1,6 +1,8 @@
 package eu.bcvsolutions.idm.core.scheduler.api.service;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 import org.springframework.data.domain.Page;
@@ -45,6 +47,15 @@ public interface IdmProcessedTaskItemService extends
 	 */
 	void deleteItem(UUID scheduledTaskId, UUID referencedEntityId);
 	
+	/**
+	 * Delete items by scheduled task and entity identifiers - bulk delete.
+	 * 
+	 * @param scheduledTaskId scheduled task
+	 * @param referencedEntityIds entity identifiers
+	 * @since 13.1.0
+	 */
+	void deleteItems(UUID scheduledTaskId, Collection<UUID> referencedEntityIds);
+	
 	/**
 	 * Find all referenced entity identifiers by scheduled tasks.
 	 * 
@@ -53,6 +64,17 @@ public interface IdmProcessedTaskItemService extends
 	 */
 	List<UUID> findAllRefEntityIdsInQueueByScheduledTaskId(UUID scheduledTaskId);
 	
+	/**
+	 * Find referenced entity identifiers in queue of given scheduled task - given entity identifiers are checked only
+	 * (e.g. page of items to process).
+	 * 
+	 * @param scheduledTaskId scheduled task
+	 * @param referencedEntityIds checked entity identifiers
+	 * @return subset of given entity identifiers, which are in queue
+	 * @since 13.1.0
+	 */
+	Set<UUID> findRefEntityIdsInQueue(UUID scheduledTaskId, Collection<UUID> referencedEntityIds);
+	
 	/**
 	 * Find all queue items of given scheduled tasks.
 	 * @param scheduledTask
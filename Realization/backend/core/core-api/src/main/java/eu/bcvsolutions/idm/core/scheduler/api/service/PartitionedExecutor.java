@@ -0,0 +1,384 @@
+package eu.bcvsolutions.idm.core.scheduler.api.service;
+
+import java.util.Objects;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.util.Assert;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Executor with ordered lanes - tasks are partitioned by given key into fixed count of lanes.
+ * Each lane is processed by single thread => tasks with the same key are executed sequentially in the order, they were submitted.
+ * Tasks with different keys (in different lanes) are executed in parallel.
+ *
+ * Lane queue is bounded - back-pressure is applied, when lane queue is full: caller waits (configured timeout) for free space in the lane
+ * instead of task is rejected immediately => submitting thread is blocked up to offer timeout for each task submitted into full lane
+ * (configure zero offer timeout to reject task immediately without blocking).
+ *
+ * Lane depth and task latency (waiting in lane queue, execution) are exposed as metrics (registered automatically as {@link MeterBinder}).
+ *
+ * @since 13.1.0
+ */
+public class PartitionedExecutor implements Executor, MeterBinder {
+
+	private static final org.slf4j.Logger LOG = org.slf4j.LoggerFactory.getLogger(PartitionedExecutor.class);
+	public static final String METRIC_PREFIX = "idm.executor.lane";
+	//
+	private final String name;
+	private final Lane[] lanes;
+	private final int laneCapacity;
+	private final long offerTimeout;
+	private final LongAdder submitted = new LongAdder();
+	private final LongAdder rejected = new LongAdder();
+	private TaskDecorator taskDecorator;
+	private volatile boolean running = true;
+	private volatile boolean terminated = false;
+	//
+	private Timer waitTimer;
+	private Timer executionTimer;
+
+	/**
+	 * Creates and starts partitioned executor.
+	 *
+	 * @param name executor name - used as thread name prefix and metric tag
+	 * @param laneCount count of lanes (~ threads)
+	 * @param laneCapacity lane queue capacity
+	 * @param offerTimeout back-pressure - time (ms) for caller waits for a free space in lane queue
+	 * @param threadPriority lane thread priority
+	 */
+	public PartitionedExecutor(String name, int laneCount, int laneCapacity, long offerTimeout, int threadPriority) {
+		Assert.hasLength(name, "Executor name is required.");
+		Assert.isTrue(laneCount > 0, "Lane count has to be greater than zero.");
+		Assert.isTrue(laneCapacity > 0, "Lane capacity has to be greater than zero.");
+		//
+		this.name = name;
+		this.laneCapacity = laneCapacity;
+		this.offerTimeout = offerTimeout < 0 ? 0 : offerTimeout;
+		this.lanes = new Lane[laneCount];
+		for (int index = 0; index < laneCount; index++) {
+			Lane lane = new Lane(index, laneCapacity);
+			Thread thread = new Thread(lane, String.format("%s-%s", name, index));
+			thread.setDaemon(true);
+			thread.setPriority(threadPriority);
+			lane.thread = thread;
+			lanes[index] = lane;
+			thread.start();
+		}
+		//
+		LOG.info("Partitioned executor [{}] is initialized: lanes [{}], laneCapacity [{}], offerTimeout [{}ms]",
+				name, laneCount, laneCapacity, offerTimeout);
+	}
+
+	/**
+	 * Decorator applied to all submitted tasks (e.g. security and transaction context propagation).
+	 *
+	 * @param taskDecorator
+	 */
+	public void setTaskDecorator(TaskDecorator taskDecorator) {
+		this.taskDecorator = taskDecorator;
+	}
+
+	/**
+	 * Task without partition key is executed in random lane.
+	 *
+	 * @throws RejectedExecutionException if lane queue is full even after offer timeout
+	 */
+	@Override
+	public void execute(Runnable task) {
+		if (!execute(null, task)) {
+			throw new RejectedExecutionException(
+					String.format("Executor [%s] lanes are full, task was not accepted.", name));
+		}
+	}
+
+	/**
+	 * Execute task in lane resolved by given partition key. Caller waits for free space in lane queue,
+	 * if lane is full (back-pressure) - calling thread is blocked up to configured offer timeout.
+	 *
+	 * @param partitionKey tasks with the same key are executed sequentially in the submit order. Random lane is used, when key is {@code null}.
+	 * @param task task to execute
+	 * @return true - task was accepted, false - lane is still full after configured offer timeout (or executor is shut down)
+	 */
+	public boolean execute(Object partitionKey, Runnable task) {
+		Assert.notNull(task, "Task is required.");
+		//
+		if (!running) {
+			rejected.increment();
+			return false;
+		}
+		Lane lane = lanes[getLaneIndex(partitionKey)];
+		Runnable decorated = taskDecorator == null ? task : taskDecorator.decorate(task);
+		try {
+			if (lane.queue.offer(new LaneTask(decorated), offerTimeout, TimeUnit.MILLISECONDS)) {
+				submitted.increment();
+				return true;
+			}
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+		rejected.increment();
+		LOG.debug("Lane [{}] of executor [{}] is full, task is not accepted.", lane.index, name);
+		//
+		return false;
+	}
+
+	/**
+	 * Lane index for given key.
+	 *
+	 * @param partitionKey
+	 * @return
+	 */
+	public int getLaneIndex(Object partitionKey) {
+		if (partitionKey == null) {
+			return ThreadLocalRandom.current().nextInt(lanes.length);
+		}
+		return Math.floorMod(Objects.hashCode(partitionKey), lanes.length);
+	}
+
+	/**
+	 * Executor name.
+	 *
+	 * @return
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Count of lanes.
+	 *
+	 * @return
+	 */
+	public int getLaneCount() {
+		return lanes.length;
+	}
+
+	/**
+	 * Capacity of single lane queue.
+	 *
+	 * @return
+	 */
+	public int getLaneCapacity() {
+		return laneCapacity;
+	}
+
+	/**
+	 * Count of waiting tasks in the given lane.
+	 *
+	 * @param laneIndex
+	 * @return
+	 */
+	public int getLaneDepth(int laneIndex) {
+		return lanes[laneIndex].queue.size();
+	}
+
+	/**
+	 * Count of waiting tasks in all lanes.
+	 *
+	 * @return
+	 */
+	public int getQueueSize() {
+		int size = 0;
+		for (Lane lane : lanes) {
+			size += lane.queue.size();
+		}
+		return size;
+	}
+
+	/**
+	 * Free space in all lanes.
+	 *
+	 * @return
+	 */
+	public int getRemainingCapacity() {
+		int remainingCapacity = 0;
+		for (Lane lane : lanes) {
+			remainingCapacity += lane.queue.remainingCapacity();
+		}
+		return remainingCapacity;
+	}
+
+	/**
+	 * Count of currently executed tasks.
+	 *
+	 * @return
+	 */
+	public int getActiveCount() {
+		int active = 0;
+		for (Lane lane : lanes) {
+			if (lane.active) {
+				active++;
+			}
+		}
+		return active;
+	}
+
+	/**
+	 * Count of accepted tasks from executor start.
+	 *
+	 * @return
+	 */
+	public long getSubmittedCount() {
+		return submitted.sum();
+	}
+
+	/**
+	 * Count of not accepted tasks (lane was full) from executor start.
+	 *
+	 * @return
+	 */
+	public long getRejectedCount() {
+		return rejected.sum();
+	}
+
+	/**
+	 * Count of completed tasks from executor start.
+	 *
+	 * @return
+	 */
+	public long getCompletedCount() {
+		long completed = 0;
+		for (Lane lane : lanes) {
+			completed += lane.completed.sum();
+		}
+		return completed;
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		Tags tags = Tags.of("executor", name);
+		for (Lane lane : lanes) {
+			Gauge
+				.builder(METRIC_PREFIX + ".depth", lane.queue, BlockingQueue::size)
+				.description("Count of tasks waiting in the lane queue.")
+				.tags(tags.and("lane", String.valueOf(lane.index)))
+				.register(registry);
+		}
+		FunctionCounter
+			.builder(METRIC_PREFIX + ".rejected", rejected, LongAdder::sum)
+			.description("Count of tasks not accepted, because lane queue was full.")
+			.tags(tags)
+			.register(registry);
+		waitTimer = Timer
+				.builder(METRIC_PREFIX + ".wait")
+				.description("Time spent by task in the lane queue.")
+				.tags(tags)
+				.register(registry);
+		executionTimer = Timer
+				.builder(METRIC_PREFIX + ".execution")
+				.description("Task execution time.")
+				.tags(tags)
+				.register(registry);
+	}
+
+	/**
+	 * Stops accepting new tasks and waits for already queued tasks are completed.
+	 * Lane threads are interrupted, only when queued tasks are not completed in given timeout.
+	 *
+	 * @param awaitTerminationSeconds
+	 */
+	public void shutdown(int awaitTerminationSeconds) {
+		running = false;
+		long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(awaitTerminationSeconds);
+		for (Lane lane : lanes) {
+			try {
+				long timeout = deadline - System.currentTimeMillis();
+				if (timeout > 0) {
+					lane.thread.join(timeout);
+				}
+			} catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				break;
+			}
+		}
+		// deadline passed - interrupt still running lanes
+		terminated = true;
+		for (Lane lane : lanes) {
+			if (lane.thread.isAlive()) {
+				lane.thread.interrupt();
+			}
+		}
+		LOG.info("Partitioned executor [{}] was shut down, [{}] not processed tasks remain in lanes.", name, getQueueSize());
+	}
+
+	/**
+	 * Destroy method used by spring context.
+	 */
+	public void shutdown() {
+		shutdown(30);
+	}
+
+	/**
+	 * Queued task with enqueue time.
+	 */
+	private static class LaneTask {
+
+		private final Runnable task;
+		private final long enqueued = System.nanoTime();
+
+		LaneTask(Runnable task) {
+			this.task = task;
+		}
+	}
+
+	/**
+	 * Single ordered lane.
+	 */
+	private class Lane implements Runnable {
+
+		private final int index;
+		private final BlockingQueue<LaneTask> queue;
+		private final LongAdder completed = new LongAdder();
+		private Thread thread;
+		private volatile boolean active = false;
+
+		Lane(int index, int capacity) {
+			this.index = index;
+			this.queue = new LinkedBlockingQueue<>(capacity);
+		}
+
+		@Override
+		public void run() {
+			while (!terminated && (running || !queue.isEmpty())) {
+				LaneTask laneTask;
+				try {
+					laneTask = queue.poll(1, TimeUnit.SECONDS);
+				} catch (InterruptedException ex) {
+					continue;
+				}
+				if (laneTask == null) {
+					continue;
+				}
+				long started = System.nanoTime();
+				active = true;
+				try {
+					laneTask.task.run();
+				} catch (Exception ex) {
+					// task should handle exceptions itself
+					LOG.error("Task in lane [{}] of executor [{}] failed.", index, name, ex);
+				} finally {
+					active = false;
+					completed.increment();
+					long ended = System.nanoTime();
+					if (waitTimer != null) {
+						waitTimer.record(started - laneTask.enqueued, TimeUnit.NANOSECONDS);
+						executionTimer.record(ended - started, TimeUnit.NANOSECONDS);
+					}
+				}
+			}
+		}
+	}
+}
@@ -2,11 +2,13 @@ package eu.bcvsolutions.idm.core.scheduler.api.service;
 
 import java.util.Collection;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import eu.bcvsolutions.idm.core.api.CoreModule;
 import eu.bcvsolutions.idm.core.api.dto.AbstractDto;
 import eu.bcvsolutions.idm.core.api.entity.OperationResult;
 import eu.bcvsolutions.idm.core.scheduler.api.dto.IdmProcessedTaskItemDto;
@@ -30,6 +32,13 @@ public interface SchedulableStatefulExecutor<DTO extends AbstractDto, V> extends
 	 */
 	String OPERATION_RESULT_VAR = "operationResult";
 	
+	/**
+	 * Count of workers processing items in parallel (opt-in, one worker by default - items are processed one by one).
+	 * 
+	 * @since 13.1.0
+	 */
+	String PARAMETER_WORKERS = String.format("%s:workers", CoreModule.MODULE_ID);
+	
 	/**
 	 * Returns a pageable result set of DTOs the task should process.
 	 * @param pageable
@@ -103,6 +112,16 @@ public interface SchedulableStatefulExecutor<DTO extends AbstractDto, V> extends
 	 */
 	Collection<UUID> getProcessedItemRefsFromQueue();
 	
+	/**
+	 * Returns entity references of given DTOs, which are in processed items queue already
+	 * (e.g. one query for the whole page of items to process).
+	 * 
+	 * @param dtos checked DTOs
+	 * @return subset of given DTO identifiers in processed items queue
+	 * @since 13.1.0
+	 */
+	Set<UUID> getProcessedItemRefsFromQueue(Collection<DTO> dtos);
+	
 	/**
 	 * Checks whether the given entity DTO has been already processed
 	 * and is active in processed items queue.
@@ -127,6 +146,14 @@ public interface SchedulableStatefulExecutor<DTO extends AbstractDto, V> extends
 	 */
 	void removeFromProcessedQueue(UUID entityRef);
 	
+	/**
+	 * Removes entity references from active items in processed queue by their IDs - bulk delete.
+	 * 
+	 * @param entityRefs entity identifiers
+	 * @since 13.1.0
+	 */
+	void removeFromProcessedQueue(Collection<UUID> entityRefs);
+	
 	/**
 	 * Removes entity reference from active items in processed queue.
 	 * 
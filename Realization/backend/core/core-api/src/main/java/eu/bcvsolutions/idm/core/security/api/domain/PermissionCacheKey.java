@@ -0,0 +1,73 @@
+package eu.bcvsolutions.idm.core.security.api.domain;
+
+import java.io.Serializable;
+import java.util.Objects;
+import java.util.UUID;
+
+import org.springframework.util.Assert;
+
+/**
+ * Key of logged identity permissions for one entity - identity, identity permission cache scope, entity type and entity id.
+ * Scope is changed, when identity permission cache is evicted => previously cached permissions are not used anymore.
+ *
+ * @since 13.1.0
+ */
+public class PermissionCacheKey implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+	//
+	private final UUID identityId;
+	private final UUID scope;
+	private final String entityType;
+	private final Serializable entityId;
+
+	public PermissionCacheKey(UUID identityId, UUID scope, String entityType, Serializable entityId) {
+		Assert.notNull(identityId, "Identity is required.");
+		Assert.notNull(scope, "Permission cache scope is required.");
+		Assert.hasText(entityType, "Entity type is required.");
+		Assert.notNull(entityId, "Entity identifier is required.");
+		//
+		this.identityId = identityId;
+		this.scope = scope;
+		this.entityType = entityType;
+		this.entityId = entityId;
+	}
+
+	public UUID getIdentityId() {
+		return identityId;
+	}
+
+	public UUID getScope() {
+		return scope;
+	}
+
+	public String getEntityType() {
+		return entityType;
+	}
+
+	public Serializable getEntityId() {
+		return entityId;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(identityId, scope, entityType, entityId);
+	}
+
+	@Override
+	public boolean equals(Object object) {
+		if (object == null || !object.getClass().equals(getClass())) {
+			return false;
+		}
+		PermissionCacheKey other = (PermissionCacheKey) object;
+		return Objects.equals(identityId, other.identityId)
+				&& Objects.equals(scope, other.scope)
+				&& Objects.equals(entityType, other.entityType)
+				&& Objects.equals(entityId, other.entityId);
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%s:%s:%s:%s", identityId, scope, entityType, entityId);
+	}
+}
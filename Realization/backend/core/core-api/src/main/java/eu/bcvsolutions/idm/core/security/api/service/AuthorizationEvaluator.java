@@ -1,7 +1,11 @@
 package eu.bcvsolutions.idm.core.security.api.service;
 
+import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 
@@ -123,6 +127,26 @@ public interface AuthorizationEvaluator<E extends Identifiable> extends Ordered,
 	 */
 	Set<String> getPermissions(E authorizable, AuthorizationPolicy policy);
 	
+	/**
+	 * Returns base permissions - what logged user could do with given authorizable objects by given policy.
+	 * Set-based evaluation for the batch of objects (e.g. the whole page) - override this method and evaluate 
+	 * permissions for all given objects by one query, if evaluator needs to load data for evaluation. 
+	 * Permissions are evaluated for each object separately by default.
+	 * 
+	 * @param authorizables objects with identifier
+	 * @param policy
+	 * @return permissions by object identifier
+	 * @since 13.1.0
+	 */
+	default Map<Serializable, Set<String>> getPermissions(Collection<E> authorizables, AuthorizationPolicy policy) {
+		Map<Serializable, Set<String>> permissions = new LinkedHashMap<>();
+		authorizables.forEach(authorizable -> {
+			permissions.put(authorizable.getId(), getPermissions(authorizable, policy));
+		});
+		//
+		return permissions;
+	}
+	
 	/**
 	 * Returns base authorities configured for given policy. Authorities are used as "what given identity" could do - without entity is defined.
 	 * 
@@ -1,6 +1,10 @@
 package eu.bcvsolutions.idm.core.security.api.service;
 
+import java.io.Serializable;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 
@@ -15,6 +19,7 @@ import eu.bcvsolutions.idm.core.api.entity.BaseEntity;
 import eu.bcvsolutions.idm.core.api.service.IdmCacheManager;
 import eu.bcvsolutions.idm.core.security.api.domain.AuthorizationPolicy;
 import eu.bcvsolutions.idm.core.security.api.domain.BasePermission;
+import eu.bcvsolutions.idm.core.security.api.domain.PermissionCacheKey;
 import eu.bcvsolutions.idm.core.security.api.dto.AuthorizableType;
 import eu.bcvsolutions.idm.core.security.api.dto.AuthorizationEvaluatorDto;
 
@@ -26,9 +31,16 @@ import eu.bcvsolutions.idm.core.security.api.dto.AuthorizationEvaluatorDto;
 public interface AuthorizationManager {
 	
 	/**
-	 * Logged identity permissions for shown record.
+	 * Logged identity permission cache scope (uuid) - permissions for shown records are cached in {@link #ENTITY_PERMISSION_CACHE_NAME}
+	 * under this scope. Evict identity from this cache to evict all identity permissions.
 	 */
 	String PERMISSION_CACHE_NAME = IdmCacheManager.getCacheName(CoreModule.MODULE_ID, "permission-cache");
+	/**
+	 * Logged identity permissions for shown record ({@link PermissionCacheKey} -> permissions).
+	 * 
+	 * @since 13.1.0
+	 */
+	String ENTITY_PERMISSION_CACHE_NAME = IdmCacheManager.getCacheName(CoreModule.MODULE_ID, "entity-permission-cache");
 	/**
 	 * Logged identity authorization policies (as uuid).
 	 * 
@@ -89,6 +101,26 @@ public interface AuthorizationManager {
 	 */
 	<E extends Identifiable> Set<String> getPermissions(E entity);
 	
+	/**
+	 * Returns, what logged user could do with given entities - permissions are evaluated in one pass 
+	 * for all entities (e.g. whole page of entities).
+	 * 
+	 * @param entities entities with identifier
+	 * @return permissions by entity identifier
+	 * @since 13.1.0
+	 */
+	default <E extends Identifiable> Map<Serializable, Set<String>> getPermissions(Collection<E> entities) {
+		Map<Serializable, Set<String>> permissions = new LinkedHashMap<>();
+		if (entities == null) {
+			return permissions;
+		}
+		entities.forEach(entity -> {
+			permissions.put(entity.getId(), getPermissions(entity));
+		});
+		//
+		return permissions;
+	}
+	
 	/**
 	 * Returns, what logged user could do with given entity by given policy
 	 * 
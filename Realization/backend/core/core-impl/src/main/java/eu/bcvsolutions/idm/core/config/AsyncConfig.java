@@ -5,6 +5,7 @@ import eu.bcvsolutions.idm.core.api.exception.DefaultErrorModel;
 import eu.bcvsolutions.idm.core.api.exception.ErrorModel;
 import eu.bcvsolutions.idm.core.api.exception.ResultCodeException;
 import eu.bcvsolutions.idm.core.scheduler.api.config.SchedulerConfiguration;
+import eu.bcvsolutions.idm.core.scheduler.api.service.PartitionedExecutor;
 import org.springframework.aop.interceptor.AsyncUncaughtExceptionHandler;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
@@ -18,6 +19,7 @@ import org.springframework.security.concurrent.DelegatingSecurityContextRunnable
 
 import java.lang.reflect.Method;
 import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
 
 /**
  * Executor configuration
@@ -92,42 +94,55 @@ public class AsyncConfig implements AsyncConfigurer {
 	 * Executor for event processing. Common async pool is not reused - event processing has higher priority than LRT. 
 	 * Both pools should be processed parallel, not blocked.
 	 * Scaled for combination I/O operations (mainly) and computing  (e.g. account management, provisioning) event processing.
-	 * Uses cpu count + 1 as default pool size, 
+	 * Events are partitioned by (super) owner into ordered lanes - events for the same owner are processed sequentially.
+	 * Uses cpu count + 1 as default lane count.
 	 * 
 	 * @return
 	 */
-	@Bean(name = SchedulerConfiguration.EVENT_EXECUTOR_NAME)
-	public Executor eventExecutor() {
+	@Bean(name = SchedulerConfiguration.EVENT_EXECUTOR_NAME, destroyMethod = "shutdown")
+	public PartitionedExecutor eventExecutor() {
 		int cpuCount = Runtime.getRuntime().availableProcessors();
 		int poolSize = cpuCount + 1; //5
 		//
-		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
-		int corePoolSize = env.getProperty(SchedulerConfiguration.PROPERTY_EVENT_EXECUTOR_CORE_POOL_SIZE, Integer.class, poolSize);
-		executor.setCorePoolSize(corePoolSize); // ~5
-		int maxPoolSize = env.getProperty(SchedulerConfiguration.PROPERTY_EVENT_EXECUTOR_MAX_POOL_SIZE, Integer.class, corePoolSize * 2);
-		executor.setMaxPoolSize(maxPoolSize); // ~10
+		int laneCount = env.getProperty(SchedulerConfiguration.PROPERTY_EVENT_EXECUTOR_CORE_POOL_SIZE, Integer.class, poolSize); // ~5
 		int queueCapacity = env.getProperty(
 				SchedulerConfiguration.PROPERTY_EVENT_EXECUTOR_QUEUE_CAPACITY, 
 				Integer.class,
 				SchedulerConfiguration.DEFAULT_EVENT_EXECUTOR_QUEUE_CAPACITY);
-		executor.setQueueCapacity(queueCapacity);
-		executor.setThreadPriority(env.getProperty(SchedulerConfiguration.PROPERTY_EVENT_EXECUTOR_THREAD_PRIORITY, Integer.class, 6));
-		executor.setThreadNamePrefix("event-task-executor-");
-		// @Beta - TODO: application context closed listener
-		executor.setWaitForTasksToCompleteOnShutdown(true);
+		int threadPriority = env.getProperty(SchedulerConfiguration.PROPERTY_EVENT_EXECUTOR_THREAD_PRIORITY, Integer.class, 6);
+		//
+		// events are dispatched in transaction - dispatcher doesn't wait for free space in full lane (zero offer timeout),
+		// event remains in queue (database) and will be dispatched again later
+		PartitionedExecutor executor = new PartitionedExecutor("event-task-executor", laneCount, queueCapacity, 0, threadPriority);
 		// MODE_INHERITABLETHREADLOCAL mode is not recommended in environment where thread pools are used (old SecurityContext can be reused in next thread using.).
 		// Instead that the DelegatingSecurityContextRunnable is used for delegating the SecurityContext to child the thread.
 		// Same is applies for TransactionContext. You have to use DelegatingTransactionContextRunnable for delegating to the child thread.
 		// Beware, you have to wrap every new Thread to this delegate objects (wrappers).
 		executor.setTaskDecorator(runnable -> new DelegatingSecurityContextRunnable(new DelegatingTransactionContextRunnable(runnable)));
-		executor.setAwaitTerminationSeconds(30);
-		executor.initialize();
 		//
-		LOG.info("Event executor is initialized: corePoolSize [{}], maxPoolSize [{}], queueCapacity [{}]", 
-				corePoolSize,
-				maxPoolSize,
-				queueCapacity);
+		return executor;
+	}
+	
+	/**
+	 * Event dispatcher - single thread, which loads created events from queue and dispatches them into event executor lanes.
+	 * Dispatcher is woken up, when new event is persisted into queue (after transaction is committed).
+	 * Only one dispatching can be waiting - other wake up requests are discarded (waiting dispatching will load them from queue).
+	 * 
+	 * @return
+	 * @since 13.1.0
+	 */
+	@Bean(name = SchedulerConfiguration.EVENT_DISPATCHER_NAME)
+	public Executor eventDispatcher() {
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setCorePoolSize(1);
+		executor.setMaxPoolSize(1);
+		executor.setQueueCapacity(1);
+		executor.setRejectedExecutionHandler(new ThreadPoolExecutor.DiscardPolicy());
+		executor.setThreadPriority(env.getProperty(SchedulerConfiguration.PROPERTY_EVENT_EXECUTOR_THREAD_PRIORITY, Integer.class, 6));
+		executor.setThreadNamePrefix("event-dispatcher-");
+		executor.setTaskDecorator(runnable -> new DelegatingSecurityContextRunnable(new DelegatingTransactionContextRunnable(runnable)));
+		executor.initialize();
 		//
 		return executor;
 	}
-}
\ No newline at end of file
+}
@@ -46,6 +46,13 @@ public class ClusteredEhCacheConfiguration {
 	public static final String TERRACOTA_RESOURCE_NAME_PROPERTY = "cache.terracota.resource.name";
 	public static final String TERRACOTA_RESOURCE_POOL_NAME_PROPERTY = "cache.terracota.resource.pool.name";
 	public static final String TERRACOTA_RESOURCE_POOL_SIZE_PROPERTY = "cache.terracota.resource.pool.size";
+	/**
+	 * Period (ms) of processing invalidation messages for on-heap near caches (values changed on other cluster node).
+	 * 
+	 * @since 13.1.0
+	 */
+	public static final String NEAR_CACHE_INVALIDATION_PERIOD_PROPERTY = "cache.near.invalidation.period";
+	public static final long DEFAULT_NEAR_CACHE_INVALIDATION_PERIOD = 1000; // 1s
 
 	/**
 	 * Defines clustered {@link CacheManager} using Terracotta server.
@@ -124,9 +131,9 @@ public class ClusteredEhCacheConfiguration {
 
 	private ResourcePoolsBuilder getResourcePools(IdMCacheConfiguration idMCacheConfiguration, String teracotaResourcePoolName) {
 		if (idMCacheConfiguration.isOnlyLocal()) {
-			return ResourcePoolsBuilder.heap(idMCacheConfiguration.getSize());
+			return InMemoryEhCacheConfiguration.getHeapResourcePools(idMCacheConfiguration);
 		} else {
-			return ResourcePoolsBuilder.heap(idMCacheConfiguration.getSize())
+			return InMemoryEhCacheConfiguration.getHeapResourcePools(idMCacheConfiguration)
 					.with(ClusteredResourcePoolBuilder.clusteredShared(teracotaResourcePoolName));
 		}
 	}
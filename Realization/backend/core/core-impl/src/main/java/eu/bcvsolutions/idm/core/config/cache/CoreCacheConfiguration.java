@@ -15,13 +15,18 @@ import eu.bcvsolutions.idm.core.api.config.cache.LocalIdMCacheConfiguration;
 import eu.bcvsolutions.idm.core.api.dto.IdmAuthorizationPolicyDto;
 import eu.bcvsolutions.idm.core.api.dto.IdmTokenDto;
 import eu.bcvsolutions.idm.core.api.service.EntityEventManager;
+import eu.bcvsolutions.idm.core.api.service.IdmAutomaticRoleAttributeService;
 import eu.bcvsolutions.idm.core.api.service.IdmConfigurationService;
+import eu.bcvsolutions.idm.core.api.service.IdmIncompatibleRoleService;
 import eu.bcvsolutions.idm.core.api.service.IdmRoleCompositionService;
 import eu.bcvsolutions.idm.core.eav.api.domain.FormDefinitionCache;
 import eu.bcvsolutions.idm.core.eav.api.service.FormService;
 import eu.bcvsolutions.idm.core.model.service.impl.DefaultGroovyScriptService;
+import eu.bcvsolutions.idm.core.model.service.impl.DefaultIdmCacheManager;
 import eu.bcvsolutions.idm.core.monitoring.api.dto.IdmMonitoringResultDto;
 import eu.bcvsolutions.idm.core.monitoring.api.service.MonitoringManager;
+import eu.bcvsolutions.idm.core.notification.service.impl.DefaultIdmNotificationTemplateService;
+import eu.bcvsolutions.idm.core.security.api.domain.PermissionCacheKey;
 import eu.bcvsolutions.idm.core.security.api.service.AuthorizationManager;
 import eu.bcvsolutions.idm.core.security.api.service.TokenManager;
 import groovy.lang.Script;
@@ -46,39 +51,75 @@ public class CoreCacheConfiguration {
 			.withName(IdmConfigurationService.CACHE_NAME)
 				.withKeyType(String.class)
 				.withValueType(String.class)
+				.withNearCache(10000, Duration.ofMinutes(1)) // read many times in each request
 				.build();
 	}
 
 	/**
 	 * Define local only cache for {@link DefaultGroovyScriptService}. The reason, why we use local only cache
-	 * is {@link Script} class, which this service caches, is not {@link java.io.Serializable} so it cannot
-	 * be shared in distributed cache.
+	 * is compiled {@link Script} class, which this service caches (by script source hash), is not {@link java.io.Serializable} 
+	 * so it cannot be shared in distributed cache.
 	 *
 	 * @return IdMCacheConfiguration for {@link DefaultGroovyScriptService}
 	 */
 	@Bean
+	@SuppressWarnings({ "rawtypes", "unchecked" })
 	public IdMCacheConfiguration groovyScriptCacheConfiguration() {
-		return LocalIdMCacheConfiguration.<String, Script>builder()
+		return LocalIdMCacheConfiguration.<String, Class>builder()
 				.withName(DefaultGroovyScriptService.CACHE_NAME)
 				.withKeyType(String.class)
-				.withValueType(Script.class)
+				.withValueType(Class.class)
 				.build();
 	}
 	
 	/**
-	 * Define distributed cache for {@link AuthorizationManager} - logged identity permissions for entities.
+	 * Define local only cache for {@link DefaultIdmNotificationTemplateService} - compiled velocity templates
+	 * are not {@link java.io.Serializable}.
+	 *
+	 * @return compiled notification templates cache
+	 * @since 13.1.0
+	 */
+	@Bean
+	public IdMCacheConfiguration notificationTemplateCacheConfiguration() {
+		return LocalIdMCacheConfiguration.<UUID, Object> builder()
+				.withName(DefaultIdmNotificationTemplateService.TEMPLATE_CACHE_NAME)
+				.withKeyType(UUID.class)
+				.withValueType(Object.class)
+				.build();
+	}
+	
+	/**
+	 * Define distributed cache for {@link AuthorizationManager} - logged identity permission cache scope.
 	 *
 	 * @return permission cache
 	 * @since 10.4.1
 	 */
 	@Bean
-	@SuppressWarnings("rawtypes")
 	public IdMCacheConfiguration permissionCacheConfiguration() {
-		return DistributedIdMCacheConfiguration.<UUID, HashMap> builder()
+		return DistributedIdMCacheConfiguration.<UUID, UUID> builder()
 			.withName(AuthorizationManager.PERMISSION_CACHE_NAME)
 				.withKeyType(UUID.class) // identity uuid ~ logged users
-				.withValueType(HashMap.class)
+				.withValueType(UUID.class) // permission cache scope
 				.withTtl(Duration.ofMinutes(1)) // permissions are based on data structure => cache should be effective short time (one request)
+				.withNearCache(1000, Duration.ofSeconds(10))
+				.build();
+	}
+	
+	/**
+	 * Define distributed cache for {@link AuthorizationManager} - logged identity permissions for entities.
+	 *
+	 * @return entity permission cache
+	 * @since 13.1.0
+	 */
+	@Bean
+	@SuppressWarnings("rawtypes")
+	public IdMCacheConfiguration entityPermissionCacheConfiguration() {
+		return DistributedIdMCacheConfiguration.<PermissionCacheKey, HashSet> builder()
+			.withName(AuthorizationManager.ENTITY_PERMISSION_CACHE_NAME)
+				.withKeyType(PermissionCacheKey.class) // identity, scope, entity type and id
+				.withValueType(HashSet.class)
+				.withTtl(Duration.ofMinutes(1)) // the same as permission cache scope - entries in evicted scope expire
+				.withNearCache(10000, Duration.ofSeconds(10))
 				.build();
 	}
 
@@ -111,6 +152,7 @@ public class CoreCacheConfiguration {
 			.withName(AuthorizationManager.AUTHORIZATION_POLICY_DEFINITION_CACHE_NAME)
 				.withKeyType(UUID.class)
 				.withValueType(IdmAuthorizationPolicyDto.class)
+				.withNearCache(1000, Duration.ofMinutes(1))
 				.build();
 	}
 	
@@ -126,6 +168,7 @@ public class CoreCacheConfiguration {
 			.withName(FormService.FORM_DEFINITION_CACHE_NAME)
 				.withKeyType(String.class) // owner type
 				.withValueType(FormDefinitionCache.class) // code - form definition
+				.withNearCache(1000, Duration.ofMinutes(1))
 				.build();
 	}
 	
@@ -162,6 +205,40 @@ public class CoreCacheConfiguration {
 				.build();
 	}
 	
+	/**
+	 * Version of compiled rules of automatic roles by attribute - compiled rules are held on each node,
+	 * they are compiled again, when version is evicted (rules are changed).
+	 *
+	 * @return rules version
+	 * @since 13.1.0
+	 */
+	@Bean
+	public IdMCacheConfiguration automaticRoleAttributeRuleIndexCacheConfiguration() {
+		return DistributedIdMCacheConfiguration.<String, UUID> builder()
+			.withName(IdmAutomaticRoleAttributeService.RULE_INDEX_CACHE_NAME)
+				.withKeyType(String.class)
+				.withValueType(UUID.class)
+				.withNearCache(1, Duration.ofSeconds(10))
+				.build();
+	}
+	
+	/**
+	 * Version of incompatible role conflict matrix - matrix is held on each node,
+	 * it is compiled again, when version is evicted (incompatible roles or role composition are changed).
+	 *
+	 * @return matrix version
+	 * @since 13.1.0
+	 */
+	@Bean
+	public IdMCacheConfiguration incompatibleRoleIndexCacheConfiguration() {
+		return DistributedIdMCacheConfiguration.<String, UUID> builder()
+			.withName(IdmIncompatibleRoleService.INDEX_CACHE_NAME)
+				.withKeyType(String.class)
+				.withValueType(UUID.class)
+				.withNearCache(1, Duration.ofSeconds(10))
+				.build();
+	}
+	
 	/**
 	 * Transaction events by transaction id.
 	 *
@@ -192,4 +269,19 @@ public class CoreCacheConfiguration {
 				.withValueType(IdmMonitoringResultDto.class)
 				.build();
 	}
+	
+	/**
+	 * Invalidation messages for on-heap near caches - values evicted or changed on cluster nodes.
+	 *
+	 * @return invalidation messages by cache name
+	 * @since 13.1.0
+	 */
+	@Bean
+	public IdMCacheConfiguration nearCacheInvalidationCacheConfiguration() {
+		return DistributedIdMCacheConfiguration.<String, NearCacheInvalidation> builder()
+			.withName(DefaultIdmCacheManager.NEAR_CACHE_INVALIDATION_CACHE_NAME)
+				.withKeyType(String.class) // cache name
+				.withValueType(NearCacheInvalidation.class)
+				.build();
+	}
 }
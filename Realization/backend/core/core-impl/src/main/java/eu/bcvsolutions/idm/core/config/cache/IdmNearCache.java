@@ -0,0 +1,172 @@
+package eu.bcvsolutions.idm.core.config.cache;
+
+import java.io.Serializable;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.util.Assert;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import eu.bcvsolutions.idm.core.api.config.cache.IdMCacheConfiguration;
+import eu.bcvsolutions.idm.core.api.config.cache.domain.ValueWrapper;
+
+/**
+ * On-heap near cache in front of distributed cache - values read from distributed cache are held locally (bounded by size and ttl).
+ * Values changed on other cluster nodes are invalidated by {@link NearCacheInvalidation} messages.
+ *
+ * @since 13.1.0
+ */
+public class IdmNearCache {
+
+	private final String cacheName;
+	private final Cache<Object, ValueWrapper> values;
+	private long lastInvalidation = 0; // sequence of the last processed invalidation message
+	private long version = 0; // incremented, when some value is evicted
+
+	public IdmNearCache(IdMCacheConfiguration configuration) {
+		Assert.notNull(configuration, "Cache configuration is required.");
+		Assert.isTrue(configuration.getNearCacheSize() > 0, "Near cache size has to be positive number.");
+		//
+		this.cacheName = configuration.getCacheName();
+		CacheBuilder<Object, Object> builder = CacheBuilder
+				.newBuilder()
+				.maximumSize(configuration.getNearCacheSize());
+		Duration ttl = configuration.getNearCacheTtl();
+		if (ttl != null && !IdMCacheConfiguration.INFINITE_TTL.equals(ttl)) {
+			builder.expireAfterWrite(ttl.toMillis(), TimeUnit.MILLISECONDS);
+		}
+		this.values = builder.build();
+	}
+
+	public String getCacheName() {
+		return cacheName;
+	}
+
+	/**
+	 * Cached value.
+	 *
+	 * @param key cache key
+	 * @return cached value wrapper, {@code null} - value is not cached
+	 */
+	public ValueWrapper get(Object key) {
+		return values.getIfPresent(key);
+	}
+
+	/**
+	 * Cache value.
+	 *
+	 * @param key cache key
+	 * @param value value wrapper
+	 */
+	public void put(Object key, ValueWrapper value) {
+		values.put(key, value);
+	}
+	
+	/**
+	 * Cache value loaded from distributed cache - value is cached, only if no value was evicted after the load was started
+	 * (loaded value can be stale, if invalidation was processed in the meantime).
+	 *
+	 * @param key cache key
+	 * @param value value wrapper
+	 * @param loadVersion version before value was loaded, see {@link #getVersion()}
+	 * @return true - value was cached
+	 */
+	public synchronized boolean put(Object key, ValueWrapper value, long loadVersion) {
+		if (version != loadVersion) {
+			return false;
+		}
+		values.put(key, value);
+		return true;
+	}
+	
+	/**
+	 * Version is incremented, when some value is evicted - used to prevent caching stale loaded values.
+	 * 
+	 * @return current version
+	 */
+	public synchronized long getVersion() {
+		return version;
+	}
+
+	/**
+	 * Evict value.
+	 *
+	 * @param key cache key
+	 */
+	public synchronized void evict(Object key) {
+		version++;
+		values.invalidate(key);
+	}
+
+	/**
+	 * Evict all values.
+	 */
+	public synchronized void clear() {
+		version++;
+		values.invalidateAll();
+	}
+
+	/**
+	 * Count of cached values.
+	 *
+	 * @return count
+	 */
+	public long size() {
+		return values.size();
+	}
+
+	/**
+	 * Sampled cached keys and values - used to estimate near cache heap size.
+	 *
+	 * @param count max count of sampled items
+	 * @return keys and values of sampled items
+	 */
+	public List<Object> sample(int count) {
+		List<Object> sample = new ArrayList<>();
+		for (Map.Entry<Object, ValueWrapper> entry : values.asMap().entrySet()) {
+			if (sample.size() >= count * 2) {
+				break;
+			}
+			sample.add(entry.getKey());
+			sample.add(entry.getValue());
+		}
+		return sample;
+	}
+
+	/**
+	 * Evict values invalidated after the last processed invalidation.
+	 *
+	 * @param invalidation invalidation messages, {@code null} - invalidation messages were evicted (~ whole cache)
+	 */
+	public synchronized void invalidate(NearCacheInvalidation invalidation) {
+		long sequence = invalidation == null ? 0 : invalidation.getSequence();
+		if (sequence == lastInvalidation) {
+			return;
+		}
+		List<Serializable> keys = sequence < lastInvalidation ? null : invalidation.getKeysAfter(lastInvalidation);
+		if (keys == null) {
+			clear();
+		} else {
+			version++;
+			values.invalidateAll(keys);
+		}
+		lastInvalidation = sequence;
+	}
+
+	/**
+	 * Invalidation message was published by this node - message is marked as processed,
+	 * if no other message was published in the meantime.
+	 *
+	 * @param sequence published invalidation sequence
+	 */
+	public synchronized void published(long sequence) {
+		if (sequence == lastInvalidation + 1) {
+			lastInvalidation = sequence;
+		}
+	}
+}
@@ -10,6 +10,7 @@ import org.ehcache.config.builders.CacheConfigurationBuilder;
 import org.ehcache.config.builders.CacheManagerBuilder;
 import org.ehcache.config.builders.ExpiryPolicyBuilder;
 import org.ehcache.config.builders.ResourcePoolsBuilder;
+import org.ehcache.config.units.MemoryUnit;
 import org.ehcache.jsr107.EhcacheCachingProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
@@ -66,7 +67,7 @@ public class InMemoryEhCacheConfiguration {
 					.newCacheConfigurationBuilder(
 							idmCacheConfiguration.getKeyType(),
 							CacheObjectWrapper.class,
-							ResourcePoolsBuilder.heap(idmCacheConfiguration.getSize()))
+							getHeapResourcePools(idmCacheConfiguration))
 					.withValueSerializer(CacheWrapperSerializer.class)
 					.withExpiry(ExpiryPolicyBuilder.timeToLiveExpiration(idmCacheConfiguration.getTtl()))
 					.build();
@@ -75,11 +76,25 @@ public class InMemoryEhCacheConfiguration {
 					.newCacheConfigurationBuilder(
 							idmCacheConfiguration.getKeyType(), 
 							SerializableCacheObjectWrapper.class,
-							ResourcePoolsBuilder.heap(idmCacheConfiguration.getSize()))
+							getHeapResourcePools(idmCacheConfiguration))
 					.withValueSerializer(SerializableCacheWrapperSerializer.class)
 					.withExpiry(ExpiryPolicyBuilder.timeToLiveExpiration(idmCacheConfiguration.getTtl()))
 					.build();
 		}
 	}
+	
+	/**
+	 * On-heap resource pool - bounded by heap size in bytes, if configured, otherwise by entry count.
+	 * 
+	 * @param idmCacheConfiguration cache configuration
+	 * @return on-heap resource pool
+	 * @since 13.1.0
+	 */
+	static ResourcePoolsBuilder getHeapResourcePools(IdMCacheConfiguration idmCacheConfiguration) {
+		if (idmCacheConfiguration.getHeapSize() > 0) {
+			return ResourcePoolsBuilder.newResourcePoolsBuilder().heap(idmCacheConfiguration.getHeapSize(), MemoryUnit.B);
+		}
+		return ResourcePoolsBuilder.heap(idmCacheConfiguration.getSize());
+	}
 
 }
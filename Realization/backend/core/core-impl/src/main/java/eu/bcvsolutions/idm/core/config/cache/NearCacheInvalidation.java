@@ -0,0 +1,93 @@
+package eu.bcvsolutions.idm.core.config.cache;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Invalidation messages for near caches on all cluster nodes - the latest invalidated keys of one cache.
+ * Stored in distributed cache, immutable - new message is added by {@link #next(Serializable)}.
+ *
+ * @since 13.1.0
+ */
+public class NearCacheInvalidation implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+	public static final int MAX_KEYS = 100; // the latest invalidated keys are held only
+	//
+	private final long sequence; // sequence of the last invalidated key
+	private final ArrayList<Serializable> keys; // the last key has the last sequence, null - whole cache
+
+	public NearCacheInvalidation() {
+		this(0, new ArrayList<>());
+	}
+
+	private NearCacheInvalidation(long sequence, ArrayList<Serializable> keys) {
+		this.sequence = sequence;
+		this.keys = keys;
+	}
+
+	/**
+	 * Sequence of the last invalidation.
+	 *
+	 * @return sequence
+	 */
+	public long getSequence() {
+		return sequence;
+	}
+
+	/**
+	 * Add invalidated key.
+	 *
+	 * @param key invalidated key, {@code null} - whole cache is invalidated
+	 * @return new invalidation with added key
+	 */
+	public NearCacheInvalidation next(Serializable key) {
+		ArrayList<Serializable> nextKeys = new ArrayList<>(keys);
+		nextKeys.add(key);
+		if (nextKeys.size() > MAX_KEYS) {
+			nextKeys.remove(0);
+		}
+		return new NearCacheInvalidation(sequence + 1, nextKeys);
+	}
+
+	/**
+	 * Keys invalidated after given sequence.
+	 *
+	 * @param lastSequence the last processed sequence
+	 * @return invalidated keys, {@code null} - whole cache has to be invalidated
+	 * (whole cache was invalidated or keys after given sequence are not held).
+	 */
+	public List<Serializable> getKeysAfter(long lastSequence) {
+		long count = sequence - lastSequence;
+		if (count <= 0) {
+			return new ArrayList<>();
+		}
+		if (count > keys.size()) {
+			return null;
+		}
+		List<Serializable> keysAfter = keys.subList(keys.size() - (int) count, keys.size());
+		if (keysAfter.contains(null)) {
+			return null;
+		}
+		return new ArrayList<>(keysAfter);
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(sequence, keys);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof NearCacheInvalidation)) {
+			return false;
+		}
+		NearCacheInvalidation other = (NearCacheInvalidation) obj;
+		return sequence == other.sequence && Objects.equals(keys, other.keys);
+	}
+}
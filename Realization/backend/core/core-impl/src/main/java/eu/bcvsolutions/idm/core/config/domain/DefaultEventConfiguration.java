@@ -1,7 +1,5 @@
 package eu.bcvsolutions.idm.core.config.domain;
 
-import java.util.concurrent.Executor;
-
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
@@ -10,6 +8,7 @@ import org.springframework.stereotype.Component;
 import eu.bcvsolutions.idm.core.api.config.domain.AbstractConfiguration;
 import eu.bcvsolutions.idm.core.api.config.domain.EventConfiguration;
 import eu.bcvsolutions.idm.core.scheduler.api.config.SchedulerConfiguration;
+import eu.bcvsolutions.idm.core.scheduler.api.service.PartitionedExecutor;
 
 /**
  * Configuration for features with event processing.
@@ -22,10 +21,10 @@ public class DefaultEventConfiguration extends AbstractConfiguration implements
 	
 	@Autowired 
 	@Qualifier(SchedulerConfiguration.EVENT_EXECUTOR_NAME)
-	private Executor executor;
+	private PartitionedExecutor executor;
 	
 	@Override
-	public Executor getExecutor() {
+	public PartitionedExecutor getExecutor() {
 		return executor;
 	}
 	
@@ -296,9 +296,11 @@ public abstract class AbstractFormValueService<O extends FormableEntity, E exten
 			predicates.add(builder.equal(root.get(AbstractFormValue_.stringValue), stringValue));
 		}
 		//
-		String shortTextValue = filter.getShortTextValue();
-		if (StringUtils.isNotEmpty(shortTextValue)) {
-			predicates.add(builder.equal(root.get(AbstractFormValue_.shortTextValue), shortTextValue));
+		List<String> shortTextValues = filter.getShortTextValues();
+		if (shortTextValues.size() > 1) {
+			predicates.add(root.get(AbstractFormValue_.shortTextValue).in(shortTextValues));
+		} else if (StringUtils.isNotEmpty(filter.getShortTextValue())) {
+			predicates.add(builder.equal(root.get(AbstractFormValue_.shortTextValue), filter.getShortTextValue()));
 		}
 		//
 		String stringValueLike = filter.getStringValueLike();
@@ -3,8 +3,17 @@ package eu.bcvsolutions.idm.core.exception;
 import ch.qos.logback.classic.spi.*;
 
 import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.stream.Stream;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
 
 import ch.qos.logback.core.AppenderBase;
 import ch.qos.logback.core.CoreConstants;
@@ -15,10 +24,19 @@ import eu.bcvsolutions.idm.core.api.audit.service.IdmLoggingEventExceptionServic
 import eu.bcvsolutions.idm.core.api.audit.service.IdmLoggingEventPropertyService;
 import eu.bcvsolutions.idm.core.api.audit.service.IdmLoggingEventService;
 import eu.bcvsolutions.idm.core.api.domain.LogType;
+import eu.bcvsolutions.idm.core.audit.entity.IdmLoggingEvent;
+import eu.bcvsolutions.idm.core.audit.entity.IdmLoggingEventException;
+import eu.bcvsolutions.idm.core.audit.entity.IdmLoggingEventProperty;
 import eu.bcvsolutions.idm.core.config.ApplicationContextHolder;
-import org.apache.commons.lang3.reflect.FieldUtils;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
 
+import org.apache.commons.lang3.reflect.FieldUtils;
+import org.hibernate.Session;
 import org.springframework.context.ApplicationContext;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 
 /**
@@ -27,6 +45,11 @@ import org.springframework.context.ApplicationContext;
  * {@link IdmLoggingEventPropertyService} are used for saving logs to database. Besides that, tha class also fixes some
  * bugs regarding max message length and forbidden characters in Postgresql.
  *
+ * Appender can work in asynchronous mode (configured by {@code <async>true</async>}) - events are queued into bounded queue
+ * and written in batches (one transaction, jdbc batch inserts) by background writer thread. When queue is full, then
+ * appending thread waits or event is dropped ({@code <neverBlock>true</neverBlock>}) and counted (see {@link #METRIC_DROPPED}).
+ * Events logged by background writer itself are not written (writer would wait for appender lock held by appending thread).
+ *
  * @author Vít Švanda
  * @author Peter Štrunc <github.com/peter-strunc>
  * @since 11.0.0
@@ -35,12 +58,34 @@ public class IdmDbAppender extends AppenderBase<ILoggingEvent> {
 
 	public static final short PROPERTIES_EXIST = 0x01;
 	public static final short EXCEPTION_EXISTS = 0x02;
+	public static final int DEFAULT_QUEUE_SIZE = 1024;
+	public static final int DEFAULT_BATCH_SIZE = 100;
+	public static final int DEFAULT_MAX_FLUSH_TIME = 1000; // ms
+	public static final String METRIC_WRITTEN = "idm.log.db.written";
+	public static final String METRIC_DROPPED = "idm.log.db.dropped";
+	//
+	private static final String LOGGING_ENTITY_MANAGER_FACTORY = "loggingEntityManagerFactory"; // see LoggingDatasourceConfig
+	private static final String LOGGING_TRANSACTION_MANAGER = "loggingTransactionManager";
 
 	static final StackTraceElement EMPTY_CALLER_DATA = CallerData.naInstance();
 
 	private IdmLoggingEventService loggingEventService;
 	private IdmLoggingEventExceptionService loggingEventExceptionService;
 	private IdmLoggingEventPropertyService loggingEventPropertyService;
+	//
+	// asynchronous mode
+	private boolean async = false;
+	private int queueSize = DEFAULT_QUEUE_SIZE;
+	private int batchSize = DEFAULT_BATCH_SIZE;
+	private boolean neverBlock = false;
+	private int maxFlushTime = DEFAULT_MAX_FLUSH_TIME;
+	private BlockingQueue<ILoggingEvent> queue;
+	private volatile Thread writer;
+	private EntityManagerFactory entityManagerFactory;
+	private TransactionTemplate transactionTemplate;
+	private boolean metricsRegistered = false;
+	private final AtomicLong writtenCount = new AtomicLong();
+	private final AtomicLong droppedCount = new AtomicLong();
 
 	/**
 	 * Initializes this appender. Because Logback creates this appender before Springs {@link ApplicationContext} is initialized,
@@ -98,6 +143,41 @@ public class IdmDbAppender extends AppenderBase<ILoggingEvent> {
 		this.loggingEventPropertyService = loggingEventPropertyService;
 	}
 
+	@Override
+	public void start() {
+		if (async) {
+			queue = new ArrayBlockingQueue<>(queueSize < 1 ? DEFAULT_QUEUE_SIZE : queueSize);
+			writer = new Thread(this::writeEvents, "idm-db-appender-writer");
+			writer.setDaemon(true);
+			super.start(); // writer runs while appender is started
+			writer.start();
+		} else {
+			super.start();
+		}
+	}
+
+	@Override
+	public void stop() {
+		if (!isStarted()) {
+			return;
+		}
+		super.stop();
+		//
+		if (writer != null) {
+			// remaining events are written by writer before it ends
+			writer.interrupt();
+			try {
+				writer.join(maxFlushTime);
+			} catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			}
+			if (writer.isAlive()) {
+				addWarn(MessageFormat.format("Max flush time [{0}]ms exceeded, [{1}] queued events were not written.", maxFlushTime, queue.size()));
+			}
+			writer = null;
+		}
+	}
+
 	@Override
 	protected void append(ILoggingEvent eventObject) {
 
@@ -105,7 +185,188 @@ public class IdmDbAppender extends AppenderBase<ILoggingEvent> {
 		if (!init()) {
 			return;
 		}
+		//
+		if (writer != null) {
+			enqueue(eventObject);
+			return;
+		}
+
+		IdmLoggingEventDto loggingEventDto = toDto(eventObject);
+		loggingEventDto = loggingEventService.save(loggingEventDto);
+
+		processProperties(eventObject, loggingEventDto);
+		insertThrowable(eventObject, loggingEventDto);
+		writtenCount.incrementAndGet();
+	}
+
+	/**
+	 * Add event into queue - event will be written by background writer.
+	 *
+	 * @param eventObject logging event
+	 */
+	private void enqueue(ILoggingEvent eventObject) {
+		// event data (e.g. caller data) have to be resolved in the current thread
+		eventObject.prepareForDeferredProcessing();
+		eventObject.getCallerData();
+		//
+		if (neverBlock) {
+			if (!queue.offer(eventObject)) {
+				droppedCount.incrementAndGet();
+			}
+			return;
+		}
+		// wait for free space in queue, while writer is running
+		try {
+			while (!queue.offer(eventObject, 100, TimeUnit.MILLISECONDS)) {
+				if (!isStarted()) {
+					droppedCount.incrementAndGet();
+					return;
+				}
+			}
+		} catch (InterruptedException ex) {
+			droppedCount.incrementAndGet();
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Background writer - writes queued events in batches, while appender is started.
+	 * Remaining events are written after appender is stopped.
+	 */
+	private void writeEvents() {
+		List<ILoggingEvent> batch = new ArrayList<>(batchSize);
+		while (isStarted()) {
+			try {
+				ILoggingEvent event = queue.poll(1, TimeUnit.SECONDS);
+				if (event == null) {
+					continue;
+				}
+				batch.add(event);
+				queue.drainTo(batch, batchSize - 1);
+				appendBatch(batch);
+				batch.clear();
+			} catch (InterruptedException ex) {
+				// appender is stopped => write remaining events
+				break;
+			}
+		}
+		// clear interrupted flag (stop can interrupt running batch) - jdbc driver can fail on interrupted thread
+		Thread.interrupted();
+		while (queue.drainTo(batch, batchSize) > 0) {
+			appendBatch(batch);
+			batch.clear();
+		}
+	}
+
+	/**
+	 * Persist batch of events with properties and exception trace lines in one transaction.
+	 * Jdbc batch inserts are used (by batch size).
+	 *
+	 * @param events logging events
+	 */
+	protected void appendBatch(List<ILoggingEvent> events) {
+		try {
+			if (!initBatch()) {
+				// application context is not available (e.g. manually initialized appender) => services are used
+				events.forEach(event -> {
+					IdmLoggingEventDto loggingEventDto = loggingEventService.save(toDto(event));
+					processProperties(event, loggingEventDto);
+					insertThrowable(event, loggingEventDto);
+				});
+			} else {
+				transactionTemplate.execute(status -> {
+					EntityManager entityManager = EntityManagerFactoryUtils.getTransactionalEntityManager(entityManagerFactory);
+					entityManager.unwrap(Session.class).setJdbcBatchSize(batchSize);
+					//
+					for (ILoggingEvent event : events) {
+						IdmLoggingEvent loggingEvent = toEntity(toDto(event));
+						entityManager.persist(loggingEvent);
+						Long eventId = (Long) loggingEvent.getId();
+						//
+						getProperties(event).forEach((key, value) -> {
+							IdmLoggingEventProperty property = new IdmLoggingEventProperty();
+							property.setEventId(eventId);
+							property.setMappedKey(key);
+							property.setMappedValue(value);
+							entityManager.persist(property);
+						});
+						long index = 0;
+						for (String traceLine : getTraceLines(event)) {
+							IdmLoggingEventException exception = new IdmLoggingEventException();
+							exception.setEvent(loggingEvent);
+							exception.setId(index++);
+							exception.setTraceLine(traceLine);
+							entityManager.persist(exception);
+						}
+					}
+					entityManager.flush();
+					entityManager.clear();
+					return null;
+				});
+			}
+			writtenCount.addAndGet(events.size());
+		} catch (Exception ex) {
+			droppedCount.addAndGet(events.size());
+			// appender cannot log into itself
+			addError(MessageFormat.format("Batch of [{0}] logging events was not written.", events.size()), ex);
+		}
+	}
+
+	/**
+	 * Initialize beans for writing events in batch.
+	 *
+	 * @return true - batch can be written by entity manager
+	 */
+	private boolean initBatch() {
+		if (transactionTemplate != null) {
+			return true;
+		}
+		if (!ApplicationContextHolder.hasApplicationContext()) {
+			return false;
+		}
+		ApplicationContext context = ApplicationContextHolder.getApplicationContext();
+		if (!context.containsBean(LOGGING_ENTITY_MANAGER_FACTORY) || !context.containsBean(LOGGING_TRANSACTION_MANAGER)) {
+			return false;
+		}
+		entityManagerFactory = context.getBean(LOGGING_ENTITY_MANAGER_FACTORY, EntityManagerFactory.class);
+		transactionTemplate = new TransactionTemplate(context.getBean(LOGGING_TRANSACTION_MANAGER, PlatformTransactionManager.class));
+		//
+		registerMetrics(context);
+		//
+		return true;
+	}
+
+	/**
+	 * Register counters of written and dropped events, if metrics are available.
+	 *
+	 * @param context application context
+	 */
+	private void registerMetrics(ApplicationContext context) {
+		if (metricsRegistered) {
+			return;
+		}
+		MeterRegistry meterRegistry = context.getBeanProvider(MeterRegistry.class).getIfAvailable();
+		if (meterRegistry == null) {
+			return;
+		}
+		FunctionCounter
+			.builder(METRIC_WRITTEN, writtenCount, AtomicLong::get)
+			.tag("appender", String.valueOf(getName()))
+			.register(meterRegistry);
+		FunctionCounter
+			.builder(METRIC_DROPPED, droppedCount, AtomicLong::get)
+			.tag("appender", String.valueOf(getName()))
+			.register(meterRegistry);
+		metricsRegistered = true;
+	}
 
+	/**
+	 * Convert logging event to dto.
+	 *
+	 * @param eventObject logging event
+	 * @return dto without identifier
+	 */
+	private IdmLoggingEventDto toDto(ILoggingEvent eventObject) {
 		IdmLoggingEventDto loggingEventDto = new IdmLoggingEventDto();
 		loggingEventDto.setTimestmp(eventObject.getTimeStamp());
 		loggingEventDto.setFormattedMessage(eventObject.getFormattedMessage());
@@ -125,22 +386,53 @@ public class IdmDbAppender extends AppenderBase<ILoggingEvent> {
 		loggingEventDto.setCallerFilename(stackTraceElement.getFileName());
 		loggingEventDto.setCallerMethod(stackTraceElement.getMethodName());
 		loggingEventDto.setCallerLine(String.valueOf(stackTraceElement.getLineNumber()));
+		
+		return loggingEventDto;
+	}
 
-		loggingEventDto = loggingEventService.save(loggingEventDto);
-
-		processProperties(eventObject, loggingEventDto);
-		insertThrowable(eventObject, loggingEventDto);
+	private IdmLoggingEvent toEntity(IdmLoggingEventDto dto) {
+		IdmLoggingEvent entity = new IdmLoggingEvent();
+		entity.setTimestmp(dto.getTimestmp());
+		entity.setFormattedMessage(dto.getFormattedMessage());
+		entity.setLoggerName(dto.getLoggerName());
+		entity.setLevelString(dto.getLevelString());
+		entity.setThreadName(dto.getThreadName());
+		entity.setReferenceFlag(dto.getReferenceFlag());
+		entity.setArg0(dto.getArg0());
+		entity.setArg1(dto.getArg1());
+		entity.setArg2(dto.getArg2());
+		entity.setArg3(dto.getArg3());
+		entity.setCallerClass(dto.getCallerClass());
+		entity.setCallerFilename(dto.getCallerFilename());
+		entity.setCallerMethod(dto.getCallerMethod());
+		entity.setCallerLine(dto.getCallerLine());
+		//
+		return entity;
 	}
 
 	protected void insertThrowable(ILoggingEvent eventObject, IdmLoggingEventDto loggingEventDto) {
 		final long eventId = (long) loggingEventDto.getId();
 
-		IThrowableProxy throwableProxy = eventObject.getThrowableProxy();
 		long baseIndex = 0;
+		for (String traceLine : getTraceLines(eventObject)) {
+			saveStacktraceLine(traceLine, baseIndex++, eventId);
+		}
+	}
+
+	/**
+	 * Stack trace lines of event exception (with causes).
+	 *
+	 * @param eventObject logging event
+	 * @return trace lines, empty list if event has no exception
+	 */
+	private List<String> getTraceLines(ILoggingEvent eventObject) {
+		List<String> traceLines = new ArrayList<>();
+		IThrowableProxy throwableProxy = eventObject.getThrowableProxy();
 		while (throwableProxy != null) {
-			baseIndex = processError(throwableProxy, baseIndex, eventId);
+			processError(throwableProxy, traceLines);
 			throwableProxy = throwableProxy.getCause();
 		}
+		return traceLines;
 	}
 
 	/**
@@ -148,14 +440,14 @@ public class IdmDbAppender extends AppenderBase<ILoggingEvent> {
 	 * This method is mostly taken from Logback-1.2.3
 	 *
 	 * @param throwableProxy {@link IThrowableProxy} must not be null.
-	 * @param eventId {@link Long} identifier autogenerated from database. Must not be null.
+	 * @param traceLines processed trace lines
 	 */
-	private long processError(IThrowableProxy throwableProxy, long baseIndex, long eventId) {
+	private void processError(IThrowableProxy throwableProxy, List<String> traceLines) {
 
 		StringBuilder buf = new StringBuilder();
 
 		ThrowableProxyUtil.subjoinFirstLine(buf, throwableProxy);
-		saveStacktraceLine(buf.toString(), baseIndex++, eventId);
+		traceLines.add(buf.toString());
 
 		final int commonFrames = throwableProxy.getCommonFrames();
 		final StackTraceElementProxy[] stepArray = throwableProxy.getStackTraceElementProxyArray();
@@ -163,15 +455,13 @@ public class IdmDbAppender extends AppenderBase<ILoggingEvent> {
 			StringBuilder sb = new StringBuilder();
 			sb.append(CoreConstants.TAB);
 			ThrowableProxyUtil.subjoinSTEP(sb, stepArray[i]);
-			saveStacktraceLine(sb.toString(), baseIndex++, eventId);
+			traceLines.add(sb.toString());
 		}
 		if (commonFrames > 0) {
 			StringBuilder sb = new StringBuilder();
 			sb.append(CoreConstants.TAB).append("... ").append(commonFrames).append(" common frames omitted");
-			saveStacktraceLine(sb.toString(), baseIndex++, eventId);
+			traceLines.add(sb.toString());
 		}
-
-		return baseIndex;
 	}
 
 	/**
@@ -186,7 +476,7 @@ public class IdmDbAppender extends AppenderBase<ILoggingEvent> {
 		dto.setEvent(eventId);
 		dto.setTraceLine(traceLine);
 		dto.setId(baseIndex);
-		final IdmLoggingEventExceptionDto save = loggingEventExceptionService.save(dto);
+		loggingEventExceptionService.save(dto);
 	}
 
 
@@ -197,12 +487,24 @@ public class IdmDbAppender extends AppenderBase<ILoggingEvent> {
 	 * @param loggingEventDto Saved {@link IdmLoggingEventDto}
 	 */
 	private void processProperties(ILoggingEvent event, IdmLoggingEventDto loggingEventDto) {
-		Map<String, String> loggerContextMap = event.getLoggerContextVO().getPropertyMap();
-		Map<String, String> mdcMap = event.getMDCPropertyMap();
-		Stream.concat(
-				loggerContextMap.entrySet().stream(),
-				mdcMap.entrySet().stream()
-		).forEach(property -> saveProperty(loggingEventDto, property));
+		getProperties(event).entrySet().forEach(property -> saveProperty(loggingEventDto, property));
+	}
+
+	/**
+	 * Logger context and MDC properties of given event - MDC property overrides context property with the same key.
+	 *
+	 * @param event Original event data
+	 * @return properties
+	 */
+	private Map<String, String> getProperties(ILoggingEvent event) {
+		Map<String, String> properties = new LinkedHashMap<>();
+		if (event.getLoggerContextVO() != null && event.getLoggerContextVO().getPropertyMap() != null) {
+			properties.putAll(event.getLoggerContextVO().getPropertyMap());
+		}
+		if (event.getMDCPropertyMap() != null) {
+			properties.putAll(event.getMDCPropertyMap());
+		}
+		return properties;
 	}
 
 	/**
@@ -219,8 +521,104 @@ public class IdmDbAppender extends AppenderBase<ILoggingEvent> {
 		loggingEventPropertyService.save(dto);
 	}
 
+	public boolean isAsync() {
+		return async;
+	}
+
+	/**
+	 * Events are written asynchronously in batches by background writer.
+	 *
+	 * @param async true - asynchronous mode
+	 * @since 13.1.0
+	 */
+	public void setAsync(boolean async) {
+		this.async = async;
+	}
+
+	public int getQueueSize() {
+		return queueSize;
+	}
+
+	/**
+	 * Max count of queued events in asynchronous mode.
+	 *
+	 * @param queueSize queue size
+	 * @since 13.1.0
+	 */
+	public void setQueueSize(int queueSize) {
+		this.queueSize = queueSize;
+	}
+
+	public int getBatchSize() {
+		return batchSize;
+	}
+
+	/**
+	 * Max count of events written in one transaction in asynchronous mode.
+	 *
+	 * @param batchSize batch size
+	 * @since 13.1.0
+	 */
+	public void setBatchSize(int batchSize) {
+		this.batchSize = batchSize < 1 ? DEFAULT_BATCH_SIZE : batchSize;
+	}
+
+	public boolean isNeverBlock() {
+		return neverBlock;
+	}
+
+	/**
+	 * Overflow policy in asynchronous mode - event is dropped, when queue is full (true),
+	 * or appending thread waits for free space in queue (false - default).
+	 *
+	 * @param neverBlock true - drop events
+	 * @since 13.1.0
+	 */
+	public void setNeverBlock(boolean neverBlock) {
+		this.neverBlock = neverBlock;
+	}
+
+	public int getMaxFlushTime() {
+		return maxFlushTime;
+	}
+
+	/**
+	 * Max time [ms] to wait for writing queued events, when appender is stopped.
+	 *
+	 * @param maxFlushTime time in milliseconds
+	 * @since 13.1.0
+	 */
+	public void setMaxFlushTime(int maxFlushTime) {
+		this.maxFlushTime = maxFlushTime;
+	}
+
+	/**
+	 * Count of written events.
+	 *
+	 * @return count
+	 * @since 13.1.0
+	 */
+	public long getWrittenCount() {
+		return writtenCount.get();
+	}
+
+	/**
+	 * Count of dropped events - queue was full or events write failed.
+	 *
+	 * @return count
+	 * @since 13.1.0
+	 */
+	public long getDroppedCount() {
+		return droppedCount.get();
+	}
+
 	@Override
 	public void doAppend(ILoggingEvent eventObject) {
+		if (writer != null && Thread.currentThread() == writer) {
+			// event logged by writer (e.g. failed batch) - appending thread can hold appender lock and wait for writer
+			droppedCount.incrementAndGet();
+			return;
+		}
 		fixFormattedMessage(eventObject);
 		IThrowableProxy throwableProxy = eventObject.getThrowableProxy();
 		while (throwableProxy != null) {
@@ -42,7 +42,8 @@ import eu.bcvsolutions.idm.core.api.entity.OperationResult;
 		@Index(name = "idx_idm_entity_event_exe", columnList = "execute_date"),
 		@Index(name = "idx_idm_entity_event_inst", columnList = "instance_id"),
 		@Index(name = "idx_idm_entity_event_root", columnList = "root_id"),
-		@Index(name = "idx_idm_entity_event_trans_id", columnList = "transaction_id")})
+		@Index(name = "idx_idm_entity_event_trans_id", columnList = "transaction_id"),
+		@Index(name = "idx_idm_entity_event_fp", columnList = "fingerprint")})
 public class IdmEntityEvent extends AbstractEntity implements InstanceIdentifiable {
 
 	private static final long serialVersionUID = 1L;
@@ -114,6 +115,10 @@ public class IdmEntityEvent extends AbstractEntity implements InstanceIdentifiab
 	
 	@Embedded
 	private OperationResult result;
+	
+	@Size(max = 64)
+	@Column(name = "fingerprint", length = 64)
+	private String fingerprint; // content hash - duplicate events detection
 
 	public String getOwnerType() {
 		return ownerType;
@@ -294,4 +299,25 @@ public class IdmEntityEvent extends AbstractEntity implements InstanceIdentifiab
 	public void setEventEnded(ZonedDateTime eventEnded) {
 		this.eventEnded = eventEnded;
 	}
+	
+	/**
+	 * Event content fingerprint - hash of event type, parent event type, properties and original source.
+	 * Events with the same owner and fingerprint are duplicates.
+	 * 
+	 * @return fingerprint or {@code null} - fingerprint cannot be computed (e.g. original source is not DTO)
+	 * @since 13.1.0
+	 */
+	public String getFingerprint() {
+		return fingerprint;
+	}
+	
+	/**
+	 * Event content fingerprint - hash of event type, parent event type, properties and original source.
+	 * 
+	 * @param fingerprint fingerprint
+	 * @since 13.1.0
+	 */
+	public void setFingerprint(String fingerprint) {
+		this.fingerprint = fingerprint;
+	}
 }
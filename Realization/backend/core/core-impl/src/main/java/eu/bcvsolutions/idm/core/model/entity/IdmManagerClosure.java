@@ -0,0 +1,131 @@
+package eu.bcvsolutions.idm.core.model.entity;
+
+import java.util.UUID;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.Index;
+import javax.persistence.Table;
+import javax.validation.constraints.NotNull;
+
+import eu.bcvsolutions.idm.core.api.domain.DefaultFieldLengths;
+import eu.bcvsolutions.idm.core.api.domain.ManagerRelationType;
+import eu.bcvsolutions.idm.core.api.entity.AbstractEntity;
+
+/**
+ * Materialized closure of managers and subordinates - manager identity is related to subordinate identity contract
+ * by guarantee or by tree structure (manager contract is on parent tree node of subordinate contract work position).
+ * Closure holds structure only (contract validity and state is checked in queries), 
+ * closure is maintained, when contract, contract guarantee or tree node is changed.
+ * 
+ * @since 13.1.0
+ */
+@Entity
+@Table(name = "idm_manager_closure", indexes = {
+		@Index(name = "idx_idm_manager_clo_man", columnList = "manager_id"),
+		@Index(name = "idx_idm_manager_clo_sub", columnList = "subordinate_id"),
+		@Index(name = "idx_idm_manager_clo_con", columnList = "contract_id"),
+		@Index(name = "idx_idm_manager_clo_m_con", columnList = "manager_contract_id")
+})
+public class IdmManagerClosure extends AbstractEntity {
+
+	private static final long serialVersionUID = 1L;
+	
+	@NotNull
+	@Column(name = "manager_id", length = 16, nullable = false)
+	private UUID managerId;
+	
+	@NotNull
+	@Column(name = "subordinate_id", length = 16, nullable = false)
+	private UUID subordinateId;
+	
+	@NotNull
+	@Enumerated(EnumType.STRING)
+	@Column(name = "relation_type", length = DefaultFieldLengths.ENUMARATION, nullable = false)
+	private ManagerRelationType relationType;
+	
+	@NotNull
+	@Column(name = "contract_id", length = 16, nullable = false)
+	private UUID contractId;
+	
+	@Column(name = "manager_contract_id", length = 16)
+	private UUID managerContractId;
+	
+	@Column(name = "tree_type_id", length = 16)
+	private UUID treeTypeId;
+	
+	public IdmManagerClosure() {
+	}
+	
+	public IdmManagerClosure(UUID managerId, UUID subordinateId, ManagerRelationType relationType, UUID contractId) {
+		this.managerId = managerId;
+		this.subordinateId = subordinateId;
+		this.relationType = relationType;
+		this.contractId = contractId;
+	}
+
+	public UUID getManagerId() {
+		return managerId;
+	}
+
+	public void setManagerId(UUID managerId) {
+		this.managerId = managerId;
+	}
+
+	public UUID getSubordinateId() {
+		return subordinateId;
+	}
+
+	public void setSubordinateId(UUID subordinateId) {
+		this.subordinateId = subordinateId;
+	}
+
+	public ManagerRelationType getRelationType() {
+		return relationType;
+	}
+
+	public void setRelationType(ManagerRelationType relationType) {
+		this.relationType = relationType;
+	}
+
+	/**
+	 * Subordinate contract.
+	 * 
+	 * @return contract identifier
+	 */
+	public UUID getContractId() {
+		return contractId;
+	}
+
+	public void setContractId(UUID contractId) {
+		this.contractId = contractId;
+	}
+
+	/**
+	 * Manager contract on parent tree node - filled for relation by tree structure only.
+	 * 
+	 * @return contract identifier
+	 */
+	public UUID getManagerContractId() {
+		return managerContractId;
+	}
+
+	public void setManagerContractId(UUID managerContractId) {
+		this.managerContractId = managerContractId;
+	}
+
+	/**
+	 * Tree type of manager contract work position - filled for relation by tree structure only.
+	 * 
+	 * @return tree type identifier
+	 */
+	public UUID getTreeTypeId() {
+		return treeTypeId;
+	}
+
+	public void setTreeTypeId(UUID treeTypeId) {
+		this.treeTypeId = treeTypeId;
+	}
+}
@@ -0,0 +1,76 @@
+package eu.bcvsolutions.idm.core.model.entity;
+
+import java.util.UUID;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Index;
+import javax.persistence.Table;
+import javax.validation.constraints.NotNull;
+
+import eu.bcvsolutions.idm.core.api.entity.AbstractEntity;
+
+/**
+ * Materialized transitive closure of role composition - superior role includes sub role in given depth 
+ * (shortest composition path). Closure is maintained, when role composition is changed.
+ * 
+ * @since 13.1.0
+ */
+@Entity
+@Table(name = "idm_role_composition_closure", indexes = {
+		@Index(name = "ux_idm_role_comp_clo_susu", columnList = "superior_id,sub_id", unique = true),
+		@Index(name = "idx_idm_role_comp_clo_sub", columnList = "sub_id")
+})
+public class IdmRoleCompositionClosure extends AbstractEntity {
+
+	private static final long serialVersionUID = 1L;
+	
+	@NotNull
+	@Column(name = "superior_id", length = 16, nullable = false)
+	private UUID superiorId;
+	
+	@NotNull
+	@Column(name = "sub_id", length = 16, nullable = false)
+	private UUID subId;
+	
+	@Column(name = "depth", nullable = false)
+	private int depth;
+	
+	public IdmRoleCompositionClosure() {
+	}
+	
+	public IdmRoleCompositionClosure(UUID superiorId, UUID subId, int depth) {
+		this.superiorId = superiorId;
+		this.subId = subId;
+		this.depth = depth;
+	}
+
+	public UUID getSuperiorId() {
+		return superiorId;
+	}
+
+	public void setSuperiorId(UUID superiorId) {
+		this.superiorId = superiorId;
+	}
+
+	public UUID getSubId() {
+		return subId;
+	}
+
+	public void setSubId(UUID subId) {
+		this.subId = subId;
+	}
+
+	/**
+	 * Length of the shortest composition path from superior to sub role (direct sub role has depth 1).
+	 * 
+	 * @return depth
+	 */
+	public int getDepth() {
+		return depth;
+	}
+
+	public void setDepth(int depth) {
+		this.depth = depth;
+	}
+}
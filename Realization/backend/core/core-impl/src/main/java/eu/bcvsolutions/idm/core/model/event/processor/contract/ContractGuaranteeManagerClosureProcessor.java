@@ -0,0 +1,68 @@
+package eu.bcvsolutions.idm.core.model.event.processor.contract;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Description;
+import org.springframework.stereotype.Component;
+
+import eu.bcvsolutions.idm.core.api.dto.IdmContractGuaranteeDto;
+import eu.bcvsolutions.idm.core.api.event.CoreEvent;
+import eu.bcvsolutions.idm.core.api.event.CoreEventProcessor;
+import eu.bcvsolutions.idm.core.api.event.DefaultEventResult;
+import eu.bcvsolutions.idm.core.api.event.EntityEvent;
+import eu.bcvsolutions.idm.core.api.event.EventResult;
+import eu.bcvsolutions.idm.core.api.service.IdmIdentityContractService;
+import eu.bcvsolutions.idm.core.model.event.ContractGuaranteeEvent.ContractGuaranteeEventType;
+
+/**
+ * Recount closure of managers and subordinates, when contract guarantee is changed (CUD).
+ * 
+ * @since 13.1.0
+ */
+@Component(ContractGuaranteeManagerClosureProcessor.PROCESSOR_NAME)
+@Description("Recount closure of managers and subordinates, when contract guarantee is changed (CUD).")
+public class ContractGuaranteeManagerClosureProcessor extends CoreEventProcessor<IdmContractGuaranteeDto> {
+
+	public static final String PROCESSOR_NAME = "core-contract-guarantee-manager-closure-processor";
+	//
+	@Autowired private IdmIdentityContractService contractService;
+
+	public ContractGuaranteeManagerClosureProcessor() {
+		super(ContractGuaranteeEventType.CREATE, ContractGuaranteeEventType.UPDATE, ContractGuaranteeEventType.DELETE);
+	}
+
+	@Override
+	public String getName() {
+		return PROCESSOR_NAME;
+	}
+
+	@Override
+	public EventResult<IdmContractGuaranteeDto> process(EntityEvent<IdmContractGuaranteeDto> event) {
+		Set<UUID> contractIds = new HashSet<>();
+		contractIds.add(event.getContent().getIdentityContract());
+		IdmContractGuaranteeDto originalSource = event.getOriginalSource();
+		if (originalSource != null) {
+			// guarantee moved to other contract
+			contractIds.add(originalSource.getIdentityContract());
+		}
+		contractIds.remove(null);
+		contractService.recountManagerClosure(contractIds);
+		//
+		return new DefaultEventResult<>(event, this);
+	}
+	
+	@Override
+	public boolean isDisableable() {
+		// closure is used by filters => has to be consistent
+		return false;
+	}
+	
+	@Override
+	public int getOrder() {
+		// after guarantee is saved / deleted
+		return CoreEvent.DEFAULT_ORDER + 10;
+	}
+}
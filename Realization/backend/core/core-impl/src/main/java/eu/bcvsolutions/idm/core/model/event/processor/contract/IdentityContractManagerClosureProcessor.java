@@ -0,0 +1,80 @@
+package eu.bcvsolutions.idm.core.model.event.processor.contract;
+
+import java.util.Objects;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Description;
+import org.springframework.stereotype.Component;
+
+import com.google.common.collect.Lists;
+
+import eu.bcvsolutions.idm.core.api.dto.IdmIdentityContractDto;
+import eu.bcvsolutions.idm.core.api.event.CoreEvent;
+import eu.bcvsolutions.idm.core.api.event.CoreEventProcessor;
+import eu.bcvsolutions.idm.core.api.event.DefaultEventResult;
+import eu.bcvsolutions.idm.core.api.event.EntityEvent;
+import eu.bcvsolutions.idm.core.api.event.EventResult;
+import eu.bcvsolutions.idm.core.api.event.processor.IdentityContractProcessor;
+import eu.bcvsolutions.idm.core.api.service.IdmIdentityContractService;
+import eu.bcvsolutions.idm.core.model.event.IdentityContractEvent.IdentityContractEventType;
+
+/**
+ * Recount closure of managers and subordinates, when contract is created, deleted or work position is changed.
+ * 
+ * @since 13.1.0
+ */
+@Component(IdentityContractManagerClosureProcessor.PROCESSOR_NAME)
+@Description("Recount closure of managers and subordinates, when contract is created, deleted or work position is changed.")
+public class IdentityContractManagerClosureProcessor 
+		extends CoreEventProcessor<IdmIdentityContractDto> 
+		implements IdentityContractProcessor {
+
+	public static final String PROCESSOR_NAME = "core-identity-contract-manager-closure-processor";
+	//
+	@Autowired private IdmIdentityContractService contractService;
+
+	public IdentityContractManagerClosureProcessor() {
+		super(IdentityContractEventType.CREATE, IdentityContractEventType.UPDATE, IdentityContractEventType.DELETE);
+	}
+
+	@Override
+	public String getName() {
+		return PROCESSOR_NAME;
+	}
+	
+	@Override
+	public boolean conditional(EntityEvent<IdmIdentityContractDto> event) {
+		if (!super.conditional(event)) {
+			return false;
+		}
+		if (!event.hasType(IdentityContractEventType.UPDATE)) {
+			return true;
+		}
+		// closure holds structure only - validity and state is not needed
+		IdmIdentityContractDto originalSource = event.getOriginalSource();
+		IdmIdentityContractDto content = event.getContent();
+		//
+		return originalSource == null
+				|| !Objects.equals(originalSource.getWorkPosition(), content.getWorkPosition())
+				|| !Objects.equals(originalSource.getIdentity(), content.getIdentity());
+	}
+
+	@Override
+	public EventResult<IdmIdentityContractDto> process(EntityEvent<IdmIdentityContractDto> event) {
+		contractService.recountManagerClosure(Lists.newArrayList(event.getContent().getId()));
+		//
+		return new DefaultEventResult<>(event, this);
+	}
+	
+	@Override
+	public boolean isDisableable() {
+		// closure is used by filters => has to be consistent
+		return false;
+	}
+	
+	@Override
+	public int getOrder() {
+		// after contract is saved / deleted
+		return CoreEvent.DEFAULT_ORDER + 10;
+	}
+}
@@ -0,0 +1,55 @@
+package eu.bcvsolutions.idm.core.model.event.processor.module;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Description;
+import org.springframework.stereotype.Component;
+
+import eu.bcvsolutions.idm.core.api.dto.ModuleDescriptorDto;
+import eu.bcvsolutions.idm.core.api.event.CoreEvent;
+import eu.bcvsolutions.idm.core.api.event.DefaultEventResult;
+import eu.bcvsolutions.idm.core.api.event.EntityEvent;
+import eu.bcvsolutions.idm.core.api.event.EventResult;
+import eu.bcvsolutions.idm.core.api.event.processor.AbstractInitApplicationProcessor;
+import eu.bcvsolutions.idm.core.api.service.ConfigurationService;
+import eu.bcvsolutions.idm.core.api.service.IdmIdentityContractService;
+import eu.bcvsolutions.idm.core.scheduler.api.service.LongRunningTaskManager;
+import eu.bcvsolutions.idm.core.scheduler.task.impl.RebuildManagerClosureTaskExecutor;
+
+/**
+ * Rebuild closure of managers and subordinates, if closure is not valid (e.g. closure was not built yet or previous rebuild was canceled).
+ * Closure is rebuilt asynchronously (contracts can be numerous) - managers and subordinates are resolved without closure in the meantime.
+ * 
+ * @since 13.1.0
+ */
+@Component(InitManagerClosureProcessor.PROCESSOR_NAME)
+@Description("Rebuild closure of managers and subordinates, if closure is not valid.")
+public class InitManagerClosureProcessor extends AbstractInitApplicationProcessor {
+
+	private static final org.slf4j.Logger LOG = org.slf4j.LoggerFactory.getLogger(InitManagerClosureProcessor.class);
+	public static final String PROCESSOR_NAME = "core-init-manager-closure-processor";
+	//
+	@Autowired private LongRunningTaskManager longRunningTaskManager;
+	@Autowired private ConfigurationService configurationService;
+	
+	@Override
+	public String getName() {
+		return PROCESSOR_NAME;
+	}
+	
+	@Override
+	public EventResult<ModuleDescriptorDto> process(EntityEvent<ModuleDescriptorDto> event) {
+		if (!configurationService.getBooleanValue(IdmIdentityContractService.PROPERTY_MANAGER_CLOSURE_VALID, false)) {
+			LOG.info("Closure of managers and subordinates is not valid, closure will be rebuilt.");
+			//
+			longRunningTaskManager.execute(new RebuildManagerClosureTaskExecutor());
+		}
+		//
+		return new DefaultEventResult<>(event, this);
+	}
+	
+	@Override
+	public int getOrder() {
+		// after init data are created, before scheduled tasks
+		return CoreEvent.DEFAULT_ORDER + 9010;
+	}
+}
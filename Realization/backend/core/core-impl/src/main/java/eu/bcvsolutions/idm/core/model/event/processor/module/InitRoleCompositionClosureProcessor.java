@@ -0,0 +1,54 @@
+package eu.bcvsolutions.idm.core.model.event.processor.module;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Description;
+import org.springframework.stereotype.Component;
+
+import eu.bcvsolutions.idm.core.api.dto.ModuleDescriptorDto;
+import eu.bcvsolutions.idm.core.api.event.CoreEvent;
+import eu.bcvsolutions.idm.core.api.event.DefaultEventResult;
+import eu.bcvsolutions.idm.core.api.event.EntityEvent;
+import eu.bcvsolutions.idm.core.api.event.EventResult;
+import eu.bcvsolutions.idm.core.api.event.processor.AbstractInitApplicationProcessor;
+import eu.bcvsolutions.idm.core.api.service.ConfigurationService;
+import eu.bcvsolutions.idm.core.api.service.IdmRoleCompositionService;
+import eu.bcvsolutions.idm.core.scheduler.api.service.LongRunningTaskManager;
+import eu.bcvsolutions.idm.core.scheduler.task.impl.RebuildRoleCompositionClosureTaskExecutor;
+
+/**
+ * Rebuild closure of role composition, if closure is not valid (e.g. closure was not built yet or previous rebuild was canceled).
+ * 
+ * @since 13.1.0
+ */
+@Component(InitRoleCompositionClosureProcessor.PROCESSOR_NAME)
+@Description("Rebuild closure of role composition, if closure is not valid.")
+public class InitRoleCompositionClosureProcessor extends AbstractInitApplicationProcessor {
+
+	private static final org.slf4j.Logger LOG = org.slf4j.LoggerFactory.getLogger(InitRoleCompositionClosureProcessor.class);
+	public static final String PROCESSOR_NAME = "core-init-role-composition-closure-processor";
+	//
+	@Autowired private LongRunningTaskManager longRunningTaskManager;
+	@Autowired private ConfigurationService configurationService;
+	
+	@Override
+	public String getName() {
+		return PROCESSOR_NAME;
+	}
+	
+	@Override
+	public EventResult<ModuleDescriptorDto> process(EntityEvent<ModuleDescriptorDto> event) {
+		if (!configurationService.getBooleanValue(IdmRoleCompositionService.PROPERTY_CLOSURE_VALID, false)) {
+			LOG.info("Closure of role composition is not valid, closure will be rebuilt.");
+			//
+			longRunningTaskManager.executeSync(new RebuildRoleCompositionClosureTaskExecutor());
+		}
+		//
+		return new DefaultEventResult<>(event, this);
+	}
+	
+	@Override
+	public int getOrder() {
+		// after init data are created, before scheduled tasks
+		return CoreEvent.DEFAULT_ORDER + 9000;
+	}
+}
@@ -11,6 +11,7 @@ import eu.bcvsolutions.idm.core.api.event.DefaultEventResult;
 import eu.bcvsolutions.idm.core.api.event.EntityEvent;
 import eu.bcvsolutions.idm.core.api.event.EventResult;
 import eu.bcvsolutions.idm.core.api.event.processor.RoleCompositionProcessor;
+import eu.bcvsolutions.idm.core.api.service.ConfigurationService;
 import eu.bcvsolutions.idm.core.api.service.IdmCacheManager;
 import eu.bcvsolutions.idm.core.api.service.IdmRoleCompositionService;
 import eu.bcvsolutions.idm.core.model.event.RoleCompositionEvent.RoleCompositionEventType;
@@ -30,6 +31,7 @@ public class RoleCompositionEvictCacheProcessor
 	public static final String PROCESSOR_NAME = "core-role-composition-evict-cache-processor";
 	//
 	@Autowired private IdmCacheManager cacheManager;
+	@Autowired private ConfigurationService configurationService;
 
 	public RoleCompositionEvictCacheProcessor() {
 		super(RoleCompositionEventType.CREATE, RoleCompositionEventType.UPDATE, RoleCompositionEventType.DELETE);
@@ -42,8 +44,11 @@ public class RoleCompositionEvictCacheProcessor
 
 	@Override
 	public EventResult<IdmRoleCompositionDto> process(EntityEvent<IdmRoleCompositionDto> event) {
-		// evict all cached sub roles
-		cacheManager.evictCache(IdmRoleCompositionService.ALL_SUB_ROLES_CACHE_NAME);
+		// sub roles of affected superior roles are evicted by service, when closure is valid @since 13.1.0
+		if (!configurationService.getBooleanValue(IdmRoleCompositionService.PROPERTY_CLOSURE_VALID, false)) {
+			// evict all cached sub roles
+			cacheManager.evictCache(IdmRoleCompositionService.ALL_SUB_ROLES_CACHE_NAME);
+		}
 		//
 		return new DefaultEventResult<>(event, this);
 	}
@@ -0,0 +1,72 @@
+package eu.bcvsolutions.idm.core.model.event.processor.tree;
+
+import java.util.Objects;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Description;
+import org.springframework.stereotype.Component;
+
+import eu.bcvsolutions.idm.core.api.dto.IdmTreeNodeDto;
+import eu.bcvsolutions.idm.core.api.event.CoreEvent;
+import eu.bcvsolutions.idm.core.api.event.CoreEventProcessor;
+import eu.bcvsolutions.idm.core.api.event.DefaultEventResult;
+import eu.bcvsolutions.idm.core.api.event.EntityEvent;
+import eu.bcvsolutions.idm.core.api.event.EventResult;
+import eu.bcvsolutions.idm.core.api.service.IdmIdentityContractService;
+import eu.bcvsolutions.idm.core.model.event.TreeNodeEvent.TreeNodeEventType;
+import eu.bcvsolutions.idm.core.model.repository.IdmManagerClosureRepository;
+
+/**
+ * Recount closure of managers and subordinates, when tree node is moved under different parent
+ * - managers of contracts on moved tree node are changed.
+ * 
+ * Note: When new tree node is created, then recount is not needed (contract cannot exist before).
+ * 
+ * @since 13.1.0
+ */
+@Component(TreeNodeManagerClosureProcessor.PROCESSOR_NAME)
+@Description("Recount closure of managers and subordinates, when tree node is moved under different parent.")
+public class TreeNodeManagerClosureProcessor extends CoreEventProcessor<IdmTreeNodeDto> {
+
+	public static final String PROCESSOR_NAME = "core-tree-node-manager-closure-processor";
+	//
+	@Autowired private IdmIdentityContractService contractService;
+	@Autowired private IdmManagerClosureRepository managerClosureRepository;
+
+	public TreeNodeManagerClosureProcessor() {
+		super(TreeNodeEventType.UPDATE);
+	}
+
+	@Override
+	public String getName() {
+		return PROCESSOR_NAME;
+	}
+	
+	@Override
+	public boolean conditional(EntityEvent<IdmTreeNodeDto> event) {
+		IdmTreeNodeDto originalSource = event.getOriginalSource();
+		IdmTreeNodeDto content = event.getContent();
+		//
+		return super.conditional(event)
+				&& (originalSource == null || !Objects.equals(originalSource.getParent(), content.getParent()));
+	}
+
+	@Override
+	public EventResult<IdmTreeNodeDto> process(EntityEvent<IdmTreeNodeDto> event) {
+		contractService.recountManagerClosure(managerClosureRepository.findContractIds(event.getContent().getId()));
+		//
+		return new DefaultEventResult<>(event, this);
+	}
+	
+	@Override
+	public boolean isDisableable() {
+		// closure is used by filters => has to be consistent
+		return false;
+	}
+	
+	@Override
+	public int getOrder() {
+		// after tree node is saved
+		return CoreEvent.DEFAULT_ORDER + 10;
+	}
+}
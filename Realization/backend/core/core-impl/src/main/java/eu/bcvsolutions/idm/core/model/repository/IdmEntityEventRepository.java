@@ -1,6 +1,7 @@
 package eu.bcvsolutions.idm.core.model.repository;
 
 import java.time.ZonedDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -97,6 +98,57 @@ public interface IdmEntityEventRepository extends AbstractEntityRepository<IdmEn
 	 */
 	int countByParentId(UUID parentId);
 	
+	/**
+	 * Find events in given state with the same owner and content fingerprint, which are ready to be executed (postponed events are ignored).
+	 * Pairs owner - fingerprint has to be checked by caller (owners and fingerprints are filtered separately).
+	 * 
+	 * @param instanceId server instance
+	 * @param state event state
+	 * @param executeDate events with execute date before or equal given date
+	 * @param ownerIds event owners
+	 * @param fingerprints event content fingerprints
+	 * @return events with owner and fingerprint from given collections
+	 * @since 13.1.0
+	 */
+	@Query(value = "SELECT e FROM #{#entityName} e WHERE"
+			+ " e.instanceId = :instanceId"
+			+ " AND"
+			+ " e.result.state = :state"
+			+ " AND"
+			+ " (e.executeDate IS NULL OR e.executeDate <= :executeDate)"
+			+ " AND"
+			+ " e.ownerId IN (:ownerIds)"
+			+ " AND"
+			+ " e.fingerprint IN (:fingerprints)")
+	List<IdmEntityEvent> findByFingerprints(
+			@Param("instanceId") String instanceId,
+			@Param("state") OperationState state,
+			@Param("executeDate") ZonedDateTime executeDate,
+			@Param("ownerIds") Collection<UUID> ownerIds,
+			@Param("fingerprints") Collection<String> fingerprints);
+	
+	/**
+	 * Returns given events, which have some child event.
+	 * 
+	 * @param parentIds parent events
+	 * @return parent events with at least one child event
+	 * @since 13.1.0
+	 */
+	@Query("select distinct e.parent.id from #{#entityName} e where e.parent.id in (:parentIds)")
+	List<UUID> findParentIds(@Param("parentIds") Collection<UUID> parentIds);
+	
+	/**
+	 * Delete events by identifiers in batch.
+	 * Lookout: event states and child events are not deleted - use {@link IdmEntityStateRepository#deleteByEventIds(Collection)} before.
+	 * 
+	 * @param ids event identifiers
+	 * @return deleted events count
+	 * @since 13.1.0
+	 */
+	@Modifying(clearAutomatically = true, flushAutomatically = true)
+	@Query("delete from #{#entityName} e where e.id in (:ids)")
+	int deleteByIds(@Param("ids") Collection<UUID> ids);
+	
 	/**
 	 * Delete all events
 	 */
@@ -1,7 +1,11 @@
 package eu.bcvsolutions.idm.core.model.repository;
 
+import java.util.Collection;
+import java.util.UUID;
+
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import eu.bcvsolutions.idm.core.api.repository.AbstractEntityRepository;
 import eu.bcvsolutions.idm.core.model.entity.IdmEntityState;
@@ -20,4 +24,15 @@ public interface IdmEntityStateRepository extends AbstractEntityRepository<IdmEn
 	@Modifying
 	@Query("delete from #{#entityName} e where event is not null")
 	void deleteByEventIsNotNull();
+	
+	/**
+	 * Delete states of given events in batch.
+	 * 
+	 * @param eventIds event identifiers
+	 * @return deleted states count
+	 * @since 13.1.0
+	 */
+	@Modifying(clearAutomatically = true, flushAutomatically = true)
+	@Query("delete from #{#entityName} e where e.event.id in (:eventIds)")
+	int deleteByEventIds(@Param("eventIds") Collection<UUID> eventIds);
 }
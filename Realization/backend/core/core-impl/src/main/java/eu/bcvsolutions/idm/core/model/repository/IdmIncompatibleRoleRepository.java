@@ -38,4 +38,13 @@ public interface IdmIncompatibleRoleRepository extends AbstractEntityRepository<
 	        + "WHERE "
 	        + "e.superior.id IN :roleIds OR e.sub.id IN :roleIds")
 	List<IdmIncompatibleRole> findAllByRoles(@Param("roleIds") List<UUID> roleIds);
+	
+	/**
+	 * All incompatible role definitions (id, superior id, sub id) - entities are not loaded.
+	 * 
+	 * @return definitions [id, superior id, sub id]
+	 * @since 13.1.0
+	 */
+	@Query("select e.id, e.superior.id, e.sub.id from #{#entityName} e")
+	List<Object[]> findAllDefinitions();
 }
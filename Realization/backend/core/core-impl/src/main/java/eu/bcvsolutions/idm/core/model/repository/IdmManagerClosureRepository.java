@@ -0,0 +1,93 @@
+package eu.bcvsolutions.idm.core.model.repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import eu.bcvsolutions.idm.core.api.repository.AbstractEntityRepository;
+import eu.bcvsolutions.idm.core.model.entity.IdmManagerClosure;
+
+/**
+ * Materialized closure of managers and subordinates.
+ * 
+ * @since 13.1.0
+ */
+public interface IdmManagerClosureRepository extends AbstractEntityRepository<IdmManagerClosure> {
+	
+	/**
+	 * Guarantees of given contracts - entities are not loaded.
+	 * 
+	 * @param contractIds subordinate contracts
+	 * @return rows [contract id, subordinate id, manager id]
+	 */
+	@Query("select g.identityContract.id, g.identityContract.identity.id, g.guarantee.id"
+			+ " from IdmContractGuarantee g"
+			+ " where g.identityContract.id in (:contractIds)")
+	List<Object[]> findGuarantees(@Param("contractIds") Collection<UUID> contractIds);
+	
+	/**
+	 * Manager contracts on parent tree node of given contracts work position - entities are not loaded.
+	 * 
+	 * @param contractIds subordinate contracts
+	 * @return rows [contract id, subordinate id, manager contract id, manager id, tree type id]
+	 */
+	@Query("select c.id, c.identity.id, m.id, m.identity.id, wp.treeType.id"
+			+ " from IdmIdentityContract c join c.workPosition cwp, IdmIdentityContract m join m.workPosition wp"
+			+ " where cwp.parent = wp and c.id in (:contractIds)")
+	List<Object[]> findTreeManagers(@Param("contractIds") Collection<UUID> contractIds);
+	
+	/**
+	 * Contracts with work position under tree node of given manager contracts work position - entities are not loaded.
+	 * 
+	 * @param managerContractIds manager contracts
+	 * @return rows [contract id, subordinate id, manager contract id, manager id, tree type id]
+	 */
+	@Query("select c.id, c.identity.id, m.id, m.identity.id, wp.treeType.id"
+			+ " from IdmIdentityContract c join c.workPosition cwp, IdmIdentityContract m join m.workPosition wp"
+			+ " where cwp.parent = wp and m.id in (:managerContractIds)")
+	List<Object[]> findTreeSubordinates(@Param("managerContractIds") Collection<UUID> managerContractIds);
+	
+	/**
+	 * Contracts with given work position.
+	 * 
+	 * @param workPositionId tree node
+	 * @return contract identifiers
+	 */
+	@Query("select c.id from IdmIdentityContract c where c.workPosition.id = :workPositionId")
+	List<UUID> findContractIds(@Param("workPositionId") UUID workPositionId);
+	
+	/**
+	 * All contracts ordered by identifier - closure is rebuilt by contract pages.
+	 * 
+	 * @param pageable page
+	 * @return contract identifiers
+	 */
+	@Query(value = "select c.id from IdmIdentityContract c order by c.id",
+			countQuery = "select count(c) from IdmIdentityContract c")
+	Page<UUID> findContractIds(Pageable pageable);
+	
+	/**
+	 * Delete closure of given contracts - contract is subordinate or manager contract.
+	 * 
+	 * @param contractIds contracts
+	 * @return count of deleted rows
+	 */
+	@Modifying(flushAutomatically = true)
+	@Query("delete from #{#entityName} e where e.contractId in (:contractIds) or e.managerContractId in (:contractIds)")
+	int deleteByContractIds(@Param("contractIds") Collection<UUID> contractIds);
+	
+	/**
+	 * Delete all - closure will be rebuilt.
+	 */
+	@Modifying
+	@Transactional
+	@Query("delete from #{#entityName}")
+	void deleteAll();
+}
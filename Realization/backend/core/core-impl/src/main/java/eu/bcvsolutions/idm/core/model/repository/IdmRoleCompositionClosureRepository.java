@@ -0,0 +1,71 @@
+package eu.bcvsolutions.idm.core.model.repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+import javax.persistence.LockModeType;
+
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import eu.bcvsolutions.idm.core.api.repository.AbstractEntityRepository;
+import eu.bcvsolutions.idm.core.model.entity.IdmRole;
+import eu.bcvsolutions.idm.core.model.entity.IdmRoleCompositionClosure;
+
+/**
+ * Materialized transitive closure of role composition.
+ * 
+ * @since 13.1.0
+ */
+public interface IdmRoleCompositionClosureRepository extends AbstractEntityRepository<IdmRoleCompositionClosure> {
+	
+	/**
+	 * All sub roles (all levels in depth) of given superior role.
+	 * 
+	 * @param superiorId superior role
+	 * @return sub roles
+	 */
+	@Query("select e.subId from #{#entityName} e where e.superiorId = :superiorId")
+	List<UUID> findSubIds(@Param("superiorId") UUID superiorId);
+	
+	/**
+	 * All superior roles (all levels in height) of given sub role.
+	 * 
+	 * @param subId sub role
+	 * @return superior roles
+	 */
+	@Query("select e.superiorId from #{#entityName} e where e.subId = :subId")
+	List<UUID> findSuperiorIds(@Param("subId") UUID subId);
+	
+	/**
+	 * Lock given superior roles (ordered by id) - closure of the same superior role cannot be recounted concurrently.
+	 * 
+	 * @param superiorIds superior roles
+	 * @return locked roles
+	 */
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query("select e from IdmRole e where e.id in (:superiorIds) order by e.id")
+	List<IdmRole> lockSuperiors(@Param("superiorIds") Collection<UUID> superiorIds);
+	
+	/**
+	 * Delete closure of given superior roles.
+	 * 
+	 * @param superiorIds superior roles
+	 * @return count of deleted rows
+	 */
+	@Modifying(flushAutomatically = true)
+	@Query("delete from #{#entityName} e where e.superiorId in (:superiorIds)")
+	int deleteBySuperiorIds(@Param("superiorIds") Collection<UUID> superiorIds);
+	
+	/**
+	 * Delete all - closure will be rebuilt.
+	 */
+	@Modifying
+	@Transactional
+	@Query("delete from #{#entityName}")
+	void deleteAll();
+}
@@ -1,5 +1,14 @@
 package eu.bcvsolutions.idm.core.model.repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
 import eu.bcvsolutions.idm.core.api.repository.AbstractEntityRepository;
 import eu.bcvsolutions.idm.core.model.entity.IdmRoleComposition;
 
@@ -11,4 +20,33 @@ import eu.bcvsolutions.idm.core.model.entity.IdmRoleComposition;
  */
 public interface IdmRoleCompositionRepository extends AbstractEntityRepository<IdmRoleComposition> {
 	
+	/**
+	 * All compositions as pairs (superior id, sub id) - entities are not loaded.
+	 * 
+	 * @return pairs [superior id, sub id]
+	 * @since 13.1.0
+	 */
+	@Query("select e.superior.id, e.sub.id from #{#entityName} e")
+	List<Object[]> findAllPairs();
+	
+	/**
+	 * Compositions of given superior roles as pairs (superior id, sub id) - entities are not loaded.
+	 * 
+	 * @param superiorIds superior roles
+	 * @return pairs [superior id, sub id]
+	 * @since 13.1.0
+	 */
+	@Query("select e.superior.id, e.sub.id from #{#entityName} e where e.superior.id in (:superiorIds)")
+	List<Object[]> findPairsBySuperiorIds(@Param("superiorIds") Collection<UUID> superiorIds);
+	
+	/**
+	 * Superior roles used in compositions.
+	 * 
+	 * @param pageable page
+	 * @return superior roles
+	 * @since 13.1.0
+	 */
+	@Query(value = "select distinct e.superior.id from #{#entityName} e order by e.superior.id",
+			countQuery = "select count(distinct e.superior.id) from #{#entityName} e")
+	Page<UUID> findSuperiorIds(Pageable pageable);
 }
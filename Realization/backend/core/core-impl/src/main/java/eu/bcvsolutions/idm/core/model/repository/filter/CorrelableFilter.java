@@ -1,7 +1,9 @@
 package eu.bcvsolutions.idm.core.model.repository.filter;
 
 import java.lang.reflect.Field;
+import java.util.List;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 import javax.persistence.criteria.AbstractQuery;
 import javax.persistence.criteria.CriteriaBuilder;
@@ -23,7 +25,7 @@ import eu.bcvsolutions.idm.core.api.repository.filter.BaseFilterBuilder;
 import eu.bcvsolutions.idm.core.api.utils.EntityUtils;
 
 /**
- * Correlation filter
+ * Correlation filter - multiple correlation values are supported (OR).
  * 
  * @author svandav
  */
@@ -39,13 +41,17 @@ public class CorrelableFilter<E extends AbstractEntity> extends BaseFilterBuilde
 	public Predicate getPredicate(Root<E> root, AbstractQuery<?> query, CriteriaBuilder builder, DataFilter filter) {
 		
 		String property = (String) filter.getData().getFirst(CorrelationFilter.PARAMETER_CORRELATION_PROPERTY);
-		String valueAsString = (String) filter.getData().getFirst(CorrelationFilter.PARAMETER_CORRELATION_VALUE);
+		List<String> values = getParameterConverter()
+				.toStrings(filter.getData(), CorrelationFilter.PARAMETER_CORRELATION_VALUE)
+				.stream()
+				.filter(value -> !Strings.isNullOrEmpty(value))
+				.collect(Collectors.toList());
 
 		if (Strings.isNullOrEmpty(property)) {
 			return null;
 		}
 		
-		if (Strings.isNullOrEmpty(valueAsString)) {
+		if (values.isEmpty()) {
 			return null;
 		}
 		
@@ -65,10 +71,16 @@ public class CorrelableFilter<E extends AbstractEntity> extends BaseFilterBuilde
 		}
 		
 		if (UUID.class == field.getType()) {
-			return builder.equal(root.get(property), UUID.fromString(valueAsString));
+			List<UUID> uuids = values.stream().map(UUID::fromString).collect(Collectors.toList());
+			if (uuids.size() == 1) {
+				return builder.equal(root.get(property), uuids.get(0));
+			}
+			return root.get(property).in(uuids);
 		}
-
-		return builder.equal(root.get(property), valueAsString);
+		if (values.size() == 1) {
+			return builder.equal(root.get(property), values.get(0));
+		}
+		return root.get(property).in(values);
 	}
 
 	@Override
@@ -34,6 +34,7 @@ import eu.bcvsolutions.idm.core.model.repository.IdmIdentityRepository;
  * - only "valid" identity can be manager
  * - only valid or valid in future contracts can have managers
  * - additional filter parameter - IdmIdentityFilter.PARAMETER_VALID_CONTRACT_MANAGERS
+ * - materialized closure of managers and subordinates is used, when closure is valid
  * 
  * @author Radek Tomiška
  *
@@ -49,6 +50,7 @@ public class DefaultManagersFilter
 	public static final String FILTER_NAME = "defaultManagersFilter";
 	//
 	@Autowired private GuaranteeManagersFilter guaranteeManagersFilter;
+	@Autowired private ManagerClosurePredicates managerClosurePredicates;
 	
 	@Override
 	public String getName() {
@@ -65,6 +67,10 @@ public class DefaultManagersFilter
 		if (filter.getManagersFor() == null) {
 			return null;
 		}
+		if (managerClosurePredicates.isValid()) {
+			// the same managers by materialized closure @since 13.1.0
+			return managerClosurePredicates.getManagersPredicate(root, query, builder, filter);
+		}
 		//
 		Subquery<IdmIdentityContract> subquery = query.subquery(IdmIdentityContract.class);
 		Root<IdmIdentityContract> subRoot = subquery.from(IdmIdentityContract.class);
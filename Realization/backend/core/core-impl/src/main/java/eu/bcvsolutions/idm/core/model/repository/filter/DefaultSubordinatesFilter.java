@@ -11,9 +11,11 @@ import org.springframework.context.annotation.Description;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Component;
 
+import eu.bcvsolutions.idm.core.api.dto.filter.DataFilter;
 import eu.bcvsolutions.idm.core.api.dto.filter.IdmIdentityContractFilter;
 import eu.bcvsolutions.idm.core.api.dto.filter.IdmIdentityFilter;
 import eu.bcvsolutions.idm.core.api.repository.filter.AbstractFilterBuilder;
+import eu.bcvsolutions.idm.core.api.repository.filter.FilterBuilder;
 import eu.bcvsolutions.idm.core.api.repository.filter.FilterManager;
 import eu.bcvsolutions.idm.core.model.entity.IdmIdentity;
 import eu.bcvsolutions.idm.core.model.entity.IdmIdentityContract;
@@ -23,6 +25,7 @@ import eu.bcvsolutions.idm.core.model.repository.IdmIdentityRepository;
 /**
  * Subordinates criteria builder:
  * - by guarantee and tree structure - finds parent tree node standardly by tree structure
+ * - materialized closure of managers and subordinates is used, when closure is valid and default contract filter is configured
  * 
  * @author Radek Tomiška
  * 
@@ -35,6 +38,7 @@ public class DefaultSubordinatesFilter extends AbstractFilterBuilder<IdmIdentity
 	public static final String FILTER_NAME = "defaultSubordinatesFilter";
 	//
 	@Autowired @Lazy FilterManager filterManager;
+	@Autowired private ManagerClosurePredicates managerClosurePredicates;
 	
 	@Override
 	public String getName() {
@@ -51,6 +55,14 @@ public class DefaultSubordinatesFilter extends AbstractFilterBuilder<IdmIdentity
 		if (filter.getSubordinatesFor() == null) {
 			return null;
 		}
+		FilterBuilder<IdmIdentityContract, DataFilter> contractBuilder = filterManager
+				.getBuilder(
+					IdmIdentityContract.class, 
+					IdmIdentityContractFilter.PARAMETER_SUBORDINATES_FOR);
+		if (DefaultContractByManagerFilter.FILTER_NAME.equals(contractBuilder.getId()) && managerClosurePredicates.isValid()) {
+			// the same subordinates by materialized closure @since 13.1.0
+			return managerClosurePredicates.getSubordinatesPredicate(root, query, builder, filter, false);
+		}
 		//
 		// identity has to have identity contract
 		IdmIdentityContractFilter subFilter = new IdmIdentityContractFilter(filter.getData());
@@ -58,11 +70,7 @@ public class DefaultSubordinatesFilter extends AbstractFilterBuilder<IdmIdentity
 		Root<IdmIdentityContract> subRoot = subquery.from(IdmIdentityContract.class);
 		subquery.select(subRoot);
 		//
-		Predicate contractPredicate = filterManager
-				.getBuilder(
-					IdmIdentityContract.class, 
-					IdmIdentityContractFilter.PARAMETER_SUBORDINATES_FOR)
-				.getPredicate(subRoot, subquery, builder, subFilter);
+		Predicate contractPredicate = contractBuilder.getPredicate(subRoot, subquery, builder, subFilter);
 		// 
 		subquery.where(
                 builder.and(
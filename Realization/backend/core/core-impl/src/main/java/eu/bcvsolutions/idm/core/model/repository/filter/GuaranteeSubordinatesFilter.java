@@ -34,6 +34,7 @@ public class GuaranteeSubordinatesFilter
 	public static final String BEAN_NAME = "guaranteeSubordinatesFilter";
 	//
 	@Autowired private ContractByGuaranteeFilter contractByGuaranteeFilter;
+	@Autowired private ManagerClosurePredicates managerClosurePredicates;
 	
 	@Override
 	public String getName() {
@@ -58,6 +59,10 @@ public class GuaranteeSubordinatesFilter
 		if (filter.getSubordinatesFor() == null) {
 			return null;
 		}
+		if (managerClosurePredicates.isValid()) {
+			// the same subordinates by materialized closure @since 13.1.0
+			return managerClosurePredicates.getSubordinatesPredicate(root, query, builder, filter, true);
+		}
 		// identity has to have identity contract
 		// manager as guarantee
 		Subquery<IdmIdentityContract> subquery = query.subquery(IdmIdentityContract.class);
@@ -0,0 +1,224 @@
+package eu.bcvsolutions.idm.core.model.repository.filter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+
+import javax.persistence.criteria.AbstractQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Subquery;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import eu.bcvsolutions.idm.core.api.domain.ContractState;
+import eu.bcvsolutions.idm.core.api.domain.ManagerRelationType;
+import eu.bcvsolutions.idm.core.api.dto.filter.IdmIdentityFilter;
+import eu.bcvsolutions.idm.core.api.entity.AbstractEntity_;
+import eu.bcvsolutions.idm.core.api.service.ConfigurationService;
+import eu.bcvsolutions.idm.core.api.service.IdmIdentityContractService;
+import eu.bcvsolutions.idm.core.api.utils.RepositoryUtils;
+import eu.bcvsolutions.idm.core.model.entity.IdmIdentity;
+import eu.bcvsolutions.idm.core.model.entity.IdmIdentityContract;
+import eu.bcvsolutions.idm.core.model.entity.IdmIdentityContract_;
+import eu.bcvsolutions.idm.core.model.entity.IdmIdentity_;
+import eu.bcvsolutions.idm.core.model.entity.IdmManagerClosure;
+import eu.bcvsolutions.idm.core.model.entity.IdmManagerClosure_;
+
+/**
+ * Managers and subordinates predicates by materialized closure of managers and subordinates.
+ * Closure holds structure only - validity and state of subordinate and manager contracts are checked by contract identifier.
+ * Predicates are the same as default manager and subordinate filters by guarantee and tree structure.
+ *
+ * @since 13.1.0
+ */
+@Component
+public class ManagerClosurePredicates {
+
+	@Autowired private ConfigurationService configurationService;
+	@Autowired private GuaranteeContractBySubordinateContractFilter guaranteeContractBySubordinateContractFilter;
+
+	/**
+	 * Closure can be used - closure was rebuilt.
+	 *
+	 * @return true - closure is valid
+	 */
+	public boolean isValid() {
+		return configurationService.getBooleanValue(IdmIdentityContractService.PROPERTY_MANAGER_CLOSURE_VALID, false);
+	}
+
+	/**
+	 * Subordinates for given manager (by guarantee and tree structure).
+	 *
+	 * @param root identity (subordinate)
+	 * @param query query
+	 * @param builder builder
+	 * @param filter subordinates for, by tree type and include guarantees parameters are used
+	 * @param guaranteesOnly true - subordinates by guarantees only (contract validity is not checked)
+	 * @return predicate
+	 */
+	public Predicate getSubordinatesPredicate(
+			Root<IdmIdentity> root,
+			AbstractQuery<?> query,
+			CriteriaBuilder builder,
+			IdmIdentityFilter filter,
+			boolean guaranteesOnly) {
+		Subquery<IdmManagerClosure> subquery = query.subquery(IdmManagerClosure.class);
+		Root<IdmManagerClosure> subRoot = subquery.from(IdmManagerClosure.class);
+		subquery.select(subRoot);
+		//
+		List<Predicate> predicates = new ArrayList<>();
+		predicates.add(builder.equal(subRoot.get(IdmManagerClosure_.subordinateId), root.get(IdmIdentity_.id))); // correlation attr
+		predicates.add(builder.equal(subRoot.get(IdmManagerClosure_.managerId), filter.getSubordinatesFor()));
+		if (guaranteesOnly) {
+			predicates.add(builder.equal(subRoot.get(IdmManagerClosure_.relationType), ManagerRelationType.GUARANTEE));
+		} else {
+			// future valid subordinate contract only
+			predicates.add(getContractPredicate(
+					subRoot.get(IdmManagerClosure_.contractId),
+					query,
+					builder,
+					contract -> RepositoryUtils.getValidNowOrInFuturePredicate(contract, builder)));
+			//
+			List<Predicate> relations = new ArrayList<>();
+			if (filter.getSubordinatesByTreeType() == null && filter.isIncludeGuarantees()) {
+				// manager as guarantee
+				relations.add(builder.equal(subRoot.get(IdmManagerClosure_.relationType), ManagerRelationType.GUARANTEE));
+			}
+			// manager from tree structure - future valid, not disabled manager contract
+			relations.add(builder.and(
+					builder.equal(subRoot.get(IdmManagerClosure_.relationType), ManagerRelationType.TREE),
+					filter.getSubordinatesByTreeType() == null
+						? builder.conjunction()
+						: builder.equal(subRoot.get(IdmManagerClosure_.treeTypeId), filter.getSubordinatesByTreeType()),
+					getContractPredicate(
+							subRoot.get(IdmManagerClosure_.managerContractId),
+							query,
+							builder,
+							contract -> builder.and(
+									RepositoryUtils.getValidNowOrInFuturePredicate(contract, builder),
+									builder.equal(contract.get(IdmIdentityContract_.disabled), Boolean.FALSE)))
+					));
+			predicates.add(builder.or(relations.toArray(new Predicate[relations.size()])));
+		}
+		subquery.where(predicates.toArray(new Predicate[predicates.size()]));
+		//
+		return builder.exists(subquery);
+	}
+
+	/**
+	 * Managers for given subordinate (by guarantee and tree structure).
+	 * Only valid identity can be manager, manager has to have valid (or valid in future), not disabled and not excluded contract.
+	 *
+	 * @param root identity (manager)
+	 * @param query query
+	 * @param builder builder
+	 * @param filter managers for, by tree type, by contract, valid contract managers and include guarantees parameters are used
+	 * @return predicate
+	 */
+	public Predicate getManagersPredicate(
+			Root<IdmIdentity> root,
+			AbstractQuery<?> query,
+			CriteriaBuilder builder,
+			IdmIdentityFilter filter) {
+		Subquery<IdmManagerClosure> subquery = query.subquery(IdmManagerClosure.class);
+		Root<IdmManagerClosure> subRoot = subquery.from(IdmManagerClosure.class);
+		subquery.select(subRoot);
+		//
+		List<Predicate> predicates = new ArrayList<>();
+		predicates.add(builder.equal(subRoot.get(IdmManagerClosure_.managerId), root.get(IdmIdentity_.id))); // correlation attr
+		predicates.add(builder.equal(subRoot.get(IdmManagerClosure_.subordinateId), filter.getManagersFor()));
+		if (filter.getManagersByContract() != null) { // concrete contract id only
+			predicates.add(builder.equal(subRoot.get(IdmManagerClosure_.contractId), filter.getManagersByContract()));
+		}
+		if (filter.getValidContractManagers() != null) {
+			predicates.add(getContractPredicate(
+					subRoot.get(IdmManagerClosure_.contractId),
+					query,
+					builder,
+					contract -> guaranteeContractBySubordinateContractFilter.getValidNowOrInFuturePredicate(
+							contract,
+							builder,
+							filter.getValidContractManagers())));
+		}
+		//
+		List<Predicate> relations = new ArrayList<>();
+		if (filter.getManagersByTreeType() == null && filter.isIncludeGuarantees()) {
+			// manager as guarantee - manager has some valid contract
+			Subquery<IdmIdentityContract> subqueryContract = query.subquery(IdmIdentityContract.class);
+			Root<IdmIdentityContract> subRootContract = subqueryContract.from(IdmIdentityContract.class);
+			subqueryContract.select(subRootContract);
+			subqueryContract.where(
+					builder.equal(subRootContract.get(IdmIdentityContract_.identity), root), // correlation attr
+					getValidManagerContractPredicate(subRootContract, builder));
+			//
+			relations.add(builder.and(
+					builder.equal(subRoot.get(IdmManagerClosure_.relationType), ManagerRelationType.GUARANTEE),
+					builder.exists(subqueryContract)));
+		}
+		// manager from tree structure - valid manager contract on parent tree node
+		relations.add(builder.and(
+				builder.equal(subRoot.get(IdmManagerClosure_.relationType), ManagerRelationType.TREE),
+				filter.getManagersByTreeType() == null
+					? builder.conjunction()
+					: builder.equal(subRoot.get(IdmManagerClosure_.treeTypeId), filter.getManagersByTreeType()),
+				getContractPredicate(
+						subRoot.get(IdmManagerClosure_.managerContractId),
+						query,
+						builder,
+						contract -> getValidManagerContractPredicate(contract, builder))
+				));
+		predicates.add(builder.or(relations.toArray(new Predicate[relations.size()])));
+		subquery.where(predicates.toArray(new Predicate[predicates.size()]));
+		//
+		return builder.and(
+				// valid identity only
+				builder.equal(root.get(IdmIdentity_.disabled), Boolean.FALSE),
+				builder.exists(subquery));
+	}
+
+	/**
+	 * Future valid, not disabled and not excluded manager contract.
+	 *
+	 * @param contract manager contract
+	 * @param builder builder
+	 * @return predicate
+	 */
+	private Predicate getValidManagerContractPredicate(Root<IdmIdentityContract> contract, CriteriaBuilder builder) {
+		return builder.and(
+				RepositoryUtils.getValidNowOrInFuturePredicate(contract, builder),
+				builder.equal(contract.get(IdmIdentityContract_.disabled), Boolean.FALSE),
+				builder.or(
+						builder.notEqual(contract.get(IdmIdentityContract_.state), ContractState.EXCLUDED),
+						builder.isNull(contract.get(IdmIdentityContract_.state))
+				));
+	}
+
+	/**
+	 * Contract referenced from closure by identifier fits given predicate.
+	 *
+	 * @param contractId referenced contract
+	 * @param query query
+	 * @param builder builder
+	 * @param contractPredicate contract predicate
+	 * @return predicate
+	 */
+	private Predicate getContractPredicate(
+			Path<UUID> contractId,
+			AbstractQuery<?> query,
+			CriteriaBuilder builder,
+			Function<Root<IdmIdentityContract>, Predicate> contractPredicate) {
+		Subquery<IdmIdentityContract> subquery = query.subquery(IdmIdentityContract.class);
+		Root<IdmIdentityContract> subRoot = subquery.from(IdmIdentityContract.class);
+		subquery.select(subRoot);
+		subquery.where(
+				builder.equal(subRoot.get(AbstractEntity_.id), contractId), // correlation attr
+				contractPredicate.apply(subRoot));
+		//
+		return builder.exists(subquery);
+	}
+}
@@ -0,0 +1,445 @@
+package eu.bcvsolutions.idm.core.model.service.impl;
+
+import java.math.BigDecimal;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+import org.springframework.util.Assert;
+
+import eu.bcvsolutions.idm.core.api.domain.AutomaticRoleAttributeRuleComparison;
+import eu.bcvsolutions.idm.core.api.domain.AutomaticRoleAttributeRuleType;
+import eu.bcvsolutions.idm.core.api.dto.IdmAutomaticRoleAttributeDto;
+import eu.bcvsolutions.idm.core.api.entity.AbstractEntity;
+import eu.bcvsolutions.idm.core.eav.api.domain.PersistentType;
+import eu.bcvsolutions.idm.core.model.entity.IdmIdentity;
+import eu.bcvsolutions.idm.core.model.entity.IdmIdentityContract;
+
+/**
+ * Compiled rules of automatic roles by attribute.
+ * Rules are evaluated in memory against snapshot of one contract (contract, identity, their eav values and assigned automatic roles).
+ * Rules with the same type, attribute, comparison and value are shared by automatic roles and evaluated once for snapshot.
+ * Automatic roles with rules, which cannot be compiled, are evaluated by sql.
+ *
+ * @since 13.1.0
+ */
+public class AutomaticRoleAttributeRuleIndex {
+
+	private final UUID version;
+	private final List<IndexedRole> roles = new ArrayList<>();
+	private final List<Predicate<Snapshot>> rules = new ArrayList<>();
+	private final Map<String, Integer> ruleKeys = new HashMap<>();
+	private final Map<UUID, PersistentType> contractAttributes = new HashMap<>();
+	private final Map<UUID, PersistentType> identityAttributes = new HashMap<>();
+
+	public AutomaticRoleAttributeRuleIndex(UUID version) {
+		Assert.notNull(version, "Index version is required.");
+		//
+		this.version = version;
+	}
+
+	/**
+	 * Index version - index is compiled again, when rules are changed (~ new version).
+	 *
+	 * @return version
+	 */
+	public UUID getVersion() {
+		return version;
+	}
+
+	/**
+	 * Add automatic role with compiled rules.
+	 *
+	 * @param automaticRole automatic role
+	 * @param types types of all automatic role rules
+	 * @param ruleKeys keys of compiled rules (see {@link #addRule(String, Predicate)}), {@code null} - automatic role rules
+	 * cannot be compiled => role will be evaluated by sql
+	 */
+	public void addRole(IdmAutomaticRoleAttributeDto automaticRole, Set<AutomaticRoleAttributeRuleType> types, List<Integer> ruleKeys) {
+		roles.add(new IndexedRole(automaticRole, types, ruleKeys));
+	}
+
+	/**
+	 * Add compiled rule - rules with the same key are shared.
+	 *
+	 * @param key rule key (type, attribute, comparison and value)
+	 * @param rule compiled rule - rule match snapshot
+	 * @return rule index
+	 */
+	public int addRule(String key, Predicate<Snapshot> rule) {
+		return ruleKeys.computeIfAbsent(key, k -> {
+			rules.add(rule);
+			return rules.size() - 1;
+		});
+	}
+
+	/**
+	 * Register eav attribute used by compiled rules - values of registered attributes are loaded into snapshot.
+	 *
+	 * @param type rule type - contract or identity eav
+	 * @param attributeId form attribute
+	 * @param persistentType form attribute persistent type
+	 */
+	public void addAttribute(AutomaticRoleAttributeRuleType type, UUID attributeId, PersistentType persistentType) {
+		if (type == AutomaticRoleAttributeRuleType.CONTRACT_EAV) {
+			contractAttributes.put(attributeId, persistentType);
+		} else {
+			identityAttributes.put(attributeId, persistentType);
+		}
+	}
+
+	/**
+	 * Contract eav attributes used by compiled rules.
+	 *
+	 * @return attribute id and persistent type
+	 */
+	public Map<UUID, PersistentType> getContractAttributes() {
+		return Collections.unmodifiableMap(contractAttributes);
+	}
+
+	/**
+	 * Identity eav attributes used by compiled rules.
+	 *
+	 * @return attribute id and persistent type
+	 */
+	public Map<UUID, PersistentType> getIdentityAttributes() {
+		return Collections.unmodifiableMap(identityAttributes);
+	}
+
+	/**
+	 * Evaluate automatic roles for contract snapshot.
+	 *
+	 * @param pass true - automatic roles, which should be assigned (all rules pass, role is not assigned and contract is valid),
+	 * false - automatic roles, which should be removed (role is assigned and some rule doesn't pass)
+	 * @param type rule type - only automatic roles with at least one rule with given type are evaluated, {@code null} - all automatic roles
+	 * @param snapshot contract snapshot
+	 * @param sqlRoles automatic roles, which cannot be evaluated in memory are added to this list - they has to be evaluated by sql
+	 * @return automatic roles evaluated in memory
+	 */
+	public List<IdmAutomaticRoleAttributeDto> evaluate(
+			boolean pass,
+			AutomaticRoleAttributeRuleType type,
+			Snapshot snapshot,
+			List<IdmAutomaticRoleAttributeDto> sqlRoles) {
+		Assert.notNull(snapshot, "Contract snapshot is required.");
+		//
+		List<IdmAutomaticRoleAttributeDto> results = new ArrayList<>();
+		Boolean[] ruleResults = new Boolean[rules.size()];
+		for (IndexedRole role : roles) {
+			if (type != null && !role.types.contains(type)) {
+				continue;
+			}
+			IdmAutomaticRoleAttributeDto automaticRole = role.automaticRole;
+			if (role.ruleKeys == null) {
+				sqlRoles.add(automaticRole);
+				continue;
+			}
+			boolean assigned = snapshot.automaticRoles.contains(automaticRole.getId());
+			if (pass) {
+				if (snapshot.valid && !assigned && role.ruleKeys.stream().allMatch(ruleKey -> match(ruleKey, snapshot, ruleResults))) {
+					results.add(automaticRole);
+				}
+			} else if (assigned && role.ruleKeys.stream().anyMatch(ruleKey -> !match(ruleKey, snapshot, ruleResults))) {
+				results.add(automaticRole);
+			}
+		}
+		//
+		return results;
+	}
+
+	private boolean match(int ruleKey, Snapshot snapshot, Boolean[] ruleResults) {
+		if (ruleResults[ruleKey] == null) {
+			ruleResults[ruleKey] = rules.get(ruleKey).test(snapshot);
+		}
+		return ruleResults[ruleKey];
+	}
+
+	/**
+	 * Comparison with sql semantic used by criteria api (null values doesn't match positive comparison).
+	 *
+	 * @param comparison comparison
+	 * @param actual entity attribute or form value
+	 * @param expected rule value cast to attribute type, {@link BigDecimal} for number comparison
+	 * @param like like pattern for string comparisons
+	 * @return true - actual value match
+	 */
+	public static boolean match(AutomaticRoleAttributeRuleComparison comparison, Object actual, Object expected, Pattern like) {
+		switch (comparison) {
+			case EQUALS: {
+				return actual != null && isEqual(actual, expected);
+			}
+			case NOT_EQUALS: {
+				return actual == null || (expected != null && !isEqual(actual, expected));
+			}
+			case START_WITH:
+			case END_WITH:
+			case CONTAINS: {
+				return actual != null && like.matcher(actual.toString()).matches();
+			}
+			case NOT_START_WITH:
+			case NOT_END_WITH:
+			case NOT_CONTAINS: {
+				return actual == null || !like.matcher(actual.toString()).matches();
+			}
+			case IS_EMPTY: {
+				return actual == null || "".equals(actual);
+			}
+			case IS_NOT_EMPTY: {
+				return actual != null && !"".equals(actual);
+			}
+			case LESS_THAN_OR_EQUAL: {
+				return actual != null && toNumber(actual).compareTo((BigDecimal) expected) <= 0;
+			}
+			case GREATER_THAN_OR_EQUAL: {
+				return actual != null && toNumber(actual).compareTo((BigDecimal) expected) >= 0;
+			}
+			default: {
+				throw new UnsupportedOperationException("Operation: " + comparison.name() + ", isn't supported for rules.");
+			}
+		}
+	}
+
+	/**
+	 * Like pattern for string comparisons - '%' and '_' are used as wildcards (the same as in sql like).
+	 *
+	 * @param comparison comparison
+	 * @param value rule value
+	 * @return compiled pattern, {@code null} - comparison doesn't use like
+	 */
+	public static Pattern toLikePattern(AutomaticRoleAttributeRuleComparison comparison, Object value) {
+		String prefix;
+		String suffix;
+		switch (comparison) {
+			case START_WITH:
+			case NOT_START_WITH: {
+				prefix = "";
+				suffix = "%";
+				break;
+			}
+			case END_WITH:
+			case NOT_END_WITH: {
+				prefix = "%";
+				suffix = "";
+				break;
+			}
+			case CONTAINS:
+			case NOT_CONTAINS: {
+				prefix = "%";
+				suffix = "%";
+				break;
+			}
+			default: {
+				return null;
+			}
+		}
+		String likeExpression = prefix + String.valueOf(value) + suffix; // Beware with null values - the same as in sql
+		StringBuilder regex = new StringBuilder();
+		StringBuilder literal = new StringBuilder();
+		for (char character : likeExpression.toCharArray()) {
+			if (character == '%' || character == '_') {
+				if (literal.length() > 0) {
+					regex.append(Pattern.quote(literal.toString()));
+					literal.setLength(0);
+				}
+				regex.append(character == '%' ? ".*" : ".");
+			} else {
+				literal.append(character);
+			}
+		}
+		if (literal.length() > 0) {
+			regex.append(Pattern.quote(literal.toString()));
+		}
+		return Pattern.compile(regex.toString(), Pattern.DOTALL);
+	}
+
+	/**
+	 * Comparison is supported in memory for given attribute type.
+	 *
+	 * @param comparison comparison
+	 * @param attributeType entity attribute or form value type (primitives are not supported - use wrappers)
+	 * @return true - supported
+	 */
+	public static boolean isSupported(AutomaticRoleAttributeRuleComparison comparison, Class<?> attributeType) {
+		switch (comparison) {
+			case START_WITH:
+			case END_WITH:
+			case CONTAINS:
+			case NOT_START_WITH:
+			case NOT_END_WITH:
+			case NOT_CONTAINS: {
+				return String.class.equals(attributeType);
+			}
+			case LESS_THAN_OR_EQUAL:
+			case GREATER_THAN_OR_EQUAL: {
+				return Number.class.isAssignableFrom(attributeType);
+			}
+			case EQUALS:
+			case NOT_EQUALS: {
+				return String.class.equals(attributeType)
+						|| Boolean.class.equals(attributeType)
+						|| UUID.class.equals(attributeType)
+						|| ZonedDateTime.class.equals(attributeType)
+						|| Number.class.isAssignableFrom(attributeType)
+						|| attributeType.isEnum()
+						|| AbstractEntity.class.isAssignableFrom(attributeType);
+			}
+			case IS_EMPTY:
+			case IS_NOT_EMPTY: {
+				return true;
+			}
+			default: {
+				return false;
+			}
+		}
+	}
+
+	/**
+	 * Comparison is supported in memory for given attribute type and rule value.
+	 *
+	 * @param comparison comparison
+	 * @param attributeType entity attribute or form value type (primitives are not supported - use wrappers)
+	 * @param value rule value cast to attribute type
+	 * @return true - supported
+	 */
+	public static boolean isSupported(AutomaticRoleAttributeRuleComparison comparison, Class<?> attributeType, Object value) {
+		if (!isSupported(comparison, attributeType)) {
+			return false;
+		}
+		if (value == null
+				|| (comparison != AutomaticRoleAttributeRuleComparison.EQUALS && comparison != AutomaticRoleAttributeRuleComparison.NOT_EQUALS)) {
+			return true;
+		}
+		return attributeType.isInstance(value) 
+				|| (Number.class.isAssignableFrom(attributeType) && value instanceof Number);
+	}
+
+	/**
+	 * Rule value used for comparison - numbers are compared as {@link BigDecimal} by less / greater comparison.
+	 *
+	 * @param comparison comparison
+	 * @param value rule value cast to attribute type
+	 * @return expected value
+	 */
+	public static Object toExpected(AutomaticRoleAttributeRuleComparison comparison, Object value) {
+		if (comparison == AutomaticRoleAttributeRuleComparison.LESS_THAN_OR_EQUAL
+				|| comparison == AutomaticRoleAttributeRuleComparison.GREATER_THAN_OR_EQUAL) {
+			return new BigDecimal(String.valueOf(value));
+		}
+		return value;
+	}
+
+	private static boolean isEqual(Object actual, Object expected) {
+		if (expected == null) {
+			return false;
+		}
+		if (actual instanceof Number && expected instanceof Number) {
+			return toNumber(actual).compareTo(toNumber(expected)) == 0;
+		}
+		if (actual instanceof ZonedDateTime && expected instanceof ZonedDateTime) {
+			// date from FE vs DB has different chronology - we are using isEquals method
+			return ((ZonedDateTime) actual).isEqual((ZonedDateTime) expected);
+		}
+		if (expected instanceof AbstractEntity) {
+			// entity (e.g. form projection) is compared by identifier only - entity can be lazy loaded proxy
+			return actual instanceof AbstractEntity
+					&& Objects.equals(((AbstractEntity) actual).getId(), ((AbstractEntity) expected).getId());
+		}
+		return actual.equals(expected);
+	}
+
+	private static BigDecimal toNumber(Object value) {
+		if (value instanceof BigDecimal) {
+			return (BigDecimal) value;
+		}
+		return new BigDecimal(String.valueOf(value));
+	}
+
+	/**
+	 * Rules or automatic roles were changed - published in transaction, index is evicted when transaction is completed.
+	 */
+	public static class ChangedEvent {
+	}
+
+	/**
+	 * Automatic role with compiled rules.
+	 */
+	private static class IndexedRole {
+
+		private final IdmAutomaticRoleAttributeDto automaticRole;
+		private final Set<AutomaticRoleAttributeRuleType> types;
+		private final List<Integer> ruleKeys;
+
+		private IndexedRole(IdmAutomaticRoleAttributeDto automaticRole, Set<AutomaticRoleAttributeRuleType> types, List<Integer> ruleKeys) {
+			this.automaticRole = automaticRole;
+			this.types = types.isEmpty() ? EnumSet.noneOf(AutomaticRoleAttributeRuleType.class) : EnumSet.copyOf(types);
+			this.ruleKeys = ruleKeys == null ? null : new ArrayList<>(ruleKeys);
+		}
+	}
+
+	/**
+	 * Snapshot of one contract - contract, identity, eav values and assigned automatic roles loaded once for all rules.
+	 */
+	public static class Snapshot {
+
+		private final IdmIdentityContract contract;
+		private final boolean valid;
+		private final Set<UUID> automaticRoles;
+		private final Map<UUID, List<Object>> contractValues;
+		private final Map<UUID, List<Object>> identityValues;
+
+		/**
+		 * Contract snapshot.
+		 *
+		 * @param contract contract
+		 * @param valid contract is valid now or in future and is not disabled
+		 * @param automaticRoles automatic roles assigned to contract
+		 * @param contractValues contract eav values by form attribute
+		 * @param identityValues identity eav values by form attribute
+		 */
+		public Snapshot(
+				IdmIdentityContract contract,
+				boolean valid,
+				Set<UUID> automaticRoles,
+				Map<UUID, List<Object>> contractValues,
+				Map<UUID, List<Object>> identityValues) {
+			Assert.notNull(contract, "Contract is required.");
+			//
+			this.contract = contract;
+			this.valid = valid;
+			this.automaticRoles = automaticRoles == null ? Collections.emptySet() : new HashSet<>(automaticRoles);
+			this.contractValues = contractValues == null ? Collections.emptyMap() : contractValues;
+			this.identityValues = identityValues == null ? Collections.emptyMap() : identityValues;
+		}
+
+		public IdmIdentityContract getContract() {
+			return contract;
+		}
+
+		public IdmIdentity getIdentity() {
+			return contract.getIdentity();
+		}
+
+		/**
+		 * Persisted eav values of given attribute.
+		 *
+		 * @param type rule type - contract or identity eav
+		 * @param attributeId form attribute
+		 * @return values (value can be {@code null}), empty list - attribute value is not persisted
+		 */
+		public List<Object> getValues(AutomaticRoleAttributeRuleType type, UUID attributeId) {
+			Map<UUID, List<Object>> values = type == AutomaticRoleAttributeRuleType.CONTRACT_EAV ? contractValues : identityValues;
+			//
+			return values.getOrDefault(attributeId, Collections.emptyList());
+		}
+	}
+}
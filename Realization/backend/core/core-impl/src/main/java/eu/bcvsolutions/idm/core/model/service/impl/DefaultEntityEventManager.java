@@ -1,10 +1,13 @@
 package eu.bcvsolutions.idm.core.model.service.impl;
 
 import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -14,12 +17,15 @@ import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.stream.Collectors;
 
 import org.apache.commons.lang3.StringUtils;
 import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Lazy;
@@ -38,8 +44,10 @@ import org.springframework.util.Assert;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import com.google.common.base.Objects;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.hash.Hashing;
 import com.google.common.collect.Lists;
 
 import eu.bcvsolutions.idm.core.api.config.cache.domain.ValueWrapper;
@@ -96,12 +104,14 @@ import eu.bcvsolutions.idm.core.scheduler.api.dto.IdmLongRunningTaskDto;
 import eu.bcvsolutions.idm.core.scheduler.api.event.LongRunningTaskEvent;
 import eu.bcvsolutions.idm.core.scheduler.api.event.LongRunningTaskEvent.LongRunningTaskEventType;
 import eu.bcvsolutions.idm.core.scheduler.api.service.LongRunningTaskExecutor;
+import eu.bcvsolutions.idm.core.scheduler.api.service.PartitionedExecutor;
 import eu.bcvsolutions.idm.core.security.api.domain.BasePermission;
 import eu.bcvsolutions.idm.core.security.api.domain.IdmJwtAuthentication;
 import eu.bcvsolutions.idm.core.security.api.service.EnabledEvaluator;
 import eu.bcvsolutions.idm.core.security.api.service.ExceptionProcessable;
 import eu.bcvsolutions.idm.core.security.api.service.SecurityService;
 import eu.bcvsolutions.idm.core.security.api.utils.IdmAuthorityUtils;
+import io.micrometer.core.instrument.MeterRegistry;
 
 /**
  * Entity (dto) processing based on event publishing.
@@ -114,9 +124,17 @@ import eu.bcvsolutions.idm.core.security.api.utils.IdmAuthorityUtils;
 public class DefaultEntityEventManager implements EntityEventManager {
 
 	private static final org.slf4j.Logger LOG = org.slf4j.LoggerFactory.getLogger(DefaultEntityEventManager.class);
-	private static final ConcurrentHashMap<UUID, UUID> runningOwnerEvents = new ConcurrentHashMap<>();
+	// events dispatched into executor lanes (waiting in lane or running)
+	private static final ConcurrentHashMap<UUID, IdmEntityEventDto> dispatchedEvents = new ConcurrentHashMap<>();
+	// (super) owners of dispatched events are pinned to the lane => events for the same owner are executed sequentially
+	private static final Map<UUID, OwnerLane> ownerLanes = new HashMap<>();
 	private static final ConcurrentHashMap<UUID, List<LongRunningTaskExecutor<?>>> lrts = new ConcurrentHashMap<>();
 	private static final ConcurrentHashMap<UUID, Boolean> notifiedLrts = new ConcurrentHashMap<>();
+	public static final String METRIC_EVENT_LATENCY = "idm.event.latency";
+	//
+	// prevent to dispatch created events concurrently (scheduler and dispatcher woken up by newly created event)
+	private final ReentrantLock dispatchLock = new ReentrantLock();
+	private final AtomicBoolean dispatchAgain = new AtomicBoolean();
 	//
 	@Autowired private ApplicationContext context;
 	@Autowired private ApplicationEventPublisher publisher;
@@ -132,6 +150,10 @@ public class DefaultEntityEventManager implements EntityEventManager {
 	@Autowired @Lazy private EventConfiguration eventConfiguration;
 	@Autowired @Lazy private LookupService lookupService;
 	@Autowired @Lazy private ConfigurationService configurationService;
+	@Autowired @Lazy 
+	@Qualifier(SchedulerConfiguration.EVENT_DISPATCHER_NAME)
+	private Executor eventDispatcher;
+	@Autowired(required = false) private MeterRegistry meterRegistry;
 	
 	/**
 	 * Cancel all previously ran events
@@ -473,7 +495,10 @@ public class DefaultEntityEventManager implements EntityEventManager {
 	}
 	
 	/**
-	 * Spring schedule new task after previous task ended (don't run concurrently)
+	 * Spring schedule new task after previous task ended (don't run concurrently).
+	 * Events are dispatched mainly by dispatcher woken up after new event is persisted into queue 
+	 * (see {@link #dispatchCreatedEvents(DispatchCreatedEventsEvent)}) - scheduler dispatches events postponed by execute date, 
+	 * events not dispatched by back-pressure (full lanes) and events created on another instance.
 	 */
 	@Scheduled(fixedDelayString = "${" + SchedulerConfiguration.PROPERTY_EVENT_QUEUE_PROCESS + ":" + SchedulerConfiguration.DEFAULT_EVENT_QUEUE_PROCESS + "}")
 	public void scheduleProcessCreated() {
@@ -482,13 +507,61 @@ public class DefaultEntityEventManager implements EntityEventManager {
 			// prevent to debug some messages into log - usable for devs
 			return;
 		}
-		// check running events queue is full already
-		if (runningOwnerEvents.size() > eventConfiguration.getBatchSize()) {
-			LOG.trace("Asynchronous running events queue is full, waiting for complete running events.");
+		// check lanes of running events are full already
+		if (eventConfiguration.getExecutor().getRemainingCapacity() < eventConfiguration.getBatchSize()) {
+			LOG.trace("Asynchronous running events lanes are full, waiting for complete running events.");
 			return;
 		}
 		//
-		processCreated();
+		dispatchCreated();
+	}
+	
+	/**
+	 * Wake up dispatcher, after new event was persisted into queue (~ transaction with new event was committed).
+	 * Lookout: public method required for aop event listener only.
+	 * 
+	 * @param event
+	 * @since 13.1.0
+	 */
+	@TransactionalEventListener(fallbackExecution = true)
+	public void dispatchCreatedEvents(DispatchCreatedEventsEvent event) {
+		if (eventConfiguration.isStopProcessing()) {
+			return;
+		}
+		// only one dispatching can wait, other requests are discarded
+		eventDispatcher.execute(this::dispatchCreated);
+	}
+	
+	/**
+	 * Dispatch created events from event queue into event executor lanes, until queue is drained or lanes are full.
+	 * Concurrent dispatching is prevented - if dispatching is already running, then running dispatching loads events again.
+	 * 
+	 * @since 13.1.0
+	 */
+	protected void dispatchCreated() {
+		if (!dispatchLock.tryLock()) {
+			// newly created events will be loaded by running dispatching
+			dispatchAgain.set(true);
+			return;
+		}
+		try {
+			PartitionedExecutor executor = eventConfiguration.getExecutor();
+			do {
+				dispatchAgain.set(false);
+				long submitted;
+				int processed;
+				do {
+					submitted = executor.getSubmittedCount();
+					processed = processCreated();
+					// continue, while some event was dispatched into lanes and lanes are not full
+				} while (processed > 0 
+						&& executor.getSubmittedCount() > submitted
+						&& executor.getRemainingCapacity() >= eventConfiguration.getBatchSize()
+						&& !eventConfiguration.isStopProcessing());
+			} while (dispatchAgain.get() && !eventConfiguration.isStopProcessing());
+		} finally {
+			dispatchLock.unlock();
+		}
 	}
 	
 	/**
@@ -612,102 +685,100 @@ public class DefaultEntityEventManager implements EntityEventManager {
 			return;
 		}
 		//
-		if (runningOwnerEvents.putIfAbsent(event.getOwnerId(), event.getId()) != null) {
-			LOG.debug("Previous event [{}] for owner with id [{}] is currently processed.", 
-					runningOwnerEvents.get(event.getOwnerId()), event.getOwnerId());
-			// event will be processed in another scheduling			
+		if (dispatchedEvents.putIfAbsent(event.getId(), event) != null) {
+			LOG.trace("Event [{}] for owner with id [{}] is already dispatched.", event.getId(), event.getOwnerId());
 			return;
 		}
-		// check super owner is not processed
-		UUID superOwnerId = event.getSuperOwnerId();
-		if (superOwnerId != null && !superOwnerId.equals(event.getOwnerId())) {			
-			if (runningOwnerEvents.putIfAbsent(superOwnerId, event.getId()) != null) {
-				LOG.debug("Previous event [{}] for super owner with id [{}] is currently processed.", 
-						runningOwnerEvents.get(superOwnerId), superOwnerId);
-				runningOwnerEvents.remove(event.getOwnerId());
-				// event will be processed in another scheduling		
-				return;
-			}
+		// pin (super) owner to the lane
+		UUID partitionKey = pinOwnerLane(event);
+		if (partitionKey == null) {
+			LOG.debug("Owner with id [{}] and super owner with id [{}] are pinned to different lanes, event [{}] will be dispatched later.",
+					event.getOwnerId(), event.getSuperOwnerId(), event.getId());
+			dispatchedEvents.remove(event.getId());
+			// event will be processed in another scheduling
+			return;
 		}
-		// execute event in new thread asynchronously
-		try {
-			eventConfiguration.getExecutor().execute(new Runnable() {
-				
-				@Override
-				@SuppressWarnings("unchecked")
-				public void run() {
-					// run as event creator
-					securityService.setAuthentication(new IdmJwtAuthentication(
-							new IdmIdentityDto(event.getCreatorId(), event.getCreator()),
-							new IdmIdentityDto(event.getOriginalCreatorId(), event.getOriginalCreator()),
-							null,
-							ZonedDateTime.now(),
-							Lists.newArrayList(IdmAuthorityUtils.getAdminAuthority()),
-							null));
-					// run under original transaction id - asynchronous processing continue the "user" transaction
-					TransactionContextHolder.setContext(new TransactionContext(event.getTransactionId()));
+		// execute event in new thread asynchronously - in lane by (super) owner => events for the same owner are executed sequentially
+		Runnable task = new Runnable() {
+			
+			@Override
+			@SuppressWarnings("unchecked")
+			public void run() {
+				// run as event creator
+				securityService.setAuthentication(new IdmJwtAuthentication(
+						new IdmIdentityDto(event.getCreatorId(), event.getCreator()),
+						new IdmIdentityDto(event.getOriginalCreatorId(), event.getOriginalCreator()),
+						null,
+						ZonedDateTime.now(),
+						Lists.newArrayList(IdmAuthorityUtils.getAdminAuthority()),
+						null));
+				// run under original transaction id - asynchronous processing continue the "user" transaction
+				TransactionContextHolder.setContext(new TransactionContext(event.getTransactionId()));
+				//
+				LOG.debug("Executing event under user [{}] (admin authorities) and transaction [{}]", 
+						securityService.getUsername(),
+						TransactionContextHolder.getContext().getTransactionId());
+				//
+				try {
+					process(new CoreEvent<>(EntityEventType.EXECUTE, event));
+				} catch (Exception ex) {
+					// all processor should persist their own entity state (see AbstractEntityEventProcessor)
+					// event result is persisted here
+					OperationState resultState = OperationState.EXCEPTION;
+					ResultModel resultModel;
+					if (ex instanceof ResultCodeException) {
+						ResultCodeException resultCodeException = (ResultCodeException) ex;
+						resultModel = resultCodeException.getError().getError();
+						if (resultCodeException.getStatus() == HttpStatus.ACCEPTED) {
+							resultState = OperationState.EXECUTED; // => concrete information is preserved in model to know, what happen
+						}
+					} else {
+						resultModel = new DefaultResultModel(
+								CoreResultCode.EVENT_EXECUTE_FAILED, 
+								ImmutableMap.of(
+										"eventId", event.getId(), 
+										"eventType", String.valueOf(event.getEventType()),
+										"ownerId", String.valueOf(event.getOwnerId()),
+										"instanceId", String.valueOf(event.getInstanceId())));
+					}		
+					saveResult(event.getId(), new OperationResultDto
+									.Builder(resultState)
+									.setCause(ex)
+									.setModel(resultModel)
+									.build());
 					//
-					LOG.debug("Executing event under user [{}] (admin authorities) and transaction [{}]", 
-							securityService.getUsername(),
-							TransactionContextHolder.getContext().getTransactionId());
+					ExceptionUtils.log(LOG, resultModel, ex);
 					//
+					// Sometimes should be the exception processed within owner service (for audit purpose in some request).
+					// We check if owner service supports this feature (implements ExceptionProcessable).
 					try {
-						process(new CoreEvent<>(EntityEventType.EXECUTE, event));
-					} catch (Exception ex) {
-						// all processor should persist their own entity state (see AbstractEntityEventProcessor)
-						// event result is persisted here
-						OperationState resultState = OperationState.EXCEPTION;
-						ResultModel resultModel;
-						if (ex instanceof ResultCodeException) {
-							ResultCodeException resultCodeException = (ResultCodeException) ex;
-							resultModel = resultCodeException.getError().getError();
-							if (resultCodeException.getStatus() == HttpStatus.ACCEPTED) {
-								resultState = OperationState.EXECUTED; // => concrete information is preserved in model to know, what happen
-							}
-						} else {
-							resultModel = new DefaultResultModel(
-									CoreResultCode.EVENT_EXECUTE_FAILED, 
-									ImmutableMap.of(
-											"eventId", event.getId(), 
-											"eventType", String.valueOf(event.getEventType()),
-											"ownerId", String.valueOf(event.getOwnerId()),
-											"instanceId", String.valueOf(event.getInstanceId())));
-						}		
-						saveResult(event.getId(), new OperationResultDto
-										.Builder(resultState)
-										.setCause(ex)
-										.setModel(resultModel)
-										.build());
-						//
-						ExceptionUtils.log(LOG, resultModel, ex);
-						//
-						// Sometimes should be the exception processed within owner service (for audit purpose in some request).
-						// We check if owner service supports this feature (implements ExceptionProcessable).
-						try {
-							Class<?> ownerClass = Class.forName(event.getOwnerType());
-							ReadDtoService<?, ?> dtoService = lookupService.getDtoService((Class<? extends Identifiable>) ownerClass);
-							if (dtoService instanceof ExceptionProcessable) {
-								ExceptionProcessable<?> exceptionProcessable = (ExceptionProcessable<?>) dtoService;
-								// Propagate the exception
-								exceptionProcessable.processException(event.getOwnerId(), ex);
-							}
-						} catch (ClassNotFoundException e) {
-							// Only to the log
-							LOG.error(e.getLocalizedMessage(), e);
+						Class<?> ownerClass = Class.forName(event.getOwnerType());
+						ReadDtoService<?, ?> dtoService = lookupService.getDtoService((Class<? extends Identifiable>) ownerClass);
+						if (dtoService instanceof ExceptionProcessable) {
+							ExceptionProcessable<?> exceptionProcessable = (ExceptionProcessable<?>) dtoService;
+							// Propagate the exception
+							exceptionProcessable.processException(event.getOwnerId(), ex);
 						}
-						
-					} finally {
-						LOG.trace("Event [{}] ends for owner with id [{}].", event.getId(), event.getOwnerId());
-						removeRunningEvent(event);
+					} catch (ClassNotFoundException e) {
+						// Only to the log
+						LOG.error(e.getLocalizedMessage(), e);
 					}
+					
+				} finally {
+					LOG.trace("Event [{}] ends for owner with id [{}].", event.getId(), event.getOwnerId());
+					removeRunningEvent(event);
+					recordLatency(event);
 				}
-			});
-			//
-			LOG.trace("Running event [{}] for owner with id [{}].", event.getId(), event.getOwnerId());
-		} catch (RejectedExecutionException ex) {
-			// thread pool queue is full - wait for another try
+			}
+		};
+		if (!eventConfiguration.getExecutor().execute(partitionKey, task)) {
+			// lane is full (dispatcher doesn't wait) - event remains in queue and will be dispatched again later
+			LOG.debug("Lane for owner with id [{}] is full, event [{}] will be dispatched later.", event.getOwnerId(), event.getId());
 			removeRunningEvent(event);
+			return;
 		}
+		//
+		LOG.trace("Running event [{}] for owner with id [{}].", event.getId(), event.getOwnerId());
 	}
 	
 	@Override
@@ -781,7 +852,10 @@ public class DefaultEntityEventManager implements EntityEventManager {
 	@Override
 	public synchronized void deleteAllEvents() {
 		entityEventService.deleteAll();
-		runningOwnerEvents.clear();
+		synchronized (ownerLanes) {
+			dispatchedEvents.clear();
+			ownerLanes.clear();
+		}
 	}
 	
 	@Override
@@ -1025,7 +1099,9 @@ public class DefaultEntityEventManager implements EntityEventManager {
 	 * @return
 	 */
 	protected boolean isRunningOwner(UUID ownerId) {
-		return runningOwnerEvents.containsKey(ownerId);
+		synchronized (ownerLanes) {
+			return ownerLanes.containsKey(ownerId);
+		}
 	}
 	
 	/**
@@ -1065,6 +1141,7 @@ public class DefaultEntityEventManager implements EntityEventManager {
 	 * Returns events to process sorted by priority 7 / 3 (high / normal). 
 	 * Immediate priority is executed synchronously.
 	 * Cancel duplicate events (same type, owner and props) - last event is returned
+	 * Duplicates of returned events in the rest of queue are found by owner and fingerprint and canceled too.
 	 * 
 	 * @param instanceId
 	 * @return
@@ -1072,9 +1149,9 @@ public class DefaultEntityEventManager implements EntityEventManager {
 	protected List<IdmEntityEventDto> getCreatedEvents(String instanceId) {
 		Assert.notNull(instanceId, "Server instance identifier is required.");
 		//
-		// already running owners are excluded (super owner is excluded too)
-		List<UUID> exceptOwnerIds = Lists.newArrayList(runningOwnerEvents.keySet());
-		exceptOwnerIds = exceptOwnerIds.subList(0, exceptOwnerIds.size() > 500 ? 500 : exceptOwnerIds.size()); // prevent sql queue size is exceeded
+		// events already dispatched into lanes remain in queue (created state), till they are processed
+		// => load more events and skip dispatched events bellow (events for running owners are dispatched into the pinned lane)
+		int pageSize = eventConfiguration.getBatchSize() + dispatchedEvents.size();
 		//
 		// load created events - high priority
 		ZonedDateTime executeDate = ZonedDateTime.now();
@@ -1082,25 +1159,27 @@ public class DefaultEntityEventManager implements EntityEventManager {
 				instanceId,
 				executeDate,
 				PriorityType.HIGH,
-				exceptOwnerIds,
-				PageRequest.of(0, eventConfiguration.getBatchSize(), Sort.by(Direction.ASC, Auditable.PROPERTY_CREATED)));
+				null,
+				PageRequest.of(0, pageSize, Sort.by(Direction.ASC, Auditable.PROPERTY_CREATED)));
 		// load created events - low priority
 		Page<IdmEntityEventDto> normalEvents = entityEventService.findToExecute(
 				instanceId,
 				executeDate,
 				PriorityType.NORMAL,
-				exceptOwnerIds,
-				PageRequest.of(0, eventConfiguration.getBatchSize(), Sort.by(Direction.ASC, Auditable.PROPERTY_CREATED)));
+				null,
+				PageRequest.of(0, pageSize, Sort.by(Direction.ASC, Auditable.PROPERTY_CREATED)));
 		// merge events
 		List<IdmEntityEventDto> events = new ArrayList<>();
 		events.addAll(highEvents.getContent());
 		events.addAll(normalEvents.getContent());
+		events.removeIf(event -> isDispatched(event.getId()));
 		// sort by created date
 		events.sort(new CreatedComparator());
 		//
 		// cancel duplicates - by owner => properties has to be the same
 		// execute the first event for each owner only - preserve events order
-		Map<UUID, IdmEntityEventDto> distinctEvents = new LinkedHashMap<>();	
+		Map<UUID, IdmEntityEventDto> distinctEvents = new LinkedHashMap<>();
+		List<IdmEntityEventDto> duplicateEvents = new ArrayList<>();
 		events.forEach(event -> {
 			if (!distinctEvents.containsKey(event.getOwnerId())) {
 				// the first event
@@ -1124,14 +1203,36 @@ public class DefaultEntityEventManager implements EntityEventManager {
 									"instanceId", String.valueOf(olderEvent.getInstanceId()),
 									"neverEventId", event.getId())).toString());
 					//
-					IdmEntityEventFilter eventFilter = new IdmEntityEventFilter();
-					eventFilter.setParentId(olderEvent.getId());
-					if (entityEventService.find(eventFilter, PageRequest.of(0, 1)).getTotalElements() == 0) {
-						deleteEvent(olderEvent);
-					}
+					duplicateEvents.add(olderEvent);
 				}
 			}
 		});
+		// cancel duplicates of distinct events in the rest of queue - found by owner and fingerprint
+		Set<UUID> loadedEventIds = events.stream().map(IdmEntityEventDto::getId).collect(Collectors.toSet());
+		entityEventService
+			.findDuplicates(instanceId, executeDate, distinctEvents.values())
+			.stream()
+			.filter(duplicateEvent -> !loadedEventIds.contains(duplicateEvent.getId())
+					&& !isDispatched(duplicateEvent.getId()))
+			.forEach(duplicateEvent -> {
+				IdmEntityEventDto event = distinctEvents.get(duplicateEvent.getOwnerId());
+				// try to set higher priority
+				if (duplicateEvent.getPriority() == PriorityType.HIGH) {
+					event.setPriority(PriorityType.HIGH);
+				}
+				LOG.debug(new DefaultResultModel(
+						CoreResultCode.EVENT_DUPLICATE_CANCELED, 
+						ImmutableMap.of(
+								"eventId", duplicateEvent.getId(), 
+								"eventType", String.valueOf(duplicateEvent.getEventType()),
+								"ownerId", String.valueOf(duplicateEvent.getOwnerId()),
+								"instanceId", String.valueOf(duplicateEvent.getInstanceId()),
+								"neverEventId", event.getId())).toString());
+				//
+				duplicateEvents.add(duplicateEvent);
+			});
+		// delete canceled duplicates in batch
+		deleteDuplicateEvents(duplicateEvents);
 		// 
 		// sort by priority
 		events = distinctEvents
@@ -1170,7 +1271,8 @@ public class DefaultEntityEventManager implements EntityEventManager {
 	
 	/**
 	 * Returns true, when events are duplicates
-	 * - event type, parent event type, properties and original source is compared => all properties, which can be used in processors. 
+	 * - event type, parent event type, properties and original source is compared => all properties, which can be used in processors.
+	 * - fingerprints are compared, if both events have fingerprint computed (original source is not serialized for each pair of events).
 	 * 
 	 * @param olderEvent
 	 * @param event
@@ -1187,6 +1289,10 @@ public class DefaultEntityEventManager implements EntityEventManager {
 			// we can end - events are different
 			return false;
 		}
+		if (olderEvent.getFingerprint() != null && event.getFingerprint() != null) {
+			// original sources are compared by fingerprint
+			return olderEvent.getFingerprint().equals(event.getFingerprint());
+		}
 		if (olderEvent.getOriginalSource() == null && event.getOriginalSource() == null) {
 			return true;
 		}
@@ -1200,23 +1306,9 @@ public class DefaultEntityEventManager implements EntityEventManager {
 			return false;
 		}
 		// If both original sources are DTOs, then we are comparing original sources (DTOs) as JSON without embedded.
-		AbstractDto olderOriginalSource = (AbstractDto) olderEvent.getOriginalSource();
-		AbstractDto originalSource = (AbstractDto) event.getOriginalSource();
 		try {
-			// Prevent to change event setting => defensive copy by mapper.
-			AbstractDto olderOriginalSourceCopy = olderOriginalSource.getClass().getDeclaredConstructor().newInstance();
-			modelMapper.map(olderOriginalSource, olderOriginalSourceCopy);
-			AbstractDto originalSourceCopy = originalSource.getClass().getDeclaredConstructor().newInstance();
-			modelMapper.map(originalSource, originalSourceCopy);
-			// Embedded is ignored.
-			olderOriginalSourceCopy.setEmbedded(null);
-			originalSourceCopy.setEmbedded(null);
-			// Audit fields are ignored.
-			DtoUtils.clearAuditFields(olderOriginalSourceCopy);
-			DtoUtils.clearAuditFields(originalSourceCopy);
-			//
-			return mapper.writeValueAsString(olderOriginalSourceCopy)
-					.equals(mapper.writeValueAsString(originalSourceCopy));
+			return toComparableJson((AbstractDto) olderEvent.getOriginalSource())
+					.equals(toComparableJson((AbstractDto) event.getOriginalSource()));
 		} catch (JsonProcessingException | ReflectiveOperationException ex) {
 			LOG.warn("Comparing json for checking duplicate events failed - both events [{}]-[{}] will be executed!", 
 					olderEvent, event, ex);
@@ -1225,11 +1317,185 @@ public class DefaultEntityEventManager implements EntityEventManager {
 		}
 	}
 	
+	/**
+	 * Computes event content fingerprint - hash of event type, parent event type, properties and original source
+	 * (without embedded and audit fields). Fingerprint is computed once, when event is persisted into queue. 
+	 * 
+	 * @param event event to be persisted
+	 * @return fingerprint or {@code null} - fingerprint cannot be computed (e.g. original source is not DTO) => event is compared without fingerprint 
+	 * @see #isDuplicate(IdmEntityEventDto, IdmEntityEventDto)
+	 * @since 13.1.0
+	 */
+	protected String getFingerprint(IdmEntityEventDto event) {
+		Assert.notNull(event, "Event is required.");
+		//
+		Identifiable originalSource = event.getOriginalSource();
+		if (originalSource != null && !(originalSource instanceof AbstractDto)) {
+			return null;
+		}
+		try {
+			Map<String, Object> content = new LinkedHashMap<>();
+			content.put("eventType", event.getEventType());
+			content.put("parentEventType", event.getParentEventType());
+			content.put("properties", getProperties(event).toMap());
+			if (originalSource != null) {
+				content.put("originalSourceType", originalSource.getClass().getCanonicalName());
+				content.put("originalSource", toComparableJson((AbstractDto) originalSource));
+			}
+			String json = mapper
+					.writer()
+					.with(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS) // stable properties order
+					.writeValueAsString(content);
+			//
+			return Hashing.sha256().hashString(json, StandardCharsets.UTF_8).toString();
+		} catch (JsonProcessingException | ReflectiveOperationException | RuntimeException ex) {
+			LOG.debug("Fingerprint for event [{}] cannot be computed, event will be compared without fingerprint.", 
+					event.getEventType(), ex);
+			//
+			return null;
+		}
+	}
+	
+	/**
+	 * Original source as JSON without embedded and audit fields.
+	 * 
+	 * @param originalSource
+	 * @return
+	 * @throws JsonProcessingException
+	 * @throws ReflectiveOperationException
+	 */
+	private String toComparableJson(AbstractDto originalSource) throws JsonProcessingException, ReflectiveOperationException {
+		// Prevent to change event setting => defensive copy by mapper.
+		AbstractDto originalSourceCopy = originalSource.getClass().getDeclaredConstructor().newInstance();
+		modelMapper.map(originalSource, originalSourceCopy);
+		// Embedded is ignored.
+		originalSourceCopy.setEmbedded(null);
+		// Audit fields are ignored.
+		DtoUtils.clearAuditFields(originalSourceCopy);
+		//
+		return mapper.writeValueAsString(originalSourceCopy);
+	}
+	
+	/**
+	 * Delete canceled duplicate events in batch. Events with children are preserved.
+	 * 
+	 * @param duplicateEvents
+	 */
+	private void deleteDuplicateEvents(List<IdmEntityEventDto> duplicateEvents) {
+		if (duplicateEvents.isEmpty()) {
+			return;
+		}
+		Set<UUID> deletedEventIds = entityEventService.deleteDuplicates(
+				duplicateEvents
+					.stream()
+					.map(IdmEntityEventDto::getId)
+					.collect(Collectors.toList())
+		);
+		duplicateEvents
+			.stream()
+			.filter(duplicateEvent -> deletedEventIds.contains(duplicateEvent.getId()))
+			.forEach(duplicateEvent -> {
+				// clear waiting LRTs - created event is deleted from queue
+				completeEvent(duplicateEvent.getId(), duplicateEvent.getTransactionId());
+			});
+	}
+	
+	/**
+	 * Event can be dispatched immediately after is persisted - event is not postponed and will be executed on this instance.
+	 * 
+	 * @param event persisted event
+	 * @return true - dispatcher should be woken up
+	 */
+	private boolean isDispatchable(IdmEntityEventDto event) {
+		ZonedDateTime executeDate = event.getExecuteDate();
+		//
+		return (executeDate == null || !executeDate.isAfter(ZonedDateTime.now()))
+				&& Objects.equal(event.getInstanceId(), configurationService.getInstanceId());
+	}
+	
+	/**
+	 * Record event latency - from event is created to event is processed.
+	 * 
+	 * @param event processed event
+	 */
+	private void recordLatency(IdmEntityEventDto event) {
+		if (meterRegistry == null || event.getCreated() == null) {
+			return;
+		}
+		meterRegistry
+			.timer(METRIC_EVENT_LATENCY, "priority", String.valueOf(event.getPriority()))
+			.record(Duration.between(event.getCreated(), ZonedDateTime.now()));
+	}
+	
+	private boolean isDispatched(UUID eventId) {
+		return eventId != null && dispatchedEvents.containsKey(eventId);
+	}
+	
 	private void removeRunningEvent(IdmEntityEventDto event) {
-		runningOwnerEvents.remove(event.getOwnerId());
+		synchronized (ownerLanes) {
+			if (dispatchedEvents.remove(event.getId()) == null) {
+				// event was not dispatched or was removed already (e.g. canceled running event)
+				return;
+			}
+			unpinOwnerLane(event.getOwnerId());
+			UUID superOwnerId = event.getSuperOwnerId();
+			if (superOwnerId != null && !superOwnerId.equals(event.getOwnerId())) {
+				unpinOwnerLane(superOwnerId);
+			}
+		}
+	}
+	
+	/**
+	 * Pin event owner and super owner to the lane. Owner is pinned to the lane, till all dispatched events for the owner are processed
+	 * => events for the same (super) owner are executed sequentially in the same lane.
+	 * 
+	 * @param event dispatched event
+	 * @return lane partition key, {@code null} if owner and super owner are already pinned to different lanes
+	 */
+	private UUID pinOwnerLane(IdmEntityEventDto event) {
+		UUID ownerId = event.getOwnerId();
 		UUID superOwnerId = event.getSuperOwnerId();
-		if (superOwnerId != null) {
-			runningOwnerEvents.remove(superOwnerId);
+		if (ownerId.equals(superOwnerId)) {
+			superOwnerId = null;
+		}
+		synchronized (ownerLanes) {
+			OwnerLane ownerLane = ownerLanes.get(ownerId);
+			OwnerLane superOwnerLane = superOwnerId == null ? null : ownerLanes.get(superOwnerId);
+			if (ownerLane != null 
+					&& superOwnerLane != null 
+					&& !ownerLane.partitionKey.equals(superOwnerLane.partitionKey)) {
+				return null;
+			}
+			UUID partitionKey;
+			if (ownerLane != null) {
+				partitionKey = ownerLane.partitionKey;
+			} else if (superOwnerLane != null) {
+				partitionKey = superOwnerLane.partitionKey;
+			} else {
+				partitionKey = superOwnerId == null ? ownerId : superOwnerId;
+			}
+			//
+			pinOwnerLane(ownerId, partitionKey);
+			if (superOwnerId != null) {
+				pinOwnerLane(superOwnerId, partitionKey);
+			}
+			return partitionKey;
+		}
+	}
+	
+	private void pinOwnerLane(UUID ownerId, UUID partitionKey) {
+		OwnerLane ownerLane = ownerLanes.get(ownerId);
+		if (ownerLane == null) {
+			ownerLane = new OwnerLane(partitionKey);
+			ownerLanes.put(ownerId, ownerLane);
+		}
+		ownerLane.dispatched++;
+	}
+	
+	private void unpinOwnerLane(UUID ownerId) {
+		OwnerLane ownerLane = ownerLanes.get(ownerId);
+		if (ownerLane != null && --ownerLane.dispatched <= 0) {
+			ownerLanes.remove(ownerId);
 		}
 	}
 	
@@ -1334,8 +1600,13 @@ public class DefaultEntityEventManager implements EntityEventManager {
 //					.build());
 		//
 		// persist event - asynchronous processing
+		entityEvent.setFingerprint(getFingerprint(entityEvent));
 		entityEvent = entityEventService.save(entityEvent);
 		addEventCache(entityEvent.getId(), entityEvent.getTransactionId());
+		// wake up dispatcher after transaction is committed - event can be executed immediately
+		if (isDispatchable(entityEvent)) {
+			publishEvent(new DispatchCreatedEventsEvent());
+		}
 		// not processed - persisted into queue
 		return null;
 	}
@@ -1642,6 +1913,14 @@ public class DefaultEntityEventManager implements EntityEventManager {
 		return true; // => asynchronous transaction is processed completely
 	}
 	
+	/**
+	 * Internal dto - wake up dispatcher, new event was persisted into queue.
+	 * 
+	 * @since 13.1.0
+	 */
+	private static class DispatchCreatedEventsEvent {
+	}
+	
 	/**
 	 * Internal dto - notify LRT about user transaction is completed.
 	 * 
@@ -1663,4 +1942,17 @@ public class DefaultEntityEventManager implements EntityEventManager {
 			return lrt;
 		}
 	}
+	
+	/**
+	 * Lane pinned for (super) owner of dispatched events.
+	 */
+	private static class OwnerLane {
+		
+		private final UUID partitionKey;
+		private int dispatched;
+		
+		OwnerLane(UUID partitionKey) {
+			this.partitionKey = partitionKey;
+		}
+	}
 }
@@ -1,23 +1,30 @@
 package eu.bcvsolutions.idm.core.model.service.impl;
 
+import java.nio.charset.StandardCharsets;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 import org.codehaus.groovy.control.CompilationFailedException;
 import org.codehaus.groovy.control.CompilerConfiguration;
 import org.codehaus.groovy.control.MultipleCompilationErrorsException;
 import org.codehaus.groovy.control.messages.SyntaxErrorMessage;
+import org.codehaus.groovy.runtime.InvokerHelper;
 import org.codehaus.groovy.syntax.SyntaxException;
 import org.kohsuke.groovy.sandbox.GroovyInterceptor;
 import org.kohsuke.groovy.sandbox.SandboxTransformer;
+import org.springframework.aop.TargetClassAware;
 import org.springframework.aop.support.AopUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.util.Assert;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.hash.Hashing;
 
 import eu.bcvsolutions.idm.core.CoreModuleDescriptor;
 import eu.bcvsolutions.idm.core.api.config.cache.domain.ValueWrapper;
@@ -25,11 +32,14 @@ import eu.bcvsolutions.idm.core.api.domain.CoreResultCode;
 import eu.bcvsolutions.idm.core.api.exception.ResultCodeException;
 import eu.bcvsolutions.idm.core.api.service.GroovyScriptService;
 import eu.bcvsolutions.idm.core.api.service.IdmCacheManager;
+import eu.bcvsolutions.idm.core.security.domain.GroovySandboxContext;
 import eu.bcvsolutions.idm.core.security.domain.GroovySandboxFilter;
 import eu.bcvsolutions.idm.core.security.exception.IdmSecurityException;
 import groovy.lang.Binding;
 import groovy.lang.GroovyShell;
 import groovy.lang.Script;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 
 /**
  * Service for evaluate groovy scripts
@@ -42,9 +52,21 @@ public class DefaultGroovyScriptService implements GroovyScriptService {
 
 
 	public static final String CACHE_NAME = IdmCacheManager.getCacheName(CoreModuleDescriptor.MODULE_ID, "default-groovy-script-service-script-cache");
+	public static final String METRIC_COMPILE = "idm.script.compile";
+	public static final String METRIC_EVALUATE = "idm.script.evaluate";
+	public static final String METRIC_TAG_SCRIPT = "script";
+	public static final String METRIC_TAG_SCRIPT_INLINE = "inline";
+	private static final int SANDBOX_CONTEXT_CACHE_SIZE = 1000;
 
 	@Autowired
 	IdmCacheManager cacheManager;
+	@Autowired(required = false)
+	private MeterRegistry meterRegistry;
+	// sandbox contexts by allow-list - the same allow-list is used for the same script (e.g. attribute mapping)
+	private final Cache<Set<Class<?>>, GroovySandboxContext> sandboxContexts = CacheBuilder
+			.newBuilder()
+			.maximumSize(SANDBOX_CONTEXT_CACHE_SIZE)
+			.build();
 
 	private static final org.slf4j.Logger LOG = org.slf4j.LoggerFactory
 			.getLogger(DefaultGroovyScriptService.class);
@@ -56,34 +78,40 @@ public class DefaultGroovyScriptService implements GroovyScriptService {
 	
 	@Override
 	public Object evaluate(String script, Map<String, Object> variables, List<Class<?>> extraAllowedClasses) {
+		return evaluate(script, variables, extraAllowedClasses, null);
+	}
+	
+	@Override
+	public Object evaluate(String script, Map<String, Object> variables, List<Class<?>> extraAllowedClasses, String scriptCode) {
 		Assert.notNull(script, "Script is required.");
+		String scriptKey = getScriptKey(script);
 		
 		Binding binding = new Binding(variables);
 		
-		Set<Class<?>> allowedVariableClass = resolveCustomAllowTypes(variables);
-		if(extraAllowedClasses != null){
-			allowedVariableClass.addAll(extraAllowedClasses);
-		}
+		GroovySandboxContext sandboxContext = getSandboxContext(variables, extraAllowedClasses);
 		GroovySandboxFilter sandboxFilter = null;
 		//
 		try {
-			// if groovy filter exist add extraAllowedClasses, into this filter, otherwise create new
+			// if groovy filter exist use sandbox context in this filter, otherwise create new
 			if (!GroovyInterceptor.getApplicableInterceptors().isEmpty()) {
 				// exists only one goovy filter
 				sandboxFilter = (GroovySandboxFilter) GroovyInterceptor.getApplicableInterceptors().get(0);
-				sandboxFilter.addCustomTypes(allowedVariableClass);
+				sandboxFilter.push(sandboxContext);
 			} else {
-				sandboxFilter = new GroovySandboxFilter(allowedVariableClass);
+				sandboxFilter = new GroovySandboxFilter(sandboxContext);
 				sandboxFilter.register();
 			}
 			
-			// Get script and fill it with variables
-			Script scriptObj = getScript(script);
-			
-			// Scripts aren't thread safe
-			synchronized(scriptObj) {
-				scriptObj.setBinding(binding);
+			// Get compiled script class and create new script instance with variables
+			// => script instances aren't thread safe, but they are not shared between threads
+			Class<? extends Script> scriptClass = getScriptClass(scriptKey, script, scriptCode);
+			Script scriptObj = InvokerHelper.createScript(scriptClass, binding);
+			//
+			long start = System.nanoTime();
+			try {
 				return scriptObj.run();
+			} finally {
+				record(METRIC_EVALUATE, scriptCode, System.nanoTime() - start);
 			}
 			
 		} catch (SecurityException | IdmSecurityException ex) {
@@ -99,21 +127,43 @@ public class DefaultGroovyScriptService implements GroovyScriptService {
 			}
 			throw new ResultCodeException(CoreResultCode.GROOVY_SCRIPT_EXCEPTION, ImmutableMap.of("message", e.getLocalizedMessage() != null ? e.getLocalizedMessage() : e.toString()), e);
 		} finally {
-			// if this script is called from another script, remove only allowed classes from them
+			// if this script is called from another script, remove only sandbox context of this script
 			// otherwise unregister all filter.
 			if (sandboxFilter != null) {
 				if (sandboxFilter.isCustomTypesLast()) {
 					sandboxFilter.unregister();
 				} else {
-					sandboxFilter.removeLastCustomTypes();
+					sandboxFilter.pop();
 				}
 			}
 		}
 	}
 
+	/**
+	 * Sandbox context with all unique classes from variables and extra allowed classes.
+	 * Context is reused for the same allow-list => decisions about checked types are reused too.
+	 * 
+	 * @param variables script variables
+	 * @param extraAllowedClasses extra allowed classes
+	 * @return immutable sandbox context
+	 */
+	private GroovySandboxContext getSandboxContext(Map<String, Object> variables, List<Class<?>> extraAllowedClasses) {
+		Set<Class<?>> allowedTypes = resolveCustomAllowTypes(variables);
+		if (extraAllowedClasses != null) {
+			allowedTypes.addAll(extraAllowedClasses);
+		}
+		//
+		GroovySandboxContext sandboxContext = sandboxContexts.getIfPresent(allowedTypes);
+		if (sandboxContext == null) {
+			sandboxContext = new GroovySandboxContext(allowedTypes);
+			sandboxContexts.put(sandboxContext.getAllowedTypes(), sandboxContext);
+		}
+		return sandboxContext;
+	}
+
 	/**
 	 * Return all unique class from variables. If is variable list, then add all
-	 * classes for all items.
+	 * classes for all items. Target class is resolved once for each item class (except proxies).
 	 * 
 	 * @param variables
 	 * @return
@@ -123,25 +173,29 @@ public class DefaultGroovyScriptService implements GroovyScriptService {
 		if (variables == null) {
 			return allowType;
 		}
+		Set<Class<?>> resolvedTypes = new HashSet<>();
 		variables.forEach((key, object) -> {
-			Class<?> targetClass = null;
-			if (object != null) {
-				targetClass = AopUtils.getTargetClass(object);
-			}
-			if (targetClass != null && !allowType.contains(targetClass)) {
-				allowType.add(targetClass);
-			}
+			resolveCustomAllowType(object, resolvedTypes, allowType);
 			// We have to add types for all list items
 			if (object instanceof List) {
-				((List<?>) object).stream().forEach(item -> {
-					if (item != null && !allowType.contains(AopUtils.getTargetClass(item))) {
-						allowType.add(AopUtils.getTargetClass(item));
-					}
-				});
+				for (Object item : (List<?>) object) {
+					resolveCustomAllowType(item, resolvedTypes, allowType);
+				}
 			}
 		});
 		return allowType;
 	}
+	
+	private void resolveCustomAllowType(Object object, Set<Class<?>> resolvedTypes, Set<Class<?>> allowType) {
+		if (object == null) {
+			return;
+		}
+		// proxies with the same class can have different target class
+		if (!resolvedTypes.add(object.getClass()) && !(object instanceof TargetClassAware)) {
+			return;
+		}
+		allowType.add(AopUtils.getTargetClass(object));
+	}
 
 	@Override
 	public Object validateScript(String script) throws ResultCodeException {
@@ -166,15 +220,57 @@ public class DefaultGroovyScriptService implements GroovyScriptService {
 		}
 	}
 
-	private Script getScript(String source) {
-		// TODO: consider hashing source in order to not waste so much space
-		ValueWrapper value = cacheManager.getValue(CACHE_NAME, source);
-		if (value == null) {
-			Script script = buildScript(source);
-			cacheManager.cacheValue(CACHE_NAME, source, script);
-			return script;
+	/**
+	 * Compiled script class - cached by script source hash.
+	 * 
+	 * @param scriptKey script source hash
+	 * @param source script source
+	 * @param scriptCode script code - used for metrics
+	 * @return compiled script class
+	 */
+	@SuppressWarnings("unchecked")
+	private Class<? extends Script> getScriptClass(String scriptKey, String source, String scriptCode) {
+		ValueWrapper value = cacheManager.getValue(CACHE_NAME, scriptKey);
+		if (value != null) {
+			return (Class<? extends Script>) value.get();
+		}
+		// script can be compiled concurrently by more threads at the first time - the last compiled class is cached
+		long start = System.nanoTime();
+		Class<? extends Script> scriptClass = buildScript(source).getClass();
+		record(METRIC_COMPILE, scriptCode, System.nanoTime() - start);
+		cacheManager.cacheValue(CACHE_NAME, scriptKey, scriptClass);
+		//
+		return scriptClass;
+	}
+	
+	/**
+	 * Script source hash - used as cache key instead of the whole script source.
+	 * 
+	 * @param source script source
+	 * @return sha-256 hash
+	 */
+	private String getScriptKey(String source) {
+		return Hashing.sha256().hashString(source, StandardCharsets.UTF_8).toString();
+	}
+	
+	/**
+	 * Record script compile / evaluate time. Script is identified by code, if script code is not given
+	 * (e.g. transformation script in attribute mapping), then all inline scripts are recorded under the same tag
+	 * (count of meters has to be bounded).
+	 * 
+	 * @param metric metric name
+	 * @param scriptCode script code
+	 * @param duration duration in nanoseconds
+	 */
+	private void record(String metric, String scriptCode, long duration) {
+		if (meterRegistry == null) {
+			return;
 		}
-		return (Script) value.get();
+		Timer
+			.builder(metric)
+			.tag(METRIC_TAG_SCRIPT, scriptCode != null ? scriptCode : METRIC_TAG_SCRIPT_INLINE)
+			.register(meterRegistry)
+			.record(duration, TimeUnit.NANOSECONDS);
 	}
 
 	private Script buildScript(String source) {
@@ -25,6 +25,8 @@ import eu.bcvsolutions.idm.core.api.exception.ResultCodeException;
 import eu.bcvsolutions.idm.core.api.service.AbstractReadWriteDtoService;
 import eu.bcvsolutions.idm.core.api.service.EntityEventManager;
 import eu.bcvsolutions.idm.core.api.service.IdmAutomaticRoleAttributeRuleService;
+import eu.bcvsolutions.idm.core.api.service.IdmAutomaticRoleAttributeService;
+import eu.bcvsolutions.idm.core.api.service.IdmCacheManager;
 import eu.bcvsolutions.idm.core.api.utils.AutowireHelper;
 import eu.bcvsolutions.idm.core.eav.api.domain.PersistentType;
 import eu.bcvsolutions.idm.core.eav.api.dto.IdmFormAttributeDto;
@@ -54,6 +56,8 @@ public class DefaultIdmAutomaticRoleAttributeRuleService extends
 
 	private final EntityEventManager entityEventManager;
 	private IdmFormAttributeService formAttributeService = null;
+	@Autowired
+	private IdmCacheManager cacheManager;
 
 	@Autowired
 	public DefaultIdmAutomaticRoleAttributeRuleService(
@@ -156,6 +160,32 @@ public class DefaultIdmAutomaticRoleAttributeRuleService extends
 	public void delete(IdmAutomaticRoleAttributeRuleDto dto, BasePermission... permission) {
 		entityEventManager.process(new AutomaticRoleAttributeRuleEvent(AutomaticRoleAttributeRuleEventType.DELETE, dto)).getContent();
 	}
+	
+	/**
+	 * Compiled rules are evicted.
+	 * 
+	 * @since 13.1.0
+	 */
+	@Override
+	@Transactional
+	public IdmAutomaticRoleAttributeRuleDto saveInternal(IdmAutomaticRoleAttributeRuleDto dto) {
+		dto = super.saveInternal(dto);
+		evictRuleIndex();
+		//
+		return dto;
+	}
+	
+	/**
+	 * Compiled rules are evicted.
+	 * 
+	 * @since 13.1.0
+	 */
+	@Override
+	@Transactional
+	public void deleteInternal(IdmAutomaticRoleAttributeRuleDto dto) {
+		super.deleteInternal(dto);
+		evictRuleIndex();
+	}
 
 	@Override
 	public List<IdmAutomaticRoleAttributeRuleDto> findAllRulesForAutomaticRole(UUID automaticRole) {
@@ -228,6 +258,16 @@ public class DefaultIdmAutomaticRoleAttributeRuleService extends
 		entityEventManager.process(automaticRoleAttributeRuleEvent);
 	}
 
+	/**
+	 * Evict compiled rules - evicted again, when transaction is completed.
+	 * 
+	 * @see DefaultIdmAutomaticRoleAttributeService#evictRuleIndex(AutomaticRoleAttributeRuleIndex.ChangedEvent)
+	 */
+	private void evictRuleIndex() {
+		cacheManager.evictCache(IdmAutomaticRoleAttributeService.RULE_INDEX_CACHE_NAME);
+		entityEventManager.publishEvent(new AutomaticRoleAttributeRuleIndex.ChangedEvent());
+	}
+
 	/**
 	 * Init form attribute if needed.
 	 * We must add this bean with autowire helper, because exists connection between two this beans. 
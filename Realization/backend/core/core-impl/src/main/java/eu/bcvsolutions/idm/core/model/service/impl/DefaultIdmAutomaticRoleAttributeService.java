@@ -1,17 +1,23 @@
 package eu.bcvsolutions.idm.core.model.service.impl;
 
+import java.beans.PropertyDescriptor;
+import java.lang.reflect.Method;
 import java.math.BigDecimal;
 import java.text.MessageFormat;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 import javax.persistence.EntityManager;
+import javax.persistence.Tuple;
 import javax.persistence.criteria.CriteriaBuilder;
 import javax.persistence.criteria.CriteriaQuery;
 import javax.persistence.criteria.Expression;
@@ -24,16 +30,25 @@ import javax.persistence.metamodel.SingularAttribute;
 
 import org.apache.commons.lang3.BooleanUtils;
 import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
 import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
 
+import com.google.common.collect.Lists;
+
+import eu.bcvsolutions.idm.core.api.config.cache.domain.ValueWrapper;
 import eu.bcvsolutions.idm.core.api.config.datasource.CoreEntityManager;
 import eu.bcvsolutions.idm.core.api.domain.AutomaticRoleAttributeRuleComparison;
 import eu.bcvsolutions.idm.core.api.domain.AutomaticRoleAttributeRuleType;
@@ -59,10 +74,13 @@ import eu.bcvsolutions.idm.core.api.event.EntityEvent;
 import eu.bcvsolutions.idm.core.api.event.EventContext;
 import eu.bcvsolutions.idm.core.api.exception.AcceptedException;
 import eu.bcvsolutions.idm.core.api.exception.ResultCodeException;
+import eu.bcvsolutions.idm.core.api.repository.filter.FilterManager;
 import eu.bcvsolutions.idm.core.api.service.AbstractReadWriteDtoService;
+import eu.bcvsolutions.idm.core.api.service.ConfigurationService;
 import eu.bcvsolutions.idm.core.api.service.EntityEventManager;
 import eu.bcvsolutions.idm.core.api.service.IdmAutomaticRoleAttributeRuleService;
 import eu.bcvsolutions.idm.core.api.service.IdmAutomaticRoleAttributeService;
+import eu.bcvsolutions.idm.core.api.service.IdmCacheManager;
 import eu.bcvsolutions.idm.core.api.service.IdmIdentityContractService;
 import eu.bcvsolutions.idm.core.api.service.IdmIdentityRoleService;
 import eu.bcvsolutions.idm.core.api.service.IdmRoleRequestService;
@@ -124,6 +142,7 @@ public class DefaultIdmAutomaticRoleAttributeService
 	private int PROCESS_ROLE_SIZE = 10;
 
 	private static final org.slf4j.Logger LOG = org.slf4j.LoggerFactory.getLogger(DefaultIdmAutomaticRoleAttributeService.class);
+	private static final String RULE_INDEX_VERSION_KEY = "version"; // @since 13.1.0
 	
 	private final IdmIdentityContractService identityContractService;
 	private final IdmFormAttributeService formAttributeService;
@@ -135,6 +154,12 @@ public class DefaultIdmAutomaticRoleAttributeService
 	private final LongRunningTaskManager longRunningTaskManager;
 	@Autowired
 	private IdmRoleRequestService roleRequestService;
+	@Autowired
+	private IdmCacheManager cacheManager;
+	@Autowired
+	private ConfigurationService configurationService;
+	//
+	private volatile AutomaticRoleAttributeRuleIndex ruleIndex; // compiled rules - @since 13.1.0
 	
 	@Autowired
 	public DefaultIdmAutomaticRoleAttributeService(
@@ -213,6 +238,41 @@ public class DefaultIdmAutomaticRoleAttributeService
 		throw new ResultCodeException(CoreResultCode.METHOD_NOT_ALLOWED, "Automatic role update is not supported");
 	}
 	
+	/**
+	 * Compiled rules are evicted (e.g. concept is changed).
+	 */
+	@Override
+	@Transactional
+	public IdmAutomaticRoleAttributeDto saveInternal(IdmAutomaticRoleAttributeDto dto) {
+		dto = super.saveInternal(dto);
+		evictRuleIndex();
+		//
+		return dto;
+	}
+	
+	/**
+	 * Compiled rules are evicted.
+	 */
+	@Override
+	@Transactional
+	public void deleteInternal(IdmAutomaticRoleAttributeDto dto) {
+		super.deleteInternal(dto);
+		evictRuleIndex();
+	}
+	
+	/**
+	 * Compiled rules are evicted again, when transaction with changed rules or automatic roles is completed
+	 * - index could be compiled in the meantime with not committed (or rolled back) rules.
+	 * Lookout: public method required for aop event listener only.
+	 * 
+	 * @param event rules changed
+	 * @since 13.1.0
+	 */
+	@TransactionalEventListener(phase = TransactionPhase.AFTER_COMPLETION, fallbackExecution = true)
+	public void evictRuleIndex(AutomaticRoleAttributeRuleIndex.ChangedEvent event) {
+		cacheManager.evictCache(RULE_INDEX_CACHE_NAME);
+	}
+	
 	@Override
 	@Transactional(propagation = Propagation.REQUIRES_NEW)
 	public void removeAutomaticRoles(IdmIdentityRoleDto identityRole) {
@@ -342,13 +402,90 @@ public class DefaultIdmAutomaticRoleAttributeService
 			return new PageImpl<>(Collections.emptyList(), pageable, 0);
 		}
 		//
-		// FIXME: Pagination cannot be used since async requests was added! Refactor rows below to return UUID only to prevent memory overusage!
-		Specification<IdmIdentityContract> criteria = this.getCriteriaForRulesByContract(automaticRoleId, rulesForContracts, passed, null);
-		List<IdmIdentityContract> contracts = identityContractRepository.findAll(criteria);
+		// Pagination cannot be used since async requests was added - identifiers are selected only to prevent memory overusage
+		CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+		CriteriaQuery<UUID> query = cb.createQuery(UUID.class);
+		Root<IdmIdentityContract> root = query.from(IdmIdentityContract.class);
+		query.where(getCriteriaForRulesByContract(automaticRoleId, rulesForContracts, passed, null).toPredicate(root, query, cb));
+		query.select(root.get(AbstractEntity_.id));
+		//
+		return new PageImpl<>(entityManager.createQuery(query).getResultList());
+	}
+	
+	@Override
+	public List<IdmIdentityContractDto> findContractsToAssign(UUID automaticRoleId) {
+		Assert.notNull(automaticRoleId, "Automatic role identifier is required.");
+		List<IdmAutomaticRoleAttributeRuleDto> rules = automaticRoleAttributeRuleService.findAllRulesForAutomaticRole(automaticRoleId);
+		if (rules.isEmpty()) {
+			return new ArrayList<>();
+		}
+		//
+		// newly passed contracts = contracts passed by rules without automatic role assigned - one query
+		CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+		CriteriaQuery<Tuple> query = cb.createTupleQuery();
+		Root<IdmIdentityContract> root = query.from(IdmIdentityContract.class);
+		query.where(getCriteriaForRulesByContract(automaticRoleId, rules, true, null).toPredicate(root, query, cb));
+		query.multiselect(
+				root.get(AbstractEntity_.id),
+				root.get(IdmIdentityContract_.identity).get(AbstractEntity_.id),
+				root.get(IdmIdentityContract_.validFrom),
+				root.get(IdmIdentityContract_.validTill)
+		);
+		//
+		return entityManager
+				.createQuery(query)
+				.getResultList()
+				.stream()
+				.map(row -> {
+					IdmIdentityContractDto contract = new IdmIdentityContractDto(row.get(0, UUID.class));
+					contract.setIdentity(row.get(1, UUID.class));
+					contract.setValidFrom(row.get(2, LocalDate.class));
+					contract.setValidTill(row.get(3, LocalDate.class));
+					//
+					return contract;
+				})
+				.collect(Collectors.toList());
+	}
+	
+	@Override
+	public List<IdmIdentityRoleDto> findIdentityRolesToRemove(UUID automaticRoleId) {
+		Assert.notNull(automaticRoleId, "Automatic role identifier is required.");
+		List<IdmAutomaticRoleAttributeRuleDto> rules = automaticRoleAttributeRuleService.findAllRulesForAutomaticRole(automaticRoleId);
+		if (rules.isEmpty()) {
+			return new ArrayList<>();
+		}
+		//
+		// not passed contracts with automatic role assigned - assigned identity roles are selected in the same query
+		CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+		CriteriaQuery<Tuple> query = cb.createTupleQuery();
+		Root<IdmIdentityContract> root = query.from(IdmIdentityContract.class);
+		Root<IdmIdentityRole> identityRoleRoot = query.from(IdmIdentityRole.class);
+		query.where(
+				getCriteriaForRulesByContract(automaticRoleId, rules, false, null).toPredicate(root, query, cb),
+				cb.equal(identityRoleRoot.get(IdmIdentityRole_.identityContract), root),
+				cb.equal(identityRoleRoot.get(IdmIdentityRole_.automaticRole).get(IdmAutomaticRole_.id), automaticRoleId)
+		);
+		query.multiselect(
+				identityRoleRoot.get(AbstractEntity_.id),
+				root.get(AbstractEntity_.id),
+				root.get(IdmIdentityContract_.identity).get(AbstractEntity_.id)
+		);
 		//
-		// transform to page uuid
-		List<UUID> dtos = contracts.stream().map(IdmIdentityContract::getId).collect(Collectors.toList());
-		return new PageImpl<>(dtos);
+		return entityManager
+				.createQuery(query)
+				.getResultList()
+				.stream()
+				.map(row -> {
+					IdmIdentityContractDto contract = new IdmIdentityContractDto(row.get(1, UUID.class));
+					contract.setIdentity(row.get(2, UUID.class));
+					//
+					IdmIdentityRoleDto identityRole = new IdmIdentityRoleDto(row.get(0, UUID.class));
+					identityRole.setIdentityContractDto(contract);
+					identityRole.setAutomaticRole(automaticRoleId);
+					//
+					return identityRole;
+				})
+				.collect(Collectors.toList());
 	}
 	
 	@Override
@@ -450,8 +587,41 @@ public class DefaultIdmAutomaticRoleAttributeService
 		return automaticRoleAttributeDto;
 	}
 	
+	/**
+	 * Rules are evaluated in memory for given contract by compiled rule index. Sql is used for automatic roles with rules,
+	 * which cannot be compiled, for all contracts or if rule index is disabled.
+	 */
 	@Override
 	public Set<AbstractIdmAutomaticRoleDto> getRulesForContract(boolean pass, AutomaticRoleAttributeRuleType type, UUID contractId) {
+		if (contractId == null || !configurationService.getBooleanValue(PROPERTY_RULE_INDEX_ENABLED, DEFAULT_RULE_INDEX_ENABLED)) {
+			return getRulesForContractBySql(pass, type, contractId);
+		}
+		AutomaticRoleAttributeRuleIndex index = getRuleIndex();
+		AutomaticRoleAttributeRuleIndex.Snapshot snapshot = getContractSnapshot(contractId, index);
+		if (snapshot == null) {
+			// contract not found
+			return new HashSet<>();
+		}
+		List<IdmAutomaticRoleAttributeDto> sqlRoles = new ArrayList<>();
+		Set<AbstractIdmAutomaticRoleDto> automaticRoles = new HashSet<>(index.evaluate(pass, type, snapshot, sqlRoles));
+		for (IdmAutomaticRoleAttributeDto automaticRole : sqlRoles) {
+			if (isPassedBySql(automaticRole, pass, contractId)) {
+				automaticRoles.add(automaticRole);
+			}
+		}
+		//
+		return automaticRoles;
+	}
+	
+	/**
+	 * Evaluate rules by sql - one query for each automatic role.
+	 * 
+	 * @param pass
+	 * @param type
+	 * @param contractId
+	 * @return
+	 */
+	private Set<AbstractIdmAutomaticRoleDto> getRulesForContractBySql(boolean pass, AutomaticRoleAttributeRuleType type, UUID contractId) {
 		Set<AbstractIdmAutomaticRoleDto> automaticRoles = new HashSet<>();
 		//
 		// iterate trough all automatic role that has at least one rule and isn't in concept state
@@ -459,11 +629,7 @@ public class DefaultIdmAutomaticRoleAttributeService
 		while (automaticRolesToProcess.hasContent()) {
 			// all found roles it will has rules and will not be in concept state
 			for (IdmAutomaticRoleAttributeDto automaticRole : automaticRolesToProcess) {
-				List<IdmAutomaticRoleAttributeRuleDto> allRulesForAutomaticRole = automaticRoleAttributeRuleService.findAllRulesForAutomaticRole(automaticRole.getId());
-				//
-				Specification<IdmIdentityContract> criteria = this.getCriteriaForRulesByContract(automaticRole.getId(), allRulesForAutomaticRole, pass, contractId);
-				boolean result = !identityContractRepository.findAll(criteria).isEmpty();
-				if (result) {
+				if (isPassedBySql(automaticRole, pass, contractId)) {
 					automaticRoles.add(automaticRole);
 				}
 			}
@@ -478,6 +644,257 @@ public class DefaultIdmAutomaticRoleAttributeService
 		return automaticRoles;
 	}
 	
+	private boolean isPassedBySql(IdmAutomaticRoleAttributeDto automaticRole, boolean pass, UUID contractId) {
+		List<IdmAutomaticRoleAttributeRuleDto> allRulesForAutomaticRole = automaticRoleAttributeRuleService.findAllRulesForAutomaticRole(automaticRole.getId());
+		//
+		Specification<IdmIdentityContract> criteria = this.getCriteriaForRulesByContract(automaticRole.getId(), allRulesForAutomaticRole, pass, contractId);
+		return !identityContractRepository.findAll(criteria).isEmpty();
+	}
+	
+	/**
+	 * Compiled rule index - index is compiled again, when rules version is evicted (rules or automatic roles are changed).
+	 * 
+	 * @return compiled rules
+	 */
+	private AutomaticRoleAttributeRuleIndex getRuleIndex() {
+		UUID version;
+		ValueWrapper value = cacheManager.getValue(RULE_INDEX_CACHE_NAME, RULE_INDEX_VERSION_KEY);
+		if (value != null && value.get() instanceof UUID) {
+			version = (UUID) value.get();
+		} else {
+			version = UUID.randomUUID();
+			cacheManager.cacheValue(RULE_INDEX_CACHE_NAME, RULE_INDEX_VERSION_KEY, version);
+		}
+		//
+		AutomaticRoleAttributeRuleIndex index = ruleIndex;
+		if (index == null || !index.getVersion().equals(version)) {
+			index = compileRuleIndex(version);
+			ruleIndex = index;
+		}
+		return index;
+	}
+	
+	/**
+	 * Compile rules of all automatic roles (not in concept state).
+	 * 
+	 * @param version index version
+	 * @return compiled rules
+	 */
+	private AutomaticRoleAttributeRuleIndex compileRuleIndex(UUID version) {
+		LOG.debug("Compile rules of automatic roles by attribute, index version [{}].", version);
+		//
+		AutomaticRoleAttributeRuleIndex index = new AutomaticRoleAttributeRuleIndex(version);
+		Metamodel metamodel = entityManager.getMetamodel();
+		Page<IdmAutomaticRoleAttributeDto> automaticRoles = this.findAllToProcess(
+				null, 
+				PageRequest.of(0, PROCESS_ROLE_SIZE, Sort.by(AbstractEntity_.id.getName())));
+		while (automaticRoles.hasContent()) {
+			for (IdmAutomaticRoleAttributeDto automaticRole : automaticRoles) {
+				List<IdmAutomaticRoleAttributeRuleDto> rules = automaticRoleAttributeRuleService.findAllRulesForAutomaticRole(automaticRole.getId());
+				Set<AutomaticRoleAttributeRuleType> types = rules
+						.stream()
+						.map(IdmAutomaticRoleAttributeRuleDto::getType)
+						.collect(Collectors.toSet());
+				List<Integer> ruleKeys = new ArrayList<>(rules.size());
+				for (IdmAutomaticRoleAttributeRuleDto rule : rules) {
+					Integer ruleKey = compileRule(index, metamodel, rule);
+					if (ruleKey == null) {
+						LOG.debug("Rule [{}] of automatic role [{}] cannot be evaluated in memory, sql will be used.", rule.getId(), automaticRole.getId());
+						ruleKeys = null;
+						break;
+					}
+					ruleKeys.add(ruleKey);
+				}
+				index.addRole(automaticRole, types, ruleKeys);
+			}
+			//
+			if (automaticRoles.hasNext()) {
+				automaticRoles = this.findAllToProcess(null, automaticRoles.nextPageable());
+			} else {
+				break;
+			}
+		}
+		//
+		return index;
+	}
+	
+	/**
+	 * Compile rule with the same semantic as {@link #getPredicateForRuleByContract(IdmAutomaticRoleAttributeRuleDto, Root, CriteriaQuery, CriteriaBuilder, boolean)}.
+	 * Rule with not supported attribute type or comparison is not compiled.
+	 * 
+	 * @param index compiled rules
+	 * @param metamodel entity metamodel
+	 * @param rule rule
+	 * @return compiled rule key, {@code null} - rule cannot be compiled
+	 */
+	private Integer compileRule(AutomaticRoleAttributeRuleIndex index, Metamodel metamodel, IdmAutomaticRoleAttributeRuleDto rule) {
+		AutomaticRoleAttributeRuleType type = rule.getType();
+		AutomaticRoleAttributeRuleComparison comparison = rule.getComparison();
+		String key = String.format("%s:%s:%s:%s:%s", type, rule.getAttributeName(), rule.getFormAttribute(), comparison, rule.getValue());
+		try {
+			if (type == AutomaticRoleAttributeRuleType.CONTRACT || type == AutomaticRoleAttributeRuleType.IDENTITY) {
+				Class<?> entityType = type == AutomaticRoleAttributeRuleType.CONTRACT ? IdmIdentityContract.class : IdmIdentity.class;
+				SingularAttribute<?, ?> singularAttribute = metamodel.entity(entityType).getSingularAttribute(rule.getAttributeName());
+				PropertyDescriptor property = BeanUtils.getPropertyDescriptor(entityType, singularAttribute.getName());
+				Object value = castToType(singularAttribute, rule.getValue(), comparison);
+				if (property == null 
+						|| property.getReadMethod() == null
+						|| !AutomaticRoleAttributeRuleIndex.isSupported(comparison, ClassUtils.resolvePrimitiveIfNecessary(singularAttribute.getJavaType()), value)) {
+					return null;
+				}
+				Method getter = property.getReadMethod();
+				Object expected = AutomaticRoleAttributeRuleIndex.toExpected(comparison, value);
+				Pattern like = AutomaticRoleAttributeRuleIndex.toLikePattern(comparison, value);
+				//
+				return index.addRule(key, snapshot -> {
+					Object owner = type == AutomaticRoleAttributeRuleType.CONTRACT ? snapshot.getContract() : snapshot.getIdentity();
+					//
+					return AutomaticRoleAttributeRuleIndex.match(comparison, ReflectionUtils.invokeMethod(getter, owner), expected, like);
+				});
+			}
+			if (type == AutomaticRoleAttributeRuleType.CONTRACT_EAV || type == AutomaticRoleAttributeRuleType.IDENTITY_EAV) {
+				IdmFormAttributeDto formAttributeDto = formAttributeService.get(rule.getFormAttribute());
+				if (formAttributeDto == null || formAttributeDto.getPersistentType() == PersistentType.BYTEARRAY) {
+					return null;
+				}
+				PersistentType persistentType = formAttributeDto.getPersistentType();
+				Object value = getFormValue(rule.getValue(), formAttributeDto, comparison);
+				if (!AutomaticRoleAttributeRuleIndex.isSupported(comparison, getSingularAttributeForEav(persistentType).getJavaType(), value)) {
+					return null;
+				}
+				UUID attributeId = formAttributeDto.getId();
+				Object expected = AutomaticRoleAttributeRuleIndex.toExpected(comparison, value);
+				Pattern like = AutomaticRoleAttributeRuleIndex.toLikePattern(comparison, value);
+				boolean negative = comparison == AutomaticRoleAttributeRuleComparison.NOT_CONTAINS 
+						|| comparison == AutomaticRoleAttributeRuleComparison.NOT_END_WITH 
+						|| comparison == AutomaticRoleAttributeRuleComparison.NOT_EQUALS 
+						|| comparison == AutomaticRoleAttributeRuleComparison.NOT_START_WITH;
+				index.addAttribute(type, attributeId, persistentType);
+				//
+				return index.addRule(key, snapshot -> {
+					List<Object> values = snapshot.getValues(type, attributeId);
+					// Is empty comparison has specific behavior - value doesn't exist
+					if (comparison == AutomaticRoleAttributeRuleComparison.IS_EMPTY) {
+						return values.isEmpty();
+					}
+					// For comparison with not is required also check not existing values
+					if (negative && values.isEmpty()) {
+						return true;
+					}
+					return values
+							.stream()
+							.anyMatch(formValue -> AutomaticRoleAttributeRuleIndex.match(comparison, formValue, expected, like));
+				});
+			}
+		} catch (RuntimeException ex) {
+			LOG.debug("Rule [{}] cannot be compiled.", rule.getId(), ex);
+		}
+		return null;
+	}
+	
+	/**
+	 * Contract snapshot for in memory rule evaluation - contract, assigned automatic roles and eav values used by compiled rules.
+	 * 
+	 * @param contractId contract
+	 * @param index compiled rules
+	 * @return snapshot, {@code null} - contract not found
+	 */
+	private AutomaticRoleAttributeRuleIndex.Snapshot getContractSnapshot(UUID contractId, AutomaticRoleAttributeRuleIndex index) {
+		IdmIdentityContract contract = entityManager.find(IdmIdentityContract.class, contractId);
+		if (contract == null) {
+			return null;
+		}
+		// valid now or in future and disabled false
+		LocalDate validTill = contract.getValidTill();
+		boolean valid = !contract.isDisabled() && (validTill == null || !validTill.isBefore(LocalDate.now()));
+		List<UUID> automaticRoles = entityManager
+				.createQuery(
+						"select ir.automaticRole.id from IdmIdentityRole ir"
+						+ " where ir.identityContract.id = :contractId and ir.automaticRole is not null", UUID.class)
+				.setParameter("contractId", contractId)
+				.getResultList();
+		//
+		return new AutomaticRoleAttributeRuleIndex.Snapshot(
+				contract,
+				valid,
+				new HashSet<>(automaticRoles),
+				getPersistedValues(IdmIdentityContractFormValue.class, contractId, index.getContractAttributes()),
+				getPersistedValues(IdmIdentityFormValue.class, contract.getIdentity().getId(), index.getIdentityAttributes()));
+	}
+	
+	/**
+	 * Persisted values of given form attributes.
+	 * 
+	 * @param formValueType owner form value entity
+	 * @param ownerId owner
+	 * @param attributes attributes and their persistent types
+	 * @return values by attribute
+	 */
+	private Map<UUID, List<Object>> getPersistedValues(Class<? extends AbstractFormValue<?>> formValueType, UUID ownerId, Map<UUID, PersistentType> attributes) {
+		Map<UUID, List<Object>> values = new HashMap<>();
+		if (attributes.isEmpty()) {
+			return values;
+		}
+		String query = String.format(
+				"select v.formAttribute.id, v.stringValue, v.shortTextValue, v.booleanValue, v.longValue, v.doubleValue, v.dateValue, v.uuidValue"
+				+ " from %s v where v.owner.id = :ownerId and v.formAttribute.id in (:attributeIds)", 
+				formValueType.getSimpleName());
+		for (List<UUID> attributeIds : Lists.partition(new ArrayList<>(attributes.keySet()), FilterManager.DEFAULT_CHECK_FILTER_SIZE_MAXIMUM)) {
+			List<Object[]> rows = entityManager
+					.createQuery(query, Object[].class)
+					.setParameter("ownerId", ownerId)
+					.setParameter("attributeIds", attributeIds)
+					.getResultList();
+			for (Object[] row : rows) {
+				UUID attributeId = (UUID) row[0];
+				values
+					.computeIfAbsent(attributeId, k -> new ArrayList<>())
+					.add(getPersistedValue(attributes.get(attributeId), row));
+			}
+		}
+		//
+		return values;
+	}
+	
+	/**
+	 * Persisted value by {@link PersistentType} - the same column as {@link #getSingularAttributeForEav(PersistentType)}.
+	 * 
+	 * @param persistentType
+	 * @param row selected value columns
+	 * @return
+	 */
+	private Object getPersistedValue(PersistentType persistentType, Object[] row) {
+		switch (persistentType) {
+			case INT:
+			case LONG:
+				return row[4];
+			case BOOLEAN:
+				return row[3];
+			case DATE:
+			case DATETIME:
+				return row[6];
+			case DOUBLE:
+				return row[5];
+			case ATTACHMENT:
+			case UUID:
+				return row[7];
+			case CODELIST:
+			case ENUMERATION:
+			case SHORTTEXT:
+				return row[2];
+			default:
+				return row[1];
+		}
+	}
+	
+	/**
+	 * Evict compiled rules.
+	 */
+	private void evictRuleIndex() {
+		cacheManager.evictCache(RULE_INDEX_CACHE_NAME);
+		entityEventManager.publishEvent(new AutomaticRoleAttributeRuleIndex.ChangedEvent());
+	}
+	
 	/**
 	 * Return all criteria for given rules by contract
 	 * Compose all specification for identity/contract and rules
@@ -1,54 +1,131 @@
 package eu.bcvsolutions.idm.core.model.service.impl;
 
 import java.io.Serializable;
-import java.lang.reflect.Field;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.stream.Collectors;
 import java.util.stream.StreamSupport;
 
 import javax.cache.Cache;
 import javax.cache.CacheManager;
+import javax.cache.management.CacheStatisticsMXBean;
+import javax.management.JMX;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
 
-import org.ehcache.core.statistics.CacheStatistics;
-import org.ehcache.core.statistics.TierStatistics;
+import org.apache.commons.lang3.SerializationUtils;
+import org.ehcache.sizeof.SizeOf;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 import org.springframework.util.Assert;
 import org.springframework.util.StringUtils;
 
 import com.google.common.collect.Maps;
 
+import eu.bcvsolutions.idm.core.api.CoreModule;
 import eu.bcvsolutions.idm.core.api.config.cache.IdMCacheConfiguration;
 import eu.bcvsolutions.idm.core.api.config.cache.domain.CacheObjectWrapper;
 import eu.bcvsolutions.idm.core.api.config.cache.domain.SerializableCacheObjectWrapper;
 import eu.bcvsolutions.idm.core.api.config.cache.domain.ValueWrapper;
 import eu.bcvsolutions.idm.core.api.dto.IdmCacheDto;
 import eu.bcvsolutions.idm.core.api.service.IdmCacheManager;
+import eu.bcvsolutions.idm.core.config.cache.ClusteredEhCacheConfiguration;
+import eu.bcvsolutions.idm.core.config.cache.IdmNearCache;
+import eu.bcvsolutions.idm.core.config.cache.NearCacheInvalidation;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
 
 /**
  * Default implementation of {@link IdmCacheManager}. It provides basic operations on cache such as listing available
  * caches and clearing them. Internally, this manager uses jCache JSR107 {@link CacheManager}
+ * 
+ * When distributed cache server is configured, distributed caches with configured near cache 
+ * (see {@link IdMCacheConfiguration#getNearCacheSize()}) are fronted by on-heap near cache. Evicted and overwritten values are
+ * published as invalidation messages, which are processed periodically by all cluster nodes.
+ * 
+ * Cache statistics (hits, misses, puts, removals, evictions, get time, item count and estimated heap size) are provided
+ * for each cache and exposed as metrics (registered automatically as {@link MeterBinder}). 
+ * JSR107 statistics are enabled for all caches - statistics are available as JMX beans too.
  *
  * @author Peter Štrunc <peter.strunc@bcvsolutions.eu>
  * @author Radek Tomiška
  */
 @Component("idmCacheManager")
-public class DefaultIdmCacheManager implements IdmCacheManager {
+public class DefaultIdmCacheManager implements IdmCacheManager, MeterBinder {
 
 	private static final org.slf4j.Logger LOG = org.slf4j.LoggerFactory.getLogger(DefaultIdmCacheManager.class);
 	private static final String EMPTY_KEY_MSG = "Cache key cannot be empty";
     private static final String EMPTY_NAME_MSG = "Cache name cannot be empty";
+    private static final int MAX_PUBLISH_ATTEMPTS = 10;
+    private static final int SIZE_SAMPLE = 100; // count of items used to estimate cache heap size
+    private static final long METRIC_SIZE_REFRESH = 60000; // cache size used in metrics is computed once per minute at most
+    public static final String METRIC_PREFIX = "idm.cache";
+    /**
+     * Invalidation messages for near caches - distributed cache.
+     * 
+     * @since 13.1.0
+     */
+    public static final String NEAR_CACHE_INVALIDATION_CACHE_NAME = IdmCacheManager.getCacheName(CoreModule.MODULE_ID, "near-cache-invalidation-cache");
 	//
     private final CacheManager jCacheManager;
     private final Map<String, IdMCacheConfiguration> cacheConfigurations;
-    private boolean sizeAvailable = true; // optimize loading cache size
+    private final Map<String, IdmNearCache> nearCaches; // near caches by cache name
+    private final Map<String, CacheCounters> cacheCounters = new ConcurrentHashMap<>(); // cache statistics by cache name
+    private final Map<String, CacheSize> cacheSizes = new ConcurrentHashMap<>(); // the last computed cache size by cache name
+    private final boolean clustered; // distributed cache server is configured
+    private volatile boolean deepSizeAvailable = true; // deep size of cached items can be computed
 
-    @Autowired
     public DefaultIdmCacheManager(CacheManager springCacheManager, List<IdMCacheConfiguration> cacheConfigurations) {
+    	this(springCacheManager, cacheConfigurations, null);
+    }
+    
+    /**
+     * Near caches are initialized, when distributed cache server is configured.
+     * 
+     * @param springCacheManager cache manager
+     * @param cacheConfigurations cache configurations
+     * @param terracotaUrl distributed cache server
+     * @since 13.1.0
+     */
+    @Autowired
+    public DefaultIdmCacheManager(
+    		CacheManager springCacheManager, 
+    		List<IdMCacheConfiguration> cacheConfigurations,
+    		@Value("${" + ClusteredEhCacheConfiguration.TERRACOTA_URL_PROPERTY + ":}") String terracotaUrl) {
         this.jCacheManager = springCacheManager;
         this.cacheConfigurations = Maps.uniqueIndex(cacheConfigurations, IdMCacheConfiguration::getCacheName);
+        //
+        this.clustered = StringUtils.hasText(terracotaUrl);
+        // JSR107 statistics (evictions) - registered as JMX beans
+        this.cacheConfigurations.keySet().forEach(this::enableStatistics);
+        //
+        Map<String, IdmNearCache> nearCaches = new HashMap<>();
+        if (clustered) {
+        	cacheConfigurations
+        		.stream()
+        		.filter(configuration -> !configuration.isOnlyLocal())
+        		.filter(configuration -> configuration.getNearCacheSize() > 0)
+        		.filter(configuration -> !NEAR_CACHE_INVALIDATION_CACHE_NAME.equals(configuration.getCacheName()))
+        		.forEach(configuration -> {
+        			nearCaches.put(configuration.getCacheName(), new IdmNearCache(configuration));
+        		});
+        	if (!nearCaches.isEmpty()) {
+        		LOG.info("Near caches [{}] are enabled.", nearCaches.keySet());
+        	}
+        }
+        this.nearCaches = nearCaches;
     }
 
     @Override
@@ -66,6 +143,11 @@ public class DefaultIdmCacheManager implements IdmCacheManager {
         if (cache != null) {
             cache.clear();
         }
+        IdmNearCache nearCache = nearCaches.get(cacheId);
+        if (nearCache != null) {
+        	nearCache.clear();
+        	publishInvalidation(nearCache, null);
+        }
     }
 
     @Override
@@ -85,10 +167,30 @@ public class DefaultIdmCacheManager implements IdmCacheManager {
         final IdMCacheConfiguration configuration = cacheConfigurations.get(cacheName);
         // We can cast here safely, because DistributedIdMCacheConfiguration only allows Serializable types
         final Object toCache = isConfigLocalOnly(configuration) ? new CacheObjectWrapper<>(value) : new SerializableCacheObjectWrapper<>((Serializable)value);
-        if (cache != null) {
+        if (cache == null) {
+        	return false;
+        }
+        IdmNearCache nearCache = nearCaches.get(cacheName);
+        if (nearCache == null) {
+        	// value is not read again - put fails with exception
         	cache.put(key, toCache);
+        	getCounters(cacheName).puts.increment();
+        	return true;
+        }
+        // new value cannot be cached on other nodes - invalidation is published, when previous value is overwritten only
+        boolean overwritten = !cache.putIfAbsent(key, toCache);
+        if (overwritten) {
+        	cache.put(key, toCache);
+        }
+        getCounters(cacheName).puts.increment();
+        //
+        nearCache.evict(key);
+        if (overwritten) {
+        	// previous value can be cached on other nodes
+        	publishInvalidation(nearCache, key);
         }
-        return cache != null && Objects.equals(cache.get(key), toCache);
+        nearCache.put(key, (ValueWrapper) toCache);
+        return true;
     }
 
     @Override
@@ -96,6 +198,21 @@ public class DefaultIdmCacheManager implements IdmCacheManager {
         Assert.hasText(cacheName, EMPTY_NAME_MSG);
         Assert.notNull(key, EMPTY_KEY_MSG);
         //
+        long start = System.nanoTime();
+        CacheCounters counters = getCounters(cacheName);
+        IdmNearCache nearCache = nearCaches.get(cacheName);
+        long nearCacheVersion = 0;
+        if (nearCache != null) {
+        	nearCacheVersion = nearCache.getVersion();
+        	ValueWrapper value = nearCache.get(key);
+        	if (value != null) {
+        		counters.nearHits.increment();
+        		counters.get(true, System.nanoTime() - start);
+        		//
+        		return value;
+        	}
+        }
+        //
         Cache<Object, Object> cache = jCacheManager.getCache(cacheName);      
         IdMCacheConfiguration cacheConfiguration = cacheConfigurations.get(cacheName);
         //
@@ -103,7 +220,14 @@ public class DefaultIdmCacheManager implements IdmCacheManager {
             return null;
         }
         //
-        return toValueWrapper(cacheConfiguration, cache.get(key));
+        ValueWrapper value = toValueWrapper(cacheConfiguration, cache.get(key));
+        if (value != null && nearCache != null) {
+        	// loaded value is not cached, if some value was invalidated in the meantime (loaded value can be stale)
+        	nearCache.put(key, value, nearCacheVersion);
+        }
+        counters.get(value != null, System.nanoTime() - start);
+        //
+        return value;
     }
 
     @SuppressWarnings("unchecked")
@@ -123,7 +247,85 @@ public class DefaultIdmCacheManager implements IdmCacheManager {
         final Cache<Object, Object> cache = jCacheManager.getCache(cacheName);
         if (cache != null) {
             cache.remove(key);
+            getCounters(cacheName).removals.increment();
         }
+        IdmNearCache nearCache = nearCaches.get(cacheName);
+        if (nearCache != null) {
+        	nearCache.evict(key);
+        	publishInvalidation(nearCache, key);
+        }
+    }
+    
+    /**
+     * Process invalidation messages published by all cluster nodes - evict changed values from near caches.
+     * 
+     * @since 13.1.0
+     */
+    @Scheduled(fixedDelayString = "${" + ClusteredEhCacheConfiguration.NEAR_CACHE_INVALIDATION_PERIOD_PROPERTY + ":" 
+    		+ ClusteredEhCacheConfiguration.DEFAULT_NEAR_CACHE_INVALIDATION_PERIOD + "}")
+    public void processNearCacheInvalidations() {
+    	if (nearCaches.isEmpty()) {
+    		return;
+    	}
+    	Cache<Object, Object> invalidationCache = jCacheManager.getCache(NEAR_CACHE_INVALIDATION_CACHE_NAME);
+    	for (IdmNearCache nearCache : nearCaches.values()) {
+    		try {
+    			nearCache.invalidate(invalidationCache == null ? null : getInvalidation(invalidationCache.get(nearCache.getCacheName())));
+    		} catch (RuntimeException ex) {
+    			LOG.warn("Invalidation messages for near cache [{}] cannot be processed, near cache will be cleared.",
+    					nearCache.getCacheName(), ex);
+    			nearCache.clear();
+    		}
+    	}
+    }
+    
+    /**
+     * Publish invalidation message for other cluster nodes.
+     * 
+     * @param nearCache near cache
+     * @param key evicted key, {@code null} - whole cache
+     */
+    private void publishInvalidation(IdmNearCache nearCache, Object key) {
+    	Cache<Object, Object> invalidationCache = jCacheManager.getCache(NEAR_CACHE_INVALIDATION_CACHE_NAME);
+    	if (invalidationCache == null) {
+    		return;
+    	}
+    	String cacheName = nearCache.getCacheName();
+    	// key has to be serializable - whole cache is invalidated otherwise
+    	Serializable invalidatedKey = key instanceof Serializable ? (Serializable) key : null;
+    	// invalidation messages can be published by other cluster node concurrently
+    	for (int attempt = 0; attempt < MAX_PUBLISH_ATTEMPTS; attempt++) {
+    		Object previous = invalidationCache.get(cacheName);
+    		NearCacheInvalidation previousInvalidation = getInvalidation(previous);
+    		NearCacheInvalidation invalidation = (previousInvalidation == null ? new NearCacheInvalidation() : previousInvalidation)
+    				.next(invalidatedKey);
+    		SerializableCacheObjectWrapper<NearCacheInvalidation> wrapper = new SerializableCacheObjectWrapper<>(invalidation);
+    		boolean published = previous == null 
+    				? invalidationCache.putIfAbsent(cacheName, wrapper) 
+    				: invalidationCache.replace(cacheName, previous, wrapper);
+    		if (published) {
+    			nearCache.published(invalidation.getSequence());
+    			return;
+    		}
+    	}
+    	// too many concurrent changes - messages cannot be merged, whole cache will be invalidated on all nodes
+    	LOG.debug("Invalidation message for near cache [{}] cannot be published, whole cache will be invalidated.", cacheName);
+    	NearCacheInvalidation previousInvalidation = getInvalidation(invalidationCache.get(cacheName));
+    	invalidationCache.put(
+    			cacheName, 
+    			new SerializableCacheObjectWrapper<>(
+    					(previousInvalidation == null ? new NearCacheInvalidation() : previousInvalidation).next(null)));
+    }
+    
+    private NearCacheInvalidation getInvalidation(Object cachedValue) {
+    	if (cachedValue == null) {
+    		return null;
+    	}
+    	return (NearCacheInvalidation) ((ValueWrapper) cachedValue).get();
+    }
+    
+    private CacheCounters getCounters(String cacheName) {
+    	return cacheCounters.computeIfAbsent(cacheName, name -> new CacheCounters());
     }
 
     private IdmCacheDto toDto(Cache<Object, Object> cache) {
@@ -134,50 +336,274 @@ public class DefaultIdmCacheManager implements IdmCacheManager {
         String[] split = StringUtils.split(cache.getName(), ":");
         dto.setModule(split != null && split.length > 0 ? split[0] : "");
         //
-        if (sizeAvailable) {
-	        try {
-	        	// set size, when local ehcache is used
-		        Field field = cache.getClass().getDeclaredField("statisticsBean");
-		        field.setAccessible(true);
-		        Object object = field.get(cache);
-		        field = object.getClass().getDeclaredField("cacheStatistics");
-		        field.setAccessible(true);
-		        CacheStatistics statistics = (CacheStatistics) field.get(object);
-		        //
-		        dto.setSize(((TierStatistics) statistics.getTierStatistics().get("OnHeap")).getMappings());
-		        //
-		        
-		        // TODO: cache size - return whole cache size for each item now ... how to fix it?
-//		        field = cache.getClass().getDeclaredField("ehCache");
-//		        field.setAccessible(true);
-//		        Ehcache ehCache = (Ehcache) field.get(cache);
-//		        //
-//		        field = EhcacheBase.class.getDeclaredField("store");
-//		        field.setAccessible(true);
-//		        //
-//		        Object store = field.get(ehCache);
-//		        //
-//		        if (store instanceof OnHeapStore) {
-//		        	OnHeapStore heapStore = (OnHeapStore) store;
-//		        	
-//		        	ValueHolder valueHolder = heapStore.get(cache.getName());
-//			        //
-//			        SizeOf sizeOf = SizeOf.newInstance();
-//			        //
-//			        System.out.println(cache.getName() + ": " + FileUtils.byteCountToDisplaySize(sizeOf.deepSizeOf(heapStore)));
-//		        }
-		        
-	        } catch (Exception ex) {
-		        LOG.debug("Cache [{}] size is not available", cache.getName(), ex);
-		        sizeAvailable = false;
-		    }
-    	}
+        CacheCounters counters = getCounters(cache.getName());
+        long hits = counters.hits.sum();
+        long misses = counters.misses.sum();
+        dto.setHitCount(hits);
+        dto.setMissCount(misses);
+        dto.setNearCacheHitCount(counters.nearHits.sum());
+        if (hits + misses > 0) {
+        	dto.setAverageGetTime((float) counters.getTime.sum() / (hits + misses) / 1000);
+        }
+        dto.setPutCount(counters.puts.sum());
+        dto.setRemovalCount(counters.removals.sum());
+        dto.setEvictionCount(getEvictionCount(cache.getName()));
+        IdmNearCache nearCache = nearCaches.get(cache.getName());
+        if (nearCache != null) {
+        	dto.setNearCacheSize(nearCache.size());
+        }
+        CacheSize size = computeSize(cache);
+        dto.setSize(size.items);
+        dto.setHeapSize(size.bytes);
         //
         return dto;
     }
+    
+    /**
+     * Register cache metrics:
+     * - idm.cache.gets - hits and misses (tag result), near cache hits (tag result = near-hit) are counted as hits too.
+     * - idm.cache.get.time - time to get value from cache.
+     * - idm.cache.puts, idm.cache.removals, idm.cache.evictions
+     * - idm.cache.size - item count, idm.cache.heap.size - estimated heap size in bytes (computed once per minute at most).
+     * 
+     * @since 13.1.0
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+    	for (String cacheName : jCacheManager.getCacheNames()) {
+    		Tags tags = Tags.of("cache", cacheName);
+    		CacheCounters counters = getCounters(cacheName);
+    		FunctionCounter
+    			.builder(METRIC_PREFIX + ".gets", counters.hits, LongAdder::sum)
+    			.description("Count of values found in cache.")
+    			.tags(tags.and("result", "hit"))
+    			.register(registry);
+    		FunctionCounter
+				.builder(METRIC_PREFIX + ".gets", counters.misses, LongAdder::sum)
+				.description("Count of values not found in cache.")
+				.tags(tags.and("result", "miss"))
+				.register(registry);
+    		FunctionCounter
+				.builder(METRIC_PREFIX + ".gets", counters.nearHits, LongAdder::sum)
+				.description("Count of values found in near cache.")
+				.tags(tags.and("result", "near-hit"))
+				.register(registry);
+    		FunctionTimer
+    			.builder(METRIC_PREFIX + ".get.time", counters, CacheCounters::getCount, CacheCounters::getTime, TimeUnit.NANOSECONDS)
+    			.description("Time to get value from cache.")
+    			.tags(tags)
+    			.register(registry);
+    		FunctionCounter
+				.builder(METRIC_PREFIX + ".puts", counters.puts, LongAdder::sum)
+				.description("Count of values put into cache.")
+				.tags(tags)
+				.register(registry);
+    		FunctionCounter
+				.builder(METRIC_PREFIX + ".removals", counters.removals, LongAdder::sum)
+				.description("Count of values removed from cache.")
+				.tags(tags)
+				.register(registry);
+    		FunctionCounter
+				.builder(METRIC_PREFIX + ".evictions", this, manager -> manager.getEvictionCount(cacheName))
+				.description("Count of values evicted from cache, when cache size was exceeded.")
+				.tags(tags)
+				.register(registry);
+    		Gauge
+    			.builder(METRIC_PREFIX + ".size", this, manager -> manager.getSize(cacheName).items)
+    			.description("Item count in cache.")
+    			.tags(tags)
+    			.register(registry);
+    		Gauge
+				.builder(METRIC_PREFIX + ".heap.size", this, manager -> manager.getSize(cacheName).bytes)
+				.description("Estimated heap size of cache items.")
+				.baseUnit("bytes")
+				.tags(tags)
+				.register(registry);
+    	}
+    }
+    
+    /**
+     * Cache size used in metrics - computed once per minute at most.
+     * 
+     * @param cacheName cache name
+     * @return cache size
+     */
+    private CacheSize getSize(String cacheName) {
+    	CacheSize size = cacheSizes.get(cacheName);
+    	if (size != null && System.currentTimeMillis() - size.computed < METRIC_SIZE_REFRESH) {
+    		return size;
+    	}
+    	Cache<Object, Object> cache = jCacheManager.getCache(cacheName);
+    	if (cache == null) {
+    		return new CacheSize(0, 0);
+    	}
+    	return computeSize(cache);
+    }
+    
+    /**
+     * Compute item count and estimate heap size of cache items - deep size of sampled items is computed.
+     * Content of distributed caches is held on distributed cache server - size of on-heap near cache is computed only.
+     * 
+     * @param cache cache
+     * @return computed size
+     */
+    private CacheSize computeSize(Cache<Object, Object> cache) {
+    	String cacheName = cache.getName();
+    	IdmNearCache nearCache = nearCaches.get(cacheName);
+    	CacheSize size;
+    	if (clustered && !isConfigLocalOnly(cacheConfigurations.get(cacheName))) {
+    		size = new CacheSize(nearCache == null ? 0 : nearCache.size(), nearCache == null ? 0 : estimateHeapSize(nearCache.sample(SIZE_SAMPLE), nearCache.size()));
+    	} else {
+    		long items = 0;
+    		List<Object> sample = new ArrayList<>();
+    		try {
+	    		for (Cache.Entry<Object, Object> entry : cache) {
+	    			items++;
+	    			if (items <= SIZE_SAMPLE) {
+	    				sample.add(entry.getKey());
+	    				sample.add(entry.getValue());
+	    			}
+	    		}
+    		} catch (RuntimeException ex) {
+    			LOG.debug("Cache [{}] size is not available", cacheName, ex);
+    		}
+    		size = new CacheSize(items, estimateHeapSize(sample, items));
+    	}
+    	cacheSizes.put(cacheName, size);
+    	//
+    	return size;
+    }
+    
+    /**
+     * Estimate heap size of all cache items by deep size of sampled items. 
+     * Serialized size of sampled items is used, if deep size cannot be computed.
+     * 
+     * @param sample sampled keys and values
+     * @param items item count in cache
+     * @return estimated heap size in bytes
+     */
+    private long estimateHeapSize(List<Object> sample, long items) {
+    	if (sample.isEmpty() || items == 0) {
+    		return 0;
+    	}
+    	long sampleItems = sample.size() / 2;
+    	if (deepSizeAvailable) {
+	    	try {
+	    		return SizeOf.newInstance().deepSizeOf(sample.toArray()) * items / sampleItems;
+	    	} catch (RuntimeException | LinkageError ex) {
+	    		// e.g. jdk internals are not accessible - serialized size will be used
+	    		LOG.debug("Cache heap size cannot be computed by deep size, serialized size will be used.", ex);
+	    		deepSizeAvailable = false;
+	    	}
+    	}
+    	// serialized size ~ lower estimate
+    	long sampleSize = 0;
+    	for (Object item : sample) {
+    		if (item instanceof ValueWrapper) {
+    			item = ((ValueWrapper) item).get();
+    		}
+    		if (item instanceof Serializable) {
+    			try {
+    				sampleSize += SerializationUtils.serialize((Serializable) item).length;
+    			} catch (RuntimeException ex) {
+    				LOG.trace("Cache item size cannot be estimated.", ex);
+    			}
+    		}
+    	}
+    	return sampleSize * items / sampleItems;
+    }
+    
+    /**
+     * Count of values evicted from cache, when cache size was exceeded - JSR107 statistics are used.
+     * 
+     * @param cacheName cache name
+     * @return count of evicted values
+     */
+    private long getEvictionCount(String cacheName) {
+    	try {
+    		MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+    		ObjectName objectName = new ObjectName(String.format(
+    				"javax.cache:type=CacheStatistics,CacheManager=%s,Cache=%s",
+    				sanitizeObjectName(jCacheManager.getURI().toString()),
+    				sanitizeObjectName(cacheName)));
+    		if (!mBeanServer.isRegistered(objectName)) {
+    			return 0;
+    		}
+    		return JMX.newMXBeanProxy(mBeanServer, objectName, CacheStatisticsMXBean.class).getCacheEvictions();
+    	} catch (Exception ex) {
+    		LOG.debug("Cache [{}] statistics are not available", cacheName, ex);
+    		return 0;
+    	}
+    }
+    
+    private void enableStatistics(String cacheName) {
+    	try {
+    		if (jCacheManager.getCache(cacheName) != null) {
+    			jCacheManager.enableStatistics(cacheName, true);
+    		}
+    	} catch (RuntimeException ex) {
+    		LOG.debug("Cache [{}] statistics cannot be enabled.", cacheName, ex);
+    	}
+    }
+    
+    /**
+     * JSR107 JMX bean name.
+     */
+    private String sanitizeObjectName(String name) {
+    	return name == null ? "" : name.replaceAll(",|:|=|\n", ".");
+    }
 
     private boolean isConfigLocalOnly(IdMCacheConfiguration configuration) {
         return configuration == null || configuration.isOnlyLocal();
     }
+    
+    /**
+     * Cache statistics counters - hits, misses, get time, puts and removals.
+     * 
+     * @since 13.1.0
+     */
+    private static class CacheCounters {
+    	
+    	private final LongAdder hits = new LongAdder();
+    	private final LongAdder misses = new LongAdder();
+    	private final LongAdder nearHits = new LongAdder();
+    	private final LongAdder getTime = new LongAdder(); // nanoseconds
+    	private final LongAdder puts = new LongAdder();
+    	private final LongAdder removals = new LongAdder();
+    	
+    	private void get(boolean hit, long duration) {
+    		if (hit) {
+    			hits.increment();
+    		} else {
+    			misses.increment();
+    		}
+    		getTime.add(duration);
+    	}
+    	
+    	private long getCount() {
+    		return hits.sum() + misses.sum();
+    	}
+    	
+    	private double getTime() {
+    		return getTime.sum();
+    	}
+    }
+    
+    /**
+     * Computed cache size.
+     * 
+     * @since 13.1.0
+     */
+    private static class CacheSize {
+    	
+    	private final long items;
+    	private final long bytes;
+    	private final long computed = System.currentTimeMillis();
+    	
+    	private CacheSize(long items, long bytes) {
+    		this.items = items;
+    		this.bytes = bytes;
+    	}
+    }
 
 }
@@ -2,8 +2,14 @@ package eu.bcvsolutions.idm.core.model.service.impl;
 
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 import javax.persistence.criteria.CriteriaBuilder;
 import javax.persistence.criteria.CriteriaQuery;
@@ -147,6 +153,55 @@ public class DefaultIdmEntityEventService
 		super.deleteInternal(dto);
 	}
 	
+	@Override
+	@Transactional(readOnly = true)
+	public List<IdmEntityEventDto> findDuplicates(String instanceId, ZonedDateTime executeDate, Collection<IdmEntityEventDto> events) {
+		Assert.hasLength(instanceId, "Server instance identifier is required.");
+		//
+		Map<UUID, Set<String>> fingerprints = new HashMap<>();
+		Set<UUID> eventIds = new HashSet<>();
+		events
+			.stream()
+			.filter(event -> event.getFingerprint() != null)
+			.forEach(event -> {
+				fingerprints.computeIfAbsent(event.getOwnerId(), ownerId -> new HashSet<>()).add(event.getFingerprint());
+				eventIds.add(event.getId());
+			});
+		if (fingerprints.isEmpty()) {
+			return new ArrayList<>();
+		}
+		Set<String> allFingerprints = new HashSet<>();
+		fingerprints.values().forEach(allFingerprints::addAll);
+		List<IdmEntityEvent> duplicates = repository
+				.findByFingerprints(instanceId, OperationState.CREATED, executeDate, fingerprints.keySet(), allFingerprints)
+				.stream()
+				.filter(duplicate -> !eventIds.contains(duplicate.getId()))
+				.filter(duplicate -> fingerprints.get(duplicate.getOwnerId()).contains(duplicate.getFingerprint())) // owner - fingerprint pair
+				.collect(Collectors.toList());
+		//
+		return toDtos(duplicates, false);
+	}
+	
+	@Override
+	@Transactional
+	public Set<UUID> deleteDuplicates(Collection<UUID> eventIds) {
+		if (CollectionUtils.isEmpty(eventIds)) {
+			return new HashSet<>();
+		}
+		// events with children are preserved
+		Set<UUID> deleteEventIds = new HashSet<>(eventIds);
+		deleteEventIds.removeAll(repository.findParentIds(eventIds));
+		if (deleteEventIds.isEmpty()) {
+			return deleteEventIds;
+		}
+		//
+		entityStateRepository.deleteByEventIds(deleteEventIds);
+		int deleted = repository.deleteByIds(deleteEventIds);
+		LOG.debug("[{}] duplicate events were deleted.", deleted);
+		//
+		return deleteEventIds;
+	}
+	
 	/**
 	 * Returns fully loaded event properties (with confidential properties)
 	 * @param event
@@ -1,9 +1,14 @@
 package eu.bcvsolutions.idm.core.model.service.impl;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 import javax.persistence.criteria.CriteriaBuilder;
@@ -24,9 +29,12 @@ import org.springframework.data.domain.Sort;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.Assert;
 
+import com.google.common.collect.Lists;
+
 import eu.bcvsolutions.idm.core.api.config.domain.PrivateIdentityConfiguration;
 import eu.bcvsolutions.idm.core.api.config.domain.TreeConfiguration;
 import eu.bcvsolutions.idm.core.api.domain.ContractState;
+import eu.bcvsolutions.idm.core.api.domain.ManagerRelationType;
 import eu.bcvsolutions.idm.core.api.domain.RecursionType;
 import eu.bcvsolutions.idm.core.api.dto.IdmIdentityContractDto;
 import eu.bcvsolutions.idm.core.api.dto.IdmTreeNodeDto;
@@ -35,6 +43,7 @@ import eu.bcvsolutions.idm.core.api.dto.filter.IdmContractSliceFilter;
 import eu.bcvsolutions.idm.core.api.dto.filter.IdmIdentityContractFilter;
 import eu.bcvsolutions.idm.core.api.entity.AbstractEntity_;
 import eu.bcvsolutions.idm.core.api.event.processor.IdentityContractProcessor;
+import eu.bcvsolutions.idm.core.api.repository.filter.FilterManager;
 import eu.bcvsolutions.idm.core.api.service.EntityEventManager;
 import eu.bcvsolutions.idm.core.api.service.IdmContractSliceService;
 import eu.bcvsolutions.idm.core.api.service.IdmIdentityContractService;
@@ -48,10 +57,12 @@ import eu.bcvsolutions.idm.core.model.entity.IdmIdentityContract;
 import eu.bcvsolutions.idm.core.model.entity.IdmIdentityContract_;
 import eu.bcvsolutions.idm.core.model.entity.IdmIdentityRole;
 import eu.bcvsolutions.idm.core.model.entity.IdmIdentityRole_;
+import eu.bcvsolutions.idm.core.model.entity.IdmManagerClosure;
 import eu.bcvsolutions.idm.core.model.entity.IdmTreeNode;
 import eu.bcvsolutions.idm.core.model.entity.IdmTreeNode_;
 import eu.bcvsolutions.idm.core.model.event.IdentityContractEvent;
 import eu.bcvsolutions.idm.core.model.repository.IdmIdentityContractRepository;
+import eu.bcvsolutions.idm.core.model.repository.IdmManagerClosureRepository;
 import eu.bcvsolutions.idm.core.security.api.domain.BasePermission;
 import eu.bcvsolutions.idm.core.security.api.dto.AuthorizableType;
 
@@ -68,9 +79,12 @@ public class DefaultIdmIdentityContractService
 		extends AbstractFormableService<IdmIdentityContractDto, IdmIdentityContract, IdmIdentityContractFilter>
 		implements IdmIdentityContractService {
 
+	private static final org.slf4j.Logger LOG = org.slf4j.LoggerFactory.getLogger(DefaultIdmIdentityContractService.class);
+	//
 	private final IdmIdentityContractRepository repository;
 	//
 	@Autowired private TreeConfiguration treeConfiguration;
+	@Autowired private IdmManagerClosureRepository managerClosureRepository;
 	@Autowired private IdmContractSliceService contractSliceService;
 	@Autowired private PrivateIdentityConfiguration identityConfiguration;
 	
@@ -399,6 +413,40 @@ public class DefaultIdmIdentityContractService
 		Collections.reverse(contracts);
 	}
 	
+	@Override
+	@Transactional
+	public void recountManagerClosure(Collection<UUID> contractIds) {
+		if (CollectionUtils.isEmpty(contractIds)) {
+			return;
+		}
+		//
+		List<UUID> contracts = new ArrayList<>(new HashSet<>(contractIds));
+		List<IdmManagerClosure> closure = new ArrayList<>();
+		Map<List<UUID>, Object[]> treeRows = new LinkedHashMap<>(); // contract and manager contract can be in different partitions
+		for (List<UUID> partition : Lists.partition(contracts, FilterManager.DEFAULT_CHECK_FILTER_SIZE_MAXIMUM)) {
+			managerClosureRepository.deleteByContractIds(partition);
+			// managers by guarantees
+			managerClosureRepository
+				.findGuarantees(partition)
+				.forEach(row -> closure.add(new IdmManagerClosure((UUID) row[2], (UUID) row[1], ManagerRelationType.GUARANTEE, (UUID) row[0])));
+			// managers by tree structure - contract as subordinate contract or as manager contract
+			managerClosureRepository
+				.findTreeManagers(partition)
+				.forEach(row -> treeRows.putIfAbsent(Lists.newArrayList((UUID) row[0], (UUID) row[2]), row));
+			managerClosureRepository
+				.findTreeSubordinates(partition)
+				.forEach(row -> treeRows.putIfAbsent(Lists.newArrayList((UUID) row[0], (UUID) row[2]), row));
+		}
+		treeRows.values().forEach(row -> {
+			IdmManagerClosure relation = new IdmManagerClosure((UUID) row[3], (UUID) row[1], ManagerRelationType.TREE, (UUID) row[0]);
+			relation.setManagerContractId((UUID) row[2]);
+			relation.setTreeTypeId((UUID) row[4]);
+			closure.add(relation);
+		});
+		managerClosureRepository.saveAll(closure);
+		LOG.debug("Closure of managers for contracts [{}] recounted, closure size [{}].", contracts.size(), closure.size());
+	}
+	
 	/**
 	 * Returns contracts sorted by priority:
 	 * - 1. main
@@ -2,8 +2,14 @@ package eu.bcvsolutions.idm.core.model.service.impl;
 
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -18,8 +24,14 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
 import org.springframework.util.Assert;
 
+import com.google.common.collect.Lists;
+
+import eu.bcvsolutions.idm.core.api.config.cache.domain.ValueWrapper;
 import eu.bcvsolutions.idm.core.api.dto.BaseDto;
 import eu.bcvsolutions.idm.core.api.dto.ExportDescriptorDto;
 import eu.bcvsolutions.idm.core.api.dto.IdmExportImportDto;
@@ -27,11 +39,15 @@ import eu.bcvsolutions.idm.core.api.dto.IdmIncompatibleRoleDto;
 import eu.bcvsolutions.idm.core.api.dto.IdmRoleDto;
 import eu.bcvsolutions.idm.core.api.dto.ResolvedIncompatibleRoleDto;
 import eu.bcvsolutions.idm.core.api.dto.filter.IdmIncompatibleRoleFilter;
+import eu.bcvsolutions.idm.core.api.dto.filter.IdmRoleFilter;
 import eu.bcvsolutions.idm.core.api.exception.EntityNotFoundException;
+import eu.bcvsolutions.idm.core.api.repository.filter.FilterManager;
 import eu.bcvsolutions.idm.core.api.service.AbstractEventableDtoService;
 import eu.bcvsolutions.idm.core.api.service.EntityEventManager;
+import eu.bcvsolutions.idm.core.api.service.IdmCacheManager;
 import eu.bcvsolutions.idm.core.api.service.IdmIncompatibleRoleService;
 import eu.bcvsolutions.idm.core.api.service.IdmRoleCompositionService;
+import eu.bcvsolutions.idm.core.api.service.IdmRoleService;
 import eu.bcvsolutions.idm.core.api.service.LookupService;
 import eu.bcvsolutions.idm.core.model.domain.CoreGroupPermission;
 import eu.bcvsolutions.idm.core.model.entity.IdmIncompatibleRole;
@@ -52,17 +68,23 @@ public class DefaultIdmIncompatibleRoleService
 		implements IdmIncompatibleRoleService {
 	
 	private static final org.slf4j.Logger LOG = org.slf4j.LoggerFactory.getLogger(DefaultIdmIncompatibleRoleService.class);
+	private static final String INDEX_VERSION_KEY = "version"; // @since 13.1.0
 	//
 	private final IdmIncompatibleRoleRepository repository;
+	private final EntityEventManager entityEventManager;
+	private volatile IncompatibleRoleIndex index; // @since 13.1.0
 	//
 	@Autowired private IdmRoleCompositionService roleCompositionService;
 	@Autowired private LookupService lookupService;
+	@Autowired private IdmRoleService roleService;
+	@Autowired private IdmCacheManager cacheManager;
 	
 	@Autowired
 	public DefaultIdmIncompatibleRoleService(IdmIncompatibleRoleRepository repository, EntityEventManager entityEventManager) {
 		super(repository, entityEventManager);
 		//
 		this.repository = repository;
+		this.entityEventManager = entityEventManager;
 	}
 
 	@Override
@@ -92,6 +114,41 @@ public class DefaultIdmIncompatibleRoleService
 		return toDtos(results, false);
 	}
 	
+	/**
+	 * Conflict matrix is evicted (incompatible role is changed).
+	 */
+	@Override
+	@Transactional
+	public IdmIncompatibleRoleDto saveInternal(IdmIncompatibleRoleDto dto) {
+		dto = super.saveInternal(dto);
+		evictIndex();
+		//
+		return dto;
+	}
+	
+	/**
+	 * Conflict matrix is evicted.
+	 */
+	@Override
+	@Transactional
+	public void deleteInternal(IdmIncompatibleRoleDto dto) {
+		super.deleteInternal(dto);
+		evictIndex();
+	}
+	
+	/**
+	 * Conflict matrix is evicted again, when transaction with changed incompatible roles or role composition is completed
+	 * - matrix could be compiled in the meantime with not committed (or rolled back) definitions.
+	 * Lookout: public method required for aop event listener only.
+	 * 
+	 * @param event incompatible roles or role composition changed
+	 * @since 13.1.0
+	 */
+	@TransactionalEventListener(phase = TransactionPhase.AFTER_COMPLETION, fallbackExecution = true)
+	public void evictIndex(IncompatibleRoleIndex.ChangedEvent event) {
+		cacheManager.evictCache(INDEX_CACHE_NAME);
+	}
+	
 	@Override
 	public Set<ResolvedIncompatibleRoleDto> resolveIncompatibleRoles(List<Serializable> rolesOrIdentifiers) {
 		// search all defined incompatible roles for given roles - business roles can be given
@@ -101,53 +158,77 @@ public class DefaultIdmIncompatibleRoleService
 		}
 		LOG.debug("Start resolving incompabible roles [{}]", rolesOrIdentifiers);
 		//
-		Set<UUID> allRoleIds = new HashSet<>();
-		Set<IdmRoleDto> roles = new HashSet<>();
-		// search all sub roles
+		// direct roles - roles given by uuid are loaded together
+		Map<UUID, IdmRoleDto> directRoles = new LinkedHashMap<>();
+		Map<UUID, IdmRoleDto> loadedRoles = loadRoles(rolesOrIdentifiers
+				.stream()
+				.filter(roleOrIdentifier -> roleOrIdentifier instanceof UUID)
+				.map(roleOrIdentifier -> (UUID) roleOrIdentifier)
+				.collect(Collectors.toSet()));
 		for (Serializable roleOrIdentifier : rolesOrIdentifiers) {
 			if (roleOrIdentifier == null) {
 				continue;
 			}
-			roles.clear();
 			//
 			IdmRoleDto directRole = null;
 			if (roleOrIdentifier instanceof IdmRoleDto) {
 				directRole = (IdmRoleDto) roleOrIdentifier;
+			} else if (roleOrIdentifier instanceof UUID) {
+				directRole = loadedRoles.get(roleOrIdentifier);
 			} else {
 				directRole = (IdmRoleDto) lookupService.lookupDto(IdmRoleDto.class, roleOrIdentifier);
 			}
 			if (directRole == null) {
 				throw new EntityNotFoundException(IdmRole.class, roleOrIdentifier);
 			}
-			//
-			roles.add(directRole);
-			if (directRole.getChildrenCount() > 0) {
-				roles.addAll(roleCompositionService.resolveDistinctRoles(roleCompositionService.findAllSubRoles(directRole.getId())));
-			}
-			//
-			// resolve incompatible roles 
-			List<UUID> roleIds = roles.stream().map(IdmRoleDto::getId).collect(Collectors.toList());
-			//
-			for (IdmIncompatibleRoleDto incompatibleRole : findAllByRoles(roleIds)) {
-				// find incompatible roles - we need to know, which from the given role is incompatible => ResolvedIncompatibleRoleDto
-				incompatibleRoles.add(new ResolvedIncompatibleRoleDto(directRole, incompatibleRole));
-			}
-			allRoleIds.addAll(roleIds);
+			directRoles.putIfAbsent(directRole.getId(), directRole);
 		}
 		//
-		// both sides of incompatible roles should be in the allRoleIds and superior vs. sub role has to be different.
-		Set<ResolvedIncompatibleRoleDto> resolvedRoles = incompatibleRoles
+		IncompatibleRoleIndex index = getIndex();
+		if (index.isEmpty()) {
+			LOG.debug("Resolved incompabible roles [0], incompatible roles are not defined.");
+			return incompatibleRoles;
+		}
+		// direct role with all sub roles - superior vs. sub role of incompatible role has to be different
+		// and both sides has to be in all roles => resolved by conflict matrix
+		Map<UUID, BitSet> expandedRoles = new LinkedHashMap<>(directRoles.size());
+		directRoles.values().forEach(directRole -> {
+			expandedRoles.put(directRole.getId(), index.getExpandedRoles(directRole.getId(), roleId -> {
+				if (directRole.getChildrenCount() <= 0) {
+					return Collections.emptySet();
+				}
+				return roleCompositionService.getDistinctRoles(roleCompositionService.findAllSubRoles(roleId));
+			}));
+		});
+		Map<UUID, Set<UUID>> conflicts = index.resolve(expandedRoles);
+		if (conflicts.isEmpty()) {
+			LOG.debug("Resolved incompabible roles [0]");
+			return incompatibleRoles;
+		}
+		// load conflicting definitions together
+		List<UUID> definitionIds = conflicts
+				.values()
+				.stream()
+				.flatMap(Set::stream)
+				.distinct()
+				.collect(Collectors.toList());
+		Map<UUID, IdmIncompatibleRoleDto> definitions = new HashMap<>(definitionIds.size());
+		for (List<UUID> ids : Lists.partition(definitionIds, FilterManager.DEFAULT_CHECK_FILTER_SIZE_MAXIMUM)) {
+			IdmIncompatibleRoleFilter filter = new IdmIncompatibleRoleFilter();
+			filter.setIds(ids);
+			find(filter, null).forEach(definition -> definitions.put(definition.getId(), definition));
+		}
+		conflicts.forEach((directRoleId, conflictIds) -> {
+			IdmRoleDto directRole = directRoles.get(directRoleId);
+			conflictIds
 				.stream()
-				.filter(ir -> { // superior vs. sub role has to be different.
-					return !ir.getIncompatibleRole().getSuperior().equals(ir.getIncompatibleRole().getSub());
-				})
-				.filter(ir -> { // superior and sub role has to be in all roles.
-					return allRoleIds.contains(ir.getIncompatibleRole().getSuperior()) && allRoleIds.contains(ir.getIncompatibleRole().getSub());
-				})
-				.collect(Collectors.toSet());
+				.map(definitions::get)
+				.filter(Objects::nonNull) // removed in the meantime
+				.forEach(definition -> incompatibleRoles.add(new ResolvedIncompatibleRoleDto(directRole, definition)));
+		});
 		//
-		LOG.debug("Resolved incompabible roles [{}]", resolvedRoles.size());
-		return resolvedRoles;
+		LOG.debug("Resolved incompabible roles [{}]", incompatibleRoles.size());
+		return incompatibleRoles;
 	}
 	
 	@Override
@@ -204,4 +285,57 @@ public class DefaultIdmIncompatibleRoleService
 		descriptorDto.getAdvancedParingFields().add(IdmIncompatibleRole_.sub.getName());
 		descriptorDto.getAdvancedParingFields().add(IdmIncompatibleRole_.superior.getName());
 	}
+	
+	/**
+	 * Load roles by identifiers.
+	 * 
+	 * @param roleIds role identifiers
+	 * @return roles by identifier
+	 */
+	private Map<UUID, IdmRoleDto> loadRoles(Set<UUID> roleIds) {
+		Map<UUID, IdmRoleDto> roles = new HashMap<>(roleIds.size());
+		for (List<UUID> ids : Lists.partition(new ArrayList<>(roleIds), FilterManager.DEFAULT_CHECK_FILTER_SIZE_MAXIMUM)) {
+			IdmRoleFilter filter = new IdmRoleFilter();
+			filter.setIds(ids);
+			roleService.find(filter, null).forEach(role -> roles.put(role.getId(), role));
+		}
+		//
+		return roles;
+	}
+	
+	/**
+	 * Compiled conflict matrix - matrix is compiled again, when version is evicted (incompatible roles or role composition is changed).
+	 * 
+	 * @return conflict matrix
+	 */
+	private IncompatibleRoleIndex getIndex() {
+		UUID version;
+		ValueWrapper value = cacheManager.getValue(INDEX_CACHE_NAME, INDEX_VERSION_KEY);
+		if (value != null && value.get() instanceof UUID) {
+			version = (UUID) value.get();
+		} else {
+			version = UUID.randomUUID();
+			cacheManager.cacheValue(INDEX_CACHE_NAME, INDEX_VERSION_KEY, version);
+		}
+		//
+		IncompatibleRoleIndex currentIndex = index;
+		if (currentIndex == null || !currentIndex.getVersion().equals(version)) {
+			LOG.debug("Compile incompatible roles, index version [{}].", version);
+			//
+			currentIndex = new IncompatibleRoleIndex(version);
+			for (Object[] definition : repository.findAllDefinitions()) {
+				currentIndex.addDefinition((UUID) definition[0], (UUID) definition[1], (UUID) definition[2]);
+			}
+			index = currentIndex;
+		}
+		return currentIndex;
+	}
+	
+	/**
+	 * Evict conflict matrix.
+	 */
+	private void evictIndex() {
+		cacheManager.evictCache(INDEX_CACHE_NAME);
+		entityEventManager.publishEvent(new IncompatibleRoleIndex.ChangedEvent());
+	}
 }
@@ -1,18 +1,27 @@
 package eu.bcvsolutions.idm.core.model.service.impl;
 
 import java.io.Serializable;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeSet;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import javax.persistence.criteria.CriteriaBuilder;
 import javax.persistence.criteria.CriteriaQuery;
 import javax.persistence.criteria.Predicate;
 import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Subquery;
 
 import org.apache.commons.collections.CollectionUtils;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -32,24 +41,32 @@ import eu.bcvsolutions.idm.core.api.dto.IdmRoleDto;
 import eu.bcvsolutions.idm.core.api.dto.filter.IdmIdentityRoleFilter;
 import eu.bcvsolutions.idm.core.api.dto.filter.IdmRoleCompositionFilter;
 import eu.bcvsolutions.idm.core.api.event.EntityEvent;
+import eu.bcvsolutions.idm.core.api.repository.filter.FilterManager;
 import eu.bcvsolutions.idm.core.api.service.AbstractEventableDtoService;
+import eu.bcvsolutions.idm.core.api.service.ConfigurationService;
 import eu.bcvsolutions.idm.core.api.service.EntityEventManager;
 import eu.bcvsolutions.idm.core.api.service.IdmCacheManager;
 import eu.bcvsolutions.idm.core.api.service.IdmIdentityRoleService;
+import eu.bcvsolutions.idm.core.api.service.IdmIncompatibleRoleService;
 import eu.bcvsolutions.idm.core.api.service.IdmRoleCompositionService;
 import eu.bcvsolutions.idm.core.api.utils.DtoUtils;
 import eu.bcvsolutions.idm.core.model.domain.CoreGroupPermission;
 import eu.bcvsolutions.idm.core.model.entity.IdmRoleComposition;
+import eu.bcvsolutions.idm.core.model.entity.IdmRoleCompositionClosure;
+import eu.bcvsolutions.idm.core.model.entity.IdmRoleCompositionClosure_;
 import eu.bcvsolutions.idm.core.model.entity.IdmRoleComposition_;
 import eu.bcvsolutions.idm.core.model.entity.IdmRole_;
 import eu.bcvsolutions.idm.core.model.event.AbstractRoleAssignmentEvent;
 import eu.bcvsolutions.idm.core.model.event.IdentityRoleEvent;
+import eu.bcvsolutions.idm.core.model.repository.IdmRoleCompositionClosureRepository;
 import eu.bcvsolutions.idm.core.model.repository.IdmRoleCompositionRepository;
 import eu.bcvsolutions.idm.core.security.api.domain.BasePermission;
 import eu.bcvsolutions.idm.core.security.api.dto.AuthorizableType;
 
 /**
  * Role composition (~ business roles).
+ * Materialized transitive closure of role composition is maintained, when composition is changed 
+ * - all sub and superior roles are resolved by single query, when closure is valid.
  * 
  * @author Radek Tomiška
  * @since 9.0.0
@@ -63,10 +80,18 @@ public class DefaultIdmRoleCompositionService
 	//
 	@Autowired private IdmIdentityRoleService identityRoleService;
 	@Autowired private IdmCacheManager cacheManager;
+	@Autowired private ConfigurationService configurationService;
+	@Autowired private IdmRoleCompositionClosureRepository closureRepository;
+	//
+	private final IdmRoleCompositionRepository repository;
+	private final EntityEventManager entityEventManager;
 
 	@Autowired
 	public DefaultIdmRoleCompositionService(IdmRoleCompositionRepository repository, EntityEventManager entityEventManager) {
 		super(repository, entityEventManager);
+		//
+		this.repository = repository;
+		this.entityEventManager = entityEventManager;
 	}
 
 	@Override
@@ -74,12 +99,29 @@ public class DefaultIdmRoleCompositionService
 		return new AuthorizableType(CoreGroupPermission.ROLECOMPOSITION, getEntityClass());
 	}
 	
+	@Override
+	@Transactional
+	public IdmRoleCompositionDto saveInternal(IdmRoleCompositionDto dto) {
+		UUID previousSuperiorId = null;
+		if (!isNew(dto)) {
+			IdmRoleComposition previous = repository.findById(dto.getId()).orElse(null);
+			if (previous != null) {
+				previousSuperiorId = previous.getSuperior().getId();
+			}
+		}
+		dto = super.saveInternal(dto);
+		//
+		updateClosure(dto.getSuperior(), previousSuperiorId);
+		//
+		return dto;
+	}
+	
 	@Override
 	@Transactional
 	public void deleteInternal(IdmRoleCompositionDto dto) {
 		super.deleteInternal(dto);
-		// clear cache right here => delete is asynchronous
-		cacheManager.evictCache(IdmRoleCompositionService.ALL_SUB_ROLES_CACHE_NAME);
+		// update closure and clear cache right here => delete is asynchronous
+		updateClosure(dto.getSuperior());
 	}
 
 	@Override
@@ -104,7 +146,23 @@ public class DefaultIdmRoleCompositionService
 		}
 		//
 		List<IdmRoleCompositionDto> results = new ArrayList<>();
-		findAllSubRoles(results, new ArrayList<>(), superiorId, permission);
+		if (isClosureValid()) {
+			// all compositions in sub tree are loaded by single query
+			IdmRoleCompositionFilter filter = new IdmRoleCompositionFilter();
+			filter.setTransitiveSuperiorId(superiorId);
+			Map<UUID, List<IdmRoleCompositionDto>> compositions = find(filter, null, permission)
+					.stream()
+					.collect(Collectors.groupingBy(IdmRoleCompositionDto::getSuperior, LinkedHashMap::new, Collectors.toList()));
+			//
+			findAllSubRoles(results, new ArrayList<>(), superiorId, superior -> compositions.getOrDefault(superior, Collections.emptyList()));
+		} else {
+			findAllSubRoles(results, new ArrayList<>(), superiorId, superior -> {
+				IdmRoleCompositionFilter filter = new IdmRoleCompositionFilter();
+				filter.setSuperiorId(superior);
+				//
+				return find(filter, null, permission).getContent();
+			});
+		}
 		cacheManager.cacheValue(ALL_SUB_ROLES_CACHE_NAME, superiorId, results);
 		//
 		return results;
@@ -116,7 +174,23 @@ public class DefaultIdmRoleCompositionService
 		//
 		List<IdmRoleCompositionDto> results = new ArrayList<>();
 		//
-		findAllSuperiorRoles(results, subId, subId, permission);
+		if (isClosureValid()) {
+			// all compositions in superior tree are loaded by single query
+			IdmRoleCompositionFilter filter = new IdmRoleCompositionFilter();
+			filter.setTransitiveSubId(subId);
+			Map<UUID, List<IdmRoleCompositionDto>> compositions = find(filter, null, permission)
+					.stream()
+					.collect(Collectors.groupingBy(IdmRoleCompositionDto::getSub, LinkedHashMap::new, Collectors.toList()));
+			//
+			findAllSuperiorRoles(results, subId, subId, sub -> compositions.getOrDefault(sub, Collections.emptyList()));
+		} else {
+			findAllSuperiorRoles(results, subId, subId, sub -> {
+				IdmRoleCompositionFilter filter = new IdmRoleCompositionFilter();
+				filter.setSubId(sub);
+				//
+				return find(filter, null, permission).getContent();
+			});
+		}
 		//
 		return results;
 	}
@@ -272,6 +346,78 @@ public class DefaultIdmRoleCompositionService
 		return results;
 	}
 	
+	@Override
+	@Transactional
+	public void recountClosure(Collection<UUID> superiorIds) {
+		if (CollectionUtils.isEmpty(superiorIds)) {
+			return;
+		}
+		// compositions are loaded after superior roles are locked - concurrent change has to be committed before
+		List<UUID> superiors = lockSuperiors(superiorIds);
+		//
+		// only sub tree of given superior roles is loaded - level by level, compositions of each role are loaded once (cycles)
+		Map<UUID, List<UUID>> directSubRoles = new HashMap<>();
+		Set<UUID> loadedRoleIds = new HashSet<>();
+		Set<UUID> roleIds = new HashSet<>(superiors);
+		while (!roleIds.isEmpty()) {
+			loadedRoleIds.addAll(roleIds);
+			Set<UUID> subRoleIds = new HashSet<>();
+			Lists
+				.partition(new ArrayList<>(roleIds), FilterManager.DEFAULT_CHECK_FILTER_SIZE_MAXIMUM)
+				.forEach(partition -> repository
+					.findPairsBySuperiorIds(partition)
+					.forEach(pair -> {
+						UUID subId = (UUID) pair[1];
+						directSubRoles.computeIfAbsent((UUID) pair[0], superior -> new ArrayList<>()).add(subId);
+						subRoleIds.add(subId);
+					}));
+			subRoleIds.removeAll(loadedRoleIds);
+			roleIds = subRoleIds;
+		}
+		//
+		recountClosure(superiors, directSubRoles);
+	}
+	
+	@Override
+	@Transactional
+	public void recountClosure(Collection<UUID> superiorIds, Map<UUID, ? extends Collection<UUID>> directSubRoles) {
+		if (CollectionUtils.isEmpty(superiorIds)) {
+			return;
+		}
+		Assert.notNull(directSubRoles, "Direct sub roles are required.");
+		//
+		List<UUID> superiors = lockSuperiors(superiorIds); // (superior_id, sub_id) is unique => concurrent recount fails otherwise
+		Lists
+			.partition(superiors, FilterManager.DEFAULT_CHECK_FILTER_SIZE_MAXIMUM)
+			.forEach(closureRepository::deleteBySuperiorIds);
+		//
+		List<IdmRoleCompositionClosure> closure = new ArrayList<>();
+		for (UUID superiorId : superiors) {
+			// breadth first => the shortest composition path is used as depth, superior role itself is not included (cycles)
+			Map<UUID, Integer> depths = new HashMap<>();
+			Deque<UUID> queue = new ArrayDeque<>();
+			queue.add(superiorId);
+			while (!queue.isEmpty()) {
+				UUID roleId = queue.poll();
+				Collection<UUID> subIds = directSubRoles.get(roleId);
+				if (subIds == null) {
+					continue;
+				}
+				int depth = depths.getOrDefault(roleId, 0) + 1;
+				subIds
+					.stream()
+					.filter(subId -> !subId.equals(superiorId) && !depths.containsKey(subId))
+					.forEach(subId -> {
+						depths.put(subId, depth);
+						queue.add(subId);
+					});
+			}
+			depths.forEach((subId, depth) -> closure.add(new IdmRoleCompositionClosure(superiorId, subId, depth)));
+		}
+		closureRepository.saveAll(closure);
+		LOG.debug("Closure of role composition for superior roles [{}] recounted, closure size [{}].", superiors.size(), closure.size());
+	}
+	
 	@Override
 	protected List<Predicate> toPredicates(Root<IdmRoleComposition> root, CriteriaQuery<?> query, CriteriaBuilder builder,
 			IdmRoleCompositionFilter filter) {
@@ -296,6 +442,32 @@ public class DefaultIdmRoleCompositionService
 					builder.equal(root.get(IdmRoleComposition_.superior).get(IdmRole_.id), role)));
 		}
 		//
+		// all sub roles by closure
+		UUID transitiveSuperior = filter.getTransitiveSuperiorId();
+		if (transitiveSuperior != null) {
+			Subquery<UUID> subquery = query.subquery(UUID.class);
+			Root<IdmRoleCompositionClosure> subRoot = subquery.from(IdmRoleCompositionClosure.class);
+			subquery.select(subRoot.get(IdmRoleCompositionClosure_.subId));
+			subquery.where(builder.equal(subRoot.get(IdmRoleCompositionClosure_.superiorId), transitiveSuperior));
+			//
+			predicates.add(builder.or(
+					builder.equal(root.get(IdmRoleComposition_.superior).get(IdmRole_.id), transitiveSuperior),
+					root.get(IdmRoleComposition_.superior).get(IdmRole_.id).in(subquery)));
+		}
+		//
+		// all superior roles by closure
+		UUID transitiveSub = filter.getTransitiveSubId();
+		if (transitiveSub != null) {
+			Subquery<UUID> subquery = query.subquery(UUID.class);
+			Root<IdmRoleCompositionClosure> subRoot = subquery.from(IdmRoleCompositionClosure.class);
+			subquery.select(subRoot.get(IdmRoleCompositionClosure_.superiorId));
+			subquery.where(builder.equal(subRoot.get(IdmRoleCompositionClosure_.subId), transitiveSub));
+			//
+			predicates.add(builder.or(
+					builder.equal(root.get(IdmRoleComposition_.sub).get(IdmRole_.id), transitiveSub),
+					root.get(IdmRoleComposition_.sub).get(IdmRole_.id).in(subquery)));
+		}
+		//
 		return predicates;
 	}
 	
@@ -332,29 +504,41 @@ public class DefaultIdmRoleCompositionService
 	 * @param results found parents
 	 * @param subId original role, for which parent are found => used for prevent cycles
 	 * @param subChildId curently processed sub role
-	 * @param permission
+	 * @param superiorRoles direct superior roles loader
 	 */
-	private void findAllSuperiorRoles(List<IdmRoleCompositionDto> results, UUID subId, UUID subChildId, BasePermission... permission) {
-		IdmRoleCompositionFilter filter = new IdmRoleCompositionFilter();
-		filter.setSubId(subChildId);
-		//
-		find(filter, null, permission)
+	private void findAllSuperiorRoles(
+			List<IdmRoleCompositionDto> results,
+			UUID subId,
+			UUID subChildId,
+			Function<UUID, List<IdmRoleCompositionDto>> superiorRoles) {
+		superiorRoles
+			.apply(subChildId)
+			.stream()
 			.filter(superiorRole -> !superiorRole.getSuperior().equals(superiorRole.getSub())) // cyclic composition in the first level is ignored
 			.filter(superiorRole -> !superiorRole.getSuperior().equals(subId)) // cyclic to original
 			.forEach(superiorRole -> {
 				if (!results.contains(superiorRole)) {
 					results.add(superiorRole);
 					//
-					findAllSuperiorRoles(results, subId, superiorRole.getSuperior(), permission);
+					findAllSuperiorRoles(results, subId, superiorRole.getSuperior(), superiorRoles);
 				}				
 			});
 	}
 	
-	private void findAllSubRoles(List<IdmRoleCompositionDto> results, List<IdmRoleCompositionDto> parents, UUID superiorId, BasePermission... permission) {
-		IdmRoleCompositionFilter filter = new IdmRoleCompositionFilter();
-		filter.setSuperiorId(superiorId);
-		//
-		find(filter, null, permission)
+	/**
+	 * 
+	 * @param results found sub roles
+	 * @param parents processed superior compositions in line => used for prevent cycles
+	 * @param superiorId currently processed superior role
+	 * @param subRoles direct sub roles loader
+	 */
+	private void findAllSubRoles(
+			List<IdmRoleCompositionDto> results,
+			List<IdmRoleCompositionDto> parents,
+			UUID superiorId,
+			Function<UUID, List<IdmRoleCompositionDto>> subRoles) {
+		subRoles
+			.apply(superiorId)
 			.stream()
 			.filter(subRole -> !subRole.getSuperior().equals(subRole.getSub())) // cyclic composition in the first level is ignored
 			.forEach(subRole -> {
@@ -368,12 +552,64 @@ public class DefaultIdmRoleCompositionService
 					//
 					IdmRoleDto subRoleDto = DtoUtils.getEmbedded(subRole, IdmRoleComposition_.sub);
 					if (subRoleDto.getChildrenCount() > 0) {
-						findAllSubRoles(results, lineParents, subRole.getSub(), permission);
+						findAllSubRoles(results, lineParents, subRole.getSub(), subRoles);
 					}
 				}				
 			});
 	}
 	
+	/**
+	 * Lock given superior roles in the current transaction. Roles are locked in the same order (by id) to prevent deadlocks
+	 * of concurrently saved compositions.
+	 * 
+	 * @param superiorIds superior roles
+	 * @return distinct superior roles ordered by id
+	 */
+	private List<UUID> lockSuperiors(Collection<UUID> superiorIds) {
+		List<UUID> superiors = new ArrayList<>(new TreeSet<>(superiorIds));
+		Lists
+			.partition(superiors, FilterManager.DEFAULT_CHECK_FILTER_SIZE_MAXIMUM)
+			.forEach(closureRepository::lockSuperiors);
+		//
+		return superiors;
+	}
+	
+	/**
+	 * Materialized transitive closure of role composition is valid.
+	 * 
+	 * @return true - closure can be used
+	 */
+	private boolean isClosureValid() {
+		return configurationService.getBooleanValue(PROPERTY_CLOSURE_VALID, false);
+	}
+	
+	/**
+	 * Recount closure of superior roles affected by changed composition (given superior and all its superiors)
+	 * and evict cached sub roles of affected superior roles and conflict matrix of incompatible roles.
+	 * 
+	 * @param superiorIds superior roles of changed composition
+	 */
+	private void updateClosure(UUID... superiorIds) {
+		Set<UUID> affectedSuperiorIds = new HashSet<>();
+		for (UUID superiorId : superiorIds) {
+			if (superiorId != null) {
+				affectedSuperiorIds.add(superiorId);
+				affectedSuperiorIds.addAll(closureRepository.findSuperiorIds(superiorId));
+			}
+		}
+		recountClosure(affectedSuperiorIds);
+		//
+		if (isClosureValid()) {
+			affectedSuperiorIds.forEach(superiorId -> cacheManager.evictValue(ALL_SUB_ROLES_CACHE_NAME, superiorId));
+		} else {
+			// affected superior roles cannot be resolved without closure
+			cacheManager.evictCache(ALL_SUB_ROLES_CACHE_NAME);
+		}
+		// conflict matrix of incompatible roles holds expanded sub roles
+		cacheManager.evictCache(IdmIncompatibleRoleService.INDEX_CACHE_NAME);
+		entityEventManager.publishEvent(new IncompatibleRoleIndex.ChangedEvent());
+	}
+	
 	/**
 	 * Creates or reassign processed identity roles @Set of @UUID into event properties.
 	 * 
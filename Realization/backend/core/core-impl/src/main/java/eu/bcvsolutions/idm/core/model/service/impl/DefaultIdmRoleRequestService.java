@@ -961,15 +961,20 @@ public class DefaultIdmRoleRequestService
 				.forEach(identityRole -> roles.add(DtoUtils.getEmbedded(identityRole, AbstractRoleAssignment_.role)));
 
 		// We want to returns only incompatibilities caused by new added roles
+		Set<UUID> addedRoles = conceptsForCheck
+				.stream()
+				.filter(concept -> concept.getOperation() == ADD)
+				.map(AbstractConceptRoleRequestDto::getRole)
+				.collect(Collectors.toSet());
+		if (addedRoles.isEmpty()) {
+			return new HashSet<>();
+		}
 	 	Set<ResolvedIncompatibleRoleDto> incompatibleRoles = incompatibleRoleService.resolveIncompatibleRoles(Lists.newArrayList(roles));
 		return incompatibleRoles.stream() //
 			.filter(incompatibleRole -> {
-				return conceptsForCheck.stream() //
-					.anyMatch(concept -> concept.getOperation() == ADD
-						&& (concept.getRole().equals(incompatibleRole.getDirectRole().getId())
-								|| concept.getRole().equals(incompatibleRole.getIncompatibleRole().getSuperior())
-								|| concept.getRole().equals(incompatibleRole.getIncompatibleRole().getSub())
-							)); //
+				return addedRoles.contains(incompatibleRole.getDirectRole().getId())
+						|| addedRoles.contains(incompatibleRole.getIncompatibleRole().getSuperior())
+						|| addedRoles.contains(incompatibleRole.getIncompatibleRole().getSub());
 			}).collect(Collectors.toSet());
 	}
 
@@ -0,0 +1,150 @@
+package eu.bcvsolutions.idm.core.model.service.impl;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import org.springframework.util.Assert;
+
+/**
+ * Precomputed conflict matrix of incompatible roles (segregation of duties).
+ * Roles used in incompatible role definitions are indexed by position, incompatible roles of each role
+ * are held in bit set (both sides of definition => matrix is symmetric). Direct role is expanded to the set of
+ * positions of itself and all its sub roles - expanded roles are memoized until index is compiled again.
+ * Conflicts of given roles are resolved by bit set intersections.
+ *
+ * @since 13.1.0
+ */
+public class IncompatibleRoleIndex {
+
+	private final UUID version;
+	private final Map<UUID, Integer> positions = new HashMap<>();
+	private final List<BitSet> incompatibleRoles = new ArrayList<>();
+	private final Map<Long, List<UUID>> definitions = new HashMap<>();
+	private final Map<UUID, BitSet> expandedRoles = new ConcurrentHashMap<>();
+
+	public IncompatibleRoleIndex(UUID version) {
+		Assert.notNull(version, "Index version is required.");
+		//
+		this.version = version;
+	}
+
+	public UUID getVersion() {
+		return version;
+	}
+
+	/**
+	 * Index contains no incompatible roles.
+	 *
+	 * @return true - nothing can be resolved
+	 */
+	public boolean isEmpty() {
+		return definitions.isEmpty();
+	}
+
+	/**
+	 * Register incompatible role definition. Definitions with the same superior and sub role are ignored.
+	 *
+	 * @param definitionId incompatible role definition
+	 * @param superiorId superior role
+	 * @param subId sub role
+	 */
+	public void addDefinition(UUID definitionId, UUID superiorId, UUID subId) {
+		Assert.notNull(definitionId, "Definition identifier is required.");
+		Assert.notNull(superiorId, "Superior role identifier is required.");
+		Assert.notNull(subId, "Sub role identifier is required.");
+		//
+		if (superiorId.equals(subId)) {
+			return;
+		}
+		int superior = position(superiorId);
+		int sub = position(subId);
+		incompatibleRoles.get(superior).set(sub);
+		incompatibleRoles.get(sub).set(superior);
+		definitions.computeIfAbsent(toKey(superior, sub), key -> new ArrayList<>(1)).add(definitionId);
+	}
+
+	/**
+	 * Indexed roles (positions) of given direct role - direct role and all its sub roles.
+	 * Roles without incompatible role definition are not indexed => the empty set is returned, if direct role or
+	 * its sub roles are not incompatible with any other role.
+	 *
+	 * @param roleId direct role
+	 * @param subRoles loads all sub roles of given direct role - called once for each role in this index version
+	 * @return positions of indexed roles
+	 */
+	public BitSet getExpandedRoles(UUID roleId, Function<UUID, Collection<UUID>> subRoles) {
+		Assert.notNull(roleId, "Role identifier is required.");
+		//
+		return expandedRoles.computeIfAbsent(roleId, directRoleId -> {
+			BitSet roles = new BitSet();
+			Integer position = positions.get(directRoleId);
+			if (position != null) {
+				roles.set(position);
+			}
+			for (UUID subRoleId : subRoles.apply(directRoleId)) {
+				position = positions.get(subRoleId);
+				if (position != null) {
+					roles.set(position);
+				}
+			}
+			return roles;
+		});
+	}
+
+	/**
+	 * Resolve incompatible role definitions, which have both sides in given roles.
+	 *
+	 * @param directRoles expanded direct roles (see {@link #getExpandedRoles(UUID, Function)})
+	 * @return incompatible role definitions by direct role, which is (or contains sub role, which is) one side of definition
+	 */
+	public Map<UUID, Set<UUID>> resolve(Map<UUID, BitSet> directRoles) {
+		if (isEmpty() || directRoles.isEmpty()) {
+			return Collections.emptyMap();
+		}
+		BitSet allRoles = new BitSet();
+		directRoles.values().forEach(allRoles::or);
+		//
+		Map<UUID, Set<UUID>> results = new LinkedHashMap<>();
+		directRoles.forEach((directRoleId, roles) -> {
+			for (int role = roles.nextSetBit(0); role >= 0; role = roles.nextSetBit(role + 1)) {
+				BitSet conflicts = (BitSet) incompatibleRoles.get(role).clone();
+				conflicts.and(allRoles);
+				for (int conflict = conflicts.nextSetBit(0); conflict >= 0; conflict = conflicts.nextSetBit(conflict + 1)) {
+					results
+						.computeIfAbsent(directRoleId, key -> new LinkedHashSet<>())
+						.addAll(definitions.get(toKey(role, conflict)));
+				}
+			}
+		});
+		//
+		return results;
+	}
+
+	private int position(UUID roleId) {
+		return positions.computeIfAbsent(roleId, key -> {
+			incompatibleRoles.add(new BitSet());
+			return incompatibleRoles.size() - 1;
+		});
+	}
+
+	private static long toKey(int one, int two) {
+		return ((long) Math.min(one, two) << 32) | Math.max(one, two);
+	}
+
+	/**
+	 * Incompatible roles or role composition were changed - published in transaction, index is evicted when transaction is completed.
+	 */
+	public static class ChangedEvent {
+	}
+}
@@ -1,12 +1,16 @@
 package eu.bcvsolutions.idm.core.notification.service.impl;
 
 import java.io.IOException;
+import java.io.StringReader;
 import java.io.StringWriter;
+import java.time.ZonedDateTime;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Objects;
+import java.util.UUID;
 import java.util.stream.Collectors;
 
 import javax.persistence.criteria.CriteriaBuilder;
@@ -16,9 +20,12 @@ import javax.persistence.criteria.Root;
 
 import org.apache.commons.lang3.ArrayUtils;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.velocity.Template;
 import org.apache.velocity.VelocityContext;
-import org.apache.velocity.app.VelocityEngine;
+import org.apache.velocity.exception.ParseErrorException;
 import org.apache.velocity.runtime.RuntimeConstants;
+import org.apache.velocity.runtime.RuntimeInstance;
+import org.apache.velocity.runtime.parser.ParseException;
 import org.apache.velocity.tools.generic.DateTool;
 import org.apache.velocity.tools.generic.DisplayTool;
 import org.dom4j.CDATA;
@@ -32,11 +39,14 @@ import org.springframework.util.Assert;
 
 import com.google.common.collect.ImmutableMap;
 
+import eu.bcvsolutions.idm.core.CoreModuleDescriptor;
+import eu.bcvsolutions.idm.core.api.config.cache.domain.ValueWrapper;
 import eu.bcvsolutions.idm.core.api.domain.CoreResultCode;
 import eu.bcvsolutions.idm.core.api.exception.ResultCodeException;
 import eu.bcvsolutions.idm.core.api.service.AbstractRecoverableService;
 import eu.bcvsolutions.idm.core.api.service.ConfigurationService;
 import eu.bcvsolutions.idm.core.api.service.EntityEventManager;
+import eu.bcvsolutions.idm.core.api.service.IdmCacheManager;
 import eu.bcvsolutions.idm.core.api.utils.DtoUtils;
 import eu.bcvsolutions.idm.core.notification.api.domain.NotificationLevel;
 import eu.bcvsolutions.idm.core.notification.api.dto.IdmMessageDto;
@@ -73,6 +83,12 @@ public class DefaultIdmNotificationTemplateService
 		implements IdmNotificationTemplateService {
 
 	private static final org.slf4j.Logger LOG = org.slf4j.LoggerFactory.getLogger(DefaultIdmNotificationTemplateService.class);
+	/**
+	 * Compiled templates (html, text, subject) by template id - local only cache, compiled velocity templates are not serializable.
+	 * 
+	 * @since 13.1.0
+	 */
+	public static final String TEMPLATE_CACHE_NAME = IdmCacheManager.getCacheName(CoreModuleDescriptor.MODULE_ID, "notification-template-cache");
 	//
 	// TODO: script + common template configuration
 	private static final String TEMPLATE_FILE_SUFIX = "idm.sec.core.notification.template.fileSuffix";
@@ -80,11 +96,12 @@ public class DefaultIdmNotificationTemplateService
 	private static final String DEFAULT_TEMPLATE_FILE_SUFIX = "**/**.xml";
 	//
 	private final IdmNotificationTemplateRepository repository;
-	private final VelocityEngine velocityEngine;
+	private final RuntimeInstance velocityEngine;
 	private IdmNotificationConfigurationService notificationConfigurationService;
 	//
 	@Autowired private ApplicationContext applicationContext;
 	@Autowired private ConfigurationService configurationService;
+	@Autowired private IdmCacheManager cacheManager;
 	
 	@Autowired
 	public DefaultIdmNotificationTemplateService(IdmNotificationTemplateRepository repository, EntityEventManager entityEventManager) {
@@ -92,9 +109,10 @@ public class DefaultIdmNotificationTemplateService
 		//
 		this.repository = repository;
 		//
-		VelocityEngine velocityEngine = new VelocityEngine();
+		// runtime instance is used directly (instead of VelocityEngine facade) - templates are compiled by runtime services
+		RuntimeInstance velocityEngine = new RuntimeInstance();
 		// Initialization apache velocity
-		velocityEngine.setProperty(VelocityEngine.RUNTIME_LOG_LOGSYSTEM_CLASS, LOG);
+		velocityEngine.setProperty(RuntimeConstants.RUNTIME_LOG_LOGSYSTEM_CLASS, LOG);
 		velocityEngine.setProperty(RuntimeConstants.VM_PERM_ALLOW_INLINE_REPLACE_GLOBAL, Boolean.TRUE);
 		velocityEngine.init();
 		this.velocityEngine = velocityEngine;
@@ -123,6 +141,24 @@ public class DefaultIdmNotificationTemplateService
 		return toDto(repository.findOneByCode(code));
 	}
 
+	@Override
+	@Transactional
+	public IdmNotificationTemplateDto saveInternal(IdmNotificationTemplateDto dto) {
+		IdmNotificationTemplateDto template = super.saveInternal(dto);
+		// compiled template is evicted (~ redeploy, save)
+		cacheManager.evictValue(TEMPLATE_CACHE_NAME, template.getId());
+		//
+		return template;
+	}
+	
+	@Override
+	@Transactional
+	public void deleteInternal(IdmNotificationTemplateDto dto) {
+		super.deleteInternal(dto);
+		//
+		cacheManager.evictValue(TEMPLATE_CACHE_NAME, dto.getId());
+	}
+	
 	@Override
 	@Transactional
 	public void delete(IdmNotificationTemplateDto entity, BasePermission... permission) {
@@ -164,14 +200,48 @@ public class DefaultIdmNotificationTemplateService
 
 	@Override
 	public IdmMessageDto buildMessage(IdmMessageDto message, boolean showGuardedString) {
-		StringWriter bodyHtml = new StringWriter();
-		StringWriter bodyText = new StringWriter();
-		StringWriter subject = new StringWriter();
 		IdmNotificationTemplateDto template = message.getTemplate() == null ? null : get(message.getTemplate().getId());
 		//
 		if (template == null) {
 			return message;
 		}
+		return buildMessage(message, template, showGuardedString);
+	}
+	
+	@Override
+	public List<IdmMessageDto> buildMessages(List<IdmMessageDto> messages, boolean showGuardedString) {
+		Assert.notNull(messages, "Messages are required.");
+		// each template is loaded once
+		Map<UUID, IdmNotificationTemplateDto> templates = new HashMap<>();
+		//
+		return messages
+				.stream()
+				.map(message -> {
+					if (message.getTemplate() == null) {
+						return message;
+					}
+					IdmNotificationTemplateDto template = templates.computeIfAbsent(message.getTemplate().getId(), this::get);
+					if (template == null) {
+						return message;
+					}
+					return buildMessage(message, template, showGuardedString);
+				})
+				.collect(Collectors.toList());
+	}
+	
+	/**
+	 * Build message by given loaded template.
+	 * 
+	 * @param message message with parameters
+	 * @param template loaded template
+	 * @param showGuardedString show or hide guarded string parameters
+	 * @return built message
+	 */
+	private IdmMessageDto buildMessage(IdmMessageDto message, IdmNotificationTemplateDto template, boolean showGuardedString) {
+		StringWriter bodyHtml = new StringWriter();
+		StringWriter bodyText = new StringWriter();
+		StringWriter subject = new StringWriter();
+		CompiledTemplate compiledTemplate = getCompiledTemplate(template);
 		// get parameters from messages
 		Map<String, Object> model = message.getParameters();
 		//
@@ -190,10 +260,6 @@ public class DefaultIdmNotificationTemplateService
 				}
 			}
 		}
-		// prepare html, text, subject
-		String html = template.getBodyHtml();
-		String text = template.getBodyText();
-		String subjectString = template.getSubject();
 		// Same parameters for all (html, txt, subject)
 		VelocityContext velocityContext = getContext(parameters);
 		// include some tools from Apache velocity -
@@ -202,15 +268,19 @@ public class DefaultIdmNotificationTemplateService
 		velocityContext.put("date", new DateTool());
 		//
 		// html and text may not exists, evaluate only if exists
-		if (html != null) {
-			velocityEngine.evaluate(velocityContext, bodyHtml, template.getCode(), html);
+		if (compiledTemplate.getBodyHtml() != null) {
+			compiledTemplate.getBodyHtml().merge(velocityContext, bodyHtml);
 		}
 		//
-		if (text != null) {
-			velocityEngine.evaluate(velocityContext, bodyText, template.getCode(), text);
+		if (compiledTemplate.getBodyText() != null) {
+			compiledTemplate.getBodyText().merge(velocityContext, bodyText);
 		}
 		// subject must exists
-		velocityEngine.evaluate(velocityContext, subject, template.getCode(), subjectString);
+		String subjectString = null;
+		if (compiledTemplate.getSubject() != null) {
+			compiledTemplate.getSubject().merge(velocityContext, subject);
+			subjectString = subject.toString();
+		}
 		//
 		IdmMessageDto newMessage;
 		// if is set model from message build with them
@@ -219,7 +289,7 @@ public class DefaultIdmNotificationTemplateService
 					.Builder()
 					.setHtmlMessage(bodyHtml.toString())
 					.setTextMessage(bodyText.toString())
-					.setSubject(StringUtils.isNotEmpty(subject.toString()) ? subject.toString() : message.getModel().getStatusEnum())
+					.setSubject(StringUtils.isNotEmpty(subjectString) ? subjectString : message.getModel().getStatusEnum())
 					.setLevel(message.getLevel()) // level get from old message
 					.setTemplate(template)
 					.setParameters(model)
@@ -230,7 +300,7 @@ public class DefaultIdmNotificationTemplateService
 					.Builder()
 					.setHtmlMessage(bodyHtml.toString())
 					.setTextMessage(bodyText.toString())
-					.setSubject(subject.toString())
+					.setSubject(subjectString)
 					.setLevel(message.getLevel()) // level
 					.setTemplate(template)
 					.setParameters(model)
@@ -240,6 +310,55 @@ public class DefaultIdmNotificationTemplateService
 		return newMessage;
 	}
 
+	/**
+	 * Compiled template - template is compiled once and cached by template id and modified date.
+	 * 
+	 * @param template loaded template
+	 * @return compiled html, text and subject
+	 */
+	private CompiledTemplate getCompiledTemplate(IdmNotificationTemplateDto template) {
+		ValueWrapper value = cacheManager.getValue(TEMPLATE_CACHE_NAME, template.getId());
+		if (value != null) {
+			CompiledTemplate compiledTemplate = (CompiledTemplate) value.get();
+			if (compiledTemplate != null && Objects.equals(compiledTemplate.getModified(), template.getModified())) {
+				return compiledTemplate;
+			}
+		}
+		// template was changed (e.g. on other cluster node) or not compiled yet
+		CompiledTemplate compiledTemplate = new CompiledTemplate(
+				template.getModified(),
+				compileTemplate(template.getCode(), template.getBodyHtml()),
+				compileTemplate(template.getCode(), template.getBodyText()),
+				compileTemplate(template.getCode(), template.getSubject()));
+		cacheManager.cacheValue(TEMPLATE_CACHE_NAME, template.getId(), compiledTemplate);
+		//
+		return compiledTemplate;
+	}
+	
+	/**
+	 * Parse and init velocity template.
+	 * 
+	 * @param name template name (~ code) - used in log
+	 * @param source template source
+	 * @return compiled template, {@code null} if source is {@code null}
+	 */
+	private Template compileTemplate(String name, String source) {
+		if (source == null) {
+			return null;
+		}
+		try {
+			Template template = new Template();
+			template.setName(name);
+			template.setRuntimeServices(velocityEngine);
+			template.setData(velocityEngine.parse(new StringReader(source), name));
+			template.initDocument();
+			//
+			return template;
+		} catch (ParseException ex) {
+			throw new ParseErrorException(ex, name);
+		}
+	}
+	
 	@Override
 	public IdmMessageDto buildMessage(IdmMessageDto message) {
 		if (message.getTemplate() == null) {
@@ -318,6 +437,8 @@ public class DefaultIdmNotificationTemplateService
 		// 3. Priority - Get message from configuration by topic
 		//
 		// html, text and subject is not empty use them
+		List<NotificationConfigurationDto> notificationConfigurations = new ArrayList<>();
+		List<List<IdmNotificationRecipientDto>> notificationRecipients = new ArrayList<>(); // recipients defined in configuration
 		for (NotificationConfigurationDto configuration : configurations) {
 			if (configuration.isDisabled()) {
 				LOG.debug("Configuration [{}] for topic [{}], level [{}], type [{}] is disabled. "
@@ -328,15 +449,15 @@ public class DefaultIdmNotificationTemplateService
 			//			
 			// sending notification to original recipients 
 			if (!configuration.isRedirect()) {
-				notifications.add(createFinalMessage(message, configuration));
+				notificationConfigurations.add(configuration);
+				notificationRecipients.add(null);
 			}
 			//
 			// sending notification to recipients defined in configuration
 			List<IdmNotificationRecipientDto> recipients = getNotificationConfigurationService().getRecipients(configuration);
 			if (!recipients.isEmpty()) {
-				IdmNotificationLogDto notification = createFinalMessage(message, configuration);
-				notification.setRecipients(recipients);
-				notifications.add(notification);
+				notificationConfigurations.add(configuration);
+				notificationRecipients.add(recipients);
 			} else if (configuration.isRedirect()) {
 				// redirect and no recipient is configured => exception
 				// just for sure - validation, when configuration is saved, should solve it before => we don't want to fail some operation just because notification is not sent.
@@ -344,21 +465,46 @@ public class DefaultIdmNotificationTemplateService
 			}
 		}
 		//
+		// the same template is usually used for more notifications - all messages are built together
+		List<IdmMessageDto> finalMessages = buildMessages(
+				notificationConfigurations
+					.stream()
+					.map(configuration -> prepareFinalMessage(message, configuration))
+					.collect(Collectors.toList()),
+				false);
+		for (int index = 0; index < notificationConfigurations.size(); index++) {
+			IdmNotificationLogDto notification = createFinalMessage(message, finalMessages.get(index), notificationConfigurations.get(index));
+			List<IdmNotificationRecipientDto> recipients = notificationRecipients.get(index);
+			if (recipients != null) {
+				notification.setRecipients(recipients);
+			}
+			notifications.add(notification);
+		}
+		//
 		return notifications;
 	}
 	
-	private IdmNotificationLogDto createFinalMessage(IdmMessageDto message, NotificationConfigurationDto configuration) {
-		IdmMessageDto finalMessage = null;
+	/**
+	 * Message with template used for notification by given configuration - template from message has higher priority.
+	 * 
+	 * @param message original message
+	 * @param configuration notification configuration
+	 * @return message to build
+	 */
+	private IdmMessageDto prepareFinalMessage(IdmMessageDto message, NotificationConfigurationDto configuration) {
 		if (message.getTemplate() != null) {
 			// exist template in message
-			finalMessage = this.buildMessage(message, false);
-		} else if (configuration.getTemplate() != null) {	
-			finalMessage = new IdmMessageDto(message);
+			return message;
+		}
+		if (configuration.getTemplate() != null) {
+			IdmMessageDto finalMessage = new IdmMessageDto(message);
 			finalMessage.setTemplate(DtoUtils.getEmbedded(configuration, IdmNotificationConfiguration_.template, IdmNotificationTemplateDto.class));
-			finalMessage = this.buildMessage(finalMessage, false);
-		} else {
-			finalMessage = message;
+			return finalMessage;
 		}
+		return message;
+	}
+	
+	private IdmNotificationLogDto createFinalMessage(IdmMessageDto message, IdmMessageDto finalMessage, NotificationConfigurationDto configuration) {
 		if (!StringUtils.isEmpty(message.getSubject())) {
 			finalMessage.setSubject(message.getSubject());
 		}
@@ -494,4 +640,40 @@ public class DefaultIdmNotificationTemplateService
 		}
 		return notificationConfigurationService;
 	}
+	
+	/**
+	 * Compiled template - html, text and subject. Compiled velocity templates are thread safe.
+	 * 
+	 * @since 13.1.0
+	 */
+	private static class CompiledTemplate {
+		
+		private final ZonedDateTime modified;
+		private final Template bodyHtml;
+		private final Template bodyText;
+		private final Template subject;
+		
+		public CompiledTemplate(ZonedDateTime modified, Template bodyHtml, Template bodyText, Template subject) {
+			this.modified = modified;
+			this.bodyHtml = bodyHtml;
+			this.bodyText = bodyText;
+			this.subject = subject;
+		}
+		
+		public ZonedDateTime getModified() {
+			return modified;
+		}
+		
+		public Template getBodyHtml() {
+			return bodyHtml;
+		}
+		
+		public Template getBodyText() {
+			return bodyText;
+		}
+		
+		public Template getSubject() {
+			return subject;
+		}
+	}
 }
@@ -1,5 +1,6 @@
 package eu.bcvsolutions.idm.core.scheduler.repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -34,7 +35,31 @@ public interface IdmProcessedTaskItemRepository extends AbstractEntityRepository
 			+ " and e.referencedEntityId = :referencedEntityId")
 	void deleteItem(@Param("scheduledTaskId") UUID scheduledTaskId, @Param("referencedEntityId") UUID referencedEntityId);
 	
+	/**
+	 * Delete items by shceduled task and entity identifiers.
+	 * 
+	 * @param scheduledTaskId scheduled task
+	 * @param referencedEntityIds entity identifiers
+	 * @since 13.1.0
+	 */
+	@Modifying
+	@Query("delete from #{#entityName} e where e.scheduledTaskQueueOwner.id = :scheduledTaskId"
+			+ " and e.referencedEntityId in (:referencedEntityIds)")
+	void deleteItems(@Param("scheduledTaskId") UUID scheduledTaskId, @Param("referencedEntityIds") Collection<UUID> referencedEntityIds);
+	
 	@Query("select e.referencedEntityId from #{#entityName} e where e.scheduledTaskQueueOwner.id = :stId")
 	List<UUID> findAllRefEntityIdsByScheduledTaskId(@Param("stId") UUID id);
+	
+	/**
+	 * Referenced entity identifiers in queue of given scheduled task - given entity identifiers are checked only.
+	 * 
+	 * @param id scheduled task
+	 * @param referencedEntityIds checked entity identifiers
+	 * @return entity identifiers in queue
+	 * @since 13.1.0
+	 */
+	@Query("select e.referencedEntityId from #{#entityName} e where e.scheduledTaskQueueOwner.id = :stId"
+			+ " and e.referencedEntityId in (:referencedEntityIds)")
+	List<UUID> findRefEntityIdsByScheduledTaskId(@Param("stId") UUID id, @Param("referencedEntityIds") Collection<UUID> referencedEntityIds);
 
 }
@@ -1,6 +1,9 @@
 package eu.bcvsolutions.idm.core.scheduler.service.impl;
 
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 import javax.persistence.criteria.CriteriaBuilder;
@@ -17,10 +20,13 @@ import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.Assert;
 
+import com.google.common.collect.Lists;
+
 import eu.bcvsolutions.idm.core.api.dto.AbstractDto;
 import eu.bcvsolutions.idm.core.api.entity.OperationResult;
 import eu.bcvsolutions.idm.core.api.entity.OperationResult_;
 import eu.bcvsolutions.idm.core.api.exception.CoreException;
+import eu.bcvsolutions.idm.core.api.repository.filter.FilterManager;
 import eu.bcvsolutions.idm.core.api.service.AbstractReadWriteDtoService;
 import eu.bcvsolutions.idm.core.model.domain.CoreGroupPermission;
 import eu.bcvsolutions.idm.core.model.repository.filter.MonitoringIgnorableFilterBuilder;
@@ -159,6 +165,17 @@ public class DefaultIdmProcessedTaskItemService
 		repository.deleteItem(scheduledTaskId, referencedEntityId);
 	}
 	
+	@Override
+	@Transactional
+	public void deleteItems(UUID scheduledTaskId, Collection<UUID> referencedEntityIds) {
+		Assert.notNull(scheduledTaskId, "Scheduled task identifier is required.");
+		Assert.notNull(referencedEntityIds, "Referenced entity identifiers are required.");
+		//
+		for (List<UUID> partition : Lists.partition(Lists.newArrayList(referencedEntityIds), FilterManager.DEFAULT_CHECK_FILTER_SIZE_MAXIMUM)) {
+			repository.deleteItems(scheduledTaskId, partition);
+		}
+	}
+	
 	@Override
 	@Transactional(readOnly = true)
 	public List<UUID> findAllRefEntityIdsInQueueByScheduledTaskId(UUID scheduledTaskId) {
@@ -166,6 +183,19 @@ public class DefaultIdmProcessedTaskItemService
 		//
 		return repository.findAllRefEntityIdsByScheduledTaskId(scheduledTaskId);
 	}
+	
+	@Override
+	@Transactional(readOnly = true)
+	public Set<UUID> findRefEntityIdsInQueue(UUID scheduledTaskId, Collection<UUID> referencedEntityIds) {
+		Assert.notNull(scheduledTaskId, "Scheduled task identifier is required.");
+		Assert.notNull(referencedEntityIds, "Referenced entity identifiers are required.");
+		//
+		Set<UUID> results = new HashSet<>();
+		for (List<UUID> partition : Lists.partition(Lists.newArrayList(referencedEntityIds), FilterManager.DEFAULT_CHECK_FILTER_SIZE_MAXIMUM)) {
+			results.addAll(repository.findRefEntityIdsByScheduledTaskId(scheduledTaskId, partition));
+		}
+		return results;
+	}
 
 	@Override
 	@Transactional(readOnly = true)
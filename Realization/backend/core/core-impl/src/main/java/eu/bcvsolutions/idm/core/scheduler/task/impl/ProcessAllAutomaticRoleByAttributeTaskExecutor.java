@@ -1,8 +1,15 @@
 package eu.bcvsolutions.idm.core.scheduler.task.impl;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.quartz.DisallowConcurrentExecution;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -10,9 +17,15 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.domain.Sort.Direction;
+import org.springframework.security.concurrent.DelegatingSecurityContextCallable;
 import org.springframework.stereotype.Component;
 
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
 import eu.bcvsolutions.idm.core.api.domain.ConceptRoleRequestOperation;
+import eu.bcvsolutions.idm.core.api.domain.TransactionContext;
+import eu.bcvsolutions.idm.core.api.domain.TransactionContextHolder;
 import eu.bcvsolutions.idm.core.api.dto.AbstractConceptRoleRequestDto;
 import eu.bcvsolutions.idm.core.api.dto.ApplicantImplDto;
 import eu.bcvsolutions.idm.core.api.dto.IdmAutomaticRoleAttributeDto;
@@ -23,15 +36,20 @@ import eu.bcvsolutions.idm.core.api.dto.IdmIdentityRoleDto;
 import eu.bcvsolutions.idm.core.api.dto.IdmRoleRequestDto;
 import eu.bcvsolutions.idm.core.api.dto.filter.IdmIdentityRoleFilter;
 import eu.bcvsolutions.idm.core.api.entity.AbstractEntity_;
+import eu.bcvsolutions.idm.core.api.exception.CoreException;
 import eu.bcvsolutions.idm.core.api.service.IdmAutomaticRoleAttributeService;
 import eu.bcvsolutions.idm.core.api.service.IdmIdentityContractService;
 import eu.bcvsolutions.idm.core.api.service.IdmIdentityRoleService;
 import eu.bcvsolutions.idm.core.api.service.IdmRoleRequestService;
 import eu.bcvsolutions.idm.core.api.utils.DtoUtils;
+import eu.bcvsolutions.idm.core.eav.api.domain.BaseFaceType;
+import eu.bcvsolutions.idm.core.eav.api.domain.PersistentType;
+import eu.bcvsolutions.idm.core.eav.api.dto.IdmFormAttributeDto;
 import eu.bcvsolutions.idm.core.model.entity.IdmIdentityRole_;
 import eu.bcvsolutions.idm.core.model.event.RoleRequestEvent;
 import eu.bcvsolutions.idm.core.model.event.RoleRequestEvent.RoleRequestEventType;
 import eu.bcvsolutions.idm.core.scheduler.api.service.AbstractSchedulableTaskExecutor;
+import eu.bcvsolutions.idm.core.scheduler.api.service.SchedulableStatefulExecutor;
 
 /**
  * Recalculate all automatic role by attribute for all contracts.
@@ -45,6 +63,12 @@ import eu.bcvsolutions.idm.core.scheduler.api.service.AbstractSchedulableTaskExe
  * <br />
  * 
  * TODO: after some big refactoring can be processed all concept in one request.
+ * <br />
+ * <br />
+ * Bulk mode can be configured ({@link #PARAMETER_BULK}) - newly passed contracts and assigned roles to remove are loaded
+ * by one query for each automatic role, concepts are grouped by identity (one role request for identity and automatic role)
+ * and chunks of identities are processed by configured count of workers ({@link SchedulableStatefulExecutor#PARAMETER_WORKERS})
+ * in parallel. Task progress is counted by processed automatic roles (as without bulk mode), task state is updated after each chunk.
  *
  * @author Ondrej Kopr
  * @author Radek Tomiška
@@ -55,6 +79,9 @@ public class ProcessAllAutomaticRoleByAttributeTaskExecutor extends AbstractSche
 
 	public static final String TASK_NAME = "core-process-all-automatic-role-attribute-long-running-task";
 	private static final int DEFAULT_PAGE_SIZE_ROLE = 10;
+	public static final String PARAMETER_BULK = "bulk"; // @since 13.1.0
+	public static final int DEFAULT_WORKERS = 1; // @since 13.1.0
+	public static final int DEFAULT_CHUNK_SIZE = 100; // count of identities in one chunk @since 13.1.0
 
 	@Autowired
 	private IdmAutomaticRoleAttributeService automaticRoleAttributeService;
@@ -64,14 +91,62 @@ public class ProcessAllAutomaticRoleByAttributeTaskExecutor extends AbstractSche
 	private IdmIdentityRoleService identityRoleService;
 	@Autowired
 	private IdmRoleRequestService roleRequestService;
+	//
+	private boolean bulk = false; // @since 13.1.0
+	private int workers = DEFAULT_WORKERS; // @since 13.1.0
 	
 	@Override
 	public String getName() {
 		return TASK_NAME;
 	}
 	
+	@Override
+	public void init(Map<String, Object> properties) {
+		super.init(properties);
+		//
+		bulk = getParameterConverter().toBoolean(properties, PARAMETER_BULK, false);
+		Long givenWorkers = getParameterConverter().toLong(properties, SchedulableStatefulExecutor.PARAMETER_WORKERS);
+		workers = givenWorkers == null || givenWorkers < 1 ? DEFAULT_WORKERS : Math.toIntExact(givenWorkers);
+	}
+	
+	@Override
+	public List<String> getPropertyNames() {
+		List<String> parameters = super.getPropertyNames();
+		parameters.add(PARAMETER_BULK);
+		parameters.add(SchedulableStatefulExecutor.PARAMETER_WORKERS);
+		return parameters;
+	}
+	
+	@Override
+	public Map<String, Object> getProperties() {
+		Map<String, Object> properties = super.getProperties();
+		properties.put(PARAMETER_BULK, bulk);
+		properties.put(SchedulableStatefulExecutor.PARAMETER_WORKERS, workers);
+		return properties;
+	}
+	
+	@Override
+	public List<IdmFormAttributeDto> getFormAttributes() {
+		IdmFormAttributeDto bulk = new IdmFormAttributeDto(
+				PARAMETER_BULK,
+				PARAMETER_BULK, 
+				PersistentType.BOOLEAN);
+		bulk.setFaceType(BaseFaceType.BOOLEAN_SELECT);
+		bulk.setDefaultValue(Boolean.FALSE.toString());
+		IdmFormAttributeDto workers = new IdmFormAttributeDto(
+				SchedulableStatefulExecutor.PARAMETER_WORKERS,
+				SchedulableStatefulExecutor.PARAMETER_WORKERS, 
+				PersistentType.LONG);
+		workers.setDefaultValue(String.valueOf(DEFAULT_WORKERS));
+		//
+		return Lists.newArrayList(bulk, workers);
+	}
+	
 	@Override
 	public Boolean process() {
+		if (bulk) {
+			return processInBulk();
+		}
 		// found all IdmAutomaticRoleAttributeDto for process
 		Page<IdmAutomaticRoleAttributeDto> toProcessOthers = automaticRoleAttributeService.findAllToProcess(
 				null, 
@@ -186,6 +261,199 @@ public class ProcessAllAutomaticRoleByAttributeTaskExecutor extends AbstractSche
     	}
 	}
 	
+	/**
+	 * Process all automatic roles in bulk mode - automatic roles are processed one by one, 
+	 * concepts of one automatic role are processed in chunks by workers in parallel. Progress is reported by processed automatic roles.
+	 * 
+	 * @return true - processed
+	 */
+	private Boolean processInBulk() {
+		AtomicBoolean canContinue = new AtomicBoolean(true);
+		TransactionContext transactionContext = TransactionContextHolder.getContext();
+		ExecutorService executor = Executors.newFixedThreadPool(
+				workers,
+				new ThreadFactoryBuilder().setNameFormat("automatic-role-attribute-worker-%d").setDaemon(true).build());
+		try {
+			Page<IdmAutomaticRoleAttributeDto> automaticRoles = automaticRoleAttributeService.findAllToProcess(
+					null, 
+					PageRequest.of(
+							0, 
+							DEFAULT_PAGE_SIZE_ROLE,
+							Sort.by(Direction.ASC, AbstractEntity_.id.getName())
+					)
+			);
+			this.counter = 0L;
+			this.count = automaticRoles.getTotalElements();
+			//
+			while (automaticRoles.hasContent()) {
+				for (IdmAutomaticRoleAttributeDto automaticRole : automaticRoles) {
+					processAutomaticRoleInBulk(automaticRole, executor, transactionContext, canContinue);
+					if (!canContinue.get()) {
+						break;
+					}
+					counter++;
+					if (!updateState()) {
+						canContinue.set(false);
+						break;
+					}
+				}
+				if (!canContinue.get() || !automaticRoles.hasNext()) {
+					break;
+				}
+				automaticRoles = automaticRoleAttributeService.findAllToProcess(null, automaticRoles.nextPageable());
+			}
+		} catch (InterruptedException ex) {
+			canContinue.set(false);
+			executor.shutdownNow();
+			Thread.currentThread().interrupt();
+		} finally {
+			executor.shutdown();
+		}
+		//
+		return Boolean.TRUE;
+	}
+	
+	/**
+	 * Newly passed contracts and assigned roles to remove are loaded by one query. Concepts are grouped by identity 
+	 * => one role request is created for each identity. Chunks of identities are processed by workers in parallel,
+	 * task state is updated (canceled task is checked) after each processed chunk.
+	 * 
+	 * @param automaticRole processed automatic role
+	 * @param executor workers
+	 * @param transactionContext propagated transaction context
+	 * @param canContinue false - task was canceled or failed
+	 * @throws InterruptedException task was interrupted
+	 */
+	private void processAutomaticRoleInBulk(
+			IdmAutomaticRoleAttributeDto automaticRole,
+			ExecutorService executor,
+			TransactionContext transactionContext,
+			AtomicBoolean canContinue) throws InterruptedException {
+		UUID automaticRoleId = automaticRole.getId();
+		Map<UUID, List<AbstractConceptRoleRequestDto>> identityConcepts = new LinkedHashMap<>();
+		//
+		for (IdmIdentityContractDto contract : automaticRoleAttributeService.findContractsToAssign(automaticRoleId)) {
+			IdmConceptRoleRequestDto concept = new IdmConceptRoleRequestDto();
+			concept.setIdentityContract(contract.getId());
+			concept.setValidFrom(contract.getValidFrom());
+			concept.setValidTill(contract.getValidTill());
+			concept.setRole(automaticRole.getRole());
+			concept.setAutomaticRole(automaticRoleId);
+			concept.setOperation(ConceptRoleRequestOperation.ADD);
+			//
+			identityConcepts.computeIfAbsent(contract.getIdentity(), identityId -> new ArrayList<>()).add(concept);
+		}
+		for (IdmIdentityRoleDto identityRole : automaticRoleAttributeService.findIdentityRolesToRemove(automaticRoleId)) {
+			IdmIdentityContractDto contract = DtoUtils.getEmbedded(identityRole, IdmIdentityRole_.identityContract, IdmIdentityContractDto.class);
+			//
+			IdmConceptRoleRequestDto concept = new IdmConceptRoleRequestDto();
+			concept.setIdentityContract(contract.getId());
+			concept.setRole(automaticRole.getRole());
+			concept.setAutomaticRole(automaticRoleId);
+			concept.setIdentityRole(identityRole.getId());
+			concept.setOperation(ConceptRoleRequestOperation.REMOVE);
+			//
+			identityConcepts.computeIfAbsent(contract.getIdentity(), identityId -> new ArrayList<>()).add(concept);
+		}
+		//
+		List<Future<Integer>> futures = new ArrayList<>();
+		for (List<UUID> identities : Lists.partition(new ArrayList<>(identityConcepts.keySet()), DEFAULT_CHUNK_SIZE)) {
+			futures.add(executor.submit(new DelegatingSecurityContextCallable<>(() -> {
+				int processed = 0;
+				if (!canContinue.get()) {
+					// task was canceled or failed - the rest of chunks is skipped
+					return processed;
+				}
+				TransactionContextHolder.setContext(transactionContext);
+				try {
+					for (UUID identityId : identities) {
+						List<AbstractConceptRoleRequestDto> concepts = identityConcepts.get(identityId);
+						//
+						IdmRoleRequestDto roleRequest = new IdmRoleRequestDto();
+						roleRequest.setConceptRoles(concepts);
+						roleRequest.setApplicantInfo(new ApplicantImplDto(identityId, IdmIdentityDto.class.getCanonicalName()));
+						roleRequestService.startConcepts(new RoleRequestEvent(RoleRequestEventType.EXCECUTE, roleRequest), null);
+						//
+						processed += concepts.size();
+					}
+				} finally {
+					TransactionContextHolder.clearContext();
+				}
+				return processed;
+			})));
+		}
+		// the first failure ends the task (as in single thread mode)
+		for (Future<Integer> future : futures) {
+			try {
+				future.get();
+			} catch (ExecutionException ex) {
+				canContinue.set(false);
+				waitForAll(futures);
+				throw new CoreException(ex.getCause());
+			}
+			if (!updateState()) {
+				// task was canceled - workers end after currently processed chunks
+				canContinue.set(false);
+			}
+		}
+	}
+	
+	/**
+	 * Wait for all submitted chunks (e.g. when some chunk fails) - running chunks are completed.
+	 * 
+	 * @param futures submitted chunks
+	 * @throws InterruptedException task was interrupted
+	 */
+	private void waitForAll(List<Future<Integer>> futures) throws InterruptedException {
+		for (Future<Integer> future : futures) {
+			try {
+				future.get();
+			} catch (ExecutionException ex) {
+				// the first failure is thrown only
+			}
+		}
+	}
+	
+	/**
+	 * Bulk mode is enabled.
+	 * 
+	 * @return true - newly passed contracts and assigned roles to remove are processed in chunks
+	 * @since 13.1.0
+	 */
+	public boolean isBulk() {
+		return bulk;
+	}
+	
+	/**
+	 * Bulk mode is enabled.
+	 * 
+	 * @param bulk true - newly passed contracts and assigned roles to remove are processed in chunks
+	 * @since 13.1.0
+	 */
+	public void setBulk(boolean bulk) {
+		this.bulk = bulk;
+	}
+	
+	/**
+	 * Count of workers processing chunks in bulk mode.
+	 * 
+	 * @return count of workers
+	 * @since 13.1.0
+	 */
+	public int getWorkers() {
+		return workers;
+	}
+	
+	/**
+	 * Count of workers processing chunks in bulk mode.
+	 * 
+	 * @param workers count of workers
+	 * @since 13.1.0
+	 */
+	public void setWorkers(int workers) {
+		this.workers = workers;
+	}
+	
 	@Override
     public boolean isRecoverable() {
     	return true;
@@ -0,0 +1,74 @@
+package eu.bcvsolutions.idm.core.scheduler.task.impl;
+
+import java.util.UUID;
+
+import org.quartz.DisallowConcurrentExecution;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import eu.bcvsolutions.idm.core.api.service.ConfigurationService;
+import eu.bcvsolutions.idm.core.api.service.IdmIdentityContractService;
+import eu.bcvsolutions.idm.core.model.repository.IdmManagerClosureRepository;
+import eu.bcvsolutions.idm.core.scheduler.api.service.AbstractSchedulableTaskExecutor;
+
+/**
+ * Rebuild materialized closure of managers and subordinates. 
+ * Closure is not used (managers and subordinates are resolved by contracts, guarantees and tree structure), till closure is rebuilt.
+ * 
+ * @since 13.1.0
+ */
+@DisallowConcurrentExecution
+@Component(RebuildManagerClosureTaskExecutor.TASK_NAME)
+public class RebuildManagerClosureTaskExecutor extends AbstractSchedulableTaskExecutor<Boolean> {
+	
+	private static final org.slf4j.Logger LOG = org.slf4j.LoggerFactory.getLogger(RebuildManagerClosureTaskExecutor.class);
+	public static final String TASK_NAME = "core-rebuild-manager-closure-long-running-task";
+	//
+	@Autowired private IdmManagerClosureRepository closureRepository;
+	@Autowired private IdmIdentityContractService contractService;
+	@Autowired private ConfigurationService configurationService;
+	
+	@Override
+	public String getName() {
+		return TASK_NAME;
+	}
+	
+	@Override
+	public Boolean process() {
+		LOG.info("Starting rebuilding closure of managers and subordinates.");
+		//
+		// closure is not used till is rebuilt
+		configurationService.setBooleanValue(IdmIdentityContractService.PROPERTY_MANAGER_CLOSURE_VALID, false);
+		closureRepository.deleteAll();
+		//
+		Page<UUID> contractIds = closureRepository.findContractIds(PageRequest.of(0, 100));
+		count = contractIds.getTotalElements();
+		counter = 0L;
+		boolean canContinue = true;
+		while (canContinue && contractIds.hasContent()) {
+			contractService.recountManagerClosure(contractIds.getContent());
+			counter += contractIds.getNumberOfElements();
+			canContinue = updateState();
+			if (!canContinue || !contractIds.hasNext()) {
+				break;
+			}
+			contractIds = closureRepository.findContractIds(contractIds.nextPageable());
+		}
+		//
+		if (count.equals(counter)) {
+			configurationService.setBooleanValue(IdmIdentityContractService.PROPERTY_MANAGER_CLOSURE_VALID, true);
+			LOG.info("Closure of managers and subordinates was successfully rebuilt (contracts [{}]).", counter);
+			return Boolean.TRUE;
+		}
+		//
+		LOG.warn("Closure of managers and subordinates rebuild was canceled (contracts [{}]).", counter);
+		return Boolean.FALSE;
+	}
+	
+	@Override
+    public boolean isRecoverable() {
+    	return true;
+    }
+}
@@ -0,0 +1,89 @@
+package eu.bcvsolutions.idm.core.scheduler.task.impl;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.quartz.DisallowConcurrentExecution;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import eu.bcvsolutions.idm.core.api.service.ConfigurationService;
+import eu.bcvsolutions.idm.core.api.service.IdmCacheManager;
+import eu.bcvsolutions.idm.core.api.service.IdmRoleCompositionService;
+import eu.bcvsolutions.idm.core.model.repository.IdmRoleCompositionClosureRepository;
+import eu.bcvsolutions.idm.core.model.repository.IdmRoleCompositionRepository;
+import eu.bcvsolutions.idm.core.scheduler.api.service.AbstractSchedulableTaskExecutor;
+
+/**
+ * Rebuild materialized transitive closure of role composition. 
+ * Closure is not used (all sub and superior roles are resolved level by level), till closure is rebuilt.
+ * 
+ * @since 13.1.0
+ */
+@DisallowConcurrentExecution
+@Component(RebuildRoleCompositionClosureTaskExecutor.TASK_NAME)
+public class RebuildRoleCompositionClosureTaskExecutor extends AbstractSchedulableTaskExecutor<Boolean> {
+	
+	private static final org.slf4j.Logger LOG = org.slf4j.LoggerFactory.getLogger(RebuildRoleCompositionClosureTaskExecutor.class);
+	public static final String TASK_NAME = "core-rebuild-role-composition-closure-long-running-task";
+	//
+	@Autowired private IdmRoleCompositionRepository roleCompositionRepository;
+	@Autowired private IdmRoleCompositionClosureRepository closureRepository;
+	@Autowired private IdmRoleCompositionService roleCompositionService;
+	@Autowired private IdmCacheManager cacheManager;
+	@Autowired private ConfigurationService configurationService;
+	
+	@Override
+	public String getName() {
+		return TASK_NAME;
+	}
+	
+	@Override
+	public Boolean process() {
+		LOG.info("Starting rebuilding closure of role composition.");
+		//
+		// closure is not used till is rebuilt
+		configurationService.setBooleanValue(IdmRoleCompositionService.PROPERTY_CLOSURE_VALID, false);
+		closureRepository.deleteAll();
+		//
+		// all compositions are loaded once (without entities) and used for all superior roles
+		Map<UUID, List<UUID>> directSubRoles = new HashMap<>();
+		roleCompositionRepository
+			.findAllPairs()
+			.forEach(pair -> directSubRoles.computeIfAbsent((UUID) pair[0], superior -> new ArrayList<>()).add((UUID) pair[1]));
+		//
+		Page<UUID> superiorIds = roleCompositionRepository.findSuperiorIds(PageRequest.of(0, 100));
+		count = superiorIds.getTotalElements();
+		counter = 0L;
+		boolean canContinue = true;
+		while (canContinue && superiorIds.hasContent()) {
+			roleCompositionService.recountClosure(superiorIds.getContent(), directSubRoles);
+			counter += superiorIds.getNumberOfElements();
+			canContinue = updateState();
+			if (!canContinue || !superiorIds.hasNext()) {
+				break;
+			}
+			superiorIds = roleCompositionRepository.findSuperiorIds(superiorIds.nextPageable());
+		}
+		//
+		if (count.equals(counter)) {
+			configurationService.setBooleanValue(IdmRoleCompositionService.PROPERTY_CLOSURE_VALID, true);
+			cacheManager.evictCache(IdmRoleCompositionService.ALL_SUB_ROLES_CACHE_NAME);
+			LOG.info("Closure of role composition was successfully rebuilt (superior roles [{}]).", counter);
+			return Boolean.TRUE;
+		}
+		//
+		LOG.warn("Closure of role composition rebuild was canceled (superior roles [{}]).", counter);
+		return Boolean.FALSE;
+	}
+	
+	@Override
+    public boolean isRecoverable() {
+    	return true;
+    }
+}
@@ -100,7 +100,7 @@ public abstract class AbstractScriptEvaluator implements Plugin<IdmScriptCategor
 		}
 		//
 		try {
-			return groovyScriptService.evaluate(script.getScript(), parameters, extraAllowedClasses);
+			return groovyScriptService.evaluate(script.getScript(), parameters, extraAllowedClasses, script.getCode());
 		} catch (Exception ex) {
 			LOG.error("Script exception: [{}]. Script code: [{}], name: [{}], category: [{}]", ex.getLocalizedMessage(), script.getCode(), script.getName(), script.getCategory().name());
 			throw new ResultCodeException(CoreResultCode.GROOVY_SCRIPT_EXCEPTION, ImmutableMap.of(SCRIPT_NAME_KEY, script.getCode()), ex); 
@@ -0,0 +1,79 @@
+package eu.bcvsolutions.idm.core.security.domain;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Immutable allow-list of custom types for one script evaluation (e.g. types of script variables, script authorities).
+ * Resolved decisions for checked types are memoized - context can be reused by all evaluations with the same allow-list
+ * (e.g. the same transformation script in attribute mapping).
+ *
+ * @since 13.1.0
+ */
+public final class GroovySandboxContext {
+
+	public static final GroovySandboxContext EMPTY = new GroovySandboxContext(null);
+	//
+	private final Set<Class<?>> allowedTypes;
+	private final Map<Class<?>, Boolean> decisions = new ConcurrentHashMap<>();
+
+	public GroovySandboxContext(Collection<Class<?>> allowedTypes) {
+		this.allowedTypes = allowedTypes == null
+				? Collections.emptySet()
+				: Collections.unmodifiableSet(new HashSet<>(allowedTypes));
+	}
+
+	/**
+	 * Allowed custom types.
+	 *
+	 * @return unmodifiable set
+	 */
+	public Set<Class<?>> getAllowedTypes() {
+		return allowedTypes;
+	}
+
+	/**
+	 * Type is allowed - type is in allow-list or is assignable to some allowed type
+	 * (access directly via {@link Object} is not allowed).
+	 *
+	 * @param type checked type
+	 * @return true - allowed
+	 */
+	public boolean isAllowed(Class<?> type) {
+		if (allowedTypes.isEmpty()) {
+			return false;
+		}
+		return decisions.computeIfAbsent(type, this::resolve);
+	}
+
+	private boolean resolve(Class<?> type) {
+		if (allowedTypes.contains(type)) {
+			return true;
+		}
+		return allowedTypes
+				.stream()
+				.filter(allowedType -> !Object.class.equals(allowedType)) // Access directly via Object is not allowed.
+				.anyMatch(allowedType -> allowedType.isAssignableFrom(type));
+	}
+
+	@Override
+	public int hashCode() {
+		return allowedTypes.hashCode();
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof GroovySandboxContext)) {
+			return false;
+		}
+		return Objects.equals(allowedTypes, ((GroovySandboxContext) obj).allowedTypes);
+	}
+}
@@ -55,33 +55,87 @@ public class GroovySandboxFilter extends GroovyValueFilter {
 			ch.qos.logback.classic.Logger.class, GString.class, GStringImpl.class, MessageFormat.class, Arrays.class,
 			Collections.class, DtoUtils.class, StringUtils.class, Collection.class);
 
-	private final LinkedList<Set<Class<?>>> allowedCustomTypes = new LinkedList<>();
+	// decisions for global allowed types are memoized - allowed types are immutable
+	private static final ClassValue<Boolean> ALLOWED_TYPES_DECISIONS = new ClassValue<Boolean>() {
+		@Override
+		protected Boolean computeValue(Class<?> type) {
+			return ALLOWED_TYPES.contains(type) || ALLOWED_TYPES
+					.stream()
+					.filter(allowedType -> !Object.class.equals(allowedType)) // Access directly via Object is not allowed.
+					.anyMatch(allowedType -> allowedType.isAssignableFrom(type));
+		}
+	};
+	//
+	private final LinkedList<GroovySandboxContext> contexts = new LinkedList<>();
 
 	public GroovySandboxFilter() {
 	}
 
 	public GroovySandboxFilter(Set<Class<?>> allowedTypes) {
 		if (allowedTypes != null) {
-			allowedCustomTypes.add(allowedTypes);
+			contexts.add(new GroovySandboxContext(allowedTypes));
 		}
 	}
+	
+	/**
+	 * Filter with given sandbox context.
+	 * 
+	 * @param context immutable allow-list of custom types
+	 * @since 13.1.0
+	 */
+	public GroovySandboxFilter(GroovySandboxContext context) {
+		push(context);
+	}
 
 	public void addCustomTypes(Set<Class<?>> allowedTypes) {
 		if (allowedTypes != null) {
-			allowedCustomTypes.add(allowedTypes);
+			contexts.add(new GroovySandboxContext(allowedTypes));
+		}
+	}
+	
+	/**
+	 * Use given sandbox context for the next script evaluation (e.g. script called from another script).
+	 * Previous context is used again after {@link #pop()}.
+	 * 
+	 * @param context immutable allow-list of custom types
+	 * @since 13.1.0
+	 */
+	public void push(GroovySandboxContext context) {
+		if (context != null) {
+			contexts.add(context);
 		}
 	}
+	
+	/**
+	 * Remove the last sandbox context - the previous context is used again.
+	 * 
+	 * @return removed context
+	 * @since 13.1.0
+	 */
+	public GroovySandboxContext pop() {
+		return contexts.removeLast();
+	}
+	
+	/**
+	 * Currently used sandbox context.
+	 * 
+	 * @return context
+	 * @since 13.1.0
+	 */
+	public GroovySandboxContext getContext() {
+		return contexts.isEmpty() ? GroovySandboxContext.EMPTY : contexts.getLast();
+	}
 
 	protected Collection<Class<?>> getCustomTypes() {
-		return allowedCustomTypes.getLast();
+		return getContext().getAllowedTypes();
 	}
 
 	public Collection<Class<?>> removeLastCustomTypes() {
-		return allowedCustomTypes.removeLast();
+		return pop().getAllowedTypes();
 	}
 
 	public boolean isCustomTypesLast() {
-		return this.allowedCustomTypes.size() == 1;
+		return this.contexts.size() == 1;
 	}
 
 	@Override
@@ -102,28 +156,7 @@ public class GroovySandboxFilter extends GroovyValueFilter {
 		if (targetClass.isPrimitive()) {
 			return o;
 		}
-		if (ALLOWED_TYPES.contains(targetClass) || getCustomTypes().contains(targetClass)) {
-			return o;
-		}
-		// TODO: check if this is necessary?
-		if (o instanceof Class && ALLOWED_TYPES.contains(o) || getCustomTypes().contains(o)) {
-			return o;
-		}
-
-		Class<?> finalTargetClass = targetClass;
-		if (ALLOWED_TYPES.stream()
-				.filter(allowedType -> !Object.class.equals(allowedType)) // Access directly via Object is not allowed.
-				.filter(allowedType -> allowedType.isAssignableFrom(finalTargetClass))
-				.findFirst()
-				.isPresent()) {
-			return o;
-		}
-
-		if (getCustomTypes().stream()
-				.filter(allowedType -> !Object.class.equals(allowedType)) // Access directly via Object is not allowed.
-				.filter(allowedType -> allowedType.isAssignableFrom(finalTargetClass))
-				.findFirst()
-				.isPresent()) {
+		if (ALLOWED_TYPES_DECISIONS.get(targetClass) || getContext().isAllowed(targetClass)) {
 			return o;
 		}
 
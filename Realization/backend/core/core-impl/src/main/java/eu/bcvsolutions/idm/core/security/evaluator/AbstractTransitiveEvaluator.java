@@ -1,6 +1,11 @@
 package eu.bcvsolutions.idm.core.security.evaluator;
 
+import java.io.Serializable;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -95,6 +100,30 @@ public abstract class AbstractTransitiveEvaluator<E extends Identifiable> extend
 		return result;
 	}
 	
+	/**
+	 * Owner permissions are evaluated for all owners together (set based) and cached by authorization manager,
+	 * transitive permissions are then resolved for each entity from cached owner permissions.
+	 * 
+	 * @since 13.1.0
+	 */
+	@Override
+	public Map<Serializable, Set<String>> getPermissions(Collection<E> entities, AuthorizationPolicy policy) {
+		if (securityService.isAuthenticated()) {
+			Map<Serializable, Identifiable> owners = new LinkedHashMap<>();
+			entities
+				.stream()
+				.map(this::getOwner)
+				.filter(Objects::nonNull)
+				.filter(owner -> owner.getId() != null)
+				.forEach(owner -> owners.putIfAbsent(owner.getId(), owner));
+			if (!owners.isEmpty()) {
+				authorizationManager.getPermissions(owners.values());
+			}
+		}
+		//
+		return super.getPermissions(entities, policy);
+	}
+	
 	/**
 	 * Returns transitive authorities by entity's owner type
 	 */
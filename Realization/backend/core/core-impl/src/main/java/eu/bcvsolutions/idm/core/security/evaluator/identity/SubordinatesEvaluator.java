@@ -1,6 +1,13 @@
 package eu.bcvsolutions.idm.core.security.evaluator.identity;
 
+import java.io.Serializable;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
 
 import javax.persistence.criteria.CriteriaBuilder;
 import javax.persistence.criteria.CriteriaQuery;
@@ -9,10 +16,12 @@ import javax.persistence.criteria.Root;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Description;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Component;
 
+import com.google.common.collect.Lists;
+
 import eu.bcvsolutions.idm.core.api.dto.filter.IdmIdentityFilter;
+import eu.bcvsolutions.idm.core.api.entity.AbstractEntity;
 import eu.bcvsolutions.idm.core.api.repository.filter.FilterManager;
 import eu.bcvsolutions.idm.core.api.service.IdmIdentityService;
 import eu.bcvsolutions.idm.core.model.entity.IdmIdentity;
@@ -66,16 +75,48 @@ public class SubordinatesEvaluator extends AbstractAuthorizationEvaluator<IdmIde
 		if (entity == null || !securityService.isAuthenticated()) {
 			return permissions;
 		}
-		IdmIdentityFilter filter = new IdmIdentityFilter();
-		filter.setManagersFor(entity.getId());
-		filter.setValidContractManagers(Boolean.TRUE);
-		filter.setUsername(securityService.getUsername());
-		boolean isManager = identityService
-				.findIds(filter, PageRequest.of(0, 1))
-				.getTotalElements() > 0;
-		if (isManager) {
+		if (!findSubordinates(Lists.newArrayList(entity.getId())).isEmpty()) {
 			permissions.addAll(policy.getPermissions());
 		}
 		return permissions;
 	}
+	
+	/**
+	 * Subordinates are found by one query for all given identities.
+	 */
+	@Override
+	public Map<Serializable, Set<String>> getPermissions(Collection<IdmIdentity> entities, AuthorizationPolicy policy) {
+		Map<Serializable, Set<String>> permissions = new LinkedHashMap<>();
+		entities.forEach(entity -> permissions.put(entity.getId(), super.getPermissions(entity, policy)));
+		if (entities.isEmpty() || !securityService.isAuthenticated()) {
+			return permissions;
+		}
+		List<UUID> identityIds = entities
+				.stream()
+				.map(AbstractEntity::getId)
+				.collect(Collectors.toList());
+		// sql IN limit
+		for (List<UUID> partition : Lists.partition(identityIds, FilterManager.DEFAULT_CHECK_FILTER_SIZE_MAXIMUM)) {
+			findSubordinates(partition).forEach(subordinateId -> {
+				permissions.get(subordinateId).addAll(policy.getPermissions());
+			});
+		}
+		//
+		return permissions;
+	}
+	
+	/**
+	 * Subordinates of logged identity from given identities - the same subordinates filter as in {@link #getPredicate} is used,
+	 * permissions evaluated for one identity, for page of identities and search results are consistent.
+	 * 
+	 * @param identityIds identities
+	 * @return subordinate identities
+	 */
+	private List<UUID> findSubordinates(List<UUID> identityIds) {
+		IdmIdentityFilter filter = new IdmIdentityFilter();
+		filter.setIds(identityIds);
+		filter.setSubordinatesFor(securityService.getCurrentId());
+		//
+		return identityService.findIds(filter, null).getContent();
+	}
 }
@@ -2,8 +2,10 @@ package eu.bcvsolutions.idm.core.security.service.impl;
 
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -34,6 +36,7 @@ import eu.bcvsolutions.idm.core.api.utils.AutowireHelper;
 import eu.bcvsolutions.idm.core.security.api.domain.AuthorizationPolicy;
 import eu.bcvsolutions.idm.core.security.api.domain.BasePermission;
 import eu.bcvsolutions.idm.core.security.api.domain.IdmGroupPermission;
+import eu.bcvsolutions.idm.core.security.api.domain.PermissionCacheKey;
 import eu.bcvsolutions.idm.core.security.api.dto.AuthorizableType;
 import eu.bcvsolutions.idm.core.security.api.dto.AuthorizationEvaluatorDto;
 import eu.bcvsolutions.idm.core.security.api.service.AuthorizableService;
@@ -95,46 +98,102 @@ public class DefaultAuthorizationManager implements AuthorizationManager {
 	}
 	
 	@Override
-	@SuppressWarnings({ "unchecked", "rawtypes" })
 	public <E extends Identifiable> Set<String> getPermissions(E entity) {
 		Assert.notNull(entity, "Entity is required.");
-		final Set<String> permissions = new HashSet<>();
 		//
 		UUID loggedIdentityId = securityService.getCurrentId();
 		if (loggedIdentityId == null) {
 			// TODO: support setting policies to not logged user - e.g. public endpoints.
+			return new HashSet<>();
+		}
+		//
+		return getPermissions(loggedIdentityId, getPermissionCacheScope(loggedIdentityId, false), entity);
+	}
+	
+	@Override
+	@SuppressWarnings("unchecked")
+	public <E extends Identifiable> Map<Serializable, Set<String>> getPermissions(Collection<E> entities) {
+		Map<Serializable, Set<String>> permissions = new LinkedHashMap<>();
+		if (entities == null || entities.isEmpty()) {
 			return permissions;
 		}
-		// try to get cached permissions
-		Serializable entityId = entity.getId();
-		Map<Serializable, Set<String>> cachedPermissions = null;
-		if (entityId != null) { // TODO: support cache for newly created entities without id
-			ValueWrapper value = cacheManager.getValue(PERMISSION_CACHE_NAME, loggedIdentityId);
+		//
+		UUID loggedIdentityId = securityService.getCurrentId();
+		if (loggedIdentityId == null) {
+			// TODO: support setting policies to not logged user - e.g. public endpoints.
+			entities.forEach(entity -> permissions.put(entity.getId(), new HashSet<>()));
+			return permissions;
+		}
+		// cache scope is resolved once for all entities
+		UUID scope = getPermissionCacheScope(loggedIdentityId, true);
+		// try to get cached permissions, not cached entities are evaluated together by entity type
+		Map<Class<?>, List<E>> notCachedEntities = new LinkedHashMap<>();
+		for (E entity : entities) {
+			Assert.notNull(entity, "Entity is required.");
+			Assert.notNull(entity.getId(), "Entity identifier is required.");
+			//
+			ValueWrapper value = cacheManager.getValue(
+					ENTITY_PERMISSION_CACHE_NAME, 
+					new PermissionCacheKey(loggedIdentityId, scope, entity.getClass().getName(), entity.getId()));
 			if (value != null) {
 				// cache value is never null
-				cachedPermissions = new HashMap<>((Map) value.get());
-				//
-				if (cachedPermissions.containsKey(entityId)) {
-					return cachedPermissions.get(entityId);
-				}
-			}		
-		}
-		// load policies and get permissions
-		getEnabledDistinctPolicies(loggedIdentityId, entity.getClass()).forEach(policy -> {				
-			permissions.addAll(getPermissions(entity, policy));
-		});
-		// cache permissions 
-		if (entityId != null) {
-			if (cachedPermissions == null) {
-				cachedPermissions = new HashMap<>();
+				permissions.put(entity.getId(), (Set<String>) value.get());
+			} else {
+				permissions.put(entity.getId(), null); // preserve order
+				notCachedEntities.computeIfAbsent(entity.getClass(), entityType -> new ArrayList<>()).add(entity);
 			}
-			cachedPermissions.put(entityId, permissions);
-			cacheManager.cacheValue(PERMISSION_CACHE_NAME, loggedIdentityId, cachedPermissions);
 		}
+		// load policies and get permissions - set based evaluation by each policy
+		notCachedEntities.forEach((entityType, entityTypeEntities) -> {
+			Map<Serializable, HashSet<String>> evaluatedPermissions = new HashMap<>();
+			entityTypeEntities.forEach(entity -> evaluatedPermissions.put(entity.getId(), new HashSet<>()));
+			//
+			getEnabledDistinctPolicies(loggedIdentityId, (Class<? extends Identifiable>) entityType).forEach(policy -> {
+				evaluatePermissions(entityTypeEntities, policy).forEach((entityId, policyPermissions) -> {
+					HashSet<String> entityPermissions = evaluatedPermissions.get(entityId);
+					if (entityPermissions != null && policyPermissions != null) {
+						entityPermissions.addAll(policyPermissions);
+					}
+				});
+			});
+			// cache permissions
+			evaluatedPermissions.forEach((entityId, entityPermissions) -> {
+				cacheManager.cacheValue(
+						ENTITY_PERMISSION_CACHE_NAME, 
+						new PermissionCacheKey(loggedIdentityId, scope, entityType.getName(), entityId), 
+						entityPermissions);
+				permissions.put(entityId, entityPermissions);
+			});
+		});
 		//
 		return permissions;
 	}
 	
+	/**
+	 * Set based permission evaluation for given entities of the same type by given policy.
+	 * 
+	 * @param entities entities of the same type
+	 * @param policy evaluated policy
+	 * @return permissions by entity identifier
+	 * @since 13.1.0
+	 */
+	private <E extends Identifiable> Map<Serializable, Set<String>> evaluatePermissions(List<E> entities, AuthorizationPolicy policy) {
+		AuthorizationEvaluator<E> evaluator = getEvaluator(policy);
+		if (evaluator == null) {
+			LOG.warn("Authorization evaluator for given policy [{}] not exists", policy.getId());
+			return new HashMap<>();
+		}
+		Class<?> authorizableClass = resolveAuthorizableClass(entities.get(0), policy);
+		if (authorizableClass != null && !evaluator.supports(authorizableClass)) {
+			LOG.debug("Authorization evaluator [{}] not supports given authorizable type [{}]", 
+					evaluator.getClass().getCanonicalName(), 
+					authorizableClass.getCanonicalName());
+			return new HashMap<>();
+		}
+		// evaluate permissions
+		return evaluator.getPermissions(entities, policy);
+	}
+	
 	@Override
 	public <E extends Identifiable> Set<String> getPermissions(E entity, AuthorizationPolicy policy) {
 		Assert.notNull(policy, "Policy is required.");
@@ -335,6 +394,71 @@ public class DefaultAuthorizationManager implements AuthorizationManager {
 		return null;
 	}
 	
+	/**
+	 * Cache decorator - get or evaluate identity permissions for given entity.
+	 * Permissions are cached by entity under identity permission cache scope.
+	 * 
+	 * @param identityId logged identity
+	 * @param scope identity permission cache scope - {@code null} scope will be created, when permissions are cached
+	 * @param entity evaluated entity
+	 * @return permissions
+	 * @since 13.1.0
+	 */
+	@SuppressWarnings("unchecked")
+	private <E extends Identifiable> Set<String> getPermissions(UUID identityId, UUID scope, E entity) {
+		// try to get cached permissions
+		Serializable entityId = entity.getId();
+		if (entityId != null && scope != null) { // TODO: support cache for newly created entities without id
+			ValueWrapper value = cacheManager.getValue(
+					ENTITY_PERMISSION_CACHE_NAME, 
+					new PermissionCacheKey(identityId, scope, entity.getClass().getName(), entityId));
+			if (value != null) {
+				// cache value is never null
+				return (Set<String>) value.get();
+			}
+		}
+		// load policies and get permissions
+		final HashSet<String> permissions = new HashSet<>();
+		getEnabledDistinctPolicies(identityId, entity.getClass()).forEach(policy -> {				
+			permissions.addAll(getPermissions(entity, policy));
+		});
+		// cache permissions 
+		if (entityId != null) {
+			if (scope == null) {
+				scope = getPermissionCacheScope(identityId, true);
+			}
+			cacheManager.cacheValue(
+					ENTITY_PERMISSION_CACHE_NAME, 
+					new PermissionCacheKey(identityId, scope, entity.getClass().getName(), entityId), 
+					permissions);
+		}
+		//
+		return permissions;
+	}
+	
+	/**
+	 * Identity permission cache scope - all identity permissions are cached under this scope.
+	 * Scope is evicted (e.g. when identity is logged out) => new scope is created and previously cached permissions are not used.
+	 * 
+	 * @param identityId logged identity
+	 * @param create create scope, if not exists
+	 * @return scope, {@code null} if scope not exists and should not be created
+	 * @since 13.1.0
+	 */
+	private UUID getPermissionCacheScope(UUID identityId, boolean create) {
+		ValueWrapper value = cacheManager.getValue(PERMISSION_CACHE_NAME, identityId);
+		if (value != null && value.get() instanceof UUID) {
+			return (UUID) value.get();
+		}
+		if (!create) {
+			return null;
+		}
+		UUID scope = UUID.randomUUID();
+		cacheManager.cacheValue(PERMISSION_CACHE_NAME, identityId, scope);
+		//
+		return scope;
+	}
+	
 	/**
 	 * Cache decorator - get or load current identity authorization policies.
 	 * Distinct policies are returned only
@@ -0,0 +1,8 @@
+--
+-- CzechIdM 13 Flyway script
+-- BCV solutions s.r.o.
+--
+-- Add content fingerprint to entity event - duplicate events are collapsed by fingerprint
+
+ALTER TABLE idm_entity_event ADD fingerprint varchar(64) NULL;
+CREATE INDEX IF NOT EXISTS idx_idm_entity_event_fp ON idm_entity_event (fingerprint);
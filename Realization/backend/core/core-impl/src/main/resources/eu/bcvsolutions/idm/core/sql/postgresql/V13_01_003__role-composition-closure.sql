@@ -0,0 +1,27 @@
+--
+-- CzechIdM 13 Flyway script
+-- BCV solutions s.r.o.
+--
+-- Materialized transitive closure of role composition (superior role - all sub roles)
+
+CREATE TABLE IF NOT EXISTS idm_role_composition_closure (
+	id bytea NOT NULL,
+	created timestamp NOT NULL,
+	creator varchar(255) NOT NULL,
+	creator_id bytea NULL,
+	modified timestamp NULL,
+	modifier varchar(255) NULL,
+	modifier_id bytea NULL,
+	original_creator varchar(255) NULL,
+	original_creator_id bytea NULL,
+	original_modifier varchar(255) NULL,
+	original_modifier_id bytea NULL,
+	realm_id bytea NULL,
+	transaction_id bytea NULL,
+	superior_id bytea NOT NULL,
+	sub_id bytea NOT NULL,
+	depth int4 NOT NULL,
+	CONSTRAINT idm_role_composition_closure_pkey PRIMARY KEY (id)
+);
+CREATE UNIQUE INDEX IF NOT EXISTS ux_idm_role_comp_clo_susu ON idm_role_composition_closure USING btree (superior_id, sub_id);
+CREATE INDEX IF NOT EXISTS idx_idm_role_comp_clo_sub ON idm_role_composition_closure USING btree (sub_id);
@@ -0,0 +1,32 @@
+--
+-- CzechIdM 13 Flyway script
+-- BCV solutions s.r.o.
+--
+-- Materialized closure of managers and subordinates (manager - subordinate contract by guarantee or tree structure)
+
+CREATE TABLE IF NOT EXISTS idm_manager_closure (
+	id bytea NOT NULL,
+	created timestamp NOT NULL,
+	creator varchar(255) NOT NULL,
+	creator_id bytea NULL,
+	modified timestamp NULL,
+	modifier varchar(255) NULL,
+	modifier_id bytea NULL,
+	original_creator varchar(255) NULL,
+	original_creator_id bytea NULL,
+	original_modifier varchar(255) NULL,
+	original_modifier_id bytea NULL,
+	realm_id bytea NULL,
+	transaction_id bytea NULL,
+	manager_id bytea NOT NULL,
+	subordinate_id bytea NOT NULL,
+	relation_type varchar(45) NOT NULL,
+	contract_id bytea NOT NULL,
+	manager_contract_id bytea NULL,
+	tree_type_id bytea NULL,
+	CONSTRAINT idm_manager_closure_pkey PRIMARY KEY (id)
+);
+CREATE INDEX IF NOT EXISTS idx_idm_manager_clo_man ON idm_manager_closure USING btree (manager_id);
+CREATE INDEX IF NOT EXISTS idx_idm_manager_clo_sub ON idm_manager_closure USING btree (subordinate_id);
+CREATE INDEX IF NOT EXISTS idx_idm_manager_clo_con ON idm_manager_closure USING btree (contract_id);
+CREATE INDEX IF NOT EXISTS idx_idm_manager_clo_m_con ON idm_manager_closure USING btree (manager_contract_id);
@@ -0,0 +1,10 @@
+--
+-- CzechIdM 13 Flyway script
+-- BCV solutions s.r.o.
+--
+-- Add content fingerprint to entity event - duplicate events are collapsed by fingerprint
+
+ALTER TABLE idm_entity_event ADD fingerprint nvarchar(64) NULL;
+
+IF NOT EXISTS (SELECT * FROM sys.indexes WHERE name='idx_idm_entity_event_fp' AND OBJECT_ID = OBJECT_ID('idm_entity_event'))
+	CREATE INDEX idx_idm_entity_event_fp ON idm_entity_event (fingerprint);
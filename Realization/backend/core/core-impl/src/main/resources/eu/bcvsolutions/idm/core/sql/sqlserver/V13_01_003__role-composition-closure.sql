@@ -0,0 +1,27 @@
+--
+-- CzechIdM 13 Flyway script
+-- BCV solutions s.r.o.
+--
+-- Materialized transitive closure of role composition (superior role - all sub roles)
+
+CREATE TABLE idm_role_composition_closure (
+	id binary(16) NOT NULL,
+	created datetime2(7) NOT NULL,
+	creator nvarchar(255) NOT NULL,
+	creator_id binary(16) NULL,
+	modified datetime2(7) NULL,
+	modifier nvarchar(255) NULL,
+	modifier_id binary(16) NULL,
+	original_creator nvarchar(255) NULL,
+	original_creator_id binary(16) NULL,
+	original_modifier nvarchar(255) NULL,
+	original_modifier_id binary(16) NULL,
+	realm_id binary(16) NULL,
+	transaction_id binary(16) NULL,
+	superior_id binary(16) NOT NULL,
+	sub_id binary(16) NOT NULL,
+	depth int NOT NULL,
+	CONSTRAINT idm_role_composition_closure_pkey PRIMARY KEY (id)
+);
+CREATE UNIQUE INDEX ux_idm_role_comp_clo_susu ON idm_role_composition_closure (superior_id, sub_id);
+CREATE INDEX idx_idm_role_comp_clo_sub ON idm_role_composition_closure (sub_id);
@@ -0,0 +1,32 @@
+--
+-- CzechIdM 13 Flyway script
+-- BCV solutions s.r.o.
+--
+-- Materialized closure of managers and subordinates (manager - subordinate contract by guarantee or tree structure)
+
+CREATE TABLE idm_manager_closure (
+	id binary(16) NOT NULL,
+	created datetime2(7) NOT NULL,
+	creator nvarchar(255) NOT NULL,
+	creator_id binary(16) NULL,
+	modified datetime2(7) NULL,
+	modifier nvarchar(255) NULL,
+	modifier_id binary(16) NULL,
+	original_creator nvarchar(255) NULL,
+	original_creator_id binary(16) NULL,
+	original_modifier nvarchar(255) NULL,
+	original_modifier_id binary(16) NULL,
+	realm_id binary(16) NULL,
+	transaction_id binary(16) NULL,
+	manager_id binary(16) NOT NULL,
+	subordinate_id binary(16) NOT NULL,
+	relation_type nvarchar(45) NOT NULL,
+	contract_id binary(16) NOT NULL,
+	manager_contract_id binary(16) NULL,
+	tree_type_id binary(16) NULL,
+	CONSTRAINT idm_manager_closure_pkey PRIMARY KEY (id)
+);
+CREATE INDEX idx_idm_manager_clo_man ON idm_manager_closure (manager_id);
+CREATE INDEX idx_idm_manager_clo_sub ON idm_manager_closure (subordinate_id);
+CREATE INDEX idx_idm_manager_clo_con ON idm_manager_closure (contract_id);
+CREATE INDEX idx_idm_manager_clo_m_con ON idm_manager_closure (manager_contract_id);
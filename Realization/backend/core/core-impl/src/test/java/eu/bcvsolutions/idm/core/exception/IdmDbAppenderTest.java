@@ -19,6 +19,9 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -87,4 +90,118 @@ public class IdmDbAppenderTest extends AbstractIntegrationTest {
         Assert.assertTrue(exceptionDto.getTraceLine().contains("0"));
 
     }
-}
\ No newline at end of file
+
+    @Test
+    public void appendAsync() {
+        final IdmDbAppender appender = new IdmDbAppender(loggingEventService, eventExceptionService, propertyService);
+        appender.setAsync(true);
+        appender.setBatchSize(3);
+        LoggerContext context = new LoggerContext();
+        appender.setContext(context);
+        appender.start();
+
+        String loggerName = IdmDbAppenderTest.class.getCanonicalName() + "." + UUID.randomUUID();
+        final Logger logger = context.getLogger(loggerName);
+        final RuntimeException runtimeException = new RuntimeException();
+        runtimeException.setStackTrace(new StackTraceElement[] {
+               new StackTraceElement(IdmDbAppenderTest.class.getCanonicalName(), "test", "file", 0)
+        });
+        for (int i = 0; i < 5; i++) {
+            appender.doAppend(new LoggingEvent(loggerName, logger, Level.ERROR, "TEST " + i, runtimeException, new String[] {}));
+        }
+        appender.stop(); // queued events are written
+
+        Assert.assertEquals(5, appender.getWrittenCount());
+        Assert.assertEquals(0, appender.getDroppedCount());
+
+        IdmLoggingEventFilter eventFilter = new IdmLoggingEventFilter();
+        eventFilter.setLoggerName(loggerName);
+        final List<IdmLoggingEventDto> foundEvents = loggingEventService.find(eventFilter, null).getContent();
+        Assert.assertEquals(5, foundEvents.size());
+
+        IdmLoggingEventExceptionFilter loggingEventExceptionFilter = new IdmLoggingEventExceptionFilter();
+        loggingEventExceptionFilter.setEvent((Long) foundEvents.get(0).getId());
+        final List<IdmLoggingEventExceptionDto> exceptions = eventExceptionService.find(loggingEventExceptionFilter, null).getContent();
+        Assert.assertEquals(2, exceptions.size());
+    }
+
+    @Test
+    public void appendAsyncQueueFullDropsEvents() throws InterruptedException {
+        final CountDownLatch batchStarted = new CountDownLatch(1);
+        final CountDownLatch releaseBatch = new CountDownLatch(1);
+        final IdmDbAppender appender = new IdmDbAppender(loggingEventService, eventExceptionService, propertyService) {
+            @Override
+            protected void appendBatch(List<ILoggingEvent> events) {
+                batchStarted.countDown();
+                try {
+                    releaseBatch.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+                super.appendBatch(events);
+            }
+        };
+        appender.setAsync(true);
+        appender.setNeverBlock(true);
+        appender.setQueueSize(1);
+        appender.setBatchSize(1);
+        appender.setMaxFlushTime(10000);
+        LoggerContext context = new LoggerContext();
+        appender.setContext(context);
+        appender.start();
+
+        String loggerName = IdmDbAppenderTest.class.getCanonicalName() + "." + UUID.randomUUID();
+        final Logger logger = context.getLogger(loggerName);
+        appender.doAppend(new LoggingEvent(loggerName, logger, Level.ERROR, "TEST 0", null, new String[] {}));
+        Assert.assertTrue(batchStarted.await(10, TimeUnit.SECONDS));
+        // writer is busy => one event is queued, others are dropped without blocking appending thread
+        for (int i = 1; i < 4; i++) {
+            appender.doAppend(new LoggingEvent(loggerName, logger, Level.ERROR, "TEST " + i, null, new String[] {}));
+        }
+        Assert.assertEquals(2, appender.getDroppedCount());
+        releaseBatch.countDown();
+        appender.stop();
+
+        Assert.assertEquals(2, appender.getWrittenCount());
+        IdmLoggingEventFilter eventFilter = new IdmLoggingEventFilter();
+        eventFilter.setLoggerName(loggerName);
+        Assert.assertEquals(2, loggingEventService.find(eventFilter, null).getContent().size());
+    }
+
+    @Test
+    public void appendAsyncWriterLogDoesNotBlock() throws InterruptedException {
+        final IdmDbAppender appender = new IdmDbAppender(loggingEventService, eventExceptionService, propertyService) {
+            @Override
+            protected void appendBatch(List<ILoggingEvent> events) {
+                // e.g. hibernate logs a warning when batch is persisted
+                ILoggingEvent event = events.get(0);
+                doAppend(new LoggingEvent(event.getLoggerName(), ((LoggerContext) getContext()).getLogger(event.getLoggerName()), Level.WARN, "WRITER", null, new String[] {}));
+                super.appendBatch(events);
+            }
+        };
+        appender.setAsync(true);
+        appender.setQueueSize(1);
+        appender.setBatchSize(1);
+        LoggerContext context = new LoggerContext();
+        appender.setContext(context);
+        appender.start();
+
+        String loggerName = IdmDbAppenderTest.class.getCanonicalName() + "." + UUID.randomUUID();
+        final Logger logger = context.getLogger(loggerName);
+        Thread appending = new Thread(() -> {
+            for (int i = 0; i < 3; i++) {
+                appender.doAppend(new LoggingEvent(loggerName, logger, Level.ERROR, "TEST " + i, null, new String[] {}));
+            }
+        });
+        appending.start();
+        appending.join(10000);
+        Assert.assertFalse(appending.isAlive());
+        appender.stop();
+
+        Assert.assertEquals(3, appender.getWrittenCount());
+        Assert.assertEquals(3, appender.getDroppedCount()); // events logged by writer are not written
+        IdmLoggingEventFilter eventFilter = new IdmLoggingEventFilter();
+        eventFilter.setLoggerName(loggerName);
+        Assert.assertEquals(3, loggingEventService.find(eventFilter, null).getContent().size());
+    }
+}
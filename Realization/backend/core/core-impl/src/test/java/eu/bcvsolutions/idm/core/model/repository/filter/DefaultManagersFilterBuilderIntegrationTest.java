@@ -5,6 +5,8 @@ import org.junit.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.transaction.annotation.Transactional;
 
+import eu.bcvsolutions.idm.core.api.service.ConfigurationService;
+import eu.bcvsolutions.idm.core.api.service.IdmIdentityContractService;
 import eu.bcvsolutions.idm.core.api.utils.AutowireHelper;
 import eu.bcvsolutions.idm.core.model.repository.IdmIdentityRepository;
 
@@ -17,6 +19,7 @@ import eu.bcvsolutions.idm.core.model.repository.IdmIdentityRepository;
 public class DefaultManagersFilterBuilderIntegrationTest extends AbstractWorkingPositionFilterIntegrationTest {
 	
 	@Autowired private IdmIdentityRepository repository;
+	@Autowired private ConfigurationService configurationService;
 	private DefaultManagersFilter builder;
 	
 	@Before
@@ -31,4 +34,18 @@ public class DefaultManagersFilterBuilderIntegrationTest extends AbstractWorking
 		prepareData();
 		super.testManagersBuilder(builder);
 	}
+	
+	@Test
+	@Transactional
+	public void testManagersByClosure() {
+		prepareData();
+		boolean closureValid = configurationService.getBooleanValue(IdmIdentityContractService.PROPERTY_MANAGER_CLOSURE_VALID, false);
+		try {
+			configurationService.setBooleanValue(IdmIdentityContractService.PROPERTY_MANAGER_CLOSURE_VALID, true);
+			//
+			super.testManagersBuilder(builder);
+		} finally {
+			configurationService.setBooleanValue(IdmIdentityContractService.PROPERTY_MANAGER_CLOSURE_VALID, closureValid);
+		}
+	}
 }
@@ -0,0 +1,254 @@
+package eu.bcvsolutions.idm.core.model.repository.filter;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.google.common.collect.Lists;
+
+import eu.bcvsolutions.idm.core.api.dto.IdmContractGuaranteeDto;
+import eu.bcvsolutions.idm.core.api.dto.IdmIdentityContractDto;
+import eu.bcvsolutions.idm.core.api.dto.IdmIdentityDto;
+import eu.bcvsolutions.idm.core.api.dto.IdmTreeNodeDto;
+import eu.bcvsolutions.idm.core.api.dto.IdmTreeTypeDto;
+import eu.bcvsolutions.idm.core.api.dto.filter.IdmIdentityFilter;
+import eu.bcvsolutions.idm.core.api.service.ConfigurationService;
+import eu.bcvsolutions.idm.core.api.service.IdmContractGuaranteeService;
+import eu.bcvsolutions.idm.core.api.service.IdmIdentityContractService;
+import eu.bcvsolutions.idm.core.api.service.IdmIdentityService;
+import eu.bcvsolutions.idm.core.api.service.IdmTreeNodeService;
+import eu.bcvsolutions.idm.core.model.repository.IdmManagerClosureRepository;
+import eu.bcvsolutions.idm.core.scheduler.api.service.LongRunningTaskManager;
+import eu.bcvsolutions.idm.core.scheduler.task.impl.RebuildManagerClosureTaskExecutor;
+import eu.bcvsolutions.idm.core.security.api.domain.GuardedString;
+import eu.bcvsolutions.idm.test.api.AbstractIntegrationTest;
+
+/**
+ * Closure of managers and subordinates is maintained, when structure is changed
+ * - managers and subordinates are found by closure after each change.
+ */
+public class ManagerClosureIntegrationTest extends AbstractIntegrationTest {
+
+	@Autowired private ConfigurationService configurationService;
+	@Autowired private IdmIdentityService identityService;
+	@Autowired private IdmIdentityContractService contractService;
+	@Autowired private IdmContractGuaranteeService contractGuaranteeService;
+	@Autowired private IdmTreeNodeService treeNodeService;
+	@Autowired private IdmManagerClosureRepository managerClosureRepository;
+	@Autowired private LongRunningTaskManager longRunningTaskManager;
+	//
+	private boolean closureValid;
+
+	@Before
+	public void init() {
+		closureValid = configurationService.getBooleanValue(IdmIdentityContractService.PROPERTY_MANAGER_CLOSURE_VALID, false);
+		configurationService.setBooleanValue(IdmIdentityContractService.PROPERTY_MANAGER_CLOSURE_VALID, true);
+	}
+
+	@After
+	public void restore() {
+		configurationService.setBooleanValue(IdmIdentityContractService.PROPERTY_MANAGER_CLOSURE_VALID, closureValid);
+	}
+
+	@Test
+	@Transactional
+	public void testTreeNodeParentMoved() {
+		IdmTreeTypeDto treeType = getHelper().createTreeType();
+		IdmTreeNodeDto managerOnePosition = getHelper().createTreeNode(treeType, null);
+		IdmTreeNodeDto managerTwoPosition = getHelper().createTreeNode(treeType, null);
+		IdmTreeNodeDto subordinatePosition = getHelper().createTreeNode(treeType, managerOnePosition);
+		IdmIdentityDto managerOne = getHelper().createIdentity((GuardedString) null);
+		IdmIdentityDto managerTwo = getHelper().createIdentity((GuardedString) null);
+		IdmIdentityDto subordinate = getHelper().createIdentity((GuardedString) null);
+		getHelper().createContract(managerOne, managerOnePosition);
+		getHelper().createContract(managerTwo, managerTwoPosition);
+		getHelper().createContract(subordinate, subordinatePosition);
+		//
+		Assert.assertEquals(Lists.newArrayList(subordinate.getId()), findSubordinates(managerOne));
+		Assert.assertTrue(findSubordinates(managerTwo).isEmpty());
+		Assert.assertEquals(Lists.newArrayList(managerOne.getId()), findManagers(subordinate));
+		//
+		subordinatePosition.setParent(managerTwoPosition.getId());
+		treeNodeService.save(subordinatePosition);
+		//
+		Assert.assertTrue(findSubordinates(managerOne).isEmpty());
+		Assert.assertEquals(Lists.newArrayList(subordinate.getId()), findSubordinates(managerTwo));
+		Assert.assertEquals(Lists.newArrayList(managerTwo.getId()), findManagers(subordinate));
+	}
+
+	@Test
+	@Transactional
+	public void testGuaranteeMovedToOtherContract() {
+		IdmIdentityDto manager = getHelper().createIdentity((GuardedString) null);
+		IdmIdentityDto subordinateOne = getHelper().createIdentity((GuardedString) null);
+		IdmIdentityDto subordinateTwo = getHelper().createIdentity((GuardedString) null);
+		IdmContractGuaranteeDto guarantee = getHelper().createContractGuarantee(getHelper().getPrimeContract(subordinateOne), manager);
+		//
+		Assert.assertEquals(Lists.newArrayList(subordinateOne.getId()), findSubordinates(manager));
+		Assert.assertEquals(Lists.newArrayList(manager.getId()), findManagers(subordinateOne));
+		Assert.assertTrue(findManagers(subordinateTwo).isEmpty());
+		//
+		guarantee.setIdentityContract(getHelper().getPrimeContract(subordinateTwo).getId());
+		guarantee = contractGuaranteeService.save(guarantee);
+		//
+		Assert.assertEquals(Lists.newArrayList(subordinateTwo.getId()), findSubordinates(manager));
+		Assert.assertTrue(findManagers(subordinateOne).isEmpty());
+		Assert.assertEquals(Lists.newArrayList(manager.getId()), findManagers(subordinateTwo));
+		//
+		contractGuaranteeService.delete(guarantee);
+		//
+		Assert.assertTrue(findSubordinates(manager).isEmpty());
+		Assert.assertTrue(findManagers(subordinateTwo).isEmpty());
+	}
+
+	@Test
+	@Transactional
+	public void testContractWorkPositionChanged() {
+		IdmTreeTypeDto treeType = getHelper().createTreeType();
+		IdmTreeNodeDto managerOnePosition = getHelper().createTreeNode(treeType, null);
+		IdmTreeNodeDto managerTwoPosition = getHelper().createTreeNode(treeType, null);
+		IdmTreeNodeDto subordinateOnePosition = getHelper().createTreeNode(treeType, managerOnePosition);
+		IdmTreeNodeDto subordinateTwoPosition = getHelper().createTreeNode(treeType, managerTwoPosition);
+		IdmIdentityDto managerOne = getHelper().createIdentity((GuardedString) null);
+		IdmIdentityDto managerTwo = getHelper().createIdentity((GuardedString) null);
+		IdmIdentityDto subordinate = getHelper().createIdentity((GuardedString) null);
+		IdmIdentityContractDto managerContract = getHelper().createContract(managerOne, managerOnePosition);
+		getHelper().createContract(managerTwo, managerTwoPosition);
+		IdmIdentityContractDto contract = getHelper().createContract(subordinate, subordinateOnePosition);
+		//
+		Assert.assertEquals(Lists.newArrayList(subordinate.getId()), findSubordinates(managerOne));
+		Assert.assertTrue(findSubordinates(managerTwo).isEmpty());
+		//
+		// subordinate contract is moved
+		contract.setWorkPosition(subordinateTwoPosition.getId());
+		contractService.save(contract);
+		//
+		Assert.assertTrue(findSubordinates(managerOne).isEmpty());
+		Assert.assertEquals(Lists.newArrayList(subordinate.getId()), findSubordinates(managerTwo));
+		Assert.assertEquals(Lists.newArrayList(managerTwo.getId()), findManagers(subordinate));
+		//
+		// manager contract is moved
+		managerContract.setWorkPosition(managerTwoPosition.getId());
+		contractService.save(managerContract);
+		//
+		Assert.assertEquals(Lists.newArrayList(subordinate.getId()), findSubordinates(managerOne));
+		List<UUID> managers = findManagers(subordinate);
+		Assert.assertEquals(2, managers.size());
+		Assert.assertTrue(managers.contains(managerOne.getId()));
+		Assert.assertTrue(managers.contains(managerTwo.getId()));
+	}
+
+	@Test
+	@Transactional
+	public void testContractIdentityChanged() {
+		IdmTreeTypeDto treeType = getHelper().createTreeType();
+		IdmTreeNodeDto managerPosition = getHelper().createTreeNode(treeType, null);
+		IdmTreeNodeDto subordinatePosition = getHelper().createTreeNode(treeType, managerPosition);
+		IdmIdentityDto manager = getHelper().createIdentity((GuardedString) null);
+		IdmIdentityDto subordinateOne = getHelper().createIdentity((GuardedString) null);
+		IdmIdentityDto subordinateTwo = getHelper().createIdentity((GuardedString) null);
+		getHelper().createContract(manager, managerPosition);
+		IdmIdentityContractDto contract = getHelper().createContract(subordinateOne, subordinatePosition);
+		getHelper().createContractGuarantee(contract, manager);
+		//
+		Assert.assertEquals(Lists.newArrayList(subordinateOne.getId()), findSubordinates(manager));
+		//
+		contract.setIdentity(subordinateTwo.getId());
+		contractService.save(contract);
+		//
+		Assert.assertEquals(Lists.newArrayList(subordinateTwo.getId()), findSubordinates(manager));
+		Assert.assertTrue(findManagers(subordinateOne).isEmpty());
+		Assert.assertEquals(Lists.newArrayList(manager.getId()), findManagers(subordinateTwo));
+	}
+
+	@Test
+	@Transactional
+	public void testContractDeleted() {
+		IdmTreeTypeDto treeType = getHelper().createTreeType();
+		IdmTreeNodeDto managerPosition = getHelper().createTreeNode(treeType, null);
+		IdmTreeNodeDto subordinatePosition = getHelper().createTreeNode(treeType, managerPosition);
+		IdmIdentityDto manager = getHelper().createIdentity((GuardedString) null);
+		IdmIdentityDto subordinateOne = getHelper().createIdentity((GuardedString) null);
+		IdmIdentityDto subordinateTwo = getHelper().createIdentity((GuardedString) null);
+		IdmIdentityContractDto managerContract = getHelper().createContract(manager, managerPosition);
+		IdmIdentityContractDto contractOne = getHelper().createContract(subordinateOne, subordinatePosition);
+		getHelper().createContractGuarantee(contractOne, manager);
+		getHelper().createContract(subordinateTwo, subordinatePosition);
+		//
+		List<UUID> subordinates = findSubordinates(manager);
+		Assert.assertEquals(2, subordinates.size());
+		Assert.assertTrue(subordinates.contains(subordinateOne.getId()));
+		Assert.assertTrue(subordinates.contains(subordinateTwo.getId()));
+		//
+		// subordinate contract (with guarantee)
+		contractService.delete(contractOne);
+		//
+		Assert.assertEquals(Lists.newArrayList(subordinateTwo.getId()), findSubordinates(manager));
+		Assert.assertTrue(findManagers(subordinateOne).isEmpty());
+		//
+		// manager contract
+		contractService.delete(managerContract);
+		//
+		Assert.assertTrue(findSubordinates(manager).isEmpty());
+		Assert.assertTrue(findManagers(subordinateTwo).isEmpty());
+	}
+
+	@Test
+	public void testRebuildClosure() {
+		IdmTreeTypeDto treeType = getHelper().createTreeType();
+		IdmTreeNodeDto managerPosition = getHelper().createTreeNode(treeType, null);
+		IdmTreeNodeDto subordinatePosition = getHelper().createTreeNode(treeType, managerPosition);
+		IdmIdentityDto manager = getHelper().createIdentity((GuardedString) null);
+		IdmIdentityDto guarantee = getHelper().createIdentity((GuardedString) null);
+		IdmIdentityDto subordinate = getHelper().createIdentity((GuardedString) null);
+		getHelper().createContract(manager, managerPosition);
+		IdmIdentityContractDto contract = getHelper().createContract(subordinate, subordinatePosition);
+		getHelper().createContractGuarantee(contract, guarantee);
+		//
+		// closure is lost
+		managerClosureRepository.deleteAll();
+		Assert.assertTrue(findSubordinates(manager).isEmpty());
+		Assert.assertTrue(findManagers(subordinate).isEmpty());
+		//
+		Boolean result = longRunningTaskManager.executeSync(new RebuildManagerClosureTaskExecutor());
+		Assert.assertTrue(result);
+		Assert.assertTrue(configurationService.getBooleanValue(IdmIdentityContractService.PROPERTY_MANAGER_CLOSURE_VALID, false));
+		//
+		Assert.assertEquals(Lists.newArrayList(subordinate.getId()), findSubordinates(manager));
+		Assert.assertEquals(Lists.newArrayList(subordinate.getId()), findSubordinates(guarantee));
+		List<UUID> managers = findManagers(subordinate);
+		Assert.assertEquals(2, managers.size());
+		Assert.assertTrue(managers.contains(manager.getId()));
+		Assert.assertTrue(managers.contains(guarantee.getId()));
+	}
+
+	private List<UUID> findSubordinates(IdmIdentityDto manager) {
+		IdmIdentityFilter filter = new IdmIdentityFilter();
+		filter.setSubordinatesFor(manager.getId());
+		//
+		return find(filter);
+	}
+
+	private List<UUID> findManagers(IdmIdentityDto subordinate) {
+		IdmIdentityFilter filter = new IdmIdentityFilter();
+		filter.setManagersFor(subordinate.getId());
+		filter.setIncludeGuarantees(true);
+		//
+		return find(filter);
+	}
+
+	private List<UUID> find(IdmIdentityFilter filter) {
+		return identityService
+				.find(filter, null)
+				.stream()
+				.map(IdmIdentityDto::getId)
+				.collect(Collectors.toList());
+	}
+}
@@ -26,6 +26,7 @@ import eu.bcvsolutions.idm.core.api.dto.IdmRoleDto;
 import eu.bcvsolutions.idm.core.api.dto.IdmRoleRequestDto;
 import eu.bcvsolutions.idm.core.api.dto.ResolvedIncompatibleRoleDto;
 import eu.bcvsolutions.idm.core.api.exception.EntityNotFoundException;
+import eu.bcvsolutions.idm.core.api.service.IdmIncompatibleRoleService;
 import eu.bcvsolutions.idm.core.api.service.IdmRoleRequestService;
 import eu.bcvsolutions.idm.core.api.service.IdmRoleService;
 import eu.bcvsolutions.idm.test.api.AbstractIntegrationTest;
@@ -420,6 +421,31 @@ public abstract class AbstractIdmIncompatibleRoleServiceIntegrationTest extends
 				}));
 	}
 	
+	@Test
+	public void testResolveIncompatibleRolesAfterChange() {
+		IdmRoleDto superior = getHelper().createRole();
+		IdmRoleDto sub = getHelper().createRole();
+		IdmRoleDto other = getHelper().createRole();
+		IdmIncompatibleRoleDto incompatibleRole = getHelper().createIncompatibleRole(sub, other);
+		//
+		Assert.assertTrue(service.resolveIncompatibleRoles(Lists.newArrayList(superior.getId(), other.getId())).isEmpty());
+		//
+		// role composition is changed => conflict matrix is evicted
+		getHelper().createRoleComposition(superior, sub);
+		Set<ResolvedIncompatibleRoleDto> resolvedIncompatibleRoles = service.resolveIncompatibleRoles(
+				Lists.newArrayList(superior.getId(), other.getId()));
+		Assert.assertEquals(2, resolvedIncompatibleRoles.size());
+		Assert.assertTrue(resolvedIncompatibleRoles
+				.stream()
+				.allMatch(ir -> ir.getIncompatibleRole().getId().equals(incompatibleRole.getId())));
+		Assert.assertTrue(resolvedIncompatibleRoles.stream().anyMatch(ir -> ir.getDirectRole().getId().equals(superior.getId())));
+		Assert.assertTrue(resolvedIncompatibleRoles.stream().anyMatch(ir -> ir.getDirectRole().getId().equals(other.getId())));
+		//
+		// incompatible role is deleted => conflict matrix is evicted
+		getHelper().getService(IdmIncompatibleRoleService.class).delete(incompatibleRole);
+		Assert.assertTrue(service.resolveIncompatibleRoles(Lists.newArrayList(superior.getId(), other.getId())).isEmpty());
+	}
+	
 	public abstract AbstractConceptRoleRequestDto createConceptRoleRequest(
 			IdmRoleRequestDto request,
 			IdmRoleDto role,
@@ -0,0 +1,154 @@
+package eu.bcvsolutions.idm.core.model.service.impl;
+
+import java.math.BigDecimal;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+
+import eu.bcvsolutions.idm.core.api.domain.AutomaticRoleAttributeRuleComparison;
+import eu.bcvsolutions.idm.core.api.domain.AutomaticRoleAttributeRuleType;
+import eu.bcvsolutions.idm.core.api.dto.IdmAutomaticRoleAttributeDto;
+import eu.bcvsolutions.idm.core.eav.entity.IdmFormProjection;
+import eu.bcvsolutions.idm.core.model.entity.IdmIdentityContract;
+import eu.bcvsolutions.idm.test.api.AbstractUnitTest;
+
+/**
+ * Compiled rules of automatic roles by attribute - in memory evaluation.
+ */
+public class AutomaticRoleAttributeRuleIndexUnitTest extends AbstractUnitTest {
+
+	@Test
+	public void testLikeWildcards() {
+		Pattern like = AutomaticRoleAttributeRuleIndex.toLikePattern(AutomaticRoleAttributeRuleComparison.START_WITH, "a_c.");
+		//
+		Assert.assertTrue(like.matcher("abc.def").matches());
+		Assert.assertFalse(like.matcher("abcxdef").matches());
+		Assert.assertFalse(like.matcher("xabc.").matches());
+		//
+		like = AutomaticRoleAttributeRuleIndex.toLikePattern(AutomaticRoleAttributeRuleComparison.NOT_END_WITH, "(1)");
+		Assert.assertTrue(like.matcher("value(1)").matches());
+		Assert.assertFalse(like.matcher("value(1)x").matches());
+		//
+		like = AutomaticRoleAttributeRuleIndex.toLikePattern(AutomaticRoleAttributeRuleComparison.CONTAINS, "10%");
+		Assert.assertTrue(like.matcher("x10y").matches());
+		Assert.assertNull(AutomaticRoleAttributeRuleIndex.toLikePattern(AutomaticRoleAttributeRuleComparison.EQUALS, "10"));
+	}
+
+	@Test
+	public void testNullValues() {
+		Assert.assertFalse(match(AutomaticRoleAttributeRuleComparison.EQUALS, null, "value"));
+		Assert.assertTrue(match(AutomaticRoleAttributeRuleComparison.NOT_EQUALS, null, "value"));
+		Assert.assertFalse(match(AutomaticRoleAttributeRuleComparison.CONTAINS, null, "value"));
+		Assert.assertTrue(match(AutomaticRoleAttributeRuleComparison.NOT_CONTAINS, null, "value"));
+		Assert.assertTrue(match(AutomaticRoleAttributeRuleComparison.IS_EMPTY, null, null));
+		Assert.assertTrue(match(AutomaticRoleAttributeRuleComparison.IS_EMPTY, "", null));
+		Assert.assertFalse(match(AutomaticRoleAttributeRuleComparison.IS_NOT_EMPTY, "", null));
+		Assert.assertTrue(match(AutomaticRoleAttributeRuleComparison.IS_NOT_EMPTY, Boolean.FALSE, null));
+		Assert.assertFalse(match(AutomaticRoleAttributeRuleComparison.LESS_THAN_OR_EQUAL, null, 10));
+	}
+
+	@Test
+	public void testCompareValues() {
+		Assert.assertTrue(match(AutomaticRoleAttributeRuleComparison.EQUALS, 10L, 10));
+		Assert.assertTrue(match(AutomaticRoleAttributeRuleComparison.EQUALS, new BigDecimal("10.50"), new BigDecimal("10.5")));
+		Assert.assertTrue(match(AutomaticRoleAttributeRuleComparison.NOT_EQUALS, Boolean.TRUE, Boolean.FALSE));
+		Assert.assertTrue(match(AutomaticRoleAttributeRuleComparison.LESS_THAN_OR_EQUAL, 10L, "10"));
+		Assert.assertFalse(match(AutomaticRoleAttributeRuleComparison.GREATER_THAN_OR_EQUAL, 9L, "10"));
+		//
+		ZonedDateTime now = ZonedDateTime.now();
+		Assert.assertTrue(match(AutomaticRoleAttributeRuleComparison.EQUALS, now, now.withZoneSameInstant(ZoneId.of("UTC"))));
+		//
+		UUID projectionId = UUID.randomUUID();
+		Assert.assertTrue(match(AutomaticRoleAttributeRuleComparison.EQUALS, new IdmFormProjection(projectionId), new IdmFormProjection(projectionId)));
+		Assert.assertFalse(match(AutomaticRoleAttributeRuleComparison.EQUALS, new IdmFormProjection(UUID.randomUUID()), new IdmFormProjection(projectionId)));
+	}
+
+	@Test
+	public void testSupportedComparison() {
+		Assert.assertTrue(AutomaticRoleAttributeRuleIndex.isSupported(AutomaticRoleAttributeRuleComparison.CONTAINS, String.class, "value"));
+		Assert.assertFalse(AutomaticRoleAttributeRuleIndex.isSupported(AutomaticRoleAttributeRuleComparison.CONTAINS, Boolean.class, "true"));
+		Assert.assertFalse(AutomaticRoleAttributeRuleIndex.isSupported(AutomaticRoleAttributeRuleComparison.LESS_THAN_OR_EQUAL, String.class, "10"));
+		Assert.assertTrue(AutomaticRoleAttributeRuleIndex.isSupported(AutomaticRoleAttributeRuleComparison.EQUALS, Long.class, 10));
+		Assert.assertFalse(AutomaticRoleAttributeRuleIndex.isSupported(AutomaticRoleAttributeRuleComparison.EQUALS, ZonedDateTime.class, "2020-01-01"));
+		Assert.assertFalse(AutomaticRoleAttributeRuleIndex.isSupported(AutomaticRoleAttributeRuleComparison.EQUALS, byte[].class, null));
+		Assert.assertTrue(AutomaticRoleAttributeRuleIndex.isSupported(AutomaticRoleAttributeRuleComparison.IS_EMPTY, byte[].class, null));
+	}
+
+	@Test
+	public void testEvaluate() {
+		UUID attributeId = UUID.randomUUID();
+		AutomaticRoleAttributeRuleIndex index = new AutomaticRoleAttributeRuleIndex(UUID.randomUUID());
+		index.addAttribute(AutomaticRoleAttributeRuleType.CONTRACT_EAV, attributeId, null);
+		int[] evaluated = new int[1];
+		int ruleKey = index.addRule("contract-eav", snapshot -> {
+			evaluated[0]++;
+			return !snapshot.getValues(AutomaticRoleAttributeRuleType.CONTRACT_EAV, attributeId).isEmpty();
+		});
+		Assert.assertEquals(ruleKey, index.addRule("contract-eav", snapshot -> false)); // shared
+		//
+		IdmAutomaticRoleAttributeDto assignedRole = createAutomaticRole();
+		IdmAutomaticRoleAttributeDto passedRole = createAutomaticRole();
+		IdmAutomaticRoleAttributeDto sqlRole = createAutomaticRole();
+		IdmAutomaticRoleAttributeDto identityRole = createAutomaticRole();
+		index.addRole(assignedRole, Sets.newHashSet(AutomaticRoleAttributeRuleType.CONTRACT_EAV), Lists.newArrayList(ruleKey));
+		index.addRole(passedRole, Sets.newHashSet(AutomaticRoleAttributeRuleType.CONTRACT_EAV), Lists.newArrayList(ruleKey));
+		index.addRole(sqlRole, Sets.newHashSet(AutomaticRoleAttributeRuleType.CONTRACT), null);
+		index.addRole(identityRole, Sets.newHashSet(AutomaticRoleAttributeRuleType.IDENTITY), Lists.newArrayList(ruleKey));
+		//
+		Map<UUID, List<Object>> values = new HashMap<>();
+		values.put(attributeId, Lists.newArrayList("value"));
+		AutomaticRoleAttributeRuleIndex.Snapshot snapshot = new AutomaticRoleAttributeRuleIndex.Snapshot(
+				new IdmIdentityContract(), true, Sets.newHashSet(assignedRole.getId()), values, null);
+		//
+		List<IdmAutomaticRoleAttributeDto> sqlRoles = new ArrayList<>();
+		List<IdmAutomaticRoleAttributeDto> results = index.evaluate(true, null, snapshot, sqlRoles);
+		Assert.assertEquals(2, results.size());
+		Assert.assertTrue(results.contains(passedRole));
+		Assert.assertTrue(results.contains(identityRole));
+		Assert.assertEquals(1, sqlRoles.size());
+		Assert.assertEquals(sqlRole, sqlRoles.get(0));
+		Assert.assertEquals(1, evaluated[0]);
+		//
+		sqlRoles.clear();
+		results = index.evaluate(true, AutomaticRoleAttributeRuleType.IDENTITY, snapshot, sqlRoles);
+		Assert.assertEquals(1, results.size());
+		Assert.assertEquals(identityRole, results.get(0));
+		Assert.assertTrue(sqlRoles.isEmpty());
+		//
+		// not passed - assigned role only
+		values.clear();
+		results = index.evaluate(false, AutomaticRoleAttributeRuleType.CONTRACT_EAV, snapshot, sqlRoles);
+		Assert.assertEquals(1, results.size());
+		Assert.assertEquals(assignedRole, results.get(0));
+		//
+		// invalid contract
+		snapshot = new AutomaticRoleAttributeRuleIndex.Snapshot(new IdmIdentityContract(), false, null, null, null);
+		Assert.assertTrue(index.evaluate(true, AutomaticRoleAttributeRuleType.CONTRACT_EAV, snapshot, sqlRoles).isEmpty());
+	}
+
+	private boolean match(AutomaticRoleAttributeRuleComparison comparison, Object actual, Object value) {
+		return AutomaticRoleAttributeRuleIndex.match(
+				comparison,
+				actual,
+				AutomaticRoleAttributeRuleIndex.toExpected(comparison, value),
+				AutomaticRoleAttributeRuleIndex.toLikePattern(comparison, value));
+	}
+
+	private IdmAutomaticRoleAttributeDto createAutomaticRole() {
+		IdmAutomaticRoleAttributeDto automaticRole = new IdmAutomaticRoleAttributeDto();
+		automaticRole.setId(UUID.randomUUID());
+		//
+		return automaticRole;
+	}
+}
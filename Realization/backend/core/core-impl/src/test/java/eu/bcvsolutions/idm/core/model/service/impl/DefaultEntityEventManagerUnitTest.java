@@ -2,6 +2,8 @@ package eu.bcvsolutions.idm.core.model.service.impl;
 
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -47,6 +49,7 @@ import eu.bcvsolutions.idm.core.api.service.LookupService;
 import eu.bcvsolutions.idm.core.event.domain.MockOwner;
 import eu.bcvsolutions.idm.core.model.entity.IdmIdentity;
 import eu.bcvsolutions.idm.core.model.repository.IdmEntityEventRepository;
+import eu.bcvsolutions.idm.core.scheduler.api.service.PartitionedExecutor;
 import eu.bcvsolutions.idm.core.security.api.service.EnabledEvaluator;
 import eu.bcvsolutions.idm.test.api.AbstractUnitTest;
 
@@ -409,6 +412,48 @@ public class DefaultEntityEventManagerUnitTest extends AbstractUnitTest {
 		Assert.assertEquals(normalEventOne.getId(), events.get(2).getId());
 	}
 	
+	@Test
+	public void testCreatedEventsRemoveDuplicatesInQueueByFingerprint() {
+		ZonedDateTime created = ZonedDateTime.now();
+		UUID ownerId = UUID.randomUUID();
+		IdmEntityEventDto normalEvent = new IdmEntityEventDto(UUID.randomUUID());
+		normalEvent.setCreated(created.minusNanos(2));
+		normalEvent.setPriority(PriorityType.NORMAL);
+		normalEvent.setOwnerId(ownerId);
+		normalEvent.setFingerprint("fingerprint");
+		when(entityEventService
+				.findToExecute(
+						any(), 						
+						any(ZonedDateTime.class), 
+						eq(PriorityType.HIGH), 
+						any(),
+						any()))
+				.thenReturn(new PageImpl<>(new ArrayList<>()));
+		when(entityEventService
+				.findToExecute(
+						any(), 						
+						any(ZonedDateTime.class), 
+						eq(PriorityType.NORMAL), 
+						any(),
+						any()))
+				.thenReturn(new PageImpl<>(Lists.newArrayList(normalEvent)));
+		// duplicate out of loaded events
+		IdmEntityEventDto queuedEvent = new IdmEntityEventDto(UUID.randomUUID());
+		queuedEvent.setCreated(created.minusNanos(1));
+		queuedEvent.setPriority(PriorityType.HIGH);
+		queuedEvent.setOwnerId(ownerId);
+		queuedEvent.setFingerprint("fingerprint");
+		when(entityEventService.findDuplicates(eq("instance"), any(ZonedDateTime.class), any())).thenReturn(Lists.newArrayList(queuedEvent));
+		when(eventConfiguration.getBatchSize()).thenReturn(100);
+		//
+		List<IdmEntityEventDto> events = manager.getCreatedEvents("instance");
+		//
+		Assert.assertEquals(1, events.size());
+		Assert.assertEquals(normalEvent.getId(), events.get(0).getId());
+		Assert.assertEquals(PriorityType.HIGH, events.get(0).getPriority());
+		verify(entityEventService).deleteDuplicates(Lists.newArrayList(queuedEvent.getId()));
+	}
+	
 	@Test
 	public void testCreatedEventsDontRemoveDuplicatesWithDifferentPerentEventType() {
 		ZonedDateTime created = ZonedDateTime.now();
@@ -546,6 +591,56 @@ public class DefaultEntityEventManagerUnitTest extends AbstractUnitTest {
 		
 	}
 	
+	@Test
+	public void testIsDuplicateByFingerprint() {
+		UUID ownerId = UUID.randomUUID();
+		IdmIdentityDto originalSourceOne = new IdmIdentityDto(UUID.randomUUID());
+		originalSourceOne.setFirstName("one");
+		//
+		IdmEntityEventDto eventOne = new IdmEntityEventDto(UUID.randomUUID());
+		eventOne.setOwnerId(ownerId);
+		eventOne.setEventType("type");
+		eventOne.setParentEventType("one");
+		eventOne.getProperties().put("one", "one");
+		eventOne.setOriginalSource(originalSourceOne);
+		eventOne.setFingerprint(manager.getFingerprint(eventOne));
+		//
+		IdmIdentityDto originalSourceTwo = new IdmIdentityDto(originalSourceOne.getId());
+		originalSourceTwo.setFirstName("one");
+		originalSourceTwo.setModified(ZonedDateTime.now()); // audit fields are ignored
+		originalSourceTwo.getEmbedded().put("embedded", new IdmIdentityDto(UUID.randomUUID())); // embedded is ignored
+		IdmEntityEventDto eventTwo = new IdmEntityEventDto(UUID.randomUUID());
+		eventTwo.setOwnerId(ownerId);
+		eventTwo.setEventType("type");
+		eventTwo.setParentEventType("one");
+		eventTwo.getProperties().put("one", "one");
+		eventTwo.getProperties().put(EntityEvent.EVENT_PROPERTY_PRIORITY, PriorityType.HIGH); // internal properties are ignored
+		eventTwo.setOriginalSource(originalSourceTwo);
+		eventTwo.setFingerprint(manager.getFingerprint(eventTwo));
+		//
+		Assert.assertNotNull(eventOne.getFingerprint());
+		Assert.assertEquals(eventOne.getFingerprint(), eventTwo.getFingerprint());
+		Assert.assertTrue(manager.isDuplicate(eventOne, eventTwo));
+		//
+		originalSourceTwo.setFirstName("two");
+		eventTwo.setFingerprint(manager.getFingerprint(eventTwo));
+		//
+		Assert.assertNotEquals(eventOne.getFingerprint(), eventTwo.getFingerprint());
+		Assert.assertFalse(manager.isDuplicate(eventOne, eventTwo));
+		//
+		originalSourceTwo.setFirstName("one");
+		eventTwo.getProperties().put("one", "two");
+		eventTwo.setFingerprint(manager.getFingerprint(eventTwo));
+		//
+		Assert.assertNotEquals(eventOne.getFingerprint(), eventTwo.getFingerprint());
+		Assert.assertFalse(manager.isDuplicate(eventOne, eventTwo));
+		//
+		// original source is not DTO => fingerprint is not computed
+		eventTwo.setOriginalSource(new IdmIdentity(originalSourceOne.getId()));
+		//
+		Assert.assertNull(manager.getFingerprint(eventTwo));
+	}
+	
 	@Test
 	public void testCreatedEventsRemoveDuplicatesByProps() {
 		List<IdmEntityEventDto> highEvents = new ArrayList<>();
@@ -595,7 +690,7 @@ public class DefaultEntityEventManagerUnitTest extends AbstractUnitTest {
 		List<IdmEntityEventDto> events = manager.getCreatedEvents("instance");
 		Assert.assertEquals(1, events.size());
 		Assert.assertTrue(events.stream().anyMatch(e -> e.getId().equals(highEventTwo.getId())));
-		verify(entityEventService).delete(highEventOne);
+		verify(entityEventService).deleteDuplicates(Lists.newArrayList(highEventOne.getId()));
 	}
 	
 	@Test
@@ -665,6 +760,61 @@ public class DefaultEntityEventManagerUnitTest extends AbstractUnitTest {
 		Assert.assertEquals(normalEventTwo.getId(), events.get(0).getId());		
 	}
 	
+	@Test
+	public void testDispatchEventsIntoPinnedOwnerLane() {
+		PartitionedExecutor executor = mock(PartitionedExecutor.class);
+		when(executor.execute(any(), any(Runnable.class))).thenReturn(true);
+		when(eventConfiguration.isAsynchronous()).thenReturn(true);
+		when(eventConfiguration.getExecutor()).thenReturn(executor);
+		when(eventConfiguration.getBatchSize()).thenReturn(100);
+		UUID ownerId = UUID.randomUUID();
+		UUID subOwnerId = UUID.randomUUID();
+		UUID subSubOwnerId = UUID.randomUUID();
+		IdmEntityEventDto eventOne = createDispatchedEvent(ownerId, null);
+		IdmEntityEventDto eventTwo = createDispatchedEvent(subOwnerId, ownerId);
+		IdmEntityEventDto eventThree = createDispatchedEvent(subSubOwnerId, subOwnerId);
+		IdmEntityEventDto eventOther = createDispatchedEvent(UUID.randomUUID(), null);
+		//
+		try {
+			manager.executeEvent(eventOne);
+			manager.executeEvent(eventTwo);
+			manager.executeEvent(eventThree);
+			// already dispatched
+			manager.executeEvent(eventOne);
+			//
+			// all events are executed in the lane of the first owner
+			verify(executor, times(3)).execute(eq(ownerId), any(Runnable.class));
+			Assert.assertTrue(manager.isRunningOwner(ownerId));
+			Assert.assertTrue(manager.isRunningOwner(subOwnerId));
+			Assert.assertTrue(manager.isRunningOwner(subSubOwnerId));
+			//
+			// dispatched events are skipped
+			when(entityEventService
+					.findToExecute(
+							any(), 						
+							any(ZonedDateTime.class), 
+							eq(PriorityType.HIGH),
+							any(),
+							any()))
+					.thenReturn(new PageImpl<>(Lists.newArrayList(eventOne, eventTwo, eventOther)));
+			when(entityEventService
+					.findToExecute(
+							any(), 						
+							any(ZonedDateTime.class), 
+							eq(PriorityType.NORMAL),
+							any(),
+							any()))
+					.thenReturn(new PageImpl<>(new ArrayList<>()));
+			//
+			List<IdmEntityEventDto> events = manager.getCreatedEvents("instance");
+			Assert.assertEquals(1, events.size());
+			Assert.assertEquals(eventOther.getId(), events.get(0).getId());
+		} finally {
+			manager.deleteAllEvents();
+		}
+		Assert.assertFalse(manager.isRunningOwner(ownerId));
+	}
+	
 	@Test
 	public void testVoteAboutEventPriority() {
 		MockAsyncProcessor one = new MockAsyncProcessor(null);
@@ -811,6 +961,16 @@ public class DefaultEntityEventManagerUnitTest extends AbstractUnitTest {
 		Assert.assertNull(event.getProperties().get(EntityEvent.EVENT_PROPERTY_EXECUTE_DATE));
 	}
 	
+	private IdmEntityEventDto createDispatchedEvent(UUID ownerId, UUID superOwnerId) {
+		IdmEntityEventDto event = new IdmEntityEventDto(UUID.randomUUID());
+		event.setCreated(ZonedDateTime.now());
+		event.setPriority(PriorityType.HIGH);
+		event.setOwnerId(ownerId);
+		event.setSuperOwnerId(superOwnerId);
+		//
+		return event;
+	}
+	
 	private Page<IdmEntityEventDto> createEvents(PriorityType priority, int count) {
 		List<IdmEntityEventDto> events = new ArrayList<>();
 		ZonedDateTime created = ZonedDateTime.now().minusNanos(count);
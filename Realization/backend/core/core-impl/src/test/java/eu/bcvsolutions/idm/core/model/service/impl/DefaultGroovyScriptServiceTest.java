@@ -1,16 +1,27 @@
 package eu.bcvsolutions.idm.core.model.service.impl;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.junit.After;
 import org.junit.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Lists;
+import com.google.common.hash.Hashing;
 
+import eu.bcvsolutions.idm.core.api.config.cache.domain.ValueWrapper;
 import eu.bcvsolutions.idm.core.api.dto.BaseDto;
 import eu.bcvsolutions.idm.core.api.dto.IdmIdentityDto;
 import eu.bcvsolutions.idm.core.api.dto.IdmIdentityRoleDto;
@@ -19,6 +30,9 @@ import eu.bcvsolutions.idm.core.api.service.IdmCacheManager;
 import eu.bcvsolutions.idm.core.eav.api.dto.IdmFormInstanceDto;
 import eu.bcvsolutions.idm.core.security.exception.IdmSecurityException;
 import eu.bcvsolutions.idm.test.api.AbstractVerifiableUnitTest;
+import groovy.lang.Script;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 
 public class DefaultGroovyScriptServiceTest extends AbstractVerifiableUnitTest {
 
@@ -161,4 +175,72 @@ public class DefaultGroovyScriptServiceTest extends AbstractVerifiableUnitTest {
 		groovyScriptService.evaluate(script, null);
 	}
 
+	@Test
+	public void testCompiledScriptClassIsCachedBySourceHash() {
+		String script = "return value + 1;";
+		String scriptKey = Hashing.sha256().hashString(script, StandardCharsets.UTF_8).toString();
+		//
+		Object result = groovyScriptService.evaluate(script, ImmutableMap.of("value", 1));
+		//
+		assertEquals(2, result);
+		Mockito.verify(cacheManager).getValue(DefaultGroovyScriptService.CACHE_NAME, scriptKey);
+		Mockito.verify(cacheManager).cacheValue(
+				Mockito.eq(DefaultGroovyScriptService.CACHE_NAME), 
+				Mockito.eq(scriptKey), 
+				Mockito.argThat(value -> value instanceof Class && Script.class.isAssignableFrom((Class<?>) value)));
+	}
+	
+	@Test
+	@SuppressWarnings("unchecked")
+	public void testConcurrentEvaluation() throws Exception {
+		String script = "Thread.yield(); return value * 2;";
+		Class<? extends Script> scriptClass = (Class<? extends Script>) groovyScriptService.validateScript(script).getClass();
+		Mockito.when(cacheManager.getValue(Mockito.eq(DefaultGroovyScriptService.CACHE_NAME), Mockito.any()))
+			.thenReturn(new ValueWrapper() {
+				@Override
+				public Object get() {
+					return scriptClass;
+				}
+			});
+		//
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<Object>> results = new ArrayList<>();
+			for (int i = 0; i < 200; i++) {
+				int value = i;
+				results.add(executor.submit(() -> groovyScriptService.evaluate(script, ImmutableMap.of("value", value), Lists.newArrayList(Thread.class))));
+			}
+			//
+			// each evaluation has own script instance => own variables
+			for (int i = 0; i < results.size(); i++) {
+				assertEquals(i * 2, results.get(i).get());
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+	
+	@Test
+	public void testScriptMetrics() {
+		SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+		ReflectionTestUtils.setField(groovyScriptService, "meterRegistry", meterRegistry);
+		String script = "return \"testOne\";";
+		//
+		groovyScriptService.evaluate(script, null, null, "scriptCode");
+		groovyScriptService.evaluate(script, null);
+		//
+		Timer compile = meterRegistry.find(DefaultGroovyScriptService.METRIC_COMPILE).tag(DefaultGroovyScriptService.METRIC_TAG_SCRIPT, "scriptCode").timer();
+		assertNotNull(compile);
+		assertEquals(1, compile.count());
+		Timer evaluate = meterRegistry.find(DefaultGroovyScriptService.METRIC_EVALUATE).tag(DefaultGroovyScriptService.METRIC_TAG_SCRIPT, "scriptCode").timer();
+		assertNotNull(evaluate);
+		assertEquals(1, evaluate.count());
+		// without code - all inline scripts are recorded together
+		groovyScriptService.evaluate("return \"testTwo\";", null);
+		Timer inline = meterRegistry.find(DefaultGroovyScriptService.METRIC_EVALUATE).tag(DefaultGroovyScriptService.METRIC_TAG_SCRIPT, DefaultGroovyScriptService.METRIC_TAG_SCRIPT_INLINE).timer();
+		assertNotNull(inline);
+		assertEquals(2, inline.count());
+		assertEquals(2, meterRegistry.find(DefaultGroovyScriptService.METRIC_EVALUATE).timers().size());
+	}
+
 }
@@ -15,6 +15,7 @@ import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 import org.junit.After;
@@ -758,6 +759,114 @@ public class DefaultIdmAutomaticRoleAttributeServiceIntegrationTest extends Abst
 		assertEquals(0, identityRoles.size());
 	}
 	
+	@Test
+	public void testRuleIndexSameAsSql() {
+		String testValue = getHelper().createName();
+		IdmIdentityDto identity = getHelper().createIdentity((GuardedString) null);
+		IdmIdentityContractDto contract = getHelper().getPrimeContract(identity);
+		contract.setPosition(testValue + "-position");
+		contract = identityContractService.save(contract);
+		IdmFormAttributeDto eavAttribute = getHelper().createEavAttribute(getHelper().createName(), IdmIdentity.class, PersistentType.SHORTTEXT);
+		IdmFormAttributeDto emptyEavAttribute = getHelper().createEavAttribute(getHelper().createName(), IdmIdentity.class, PersistentType.SHORTTEXT);
+		getHelper().setEavValue(identity, eavAttribute, IdmIdentity.class, testValue, PersistentType.SHORTTEXT);
+		//
+		IdmAutomaticRoleAttributeDto automaticRoleOne = getHelper().createAutomaticRole(getHelper().createRole().getId());
+		getHelper().createAutomaticRoleRule(automaticRoleOne.getId(), AutomaticRoleAttributeRuleComparison.START_WITH,
+				AutomaticRoleAttributeRuleType.CONTRACT, IdmIdentityContract_.position.getName(), null, testValue);
+		getHelper().createAutomaticRoleRule(automaticRoleOne.getId(), AutomaticRoleAttributeRuleComparison.NOT_EQUALS,
+				AutomaticRoleAttributeRuleType.IDENTITY_EAV, null, eavAttribute.getId(), testValue + "-other");
+		getHelper().createAutomaticRoleRule(automaticRoleOne.getId(), AutomaticRoleAttributeRuleComparison.IS_EMPTY,
+				AutomaticRoleAttributeRuleType.IDENTITY_EAV, null, emptyEavAttribute.getId(), null);
+		IdmAutomaticRoleAttributeDto automaticRoleTwo = getHelper().createAutomaticRole(getHelper().createRole().getId());
+		getHelper().createAutomaticRoleRule(automaticRoleTwo.getId(), AutomaticRoleAttributeRuleComparison.EQUALS,
+				AutomaticRoleAttributeRuleType.CONTRACT, IdmIdentityContract_.externe.getName(), null, Boolean.TRUE.toString());
+		getHelper().createAutomaticRoleRule(automaticRoleTwo.getId(), AutomaticRoleAttributeRuleComparison.CONTAINS,
+				AutomaticRoleAttributeRuleType.IDENTITY_EAV, null, eavAttribute.getId(), testValue);
+		// without recalculation - roles are not assigned
+		publishRules(automaticRoleOne.getId());
+		publishRules(automaticRoleTwo.getId());
+		// sql is used by default
+		Set<AbstractIdmAutomaticRoleDto> passed = automaticRoleAttributeService.getRulesForContract(true, null, contract.getId());
+		Assert.assertTrue(passed.stream().anyMatch(r -> r.getId().equals(automaticRoleOne.getId())));
+		Assert.assertFalse(passed.stream().anyMatch(r -> r.getId().equals(automaticRoleTwo.getId())));
+		Set<AbstractIdmAutomaticRoleDto> notPassed = automaticRoleAttributeService.getRulesForContract(false, null, contract.getId());
+		//
+		try {
+			getHelper().setConfigurationValue(IdmAutomaticRoleAttributeService.PROPERTY_RULE_INDEX_ENABLED, true);
+			//
+			Assert.assertEquals(passed, automaticRoleAttributeService.getRulesForContract(true, null, contract.getId()));
+			Assert.assertEquals(notPassed, automaticRoleAttributeService.getRulesForContract(false, null, contract.getId()));
+			//
+			// changed rule is used
+			getHelper().createAutomaticRoleRule(automaticRoleOne.getId(), AutomaticRoleAttributeRuleComparison.EQUALS,
+					AutomaticRoleAttributeRuleType.CONTRACT, IdmIdentityContract_.externe.getName(), null, Boolean.TRUE.toString());
+			publishRules(automaticRoleOne.getId());
+			passed = automaticRoleAttributeService.getRulesForContract(true, AutomaticRoleAttributeRuleType.CONTRACT, contract.getId());
+			Assert.assertFalse(passed.stream().anyMatch(r -> r.getId().equals(automaticRoleOne.getId())));
+		} finally {
+			getHelper().setConfigurationValue(IdmAutomaticRoleAttributeService.PROPERTY_RULE_INDEX_ENABLED, false);
+		}
+	}
+	
+	@Test
+	public void testRuleIndexSameAsSqlIgnoringCaseAndTrailingSpaces() {
+		String testValue = "Value-" + getHelper().createName();
+		IdmIdentityDto identity = getHelper().createIdentity((GuardedString) null);
+		IdmIdentityContractDto contract = getHelper().getPrimeContract(identity);
+		contract.setPosition(testValue);
+		contract = identityContractService.save(contract);
+		IdmFormAttributeDto eavAttribute = getHelper().createEavAttribute(getHelper().createName(), IdmIdentity.class, PersistentType.SHORTTEXT);
+		getHelper().setEavValue(identity, eavAttribute, IdmIdentity.class, testValue + " ", PersistentType.SHORTTEXT);
+		//
+		List<IdmAutomaticRoleAttributeDto> automaticRoles = new ArrayList<>();
+		for (String value : new String[] { testValue, testValue.toUpperCase(), testValue.toLowerCase(), testValue + " ", " " + testValue }) {
+			IdmAutomaticRoleAttributeDto contractRole = getHelper().createAutomaticRole(getHelper().createRole().getId());
+			getHelper().createAutomaticRoleRule(contractRole.getId(), AutomaticRoleAttributeRuleComparison.EQUALS,
+					AutomaticRoleAttributeRuleType.CONTRACT, IdmIdentityContract_.position.getName(), null, value);
+			automaticRoles.add(contractRole);
+			IdmAutomaticRoleAttributeDto eavRole = getHelper().createAutomaticRole(getHelper().createRole().getId());
+			getHelper().createAutomaticRoleRule(eavRole.getId(), AutomaticRoleAttributeRuleComparison.EQUALS,
+					AutomaticRoleAttributeRuleType.IDENTITY_EAV, null, eavAttribute.getId(), value);
+			automaticRoles.add(eavRole);
+			IdmAutomaticRoleAttributeDto startWithRole = getHelper().createAutomaticRole(getHelper().createRole().getId());
+			getHelper().createAutomaticRoleRule(startWithRole.getId(), AutomaticRoleAttributeRuleComparison.START_WITH,
+					AutomaticRoleAttributeRuleType.CONTRACT, IdmIdentityContract_.position.getName(), null, value);
+			automaticRoles.add(startWithRole);
+			IdmAutomaticRoleAttributeDto notEqualsRole = getHelper().createAutomaticRole(getHelper().createRole().getId());
+			getHelper().createAutomaticRoleRule(notEqualsRole.getId(), AutomaticRoleAttributeRuleComparison.NOT_EQUALS,
+					AutomaticRoleAttributeRuleType.IDENTITY_EAV, null, eavAttribute.getId(), value);
+			automaticRoles.add(notEqualsRole);
+		}
+		automaticRoles.forEach(automaticRole -> publishRules(automaticRole.getId()));
+		//
+		Set<AbstractIdmAutomaticRoleDto> passed = automaticRoleAttributeService.getRulesForContract(true, null, contract.getId());
+		Set<AbstractIdmAutomaticRoleDto> notPassed = automaticRoleAttributeService.getRulesForContract(false, null, contract.getId());
+		// exact value matches at least
+		Assert.assertTrue(passed.stream().anyMatch(r -> r.getId().equals(automaticRoles.get(0).getId())));
+		//
+		try {
+			getHelper().setConfigurationValue(IdmAutomaticRoleAttributeService.PROPERTY_RULE_INDEX_ENABLED, true);
+			//
+			for (IdmAutomaticRoleAttributeDto automaticRole : automaticRoles) {
+				UUID automaticRoleId = automaticRole.getId();
+				Assert.assertEquals(
+						passed.stream().anyMatch(r -> r.getId().equals(automaticRoleId)),
+						automaticRoleAttributeService
+							.getRulesForContract(true, null, contract.getId())
+							.stream()
+							.anyMatch(r -> r.getId().equals(automaticRoleId)));
+				Assert.assertEquals(
+						notPassed.stream().anyMatch(r -> r.getId().equals(automaticRoleId)),
+						automaticRoleAttributeService
+							.getRulesForContract(false, null, contract.getId())
+							.stream()
+							.anyMatch(r -> r.getId().equals(automaticRoleId)));
+			}
+		} finally {
+			getHelper().setConfigurationValue(IdmAutomaticRoleAttributeService.PROPERTY_RULE_INDEX_ENABLED, false);
+		}
+	}
+	
 	@Test
 	public void testAssingByContractEavAttrWithoutRecalcualte() {
 		String testValue = "123!@#" + System.currentTimeMillis();
@@ -4688,6 +4797,12 @@ public class DefaultIdmAutomaticRoleAttributeServiceIntegrationTest extends Abst
 		}
 	}
 
+	private void publishRules(UUID automaticRoleId) {
+		IdmAutomaticRoleAttributeDto automaticRole = automaticRoleAttributeService.get(automaticRoleId);
+		automaticRole.setConcept(false);
+		automaticRoleAttributeService.save(automaticRole);
+	}
+
 	/**
 	 * Create automatic role attribute with one rule for entity only (contract, identity)
 	 *
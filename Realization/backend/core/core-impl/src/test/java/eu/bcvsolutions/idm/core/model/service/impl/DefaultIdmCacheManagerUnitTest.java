@@ -0,0 +1,289 @@
+package eu.bcvsolutions.idm.core.model.service.impl;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.configuration.MutableConfiguration;
+
+import org.ehcache.config.builders.CacheConfigurationBuilder;
+import org.ehcache.config.builders.ConfigurationBuilder;
+import org.ehcache.config.builders.ResourcePoolsBuilder;
+import org.ehcache.jsr107.Eh107Configuration;
+import org.ehcache.jsr107.EhcacheCachingProvider;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.Lists;
+
+import eu.bcvsolutions.idm.core.CoreModuleDescriptor;
+import eu.bcvsolutions.idm.core.api.config.cache.DistributedIdMCacheConfiguration;
+import eu.bcvsolutions.idm.core.api.config.cache.IdMCacheConfiguration;
+import eu.bcvsolutions.idm.core.api.config.cache.LocalIdMCacheConfiguration;
+import eu.bcvsolutions.idm.core.api.config.cache.domain.SerializableCacheObjectWrapper;
+import eu.bcvsolutions.idm.core.api.dto.IdmCacheDto;
+import eu.bcvsolutions.idm.core.api.service.IdmCacheManager;
+import eu.bcvsolutions.idm.core.config.cache.IdmNearCache;
+import eu.bcvsolutions.idm.core.config.cache.NearCacheInvalidation;
+import eu.bcvsolutions.idm.test.api.AbstractUnitTest;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Near cache in front of distributed cache - two cluster nodes share the same (distributed) cache manager.
+ * Cache statistics and metrics.
+ */
+public class DefaultIdmCacheManagerUnitTest extends AbstractUnitTest {
+
+	private static final String CACHE_NAME = IdmCacheManager.getCacheName(CoreModuleDescriptor.MODULE_ID, "near-cache-test");
+	private static final String LOCAL_CACHE_NAME = IdmCacheManager.getCacheName(CoreModuleDescriptor.MODULE_ID, "local-cache-test");
+	//
+	private CacheManager jCacheManager;
+	private DefaultIdmCacheManager nodeOne;
+	private DefaultIdmCacheManager nodeTwo;
+
+	@Before
+	public void init() {
+		EhcacheCachingProvider cachingProvider = (EhcacheCachingProvider) Caching.getCachingProvider(EhcacheCachingProvider.class.getName());
+		jCacheManager = cachingProvider.getCacheManager(
+				URI.create(String.format("urn:idm:near-cache-test:%s", UUID.randomUUID())),
+				ConfigurationBuilder.newConfigurationBuilder().build());
+		jCacheManager.createCache(CACHE_NAME, new MutableConfiguration<>());
+		jCacheManager.createCache(DefaultIdmCacheManager.NEAR_CACHE_INVALIDATION_CACHE_NAME, new MutableConfiguration<>());
+		jCacheManager.createCache(LOCAL_CACHE_NAME, new MutableConfiguration<>().setStoreByValue(false));
+		//
+		List<IdMCacheConfiguration> configurations = Lists.newArrayList(
+				DistributedIdMCacheConfiguration.<String, String> builder()
+					.withName(CACHE_NAME)
+					.withKeyType(String.class)
+					.withValueType(String.class)
+					.withNearCache(10, Duration.ofMinutes(1))
+					.build(),
+				DistributedIdMCacheConfiguration.<String, NearCacheInvalidation> builder()
+					.withName(DefaultIdmCacheManager.NEAR_CACHE_INVALIDATION_CACHE_NAME)
+					.withKeyType(String.class)
+					.withValueType(NearCacheInvalidation.class)
+					.build());
+		nodeOne = new DefaultIdmCacheManager(jCacheManager, configurations, "localhost:9410");
+		nodeTwo = new DefaultIdmCacheManager(jCacheManager, configurations, "localhost:9410");
+	}
+
+	@After
+	public void destroy() {
+		jCacheManager.close();
+	}
+
+	@Test
+	public void testNearCacheHit() {
+		Assert.assertTrue(nodeOne.cacheValue(CACHE_NAME, "one", "valueOne"));
+		//
+		Assert.assertEquals("valueOne", nodeTwo.getValue(CACHE_NAME, "one").get());
+		// distributed cache is changed without manager => near cache is used
+		jCacheManager.getCache(CACHE_NAME).clear();
+		Assert.assertEquals("valueOne", nodeTwo.getValue(CACHE_NAME, "one").get());
+		Assert.assertNull(nodeTwo.getValue(CACHE_NAME, "two"));
+		//
+		IdmCacheDto cache = getCache(nodeTwo);
+		Assert.assertEquals(2, cache.getHitCount());
+		Assert.assertEquals(1, cache.getNearCacheHitCount());
+		Assert.assertEquals(1, cache.getMissCount());
+		Assert.assertEquals(1, cache.getNearCacheSize());
+	}
+
+	@Test
+	public void testEvictValueOnOtherNode() {
+		nodeOne.cacheValue(CACHE_NAME, "one", "valueOne");
+		nodeOne.cacheValue(CACHE_NAME, "two", "valueTwo");
+		Assert.assertEquals("valueOne", nodeTwo.getValue(CACHE_NAME, "one").get());
+		Assert.assertEquals("valueTwo", nodeTwo.getValue(CACHE_NAME, "two").get());
+		//
+		nodeOne.evictValue(CACHE_NAME, "one");
+		Assert.assertNull(nodeOne.getValue(CACHE_NAME, "one"));
+		// invalidation is not processed yet
+		Assert.assertEquals("valueOne", nodeTwo.getValue(CACHE_NAME, "one").get());
+		//
+		nodeTwo.processNearCacheInvalidations();
+		Assert.assertNull(nodeTwo.getValue(CACHE_NAME, "one"));
+		Assert.assertEquals("valueTwo", nodeTwo.getValue(CACHE_NAME, "two").get());
+		Assert.assertEquals(1, getCache(nodeTwo).getNearCacheSize());
+	}
+
+	@Test
+	public void testChangeValueOnOtherNode() {
+		nodeOne.cacheValue(CACHE_NAME, "one", "valueOne");
+		Assert.assertEquals("valueOne", nodeTwo.getValue(CACHE_NAME, "one").get());
+		//
+		nodeOne.cacheValue(CACHE_NAME, "one", "valueOneChanged");
+		Assert.assertEquals("valueOneChanged", nodeOne.getValue(CACHE_NAME, "one").get());
+		//
+		nodeTwo.processNearCacheInvalidations();
+		Assert.assertEquals("valueOneChanged", nodeTwo.getValue(CACHE_NAME, "one").get());
+	}
+
+	@Test
+	public void testPublishInvalidationOnOverwriteOnly() {
+		Cache<Object, Object> invalidationCache = jCacheManager.getCache(DefaultIdmCacheManager.NEAR_CACHE_INVALIDATION_CACHE_NAME);
+		nodeOne.cacheValue(CACHE_NAME, "one", "valueOne");
+		Assert.assertNull(invalidationCache.get(CACHE_NAME));
+		//
+		nodeOne.cacheValue(CACHE_NAME, "one", "valueOneChanged");
+		Assert.assertNotNull(invalidationCache.get(CACHE_NAME));
+		Assert.assertEquals("valueOneChanged", nodeOne.getValue(CACHE_NAME, "one").get());
+	}
+	
+	@Test
+	public void testStaleLoadedValueIsNotCached() {
+		IdmNearCache nearCache = new IdmNearCache(
+				DistributedIdMCacheConfiguration.<String, String> builder()
+					.withName(CACHE_NAME)
+					.withKeyType(String.class)
+					.withValueType(String.class)
+					.withNearCache(10, Duration.ofMinutes(1))
+					.build());
+		long loadVersion = nearCache.getVersion();
+		// invalidation is processed, while value is loaded from distributed cache
+		nearCache.invalidate(new NearCacheInvalidation().next("one"));
+		//
+		Assert.assertFalse(nearCache.put("one", new SerializableCacheObjectWrapper<>("valueOne"), loadVersion));
+		Assert.assertNull(nearCache.get("one"));
+		Assert.assertTrue(nearCache.put("one", new SerializableCacheObjectWrapper<>("valueOne"), nearCache.getVersion()));
+		Assert.assertNotNull(nearCache.get("one"));
+	}
+	
+	@Test
+	public void testEvictCacheOnOtherNode() {
+		nodeOne.cacheValue(CACHE_NAME, "one", "valueOne");
+		nodeOne.cacheValue(CACHE_NAME, "two", "valueTwo");
+		Assert.assertNotNull(nodeTwo.getValue(CACHE_NAME, "one"));
+		Assert.assertNotNull(nodeTwo.getValue(CACHE_NAME, "two"));
+		//
+		nodeOne.evictCache(CACHE_NAME);
+		nodeTwo.processNearCacheInvalidations();
+		//
+		Assert.assertNull(nodeTwo.getValue(CACHE_NAME, "one"));
+		Assert.assertNull(nodeTwo.getValue(CACHE_NAME, "two"));
+	}
+
+	@Test
+	public void testTooManyInvalidationsClearNearCache() {
+		nodeOne.cacheValue(CACHE_NAME, "one", "valueOne");
+		Assert.assertNotNull(nodeTwo.getValue(CACHE_NAME, "one"));
+		//
+		for (int i = 0; i <= NearCacheInvalidation.MAX_KEYS; i++) {
+			nodeOne.evictValue(CACHE_NAME, String.valueOf(i));
+		}
+		jCacheManager.getCache(CACHE_NAME).clear(); // evicted without manager
+		nodeTwo.processNearCacheInvalidations();
+		//
+		Assert.assertNull(nodeTwo.getValue(CACHE_NAME, "one"));
+	}
+
+	@Test
+	public void testNearCacheIsNotUsedWithoutDistributedServer() {
+		List<IdMCacheConfiguration> configurations = Lists.newArrayList(
+				DistributedIdMCacheConfiguration.<String, String> builder()
+					.withName(CACHE_NAME)
+					.withKeyType(String.class)
+					.withValueType(String.class)
+					.withNearCache(10, Duration.ofMinutes(1))
+					.build());
+		DefaultIdmCacheManager manager = new DefaultIdmCacheManager(jCacheManager, configurations, null);
+		manager.cacheValue(CACHE_NAME, "one", "valueOne");
+		Assert.assertNotNull(manager.getValue(CACHE_NAME, "one"));
+		//
+		jCacheManager.getCache(CACHE_NAME).clear();
+		Assert.assertNull(manager.getValue(CACHE_NAME, "one"));
+		Assert.assertEquals(0, getCache(manager).getNearCacheHitCount());
+	}
+
+	@Test
+	public void testCacheStatistics() {
+		DefaultIdmCacheManager manager = new DefaultIdmCacheManager(jCacheManager, Lists.newArrayList(getLocalConfiguration()), null);
+		manager.cacheValue(LOCAL_CACHE_NAME, "one", "valueOne");
+		manager.cacheValue(LOCAL_CACHE_NAME, "two", "valueTwo");
+		manager.cacheValue(LOCAL_CACHE_NAME, "three", "valueThree");
+		Assert.assertNotNull(manager.getValue(LOCAL_CACHE_NAME, "one"));
+		Assert.assertNull(manager.getValue(LOCAL_CACHE_NAME, "four"));
+		manager.evictValue(LOCAL_CACHE_NAME, "two");
+		//
+		IdmCacheDto cache = getCache(manager, LOCAL_CACHE_NAME);
+		Assert.assertEquals(3, cache.getPutCount());
+		Assert.assertEquals(1, cache.getRemovalCount());
+		Assert.assertEquals(1, cache.getHitCount());
+		Assert.assertEquals(1, cache.getMissCount());
+		Assert.assertEquals(2, cache.getSize());
+		Assert.assertTrue(cache.getHeapSize() > 0);
+		Assert.assertEquals(0, cache.getEvictionCount());
+	}
+	
+	@Test
+	public void testEvictionCount() {
+		String cacheName = IdmCacheManager.getCacheName(CoreModuleDescriptor.MODULE_ID, "eviction-test");
+		jCacheManager.createCache(cacheName, Eh107Configuration.fromEhcacheCacheConfiguration(
+				CacheConfigurationBuilder
+					.newCacheConfigurationBuilder(Object.class, Object.class, ResourcePoolsBuilder.heap(2))
+					.build()));
+		DefaultIdmCacheManager manager = new DefaultIdmCacheManager(
+				jCacheManager,
+				Lists.newArrayList(LocalIdMCacheConfiguration.<String, String> builder()
+						.withName(cacheName)
+						.withKeyType(String.class)
+						.withValueType(String.class)
+						.withCacheSize(2)
+						.build()),
+				null);
+		for (int i = 0; i < 10; i++) {
+			manager.cacheValue(cacheName, String.valueOf(i), String.valueOf(i));
+		}
+		//
+		IdmCacheDto cache = getCache(manager, cacheName);
+		Assert.assertEquals(10, cache.getPutCount());
+		Assert.assertEquals(2, cache.getSize());
+		Assert.assertEquals(8, cache.getEvictionCount());
+	}
+	
+	@Test
+	public void testCacheMetrics() {
+		DefaultIdmCacheManager manager = new DefaultIdmCacheManager(jCacheManager, Lists.newArrayList(getLocalConfiguration()), null);
+		MeterRegistry registry = new SimpleMeterRegistry();
+		manager.bindTo(registry);
+		manager.cacheValue(LOCAL_CACHE_NAME, "one", "valueOne");
+		manager.getValue(LOCAL_CACHE_NAME, "one");
+		manager.getValue(LOCAL_CACHE_NAME, "two");
+		//
+		String metric = DefaultIdmCacheManager.METRIC_PREFIX;
+		Assert.assertEquals(1.0, registry.get(metric + ".gets").tags("cache", LOCAL_CACHE_NAME, "result", "hit").functionCounter().count(), 0);
+		Assert.assertEquals(1.0, registry.get(metric + ".gets").tags("cache", LOCAL_CACHE_NAME, "result", "miss").functionCounter().count(), 0);
+		Assert.assertEquals(1.0, registry.get(metric + ".puts").tags("cache", LOCAL_CACHE_NAME).functionCounter().count(), 0);
+		Assert.assertEquals(2.0, registry.get(metric + ".get.time").tags("cache", LOCAL_CACHE_NAME).functionTimer().count(), 0);
+		Assert.assertEquals(1.0, registry.get(metric + ".size").tags("cache", LOCAL_CACHE_NAME).gauge().value(), 0);
+		Assert.assertTrue(registry.get(metric + ".heap.size").tags("cache", LOCAL_CACHE_NAME).gauge().value() > 0);
+	}
+
+	private IdMCacheConfiguration getLocalConfiguration() {
+		return LocalIdMCacheConfiguration.<String, String> builder()
+				.withName(LOCAL_CACHE_NAME)
+				.withKeyType(String.class)
+				.withValueType(String.class)
+				.build();
+	}
+
+	private IdmCacheDto getCache(DefaultIdmCacheManager manager) {
+		return getCache(manager, CACHE_NAME);
+	}
+
+	private IdmCacheDto getCache(DefaultIdmCacheManager manager, String cacheName) {
+		return manager
+				.getAllAvailableCaches()
+				.stream()
+				.filter(cache -> cache.getName().equals(cacheName))
+				.findFirst()
+				.get();
+	}
+}
@@ -1,5 +1,6 @@
 package eu.bcvsolutions.idm.core.model.service.impl;
 
+import java.time.ZonedDateTime;
 import java.util.List;
 import java.util.UUID;
 
@@ -319,4 +320,34 @@ public class DefaultIdmEntityEventServiceIntegrationTest extends AbstractIntegra
 		Assert.assertEquals(1, events.size());
 		Assert.assertTrue(events.stream().anyMatch(e -> e.getOwnerId().equals(ownerOne)));
 	}
+	
+	@Test
+	@Transactional
+	public void testFindDuplicatesWithoutPostponed() {
+		String instanceId = getHelper().createName();
+		UUID ownerId = UUID.randomUUID();
+		ZonedDateTime executeDate = ZonedDateTime.now();
+		IdmEntityEventDto event = createFingerprintEvent(instanceId, ownerId, null);
+		IdmEntityEventDto duplicate = createFingerprintEvent(instanceId, ownerId, executeDate.minusMinutes(1));
+		createFingerprintEvent(instanceId, ownerId, executeDate.plusHours(1)); // postponed duplicate
+		//
+		List<IdmEntityEventDto> duplicates = entityEventService.findDuplicates(instanceId, executeDate, Lists.newArrayList(event));
+		//
+		Assert.assertEquals(1, duplicates.size());
+		Assert.assertEquals(duplicate.getId(), duplicates.get(0).getId());
+	}
+	
+	private IdmEntityEventDto createFingerprintEvent(String instanceId, UUID ownerId, ZonedDateTime executeDate) {
+		IdmEntityEventDto entityEvent = new IdmEntityEventDto();
+		entityEvent.setOwnerType("empty");
+		entityEvent.setEventType("empty");
+		entityEvent.setOwnerId(ownerId);
+		entityEvent.setInstanceId(instanceId);
+		entityEvent.setResult(new OperationResultDto(OperationState.CREATED));
+		entityEvent.setPriority(PriorityType.NORMAL);
+		entityEvent.setExecuteDate(executeDate);
+		entityEvent.setFingerprint("fingerprint");
+		//
+		return entityEventService.save(entityEvent);
+	}
 }
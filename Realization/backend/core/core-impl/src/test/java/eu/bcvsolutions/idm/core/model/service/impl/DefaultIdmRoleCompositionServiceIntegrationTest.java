@@ -3,8 +3,10 @@ package eu.bcvsolutions.idm.core.model.service.impl;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 import org.junit.Assert;
 import org.junit.Before;
@@ -14,6 +16,9 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.ApplicationContext;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+
 import eu.bcvsolutions.idm.core.api.config.domain.EventConfiguration;
 import eu.bcvsolutions.idm.core.api.dto.IdmIdentityDto;
 import eu.bcvsolutions.idm.core.api.dto.IdmIdentityRoleDto;
@@ -21,11 +26,16 @@ import eu.bcvsolutions.idm.core.api.dto.IdmRoleCompositionDto;
 import eu.bcvsolutions.idm.core.api.dto.IdmRoleDto;
 import eu.bcvsolutions.idm.core.api.dto.IdmRoleRequestDto;
 import eu.bcvsolutions.idm.core.api.exception.ResultCodeException;
+import eu.bcvsolutions.idm.core.api.service.ConfigurationService;
 import eu.bcvsolutions.idm.core.api.service.IdmCacheManager;
 import eu.bcvsolutions.idm.core.api.service.IdmIdentityRoleService;
 import eu.bcvsolutions.idm.core.api.service.IdmRoleCompositionService;
 import eu.bcvsolutions.idm.core.api.service.IdmRoleService;
+import eu.bcvsolutions.idm.core.model.entity.IdmRoleCompositionClosure;
 import eu.bcvsolutions.idm.core.model.event.processor.ObserveRequestProcessor;
+import eu.bcvsolutions.idm.core.model.repository.IdmRoleCompositionClosureRepository;
+import eu.bcvsolutions.idm.core.scheduler.api.service.LongRunningTaskManager;
+import eu.bcvsolutions.idm.core.scheduler.task.impl.RebuildRoleCompositionClosureTaskExecutor;
 import eu.bcvsolutions.idm.core.security.api.domain.GuardedString;
 import eu.bcvsolutions.idm.test.api.AbstractIntegrationTest;
 
@@ -43,6 +53,9 @@ public class DefaultIdmRoleCompositionServiceIntegrationTest extends AbstractInt
 	@Autowired private ApplicationContext context;
 	@Autowired private IdmIdentityRoleService identityRoleService;
 	@Autowired private IdmCacheManager cacheManager;
+	@Autowired private IdmRoleCompositionClosureRepository closureRepository;
+	@Autowired private LongRunningTaskManager longRunningTaskManager;
+	@Autowired private ConfigurationService configurationService;
 	//
 	private DefaultIdmRoleCompositionService service;
 
@@ -578,7 +591,8 @@ public class DefaultIdmRoleCompositionServiceIntegrationTest extends AbstractInt
 		// add role composition
 		IdmRoleDto subOneSubTwo = getHelper().createRole();
 		getHelper().createRoleComposition(subOneSub, subOneSubTwo);
-		Assert.assertNull(cacheManager.getValue(IdmRoleCompositionService.ALL_SUB_ROLES_CACHE_NAME, subOneSubSub.getId()));
+		// not affected - cached sub roles are evicted for affected superior roles only
+		Assert.assertNotNull(cacheManager.getValue(IdmRoleCompositionService.ALL_SUB_ROLES_CACHE_NAME, subOneSubSub.getId()));
 		Assert.assertNull(cacheManager.getValue(IdmRoleCompositionService.ALL_SUB_ROLES_CACHE_NAME, subOne.getId()));
 		//
 		allSubRoles = service.findAllSubRoles(subOne.getId());
@@ -592,4 +606,108 @@ public class DefaultIdmRoleCompositionServiceIntegrationTest extends AbstractInt
 		Assert.assertTrue(distinctRoles.stream().anyMatch(r -> r.equals(subOneSubTwo.getId())));
 	}
 	
+	@Test
+	@Transactional
+	public void testClosure() {
+		// prepare role composition with cycle
+		IdmRoleDto superior = getHelper().createRole();
+		IdmRoleDto subOne = getHelper().createRole();
+		IdmRoleDto subTwo = getHelper().createRole();
+		IdmRoleDto subOneSub = getHelper().createRole();
+		getHelper().createRoleComposition(superior, subOne);
+		getHelper().createRoleComposition(superior, subTwo);
+		getHelper().createRoleComposition(subOne, subOneSub);
+		IdmRoleCompositionDto cycle = getHelper().createRoleComposition(subOneSub, superior);
+		getHelper().createRoleComposition(subTwo, subOneSub);
+		//
+		Map<UUID, Integer> closure = getClosure(superior.getId());
+		Assert.assertEquals(3, closure.size());
+		Assert.assertEquals(Integer.valueOf(1), closure.get(subOne.getId()));
+		Assert.assertEquals(Integer.valueOf(1), closure.get(subTwo.getId()));
+		Assert.assertEquals(Integer.valueOf(2), closure.get(subOneSub.getId()));
+		closure = getClosure(subOneSub.getId());
+		Assert.assertEquals(3, closure.size());
+		Assert.assertEquals(Integer.valueOf(1), closure.get(superior.getId()));
+		Assert.assertEquals(Integer.valueOf(2), closure.get(subTwo.getId()));
+		//
+		// closure and level by level resolving returns the same compositions
+		Assert.assertTrue(configurationService.getBooleanValue(IdmRoleCompositionService.PROPERTY_CLOSURE_VALID, false));
+		List<IdmRoleCompositionDto> subRoles = service.findAllSubRoles(superior.getId());
+		List<IdmRoleCompositionDto> superiorRoles = service.findAllSuperiorRoles(subOneSub.getId());
+		try {
+			getHelper().setConfigurationValue(IdmRoleCompositionService.PROPERTY_CLOSURE_VALID, false);
+			cacheManager.evictCache(IdmRoleCompositionService.ALL_SUB_ROLES_CACHE_NAME);
+			//
+			Assert.assertEquals(Sets.newHashSet(service.findAllSubRoles(superior.getId())), Sets.newHashSet(subRoles));
+			Assert.assertEquals(Sets.newHashSet(service.findAllSuperiorRoles(subOneSub.getId())), Sets.newHashSet(superiorRoles));
+		} finally {
+			getHelper().setConfigurationValue(IdmRoleCompositionService.PROPERTY_CLOSURE_VALID, true);
+		}
+		//
+		// remove cycle
+		service.delete(cycle);
+		closure = getClosure(subOneSub.getId());
+		Assert.assertTrue(closure.isEmpty());
+		closure = getClosure(superior.getId());
+		Assert.assertEquals(3, closure.size());
+		Assert.assertTrue(service.findAllSubRoles(subOneSub.getId()).isEmpty());
+		Assert.assertEquals(4, service.findAllSubRoles(superior.getId()).size());
+	}
+	
+	@Test
+	public void testRebuildClosure() {
+		IdmRoleDto superior = getHelper().createRole();
+		IdmRoleDto sub = getHelper().createRole();
+		IdmRoleDto subSub = getHelper().createRole();
+		getHelper().createRoleComposition(superior, sub);
+		getHelper().createRoleComposition(sub, subSub);
+		//
+		closureRepository.deleteAll();
+		Assert.assertTrue(getClosure(superior.getId()).isEmpty());
+		//
+		Boolean result = longRunningTaskManager.executeSync(new RebuildRoleCompositionClosureTaskExecutor());
+		Assert.assertTrue(result);
+		Assert.assertTrue(configurationService.getBooleanValue(IdmRoleCompositionService.PROPERTY_CLOSURE_VALID, false));
+		//
+		Map<UUID, Integer> closure = getClosure(superior.getId());
+		Assert.assertEquals(2, closure.size());
+		Assert.assertEquals(Integer.valueOf(2), closure.get(subSub.getId()));
+		Assert.assertEquals(2, service.findAllSubRoles(superior.getId()).size());
+	}
+	
+	@Test
+	public void testIncrementalClosureSameAsRebuild() {
+		// diamond - sub role is reachable by more paths
+		IdmRoleDto superior = getHelper().createRole();
+		IdmRoleDto subOne = getHelper().createRole();
+		IdmRoleDto subTwo = getHelper().createRole();
+		IdmRoleDto subSub = getHelper().createRole();
+		IdmRoleDto subSubSub = getHelper().createRole();
+		getHelper().createRoleComposition(subSub, subSubSub);
+		getHelper().createRoleComposition(subOne, subSub);
+		getHelper().createRoleComposition(superior, subOne);
+		getHelper().createRoleComposition(superior, subTwo);
+		getHelper().createRoleComposition(subTwo, subSub);
+		//
+		List<UUID> roleIds = Lists.newArrayList(superior.getId(), subOne.getId(), subTwo.getId(), subSub.getId(), subSubSub.getId());
+		Map<UUID, Map<UUID, Integer>> incrementalClosure = roleIds
+				.stream()
+				.collect(Collectors.toMap(roleId -> roleId, this::getClosure));
+		Assert.assertEquals(4, incrementalClosure.get(superior.getId()).size());
+		Assert.assertEquals(Integer.valueOf(2), incrementalClosure.get(superior.getId()).get(subSub.getId()));
+		Assert.assertEquals(Integer.valueOf(3), incrementalClosure.get(superior.getId()).get(subSubSub.getId()));
+		//
+		Boolean result = longRunningTaskManager.executeSync(new RebuildRoleCompositionClosureTaskExecutor());
+		Assert.assertTrue(result);
+		//
+		roleIds.forEach(roleId -> Assert.assertEquals(incrementalClosure.get(roleId), getClosure(roleId)));
+	}
+	
+	private Map<UUID, Integer> getClosure(UUID superiorId) {
+		return Lists
+				.newArrayList(closureRepository.findAll())
+				.stream()
+				.filter(closure -> closure.getSuperiorId().equals(superiorId))
+				.collect(Collectors.toMap(IdmRoleCompositionClosure::getSubId, IdmRoleCompositionClosure::getDepth));
+	}
 }
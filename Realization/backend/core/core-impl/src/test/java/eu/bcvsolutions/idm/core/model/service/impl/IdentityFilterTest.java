@@ -103,6 +103,28 @@ public class IdentityFilterTest extends AbstractIntegrationTest{
 		});
 	}
 
+	@Test
+	public void testCorrelableFilterMultipleValues() {
+		IdmIdentityDto identityOne = getHelper().createIdentity();
+		IdmIdentityDto identityTwo = getHelper().createIdentity();
+		getHelper().createIdentity(); // other
+		//
+		IdmIdentityFilter filter = new IdmIdentityFilter();
+		filter.setProperty(IdmIdentity_.username.getName());
+		filter.setValues(Lists.newArrayList(identityOne.getUsername(), identityTwo.getUsername(), UUID.randomUUID().toString()));
+		List<IdmIdentityDto> identities = identityService.find(filter, null).getContent();
+		//
+		Assert.assertEquals(2, identities.size());
+		Assert.assertTrue(identities.stream().anyMatch(i -> i.getId().equals(identityOne.getId())));
+		Assert.assertTrue(identities.stream().anyMatch(i -> i.getId().equals(identityTwo.getId())));
+		//
+		filter.setProperty(IdmIdentity_.id.getName());
+		filter.setValues(Lists.newArrayList(identityOne.getId().toString(), identityTwo.getId().toString()));
+		identities = identityService.find(filter, null).getContent();
+		//
+		Assert.assertEquals(2, identities.size());
+	}
+
 	@Test(expected = ResultCodeException.class)
 	public void testCorrelableFilterWrongField() {
 		IdmIdentityFilter filter = new IdmIdentityFilter();
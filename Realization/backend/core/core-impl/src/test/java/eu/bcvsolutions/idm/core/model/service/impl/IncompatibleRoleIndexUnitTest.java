@@ -0,0 +1,88 @@
+package eu.bcvsolutions.idm.core.model.service.impl;
+
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.google.common.collect.Sets;
+
+import eu.bcvsolutions.idm.test.api.AbstractUnitTest;
+
+/**
+ * Precomputed conflict matrix of incompatible roles.
+ */
+public class IncompatibleRoleIndexUnitTest extends AbstractUnitTest {
+
+	@Test
+	public void testSameRoleDefinitionIsIgnored() {
+		IncompatibleRoleIndex index = new IncompatibleRoleIndex(UUID.randomUUID());
+		UUID role = UUID.randomUUID();
+		index.addDefinition(UUID.randomUUID(), role, role);
+		//
+		Assert.assertTrue(index.isEmpty());
+		Assert.assertTrue(index.getExpandedRoles(role, roleId -> Collections.emptySet()).isEmpty());
+	}
+
+	@Test
+	public void testResolveBothSides() {
+		IncompatibleRoleIndex index = new IncompatibleRoleIndex(UUID.randomUUID());
+		UUID superior = UUID.randomUUID();
+		UUID sub = UUID.randomUUID();
+		UUID other = UUID.randomUUID();
+		UUID definitionOne = UUID.randomUUID();
+		UUID definitionTwo = UUID.randomUUID();
+		index.addDefinition(definitionOne, superior, sub);
+		index.addDefinition(definitionTwo, sub, superior); // duplicate definition in other direction
+		//
+		Map<UUID, BitSet> directRoles = new LinkedHashMap<>();
+		directRoles.put(superior, index.getExpandedRoles(superior, roleId -> Collections.emptySet()));
+		directRoles.put(other, index.getExpandedRoles(other, roleId -> Collections.emptySet()));
+		Assert.assertTrue(index.resolve(directRoles).isEmpty());
+		//
+		directRoles.put(sub, index.getExpandedRoles(sub, roleId -> Collections.emptySet()));
+		Map<UUID, Set<UUID>> results = index.resolve(directRoles);
+		Assert.assertEquals(2, results.size());
+		Assert.assertEquals(Sets.newHashSet(definitionOne, definitionTwo), results.get(superior));
+		Assert.assertEquals(Sets.newHashSet(definitionOne, definitionTwo), results.get(sub));
+	}
+
+	@Test
+	public void testResolveSubRoles() {
+		IncompatibleRoleIndex index = new IncompatibleRoleIndex(UUID.randomUUID());
+		UUID businessRole = UUID.randomUUID();
+		UUID subOne = UUID.randomUUID();
+		UUID subTwo = UUID.randomUUID();
+		UUID other = UUID.randomUUID();
+		UUID definitionOne = UUID.randomUUID();
+		UUID definitionTwo = UUID.randomUUID();
+		index.addDefinition(definitionOne, subOne, subTwo);
+		index.addDefinition(definitionTwo, subTwo, other);
+		//
+		int[] loaded = new int[1];
+		BitSet expandedRoles = index.getExpandedRoles(businessRole, roleId -> {
+			loaded[0]++;
+			return Sets.newHashSet(subOne, subTwo, UUID.randomUUID());
+		});
+		Assert.assertEquals(2, expandedRoles.cardinality());
+		// memoized
+		Assert.assertSame(expandedRoles, index.getExpandedRoles(businessRole, roleId -> Collections.emptySet()));
+		Assert.assertEquals(1, loaded[0]);
+		//
+		// incompatible roles inside business role definition
+		Map<UUID, BitSet> directRoles = new LinkedHashMap<>();
+		directRoles.put(businessRole, expandedRoles);
+		Map<UUID, Set<UUID>> results = index.resolve(directRoles);
+		Assert.assertEquals(Sets.newHashSet(definitionOne), results.get(businessRole));
+		//
+		directRoles.put(other, index.getExpandedRoles(other, roleId -> Collections.emptySet()));
+		results = index.resolve(directRoles);
+		Assert.assertEquals(Sets.newHashSet(definitionOne, definitionTwo), results.get(businessRole));
+		Assert.assertEquals(Sets.newHashSet(definitionTwo), results.get(other));
+	}
+}
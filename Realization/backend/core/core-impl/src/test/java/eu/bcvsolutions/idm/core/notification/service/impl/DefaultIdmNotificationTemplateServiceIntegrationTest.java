@@ -11,6 +11,7 @@ import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.text.DecimalFormat;
 import java.time.ZonedDateTime;
+import java.util.ArrayList;
 import java.util.List;
 
 import javax.validation.ConstraintViolationException;
@@ -23,9 +24,12 @@ import org.junit.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.ApplicationContext;
 
+import com.google.common.collect.ImmutableMap;
+
 import eu.bcvsolutions.idm.core.api.domain.CoreResultCode;
 import eu.bcvsolutions.idm.core.api.exception.ResultCodeException;
 import eu.bcvsolutions.idm.core.api.service.ConfigurationService;
+import eu.bcvsolutions.idm.core.api.service.IdmCacheManager;
 import eu.bcvsolutions.idm.core.api.utils.SpinalCase;
 import eu.bcvsolutions.idm.core.model.event.processor.module.InitTestDataProcessor;
 import eu.bcvsolutions.idm.core.notification.api.domain.NotificationLevel;
@@ -62,6 +66,7 @@ public class DefaultIdmNotificationTemplateServiceIntegrationTest extends Abstra
 	@Autowired private IdmNotificationConfigurationService notificationConfigService;
 	@Autowired private EmailNotificationSender emailSenderService;
 	@Autowired private IdmEmailLogService emailLogService;
+	@Autowired private IdmCacheManager cacheManager;
 	//
 	private DefaultIdmNotificationTemplateService notificationTemplateService;
 	
@@ -247,6 +252,57 @@ public class DefaultIdmNotificationTemplateServiceIntegrationTest extends Abstra
 		notificationTemplateService.buildMessage(message);
 	}
 
+	@Test
+	public void testBuildMessages() {
+		IdmNotificationTemplateDto template = new IdmNotificationTemplateDto();
+		template.setCode(getHelper().createName());
+		template.setName(getHelper().createName());
+		template.setSubject("Subject $name");
+		template.setBodyText("Text $name");
+		template.setBodyHtml("<b>$name</b>");
+		template = notificationTemplateService.save(template);
+		//
+		List<IdmMessageDto> messages = new ArrayList<>();
+		for (int i = 0; i < 5; i++) {
+			messages.add(new IdmMessageDto.Builder().setTemplate(template).setParameters(ImmutableMap.of("name", "user" + i)).build());
+		}
+		messages.add(new IdmMessageDto.Builder().setSubject("without template").build());
+		//
+		List<IdmMessageDto> results = notificationTemplateService.buildMessages(messages, false);
+		//
+		assertEquals(messages.size(), results.size());
+		for (int i = 0; i < 5; i++) {
+			IdmMessageDto result = results.get(i);
+			assertEquals("Subject user" + i, result.getSubject());
+			assertEquals("Text user" + i, result.getTextMessage());
+			assertEquals("<b>user" + i + "</b>", result.getHtmlMessage());
+		}
+		assertEquals("without template", results.get(5).getSubject());
+	}
+	
+	@Test
+	public void testCompiledTemplateIsEvictedAfterSave() {
+		IdmNotificationTemplateDto template = new IdmNotificationTemplateDto();
+		template.setCode(getHelper().createName());
+		template.setName(getHelper().createName());
+		template.setSubject("Subject $name");
+		template.setBodyText("Text $name");
+		template = notificationTemplateService.save(template);
+		IdmMessageDto message = new IdmMessageDto.Builder().setTemplate(template).setParameters(ImmutableMap.of("name", "one")).build();
+		//
+		IdmMessageDto result = notificationTemplateService.buildMessage(message);
+		assertEquals("Text one", result.getTextMessage());
+		Assert.assertNotNull(cacheManager.getValue(DefaultIdmNotificationTemplateService.TEMPLATE_CACHE_NAME, template.getId()));
+		//
+		template.setBodyText("Changed $name");
+		template = notificationTemplateService.save(template);
+		Assert.assertNull(cacheManager.getValue(DefaultIdmNotificationTemplateService.TEMPLATE_CACHE_NAME, template.getId()));
+		//
+		result = notificationTemplateService.buildMessage(message);
+		assertEquals("Changed one", result.getTextMessage());
+		assertEquals("Subject one", result.getSubject());
+	}
+
 	@Test(expected = ConstraintViolationException.class)
 	public void evaluateEmptySubject() {
 		IdmNotificationTemplateDto template = new IdmNotificationTemplateDto();
@@ -0,0 +1,145 @@
+package eu.bcvsolutions.idm.core.scheduler.api.service;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import eu.bcvsolutions.idm.test.api.AbstractUnitTest;
+
+/**
+ * Partitioned executor - ordered lanes, back-pressure.
+ */
+public class PartitionedExecutorUnitTest extends AbstractUnitTest {
+
+	@Test
+	public void testSameKeyIsExecutedInOrder() throws Exception {
+		PartitionedExecutor executor = new PartitionedExecutor("test-ordered", 4, 100, 1000, Thread.NORM_PRIORITY);
+		try {
+			UUID ownerId = UUID.randomUUID();
+			List<Integer> executed = new CopyOnWriteArrayList<>();
+			CountDownLatch latch = new CountDownLatch(50);
+			for (int i = 0; i < 50; i++) {
+				final int order = i;
+				Assert.assertTrue(executor.execute(ownerId, () -> {
+					executed.add(order);
+					latch.countDown();
+				}));
+			}
+			//
+			Assert.assertTrue(latch.await(10, TimeUnit.SECONDS));
+			for (int i = 0; i < 50; i++) {
+				Assert.assertEquals(Integer.valueOf(i), executed.get(i));
+			}
+			Assert.assertEquals(50, executor.getSubmittedCount());
+		} finally {
+			executor.shutdown(5);
+		}
+	}
+
+	@Test
+	public void testDifferentKeysAreExecutedInParallel() throws Exception {
+		PartitionedExecutor executor = new PartitionedExecutor("test-parallel", 2, 10, 1000, Thread.NORM_PRIORITY);
+		try {
+			CountDownLatch started = new CountDownLatch(2);
+			CountDownLatch release = new CountDownLatch(1);
+			Runnable blocking = () -> {
+				started.countDown();
+				try {
+					release.await(10, TimeUnit.SECONDS);
+				} catch (InterruptedException ex) {
+					Thread.currentThread().interrupt();
+				}
+			};
+			// keys with different lanes
+			Assert.assertNotEquals(executor.getLaneIndex(0), executor.getLaneIndex(1));
+			executor.execute(0, blocking);
+			executor.execute(1, blocking);
+			//
+			Assert.assertTrue(started.await(10, TimeUnit.SECONDS));
+			Assert.assertEquals(2, executor.getActiveCount());
+			release.countDown();
+		} finally {
+			executor.shutdown(5);
+		}
+	}
+
+	@Test
+	public void testBackPressure() throws Exception {
+		PartitionedExecutor executor = new PartitionedExecutor("test-back-pressure", 1, 1, 10, Thread.NORM_PRIORITY);
+		try {
+			CountDownLatch started = new CountDownLatch(1);
+			CountDownLatch release = new CountDownLatch(1);
+			Assert.assertTrue(executor.execute("key", () -> {
+				started.countDown();
+				try {
+					release.await(10, TimeUnit.SECONDS);
+				} catch (InterruptedException ex) {
+					Thread.currentThread().interrupt();
+				}
+			}));
+			Assert.assertTrue(started.await(10, TimeUnit.SECONDS));
+			// queue capacity
+			Assert.assertTrue(executor.execute("key", () -> {}));
+			Assert.assertEquals(1, executor.getLaneDepth(0));
+			Assert.assertEquals(0, executor.getRemainingCapacity());
+			// lane is full
+			Assert.assertFalse(executor.execute("key", () -> {}));
+			Assert.assertEquals(1, executor.getRejectedCount());
+			//
+			release.countDown();
+		} finally {
+			executor.shutdown(5);
+		}
+	}
+
+	@Test
+	public void testShutdownCompletesQueuedTasksWithoutInterrupt() throws Exception {
+		PartitionedExecutor executor = new PartitionedExecutor("test-shutdown", 1, 10, 1000, Thread.NORM_PRIORITY);
+		AtomicBoolean interrupted = new AtomicBoolean(false);
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch completed = new CountDownLatch(3);
+		executor.execute("key", () -> {
+			started.countDown();
+			try {
+				Thread.sleep(200);
+			} catch (InterruptedException ex) {
+				interrupted.set(true);
+			}
+			completed.countDown();
+		});
+		executor.execute("key", completed::countDown);
+		executor.execute("key", completed::countDown);
+		Assert.assertTrue(started.await(10, TimeUnit.SECONDS));
+		//
+		executor.shutdown(5);
+		//
+		Assert.assertEquals(0, completed.getCount());
+		Assert.assertFalse(interrupted.get());
+		Assert.assertEquals(0, executor.getQueueSize());
+		Assert.assertFalse(executor.execute("key", () -> {}));
+	}
+
+	@Test
+	public void testMetrics() throws Exception {
+		PartitionedExecutor executor = new PartitionedExecutor("test-metrics", 2, 10, 1000, Thread.NORM_PRIORITY);
+		try {
+			SimpleMeterRegistry registry = new SimpleMeterRegistry();
+			executor.bindTo(registry);
+			CountDownLatch latch = new CountDownLatch(1);
+			executor.execute("key", latch::countDown);
+			Assert.assertTrue(latch.await(10, TimeUnit.SECONDS));
+			//
+			Assert.assertEquals(2, registry.find(PartitionedExecutor.METRIC_PREFIX + ".depth").gauges().size());
+			Assert.assertNotNull(registry.find(PartitionedExecutor.METRIC_PREFIX + ".wait").timer());
+		} finally {
+			executor.shutdown(5);
+		}
+	}
+}
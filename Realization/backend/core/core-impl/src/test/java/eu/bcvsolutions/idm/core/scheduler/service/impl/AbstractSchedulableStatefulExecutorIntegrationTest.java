@@ -140,6 +140,50 @@ public class AbstractSchedulableStatefulExecutorIntegrationTest extends Abstract
 		assertEquals(Long.valueOf(0), executor.getCounter());
 	}
 	
+	@Test
+	public void testExecuteInWorkers() throws Exception {
+		TestIdentityIntegrationExecutor executor = new TestIdentityIntegrationExecutor();
+		AutowireHelper.autowire(executor);
+		executor.setWorkers(3);
+		IdmScheduledTaskDto scheduledTask = createIdmScheduledTask(UUID.randomUUID().toString());
+		IdmLongRunningTaskDto longRunningTask = createIdmLongRunningTask(scheduledTask, TestIdentityIntegrationExecutor.class);
+		executor.setLongRunningTaskId(longRunningTask.getId());
+		List<IdmIdentityDto> itemsToProcess = createTestIdentities(7);
+		String changeLastName = getHelper().createName();
+		executor.changeLastName = changeLastName;
+		executor.dtos = itemsToProcess;
+		//
+		Boolean result = executor.process();
+		Page<IdmProcessedTaskItemDto> queueItems = itemService.findQueueItems(scheduledTask, null);
+		Page<IdmProcessedTaskItemDto> logItems = itemService.findLogItems(longRunningTask, null);
+		//
+		assertTrue(result);
+		assertEquals(itemsToProcess.size(), queueItems.getTotalElements());
+		assertEquals(itemsToProcess.size(), logItems.getTotalElements());
+		assertEquals(Long.valueOf(itemsToProcess.size()), executor.getCount());
+		assertEquals(Long.valueOf(itemsToProcess.size()), executor.getCounter());
+		SchedulerTestUtils.checkLogItems(longRunningTask, IdmIdentityDto.class, logItems);
+		SchedulerTestUtils.checkQueueItems(scheduledTask, IdmIdentityDto.class, queueItems);
+		itemsToProcess.forEach(identity -> {
+			Assert.assertEquals(changeLastName, identityService.get(identity).getLastName());
+		});
+		longRunningTask = longRunningTaskService.get(longRunningTask.getId());
+		assertEquals(Long.valueOf(itemsToProcess.size()), longRunningTask.getCounter());
+		//
+		// second run - all items were processed
+		longRunningTask = createIdmLongRunningTask(scheduledTask, TestIdentityIntegrationExecutor.class);
+		executor.setLongRunningTaskId(longRunningTask.getId());
+		executor.dtos = itemsToProcess;
+		//
+		result = executor.process();
+		logItems = itemService.findLogItems(longRunningTask, null);
+		//
+		assertTrue(result);
+		assertEquals(0, logItems.getTotalElements());
+		assertEquals(Long.valueOf(0), executor.getCount());
+		assertEquals(Long.valueOf(0), executor.getCounter());
+	}
+	
 	@Test
 	public void testTransaction() throws Exception {
 		List<IdmIdentityDto> identities = createTestIdentities(3);
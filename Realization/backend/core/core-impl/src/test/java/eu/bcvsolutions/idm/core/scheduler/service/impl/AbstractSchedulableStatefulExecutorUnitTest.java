@@ -13,6 +13,7 @@ import static org.mockito.Mockito.when;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 import javax.persistence.EntityManager;
 
@@ -34,6 +35,8 @@ import eu.bcvsolutions.idm.core.api.domain.OperationState;
 import eu.bcvsolutions.idm.core.api.dto.AbstractDto;
 import eu.bcvsolutions.idm.core.api.dto.IdmIdentityDto;
 import eu.bcvsolutions.idm.core.api.entity.OperationResult;
+import eu.bcvsolutions.idm.core.eav.api.domain.PersistentType;
+import eu.bcvsolutions.idm.core.eav.api.dto.IdmFormAttributeDto;
 import eu.bcvsolutions.idm.core.scheduler.api.dto.IdmLongRunningTaskDto;
 import eu.bcvsolutions.idm.core.scheduler.api.dto.IdmProcessedTaskItemDto;
 import eu.bcvsolutions.idm.core.scheduler.api.dto.IdmScheduledTaskDto;
@@ -41,6 +44,7 @@ import eu.bcvsolutions.idm.core.scheduler.api.dto.filter.IdmProcessedTaskItemFil
 import eu.bcvsolutions.idm.core.scheduler.api.service.AbstractSchedulableStatefulExecutor;
 import eu.bcvsolutions.idm.core.scheduler.api.service.IdmLongRunningTaskService;
 import eu.bcvsolutions.idm.core.scheduler.api.service.IdmScheduledTaskService;
+import eu.bcvsolutions.idm.core.scheduler.api.service.SchedulableStatefulExecutor;
 import eu.bcvsolutions.idm.test.api.AbstractVerifiableUnitTest;
 
 /**
@@ -202,17 +206,21 @@ public class AbstractSchedulableStatefulExecutorUnitTest extends AbstractVerifia
 		verify(executor, times(1)).isInProcessedQueue(dto2);
 		verify(executor, times(1)).isInProcessedQueue(dto3);
 		verify(executor, times(1)).getProcessedItemRefsFromQueue();
-		verify(executor, times(2)).removeFromProcessedQueue((UUID) ArgumentMatchers.any());
+		// processed queue is checked by page
+		verify(executor, times(2)).getProcessedItemRefsFromQueue(ArgumentMatchers.anyCollection());
+		verify(itemService, times(2)).findRefEntityIdsInQueue(ArgumentMatchers.any(UUID.class), ArgumentMatchers.anyCollection());
+		verify(executor, never()).removeFromProcessedQueue((UUID) ArgumentMatchers.any());
+		verify(executor, times(1)).removeFromProcessedQueue(ArgumentMatchers.anyCollection());
 		verify(executor, times(3)).addToProcessedQueue(ArgumentMatchers.any(), ArgumentMatchers.any());
 		verify(executor, times(3)).logItemProcessed(ArgumentMatchers.any(), ArgumentMatchers.any());
 		// session
 		verify(entityManager, times(3)).getDelegate();
 		verify(hiberanteSession, times(3)).isOpen();
-		// 6x addToProcessQueue, 2x removeItemFromQueue
-		verify(executor, times(8)).getScheduledTaskId();
+		// 6x addToProcessQueue, 2x page queue check, 1x remove items from queue
+		verify(executor, times(9)).getScheduledTaskId();
 		verify(executor, times(3)).processItem(ArgumentMatchers.any(IdmIdentityDto.class));
 		// 3x addToProcessQueue, 3x logItemProcessed
-		verify(itemService, times(2)).deleteItem(ArgumentMatchers.any(UUID.class), ArgumentMatchers.any(UUID.class));
+		verify(itemService, times(1)).deleteItems(ArgumentMatchers.any(UUID.class), ArgumentMatchers.anyCollection());
 		verify(itemService, times(3)).createLogItem(ArgumentMatchers.any(), ArgumentMatchers.any(), (UUID) ArgumentMatchers.any());
 		verify(itemService, times(3)).createQueueItem(ArgumentMatchers.any(), ArgumentMatchers.any(), (UUID) ArgumentMatchers.any());	
 	}
@@ -254,7 +262,10 @@ public class AbstractSchedulableStatefulExecutorUnitTest extends AbstractVerifia
 		verify(executor, times(1)).getProcessedItemRefsFromQueue();
 		verify(entityManager, times(2)).getDelegate();
 		verify(hiberanteSession, times(2)).isOpen();
-		verify(executor, never()).getScheduledTaskId();
+		// processed queue is checked by page - task is not scheduled
+		verify(executor, times(1)).getProcessedItemRefsFromQueue(ArgumentMatchers.anyCollection());
+		verify(executor, times(1)).getScheduledTaskId();
+		verify(scheduledTaskService, times(1)).findByLongRunningTaskId(ArgumentMatchers.any());
 		verify(executor, never()).removeFromProcessedQueue(ArgumentMatchers.any(UUID.class));
 		verify(executor, never()).addToProcessedQueue(ArgumentMatchers.any(IdmIdentityDto.class), ArgumentMatchers.any(OperationResult.class));
 		verify(executor, never()).processItem(ArgumentMatchers.any(IdmIdentityDto.class));
@@ -264,6 +275,22 @@ public class AbstractSchedulableStatefulExecutorUnitTest extends AbstractVerifia
 	}
 	
 	
+	@Test
+	public void testWorkersParameter() {
+		TestIdenityUnitExecutor workersExecutor = new TestIdenityUnitExecutor();
+		workersExecutor.setWorkers(4);
+		//
+		assertTrue(workersExecutor.getPropertyNames().contains(SchedulableStatefulExecutor.PARAMETER_WORKERS));
+		assertEquals(4, workersExecutor.getProperties().get(SchedulableStatefulExecutor.PARAMETER_WORKERS));
+		List<IdmFormAttributeDto> workers = workersExecutor
+				.getFormAttributes()
+				.stream()
+				.filter(attribute -> SchedulableStatefulExecutor.PARAMETER_WORKERS.equals(attribute.getCode()))
+				.collect(Collectors.toList());
+		assertEquals(1, workers.size());
+		assertEquals(PersistentType.LONG, workers.get(0).getPersistentType());
+	}
+	
 	public static class TestIdenityUnitExecutor extends AbstractSchedulableStatefulExecutor<IdmIdentityDto> {
 		
 		@Override
@@ -9,8 +9,11 @@ import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 import java.time.temporal.ChronoUnit;
+import java.util.Set;
 import java.util.UUID;
 
+import com.google.common.collect.Lists;
+
 import eu.bcvsolutions.idm.core.api.domain.CoreResultCode;
 import eu.bcvsolutions.idm.core.api.dto.DefaultResultModel;
 import eu.bcvsolutions.idm.core.api.dto.IdmEntityStateDto;
@@ -204,6 +207,29 @@ public class DefaultIdmProcessedTaskItemServiceTest extends AbstractIntegrationT
 		assertFalse(result.getContent().contains(item));
 	}
 	
+	@Test
+	public void testFindAndDeleteRefEntityIdsInQueue() {
+		IdmScheduledTaskDto d = getHelper().createSchedulableTask();
+		IdmProcessedTaskItemDto item = service.saveInternal(getHelper().prepareProcessedItem(d));
+		IdmProcessedTaskItemDto item2 = service.saveInternal(getHelper().prepareProcessedItem(d));
+		IdmProcessedTaskItemDto item3 = service.saveInternal(getHelper().prepareProcessedItem(d));
+		UUID notProcessed = UUID.randomUUID();
+		//
+		Set<UUID> refs = service.findRefEntityIdsInQueue(
+				d.getId(), 
+				Lists.newArrayList(item.getReferencedEntityId(), item2.getReferencedEntityId(), notProcessed));
+		assertEquals(2, refs.size());
+		assertTrue(refs.contains(item.getReferencedEntityId()));
+		assertTrue(refs.contains(item2.getReferencedEntityId()));
+		assertTrue(service.findRefEntityIdsInQueue(getHelper().createSchedulableTask().getId(), refs).isEmpty());
+		//
+		service.deleteItems(d.getId(), Lists.newArrayList(item.getReferencedEntityId(), item3.getReferencedEntityId(), notProcessed));
+		//
+		assertNull(service.get(item.getId()));
+		assertNotNull(service.get(item2.getId()));
+		assertNull(service.get(item3.getId()));
+	}
+
 	@Test
 	public void referencedEntityTypeFilter(){
 		IdmScheduledTaskDto d = getHelper().createSchedulableTask();
@@ -105,6 +105,50 @@ public class ProcessAllAutomaticRoleByAttributeTaskExecutorIntegrationTest exten
 		}
 	}
 
+	@Test
+	public void testAssignAndRemoveRolesInBulk() {
+		ProcessAllAutomaticRoleByAttributeTaskExecutor autoRolecalculation = new ProcessAllAutomaticRoleByAttributeTaskExecutor();
+		longRunningTaskManager.executeSync(autoRolecalculation);
+		//
+		String automaticRoleValue = this.getHelper().createName();
+		IdmAutomaticRoleAttributeDto automaticRole = this.getHelper().createAutomaticRole(this.getHelper().createRole().getId());
+		this.getHelper().createAutomaticRoleRule(automaticRole.getId(), AutomaticRoleAttributeRuleComparison.EQUALS, AutomaticRoleAttributeRuleType.IDENTITY, IdmIdentity_.description.getName(), null, automaticRoleValue);
+		//
+		List<IdmIdentityDto> assignIdentities = new ArrayList<IdmIdentityDto>();
+		for (int index = 0; index < 124; index++) {
+			IdmIdentityDto identity = this.getHelper().createIdentity((GuardedString)null);
+			identity.setDescription(automaticRoleValue);
+			identity = saveIdentityWithouRecalculation(identity);
+			assignIdentities.add(identity);
+			//
+			checkIdentityRoles(identity, 0, null);
+		}
+		List<IdmIdentityDto> removeIdentities = new ArrayList<IdmIdentityDto>();
+		for (int index = 0; index < 32; index++) {
+			IdmIdentityDto identity = this.getHelper().createIdentity((GuardedString)null);
+			identity.setDescription(automaticRoleValue);
+			identity = identityService.save(identity);
+			checkIdentityRoles(identity, 1, automaticRole.getId());
+			//
+			identity.setDescription(null);
+			identity = saveIdentityWithouRecalculation(identity);
+			removeIdentities.add(identity);
+		}
+		//
+		autoRolecalculation = new ProcessAllAutomaticRoleByAttributeTaskExecutor();
+		autoRolecalculation.setBulk(true);
+		autoRolecalculation.setWorkers(3);
+		longRunningTaskManager.executeSync(autoRolecalculation);
+		//
+		for (IdmIdentityDto identity : assignIdentities) {
+			checkIdentityRoles(identity, 1, automaticRole.getId());
+		}
+		for (IdmIdentityDto identity : removeIdentities) {
+			checkIdentityRoles(identity, 0, null);
+		}
+		assertEquals(autoRolecalculation.getCount(), autoRolecalculation.getCounter()); // progress by processed automatic roles
+	}
+
 	/**
 	 * Check count of identity roles and if roles are equal 1 also check automatic role id
 	 *
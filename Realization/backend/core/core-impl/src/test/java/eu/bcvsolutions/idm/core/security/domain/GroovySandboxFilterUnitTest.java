@@ -0,0 +1,82 @@
+package eu.bcvsolutions.idm.core.security.domain;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.google.common.collect.Sets;
+
+import eu.bcvsolutions.idm.core.api.dto.IdmIdentityDto;
+import eu.bcvsolutions.idm.core.api.dto.IdmRoleDto;
+import eu.bcvsolutions.idm.test.api.AbstractUnitTest;
+
+/**
+ * Groovy sandbox filter - allow-list by sandbox context.
+ */
+public class GroovySandboxFilterUnitTest extends AbstractUnitTest {
+
+	@Test
+	public void testGlobalAllowedTypes() {
+		GroovySandboxFilter filter = new GroovySandboxFilter();
+		//
+		Assert.assertEquals("test", filter.filter("test"));
+		List<String> list = new ArrayList<>();
+		Assert.assertSame(list, filter.filter(list)); // assignable
+		Assert.assertSame(list, filter.filter(list)); // memoized
+	}
+	
+	@Test(expected = SecurityException.class)
+	public void testNotAllowedType() {
+		GroovySandboxFilter filter = new GroovySandboxFilter();
+		//
+		filter.filter(new IdmIdentityDto());
+	}
+	
+	@Test
+	public void testContextAllowedTypes() {
+		GroovySandboxContext context = new GroovySandboxContext(Sets.newHashSet(IdmIdentityDto.class));
+		GroovySandboxFilter filter = new GroovySandboxFilter(context);
+		IdmIdentityDto identity = new IdmIdentityDto();
+		//
+		Assert.assertSame(identity, filter.filter(identity));
+		Assert.assertSame(context, filter.getContext());
+		Assert.assertTrue(context.isAllowed(IdmIdentityDto.class));
+		Assert.assertFalse(context.isAllowed(IdmRoleDto.class));
+		Assert.assertFalse(context.isAllowed(Object.class));
+	}
+	
+	@Test
+	public void testNestedContext() {
+		GroovySandboxContext context = new GroovySandboxContext(Sets.newHashSet(IdmIdentityDto.class));
+		GroovySandboxContext nestedContext = new GroovySandboxContext(Sets.newHashSet(IdmRoleDto.class));
+		GroovySandboxFilter filter = new GroovySandboxFilter(context);
+		Assert.assertTrue(filter.isCustomTypesLast());
+		//
+		filter.push(nestedContext);
+		Assert.assertFalse(filter.isCustomTypesLast());
+		IdmRoleDto role = new IdmRoleDto();
+		Assert.assertSame(role, filter.filter(role));
+		try {
+			filter.filter(new IdmIdentityDto());
+			Assert.fail();
+		} catch (SecurityException ex) {
+			// nested script cannot use types allowed in parent script
+		}
+		//
+		Assert.assertSame(nestedContext, filter.pop());
+		Assert.assertSame(context, filter.getContext());
+		Assert.assertTrue(filter.isCustomTypesLast());
+	}
+	
+	@Test
+	public void testContextEquals() {
+		GroovySandboxContext context = new GroovySandboxContext(Sets.newHashSet(IdmIdentityDto.class, IdmRoleDto.class));
+		GroovySandboxContext otherContext = new GroovySandboxContext(Sets.newHashSet(IdmRoleDto.class, IdmIdentityDto.class));
+		//
+		Assert.assertEquals(context, otherContext);
+		Assert.assertEquals(context.hashCode(), otherContext.hashCode());
+		Assert.assertNotEquals(context, GroovySandboxContext.EMPTY);
+	}
+}
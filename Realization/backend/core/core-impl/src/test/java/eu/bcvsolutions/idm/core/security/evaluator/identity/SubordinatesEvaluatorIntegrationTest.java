@@ -1,20 +1,39 @@
 package eu.bcvsolutions.idm.core.security.evaluator.identity;
 
+import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 import org.junit.Assert;
 import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.google.common.collect.Sets;
+
+import eu.bcvsolutions.idm.core.api.dto.IdmAuthorizationPolicyDto;
+import eu.bcvsolutions.idm.core.api.dto.IdmIdentityContractDto;
 import eu.bcvsolutions.idm.core.api.dto.IdmIdentityDto;
+import eu.bcvsolutions.idm.core.api.dto.IdmIdentityRoleDto;
 import eu.bcvsolutions.idm.core.api.dto.IdmRoleDto;
+import eu.bcvsolutions.idm.core.api.dto.IdmTreeNodeDto;
+import eu.bcvsolutions.idm.core.api.dto.IdmTreeTypeDto;
+import eu.bcvsolutions.idm.core.api.service.ConfigurationService;
+import eu.bcvsolutions.idm.core.api.service.IdmIdentityContractService;
 import eu.bcvsolutions.idm.core.api.service.IdmIdentityService;
+import eu.bcvsolutions.idm.core.api.service.IdmTreeNodeService;
+import eu.bcvsolutions.idm.core.api.service.LookupService;
 import eu.bcvsolutions.idm.core.model.domain.CoreGroupPermission;
 import eu.bcvsolutions.idm.core.model.entity.IdmIdentity;
+import eu.bcvsolutions.idm.core.model.entity.IdmIdentityRole;
 import eu.bcvsolutions.idm.core.security.api.domain.GuardedString;
 import eu.bcvsolutions.idm.core.security.api.domain.IdmBasePermission;
+import eu.bcvsolutions.idm.core.security.api.service.AuthorizationManager;
 import eu.bcvsolutions.idm.test.api.AbstractEvaluatorIntegrationTest;
 
 /**
@@ -25,7 +44,16 @@ import eu.bcvsolutions.idm.test.api.AbstractEvaluatorIntegrationTest;
 @Transactional
 public class SubordinatesEvaluatorIntegrationTest extends AbstractEvaluatorIntegrationTest {
 
+	private static final Logger LOG = LoggerFactory.getLogger(SubordinatesEvaluatorIntegrationTest.class);
+	//
 	@Autowired private IdmIdentityService identityService;
+	@Autowired private LookupService lookupService;
+	@Autowired private SubordinatesEvaluator evaluator;
+	@Autowired private IdentityRoleByIdentityEvaluator identityRoleEvaluator;
+	@Autowired private AuthorizationManager authorizationManager;
+	@Autowired private ConfigurationService configurationService;
+	@Autowired private IdmIdentityContractService contractService;
+	@Autowired private IdmTreeNodeService treeNodeService;
 	
 	@Test
 	public void testSubordinatesRead() {
@@ -119,4 +147,177 @@ public class SubordinatesEvaluatorIntegrationTest extends AbstractEvaluatorInteg
 			logout();
 		}
 	}
+	
+	@Test
+	public void testBatchPermissions() {
+		IdmIdentityDto manager = getHelper().createIdentity();
+		IdmRoleDto role = getHelper().createRole();
+		getHelper().createIdentityRole(manager, role);
+		IdmAuthorizationPolicyDto policy = getHelper().createAuthorizationPolicy(
+				role.getId(),
+				CoreGroupPermission.IDENTITY,
+				IdmIdentity.class,
+				SubordinatesEvaluator.class,
+				IdmBasePermission.READ, IdmBasePermission.UPDATE);
+		//
+		List<IdmIdentity> identities = new ArrayList<>();
+		for (int i = 0; i < 20; i++) {
+			IdmIdentityDto identity = getHelper().createIdentity((GuardedString) null);
+			if (i % 2 == 0) {
+				getHelper().createContractGuarantee(getHelper().getPrimeContract(identity), manager);
+			}
+			identities.add(lookupService.lookupEntity(IdmIdentity.class, identity.getId()));
+		}
+		//
+		try {
+			getHelper().login(manager.getUsername(), manager.getPassword());
+			//
+			// per row - one query for each identity
+			long start = System.nanoTime();
+			List<Set<String>> rowPermissions = new ArrayList<>();
+			identities.forEach(identity -> {
+				rowPermissions.add(evaluator.getPermissions(identity, policy));
+			});
+			long rowTime = System.nanoTime() - start;
+			//
+			// batch - one query for the whole page
+			start = System.nanoTime();
+			Map<Serializable, Set<String>> batchPermissions = evaluator.getPermissions(identities, policy);
+			long batchTime = System.nanoTime() - start;
+			//
+			LOG.info("Permissions for [{}] identities evaluated per row in [{}]ms, in batch in [{}]ms.", 
+					identities.size(), TimeUnit.NANOSECONDS.toMillis(rowTime), TimeUnit.NANOSECONDS.toMillis(batchTime));
+			//
+			Assert.assertEquals(identities.size(), batchPermissions.size());
+			for (int i = 0; i < identities.size(); i++) {
+				IdmIdentity identity = identities.get(i);
+				Set<String> permissions = batchPermissions.get(identity.getId());
+				// the same permissions as evaluated for each identity
+				Assert.assertEquals(rowPermissions.get(i), permissions);
+				if (i % 2 == 0) {
+					Assert.assertEquals(Sets.newHashSet(IdmBasePermission.READ.getName(), IdmBasePermission.UPDATE.getName()), permissions);
+				} else {
+					Assert.assertTrue(permissions.isEmpty());
+				}
+			}
+			//
+			// through authorization manager - permissions by all policies are evaluated
+			Map<Serializable, Set<String>> managerPermissions = authorizationManager.getPermissions(identities);
+			Assert.assertEquals(identities.size(), managerPermissions.size());
+			batchPermissions.forEach((id, permissions) -> {
+				Assert.assertTrue(managerPermissions.get(id).containsAll(permissions));
+			});
+		} finally {
+			logout();
+		}
+	}
+	
+	@Test
+	public void testBatchIdentityRolePermissions() {
+		IdmIdentityDto manager = getHelper().createIdentity();
+		IdmRoleDto role = getHelper().createRole();
+		getHelper().createIdentityRole(manager, role);
+		getHelper().createAuthorizationPolicy(
+				role.getId(),
+				CoreGroupPermission.IDENTITY,
+				IdmIdentity.class,
+				SubordinatesEvaluator.class,
+				IdmBasePermission.READ, IdmBasePermission.UPDATE);
+		IdmAuthorizationPolicyDto policy = getHelper().createAuthorizationPolicy(
+				role.getId(),
+				CoreGroupPermission.IDENTITYROLE,
+				IdmIdentityRole.class,
+				IdentityRoleByIdentityEvaluator.class);
+		//
+		IdmRoleDto assignedRole = getHelper().createRole();
+		List<IdmIdentityRole> identityRoles = new ArrayList<>();
+		for (int i = 0; i < 10; i++) {
+			IdmIdentityDto identity = getHelper().createIdentity((GuardedString) null);
+			if (i % 2 == 0) {
+				getHelper().createContractGuarantee(getHelper().getPrimeContract(identity), manager);
+			}
+			IdmIdentityRoleDto identityRole = getHelper().createIdentityRole(identity, assignedRole);
+			identityRoles.add(lookupService.lookupEntity(IdmIdentityRole.class, identityRole.getId()));
+		}
+		//
+		try {
+			getHelper().login(manager.getUsername(), manager.getPassword());
+			//
+			Map<Serializable, Set<String>> batchPermissions = identityRoleEvaluator.getPermissions(identityRoles, policy);
+			//
+			Assert.assertEquals(identityRoles.size(), batchPermissions.size());
+			for (int i = 0; i < identityRoles.size(); i++) {
+				IdmIdentityRole identityRole = identityRoles.get(i);
+				Set<String> permissions = batchPermissions.get(identityRole.getId());
+				// the same permissions as evaluated for each assigned role
+				Assert.assertEquals(identityRoleEvaluator.getPermissions(identityRole, policy), permissions);
+				if (i % 2 == 0) {
+					// update on identity => create and delete assigned roles
+					Assert.assertTrue(permissions.contains(IdmBasePermission.READ.getName()));
+					Assert.assertTrue(permissions.contains(IdmBasePermission.UPDATE.getName()));
+					Assert.assertTrue(permissions.contains(IdmBasePermission.CREATE.getName()));
+					Assert.assertTrue(permissions.contains(IdmBasePermission.DELETE.getName()));
+				} else {
+					Assert.assertFalse(permissions.contains(IdmBasePermission.READ.getName()));
+					Assert.assertFalse(permissions.contains(IdmBasePermission.UPDATE.getName()));
+				}
+			}
+		} finally {
+			logout();
+		}
+	}
+	
+	@Test
+	public void testSubordinatesReadByClosure() {
+		IdmTreeTypeDto treeType = getHelper().createTreeType();
+		IdmTreeNodeDto managerPosition = getHelper().createTreeNode(treeType, null);
+		IdmTreeNodeDto otherPosition = getHelper().createTreeNode(treeType, null);
+		IdmTreeNodeDto subordinatePosition = getHelper().createTreeNode(treeType, managerPosition);
+		IdmIdentityDto manager = getHelper().createIdentity();
+		IdmIdentityDto subordinateByTree = getHelper().createIdentity((GuardedString) null);
+		IdmIdentityDto subordinateByGuarantee = getHelper().createIdentity((GuardedString) null);
+		getHelper().createContract(manager, managerPosition);
+		IdmIdentityContractDto contract = getHelper().createContract(subordinateByTree, subordinatePosition);
+		getHelper().createContractGuarantee(getHelper().getPrimeContract(subordinateByGuarantee), manager);
+		IdmRoleDto role = getHelper().createRole();
+		getHelper().createIdentityRole(manager, role);
+		getHelper().createAuthorizationPolicy(
+				role.getId(),
+				CoreGroupPermission.IDENTITY,
+				IdmIdentity.class,
+				SubordinatesEvaluator.class,
+				IdmBasePermission.READ);
+		//
+		boolean closureValid = configurationService.getBooleanValue(IdmIdentityContractService.PROPERTY_MANAGER_CLOSURE_VALID, false);
+		try {
+			configurationService.setBooleanValue(IdmIdentityContractService.PROPERTY_MANAGER_CLOSURE_VALID, true);
+			getHelper().login(manager.getUsername(), manager.getPassword());
+			//
+			List<IdmIdentityDto> subordinates = identityService.find(null, IdmBasePermission.READ).getContent();
+			Assert.assertEquals(2, subordinates.size());
+			Assert.assertTrue(subordinates.stream().anyMatch(s -> s.getId().equals(subordinateByTree.getId())));
+			Assert.assertTrue(subordinates.stream().anyMatch(s -> s.getId().equals(subordinateByGuarantee.getId())));
+			Assert.assertEquals(Sets.newHashSet(IdmBasePermission.READ.getName()), identityService.getPermissions(subordinateByTree));
+			//
+			// subordinate contract is moved out of manager structure
+			contract.setWorkPosition(otherPosition.getId());
+			contractService.save(contract);
+			//
+			subordinates = identityService.find(null, IdmBasePermission.READ).getContent();
+			Assert.assertEquals(1, subordinates.size());
+			Assert.assertEquals(subordinateByGuarantee.getId(), subordinates.get(0).getId());
+			Assert.assertTrue(identityService.getPermissions(subordinateByTree).isEmpty());
+			//
+			// subordinate tree node is moved under manager position
+			otherPosition.setParent(managerPosition.getId());
+			treeNodeService.save(otherPosition);
+			//
+			subordinates = identityService.find(null, IdmBasePermission.READ).getContent();
+			Assert.assertEquals(2, subordinates.size());
+			Assert.assertTrue(subordinates.stream().anyMatch(s -> s.getId().equals(subordinateByTree.getId())));
+		} finally {
+			logout();
+			configurationService.setBooleanValue(IdmIdentityContractService.PROPERTY_MANAGER_CLOSURE_VALID, closureValid);
+		}
+	}
 }
@@ -5,6 +5,7 @@ import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 
+import java.io.Serializable;
 import java.time.LocalDate;
 import java.util.HashMap;
 import java.util.List;
@@ -19,6 +20,8 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.ApplicationContext;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.google.common.collect.Lists;
+
 import eu.bcvsolutions.idm.core.api.config.cache.domain.ValueWrapper;
 import eu.bcvsolutions.idm.core.api.config.domain.RoleConfiguration;
 import eu.bcvsolutions.idm.core.api.domain.ConfigurationMap;
@@ -40,6 +43,7 @@ import eu.bcvsolutions.idm.core.model.entity.IdmIdentity;
 import eu.bcvsolutions.idm.core.model.entity.IdmRole;
 import eu.bcvsolutions.idm.core.security.api.domain.GuardedString;
 import eu.bcvsolutions.idm.core.security.api.domain.IdmBasePermission;
+import eu.bcvsolutions.idm.core.security.api.domain.PermissionCacheKey;
 import eu.bcvsolutions.idm.core.security.api.dto.AuthorizableType;
 import eu.bcvsolutions.idm.core.security.api.dto.AuthorizationEvaluatorDto;
 import eu.bcvsolutions.idm.core.security.api.service.AuthorizationManager;
@@ -345,8 +349,8 @@ public class DefaultAuthorizationManagerIntegrationTest extends AbstractEvaluato
 			Assert.assertEquals(BasePermissionEvaluator.class.getCanonicalName(), 
 					((IdmAuthorizationPolicyDto) cacheManager.getValue(AuthorizationManager.AUTHORIZATION_POLICY_DEFINITION_CACHE_NAME, 
 							cachedPolicies.get(0)).get()).getEvaluatorType());
-			cacheValue = cacheManager.getValue(AuthorizationManager.PERMISSION_CACHE_NAME, identity.getId());
-			permissions = (Set) ((Map) cacheValue.get()).get(role.getId());
+			cacheValue = cacheManager.getValue(AuthorizationManager.ENTITY_PERMISSION_CACHE_NAME, getPermissionCacheKey(identity, role));
+			permissions = (Set) cacheValue.get();
 			Assert.assertEquals(2, permissions.size());
 			Assert.assertTrue(permissions.stream().anyMatch(p -> p.equals(IdmBasePermission.AUTOCOMPLETE.getName())));
 			Assert.assertTrue(permissions.stream().anyMatch(p -> p.equals(IdmBasePermission.READ.getName())));
@@ -436,8 +440,8 @@ public class DefaultAuthorizationManagerIntegrationTest extends AbstractEvaluato
 			Assert.assertEquals(BasePermissionEvaluator.class.getCanonicalName(), 
 					((IdmAuthorizationPolicyDto) cacheManager.getValue(AuthorizationManager.AUTHORIZATION_POLICY_DEFINITION_CACHE_NAME, 
 							cachedPolicies.get(0)).get()).getEvaluatorType());
-			cacheValue = cacheManager.getValue(AuthorizationManager.PERMISSION_CACHE_NAME, identity.getId());
-			permissions = (Set) ((Map) cacheValue.get()).get(role.getId());
+			cacheValue = cacheManager.getValue(AuthorizationManager.ENTITY_PERMISSION_CACHE_NAME, getPermissionCacheKey(identity, role));
+			permissions = (Set) cacheValue.get();
 			Assert.assertEquals(2, permissions.size());
 			Assert.assertTrue(permissions.stream().anyMatch(p -> p.equals(IdmBasePermission.AUTOCOMPLETE.getName())));
 			Assert.assertTrue(permissions.stream().anyMatch(p -> p.equals(IdmBasePermission.READ.getName())));
@@ -455,6 +459,43 @@ public class DefaultAuthorizationManagerIntegrationTest extends AbstractEvaluato
 		}
 	}
 	
+	@Test
+	@Transactional
+	public void testBulkPermissions() {
+		IdmIdentityDto identity = getHelper().createIdentity();
+		IdmRoleDto role = getHelper().createRole();
+		IdmRoleDto roleTwo = getHelper().createRole();
+		getHelper().createBasePolicy(role.getId(), IdmBasePermission.AUTOCOMPLETE, IdmBasePermission.READ);
+		getHelper().createIdentityRole(identity, role);
+		//
+		try {
+			getHelper().login(identity);
+			//
+			Map<Serializable, Set<String>> permissions = manager.getPermissions(Lists.newArrayList(role, roleTwo));
+			Assert.assertEquals(2, permissions.size());
+			Assert.assertEquals(2, permissions.get(role.getId()).size());
+			Assert.assertTrue(permissions.get(role.getId()).contains(IdmBasePermission.READ.getName()));
+			Assert.assertEquals(2, permissions.get(roleTwo.getId()).size());
+			// permissions are cached for each entity
+			Assert.assertEquals(
+					permissions.get(role.getId()), 
+					cacheManager.getValue(AuthorizationManager.ENTITY_PERMISSION_CACHE_NAME, getPermissionCacheKey(identity, role)).get());
+			Assert.assertEquals(
+					permissions.get(roleTwo.getId()), 
+					cacheManager.getValue(AuthorizationManager.ENTITY_PERMISSION_CACHE_NAME, getPermissionCacheKey(identity, roleTwo)).get());
+			Assert.assertEquals(permissions.get(role.getId()), manager.getPermissions(role));
+			//
+			// evict logged identity cache => new scope is used
+			PermissionCacheKey cacheKey = getPermissionCacheKey(identity, role);
+			cacheManager.evictValue(AuthorizationManager.PERMISSION_CACHE_NAME, identity.getId());
+			Assert.assertNull(cacheManager.getValue(AuthorizationManager.PERMISSION_CACHE_NAME, identity.getId()));
+			Assert.assertEquals(permissions.get(role.getId()), manager.getPermissions(role));
+			Assert.assertNotEquals(cacheKey, getPermissionCacheKey(identity, role));
+		} finally {
+			logout();
+		}
+	}
+	
 	@Test
 	@Transactional
 	public void testDistictPolicies() {
@@ -610,4 +651,11 @@ public class DefaultAuthorizationManagerIntegrationTest extends AbstractEvaluato
 			logout();
 		}
 	}
+	
+	private PermissionCacheKey getPermissionCacheKey(IdmIdentityDto identity, IdmRoleDto role) {
+		ValueWrapper scope = cacheManager.getValue(AuthorizationManager.PERMISSION_CACHE_NAME, identity.getId());
+		Assert.assertNotNull(scope);
+		//
+		return new PermissionCacheKey(identity.getId(), (UUID) scope.get(), role.getClass().getName(), role.getId());
+	}
 }
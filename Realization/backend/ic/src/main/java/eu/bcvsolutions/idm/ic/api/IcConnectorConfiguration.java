@@ -11,6 +11,12 @@ import java.util.Map;
 public interface IcConnectorConfiguration extends Serializable {
 
 	public static String DISABLE_FILTER_VALIDATION_KEY = "disableFilterValidation";
+	/**
+	 * Fetch next page of search results on background thread, while current page is handled.
+	 * 
+	 * @since 13.1.0
+	 */
+	public static String PREFETCH_NEXT_PAGE_KEY = "prefetchNextPage";
 
 	/**
 	 * @return the configurationProperties
@@ -36,5 +42,16 @@ public interface IcConnectorConfiguration extends Serializable {
 	 * @return Map of operation options for this system
 	 */
 	Map<String, Object> getSystemOperationOptions();
+	
+	/**
+	 * Key of system, which uses this configuration (e.g. system identifier) - initialized connector facades
+	 * of the system can be evicted by this key, when system is changed.
+	 * 
+	 * @return system key, {@code null} if configuration is not related to any system
+	 * @since 13.1.0
+	 */
+	default String getSystemKey() {
+		return null;
+	}
 
 }
@@ -0,0 +1,37 @@
+package eu.bcvsolutions.idm.ic.config.cache;
+
+import java.time.Duration;
+
+import org.identityconnectors.framework.api.ConnectorFacade;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import eu.bcvsolutions.idm.core.api.config.cache.IdMCacheConfiguration;
+import eu.bcvsolutions.idm.core.api.config.cache.LocalIdMCacheConfiguration;
+import eu.bcvsolutions.idm.ic.service.api.IcConnectorFacadeFactory;
+
+/**
+ * Define caches which are used in ic module.
+ *
+ * @since 13.1.0
+ */
+@Configuration
+public class IcCacheConfiguration {
+
+	/**
+	 * Define local only cache for {@link IcConnectorFacadeFactory}. The reason, why we use local only cache
+	 * is {@link ConnectorFacade} class, which holds connector (connection) pool and is not {@link java.io.Serializable},
+	 * so it cannot be shared in distributed cache. Facades created for previous (changed) configuration expire.
+	 *
+	 * @return IdMCacheConfiguration for {@link IcConnectorFacadeFactory}
+	 */
+	@Bean
+	public IdMCacheConfiguration connectorFacadeCacheConfiguration() {
+		return LocalIdMCacheConfiguration.<String, ConnectorFacade> builder()
+				.withName(IcConnectorFacadeFactory.CACHE_NAME)
+				.withKeyType(String.class)
+				.withValueType(ConnectorFacade.class)
+				.withTtl(Duration.ofHours(1))
+				.build();
+	}
+}
@@ -1,9 +1,22 @@
 package eu.bcvsolutions.idm.ic.connid.service.impl;
 
 import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
 
 import org.identityconnectors.framework.api.ConnectorFacade;
 import org.identityconnectors.framework.common.exceptions.InvalidCredentialException;
@@ -23,6 +36,8 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.util.Assert;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
 import eu.bcvsolutions.idm.core.api.exception.ResultCodeException;
 import eu.bcvsolutions.idm.core.security.api.domain.GuardedString;
 import eu.bcvsolutions.idm.ic.api.IcAttribute;
@@ -42,13 +57,21 @@ import eu.bcvsolutions.idm.ic.filter.api.IcResultsHandler;
 import eu.bcvsolutions.idm.ic.service.api.IcConnectorFacade;
 import eu.bcvsolutions.idm.ic.service.api.IcConnectorFacadeFactory;
 import eu.bcvsolutions.idm.ic.service.api.IcConnectorService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 
 @Service
 public class ConnIdIcConnectorService implements IcConnectorService {
 
 	private static final org.slf4j.Logger LOG = org.slf4j.LoggerFactory.getLogger(ConnIdIcConnectorService.class);
 
+	public static final String METRIC_SEARCH_PAGE = "idm.ic.search.page";
+	private static final List<ConnectorObject> END_OF_SEARCH = Collections.unmodifiableList(new ArrayList<>());
+	//
 	private final IcConnectorFacadeFactory facadeFactory;
+	//
+	@Autowired(required = false)
+	private MeterRegistry meterRegistry;
 
 	@Autowired
 	public ConnIdIcConnectorService(IcConnectorFacade icConnectorAggregator,
@@ -240,12 +263,66 @@ public class ConnIdIcConnectorService implements IcConnectorService {
 			objectClassConnId = ObjectClass.ACCOUNT;
 		}
 		
-		final SearchResultsHandler handlerConnId = new SearchResultsHandler() {
+		Filter filterConnId = ConnIdIcConvertUtil.convertIcFilter(filter);
+		Map<String, Object> systemOperationOptions = connectorConfiguration.getSystemOperationOptions();
+		if (systemOperationOptions == null) {
+			systemOperationOptions = Collections.emptyMap();
+		}
+		OperationOptions options = new OperationOptions(systemOperationOptions);
+		String connectorName = connectorInstance.getConnectorKey().getConnectorName();
+		//
+		if (Boolean.TRUE.equals(systemOperationOptions.get(IcConnectorConfiguration.PREFETCH_NEXT_PAGE_KEY))
+				&& options.getPageSize() != null
+				&& options.getPageSize() > 0) {
+			prefetchPageSearch(conn, objectClassConnId, filterConnId, handler, systemOperationOptions, connectorName);
+		} else {
+			pageSearch(
+					conn, 
+					objectClassConnId, 
+					filterConnId, 
+					connectorObject -> handler.handle(ConnIdIcConvertUtil.convertConnIdConnectorObject(connectorObject)), 
+					systemOperationOptions,
+					connectorName,
+					null);
+		}
+	}
+	
+	/**
+	 * Iterative paged search - next page is searched, while result contains paged results cookie and remaining results.
+	 * 
+	 * @param conn connector facade
+	 * @param objectClass searched object class
+	 * @param filter search filter
+	 * @param handler results handler
+	 * @param systemOperationOptions configured system operation options (e.g. page size)
+	 * @param connectorName connector name - used for metrics
+	 * @param stopped search will not continue with the next page, if {@code true} is returned
+	 */
+	private void pageSearch(
+			ConnectorFacade conn, 
+			ObjectClass objectClass, 
+			Filter filter,
+			ResultsHandler handler, 
+			Map<String, Object> systemOperationOptions,
+			String connectorName,
+			BooleanSupplier stopped) {
+		AtomicBoolean searchStopped = new AtomicBoolean(false);
+		AtomicLong handlerDuration = new AtomicLong(); // time spent in handler - is not included in page metric
+		SearchResultsHandler handlerConnId = new SearchResultsHandler() {
 			
 			@Override
 			public boolean handle(ConnectorObject connectorObject) {
-				
-				return handler.handle(ConnIdIcConvertUtil.convertConnIdConnectorObject(connectorObject));
+				long start = System.nanoTime();
+				boolean next;
+				try {
+					next = handler.handle(connectorObject);
+				} finally {
+					handlerDuration.addAndGet(System.nanoTime() - start);
+				}
+				if (!next) {
+					searchStopped.set(true);
+				}
+				return next;
 			}
 
 			@Override
@@ -254,25 +331,154 @@ public class ConnIdIcConnectorService implements IcConnectorService {
 				LOG.debug("SearchResul was returned (pagination): cookie: {}  --- remaining paged results: {}", result.getPagedResultsCookie(), result.getRemainingPagedResults());
 			}
 		};
-		Filter filterConnId = ConnIdIcConvertUtil.convertIcFilter(filter);
-	    	
-		this.pageSearch(conn, objectClassConnId, filterConnId, handlerConnId, new OperationOptions(connectorConfiguration.getSystemOperationOptions()));
+		//
+		String cookie = null;
+		Integer offset = null;
+		int page = 0;
+		do {
+			// new options for each page - previous are not referenced
+			Map<String, Object> pageOptions = new HashMap<>(systemOperationOptions);
+			if (cookie != null) {
+				pageOptions.put(OperationOptions.OP_PAGED_RESULTS_COOKIE, cookie);
+				if (offset != null) {
+					pageOptions.put(OperationOptions.OP_PAGED_RESULTS_OFFSET, offset);
+				}
+			}
+			OperationOptions options = new OperationOptions(pageOptions);
+			offset = options.getPagedResultsOffset();
+			page++;
+			//
+			handlerDuration.set(0);
+			long start = System.nanoTime();
+			SearchResult searchResult = conn.search(objectClass, filter, handlerConnId, options);
+			long duration = System.nanoTime() - start - handlerDuration.get(); // connector latency only
+			recordPage(connectorName, duration);
+			LOG.debug("Page [{}] of search for connector [{}] was processed in [{}]ms.", 
+					page, connectorName, TimeUnit.NANOSECONDS.toMillis(duration));
+			// For all my tests was search result Null.
+			cookie = null;
+			if (searchResult != null) {
+				LOG.debug("SearchResul was returned (pagination): cookie: {}  --- offset: {}", options.getPagedResultsCookie(), offset);
+				if (searchResult.getRemainingPagedResults() > 0 && searchResult.getPagedResultsCookie() != null) {
+					cookie = searchResult.getPagedResultsCookie();
+					if (offset != null) {
+						offset++;
+					}
+				}
+			}
+		} while (cookie != null && !searchStopped.get() && (stopped == null || !stopped.getAsBoolean()));
+	}
+	
+	/**
+	 * Paged search with prefetch - pages are searched on background thread (producer) and handled by given handler
+	 * on the current thread (consumer) => next page is searched, while the current page is handled.
+	 * Searched objects are passed in chunks with configured page size - at most one chunk is prepared in advance
+	 * (connector is blocked otherwise).
+	 * 
+	 * @param conn connector facade
+	 * @param objectClass searched object class
+	 * @param filter search filter
+	 * @param handler results handler
+	 * @param systemOperationOptions configured system operation options (page size is required)
+	 * @param connectorName connector name - used for metrics
+	 */
+	private void prefetchPageSearch(
+			ConnectorFacade conn, 
+			ObjectClass objectClass, 
+			Filter filter,
+			IcResultsHandler handler,
+			Map<String, Object> systemOperationOptions,
+			String connectorName) {
+		int pageSize = new OperationOptions(systemOperationOptions).getPageSize();
+		BlockingQueue<List<ConnectorObject>> pages = new ArrayBlockingQueue<>(1);
+		AtomicBoolean stopped = new AtomicBoolean(false);
+		AtomicReference<Throwable> producerException = new AtomicReference<>();
+		//
+		ExecutorService producer = Executors.newSingleThreadExecutor(
+				new ThreadFactoryBuilder().setNameFormat("connid-search-prefetch-%d").setDaemon(true).build());
+		try {
+			producer.execute(() -> {
+				try {
+					List<ConnectorObject> chunk = new ArrayList<>(pageSize);
+					pageSearch(conn, objectClass, filter, connectorObject -> {
+						chunk.add(connectorObject);
+						if (chunk.size() < pageSize) {
+							return true;
+						}
+						boolean next = putPage(pages, new ArrayList<>(chunk), stopped);
+						chunk.clear();
+						return next;
+					}, systemOperationOptions, connectorName, stopped::get);
+					putPage(pages, chunk, stopped);
+				} catch (Throwable ex) { // errors (e.g. from connector class loader) have to be propagated to consumer too
+					producerException.set(ex);
+				} finally {
+					putPage(pages, END_OF_SEARCH, stopped);
+				}
+			});
+			//
+			while (true) {
+				List<ConnectorObject> page = pages.take();
+				if (page == END_OF_SEARCH) {
+					break;
+				}
+				for (ConnectorObject connectorObject : page) {
+					if (!handler.handle(ConnIdIcConvertUtil.convertConnIdConnectorObject(connectorObject))) {
+						return;
+					}
+				}
+			}
+			Throwable ex = producerException.get();
+			if (ex instanceof RuntimeException) {
+				throw (RuntimeException) ex;
+			}
+			if (ex instanceof Error) {
+				throw (Error) ex;
+			}
+			if (ex != null) {
+				throw new IcException(ex);
+			}
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new IcException("Search with prefetch was interrupted.", ex);
+		} finally {
+			stopped.set(true);
+			producer.shutdownNow();
+		}
 	}
 	
-	private void pageSearch(ConnectorFacade conn, ObjectClass objectClass, Filter filter,
-            ResultsHandler handler, OperationOptions options){
-		SearchResult searchResutl = conn.search(objectClass, filter, handler, options);
-		// For all my tests was search result Null.
-		if(searchResutl != null){
-			LOG.debug("SearchResul was returned (pagination): cookie: {}  --- offset: {}", options.getPagedResultsCookie(), options.getPagedResultsOffset());
-			String cookie = searchResutl.getPagedResultsCookie();
-			int remainingResult = searchResutl.getRemainingPagedResults();
-			if(remainingResult > 0 && cookie != null){
-				options.getOptions().put(OperationOptions.OP_PAGED_RESULTS_COOKIE, cookie);
-				options.getOptions().put(OperationOptions.OP_PAGED_RESULTS_OFFSET, options.getPagedResultsOffset()+1);
-				this.pageSearch(conn, objectClass, filter, handler, options);
+	/**
+	 * Pass prepared page to consumer - waits, until consumer takes previous page or search is stopped.
+	 * 
+	 * @return false - search was stopped by consumer
+	 */
+	private boolean putPage(BlockingQueue<List<ConnectorObject>> pages, List<ConnectorObject> page, AtomicBoolean stopped) {
+		if (page.isEmpty() && page != END_OF_SEARCH) {
+			return !stopped.get();
+		}
+		try {
+			while (!pages.offer(page, 100, TimeUnit.MILLISECONDS)) {
+				if (stopped.get()) {
+					return false;
+				}
 			}
+			return !stopped.get();
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			stopped.set(true);
+			return false;
+		}
+	}
+	
+	private void recordPage(String connectorName, long duration) {
+		if (meterRegistry == null) {
+			return;
 		}
+		Timer
+			.builder(METRIC_SEARCH_PAGE)
+			.tag("connector", String.valueOf(connectorName))
+			.register(meterRegistry)
+			.record(duration, TimeUnit.NANOSECONDS);
 	}
 
 	@Override
@@ -1,5 +1,18 @@
 package eu.bcvsolutions.idm.ic.connid.service.impl;
 
+import java.lang.reflect.Array;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+import org.identityconnectors.common.security.SecurityUtil;
 import org.identityconnectors.framework.api.APIConfiguration;
 import org.identityconnectors.framework.api.ConnectorFacade;
 import org.identityconnectors.framework.api.ConnectorFacadeFactory;
@@ -8,34 +21,118 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.util.Assert;
 
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+
+import eu.bcvsolutions.idm.core.api.config.cache.domain.ValueWrapper;
+import eu.bcvsolutions.idm.core.api.service.IdmCacheManager;
+import eu.bcvsolutions.idm.core.security.api.domain.GuardedString;
+import eu.bcvsolutions.idm.ic.api.IcConfigurationProperties;
+import eu.bcvsolutions.idm.ic.api.IcConfigurationProperty;
 import eu.bcvsolutions.idm.ic.api.IcConnectorConfiguration;
 import eu.bcvsolutions.idm.ic.api.IcConnectorInstance;
+import eu.bcvsolutions.idm.ic.api.IcConnectorServer;
+import eu.bcvsolutions.idm.ic.api.IcObjectPoolConfiguration;
 import eu.bcvsolutions.idm.ic.connid.domain.ConnIdIcConvertUtil;
 import eu.bcvsolutions.idm.ic.service.api.IcConnectorFacadeFactory;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 
 /**
  * Basic factory to provide {@link ConnectorFacade} instances.
  *
+ * Created (and validated) facades are cached - key is connector key and configuration fingerprint
+ * (connector server, configuration properties including confidential values, pooling and operation options),
+ * so changed system configuration leads to new facade. Cache keys used by system are indexed by system key,
+ * so facades of changed system can be evicted without affecting other systems.
+ *
  * @author Peter Štrunc <peter.strunc@bcvsolutions.eu>
  */
 @Service
 public class DefaultIcConnectorFacadeFactory implements IcConnectorFacadeFactory {
 
+	private static final org.slf4j.Logger LOG = org.slf4j.LoggerFactory.getLogger(DefaultIcConnectorFacadeFactory.class);
+	public static final String METRIC_CACHE = "idm.ic.connector.facade.cache";
+	public static final String METRIC_BUILD = "idm.ic.connector.facade.build";
+
 	@Autowired
 	private ConnIdIcConfigurationService configurationServiceConnId;
+	@Autowired
+	private IdmCacheManager cacheManager;
+	@Autowired(required = false)
+	private MeterRegistry meterRegistry;
+	//
+	private final ConcurrentMap<String, Set<String>> systemCacheKeys = new ConcurrentHashMap<>();
 
 	/**
 	 * Basic factory method to obtain {@link ConnectorFacade} instance based on given configuration. It uses
 	 * {@link ConnectorFacadeFactory} internally.
 	 *
+	 * Facade is created and validated only once for the same connector key and configuration,
+	 * cached facade is returned otherwise.
+	 *
 	 * @param connectorInstance {@link IcConnectorInstance} to obtain connector info
 	 * @param connectorConfiguration {@link IcConnectorConfiguration} to create api configuration
-	 * @return New instance of {@link ConnectorFacade} created based on given arguments
+	 * @return New or cached instance of {@link ConnectorFacade} created based on given arguments
 	 */
 	@Override
 	public ConnectorFacade getConnectorFacade(IcConnectorInstance connectorInstance, IcConnectorConfiguration connectorConfiguration) {
 		Assert.notNull(connectorInstance.getConnectorKey(), "Connector key is required.");
 		Assert.notNull(connectorConfiguration, "Configuration is required.");
+		//
+		String cacheKey = getCacheKey(connectorInstance, connectorConfiguration);
+		String systemKey = connectorConfiguration.getSystemKey();
+		if (systemKey != null) {
+			systemCacheKeys.computeIfAbsent(systemKey, key -> ConcurrentHashMap.newKeySet()).add(cacheKey);
+		}
+		ValueWrapper value = cacheManager.getValue(CACHE_NAME, cacheKey);
+		if (value != null && value.get() != null) {
+			countCache(true);
+			//
+			return (ConnectorFacade) value.get();
+		}
+		countCache(false);
+		//
+		long start = System.nanoTime();
+		ConnectorFacade conn = createConnectorFacade(connectorInstance, connectorConfiguration);
+		long duration = System.nanoTime() - start;
+		if (meterRegistry != null) {
+			Timer
+				.builder(METRIC_BUILD)
+				.tag("connector", connectorInstance.getConnectorKey().getConnectorName())
+				.register(meterRegistry)
+				.record(duration, TimeUnit.NANOSECONDS);
+		}
+		LOG.debug("Connector facade for connector [{}] was created in [{}]ms.",
+				connectorInstance.getConnectorKey().getFullName(), TimeUnit.NANOSECONDS.toMillis(duration));
+		//
+		cacheManager.cacheValue(CACHE_NAME, cacheKey, conn);
+		return conn;
+	}
+
+	@Override
+	public void evictConnectorFacades(String systemKey) {
+		if (systemKey == null) {
+			return;
+		}
+		Set<String> cacheKeys = systemCacheKeys.remove(systemKey);
+		if (cacheKeys == null) {
+			return;
+		}
+		// running operations keep using evicted facade - facade (and connector pool) is not disposed
+		cacheKeys.forEach(cacheKey -> cacheManager.evictValue(CACHE_NAME, cacheKey));
+		LOG.debug("Connector facades [{}] of system [{}] were evicted.", cacheKeys.size(), systemKey);
+	}
+
+	/**
+	 * Create new facade.
+	 *
+	 * @param connectorInstance {@link IcConnectorInstance} to obtain connector info
+	 * @param connectorConfiguration {@link IcConnectorConfiguration} to create api configuration
+	 * @return New instance of {@link ConnectorFacade} created based on given arguments
+	 */
+	protected ConnectorFacade createConnectorFacade(IcConnectorInstance connectorInstance, IcConnectorConfiguration connectorConfiguration) {
 		ConnectorInfo connIdInfo = configurationServiceConnId.getConnIdConnectorInfo(connectorInstance);
 		Assert.notNull(connIdInfo, "ConnId connector info not found!");
 		APIConfiguration config = connIdInfo.createDefaultAPIConfiguration();
@@ -49,4 +146,107 @@ public class DefaultIcConnectorFacadeFactory implements IcConnectorFacadeFactory
 		return conn;
 	}
 
+	/**
+	 * Cache key - connector key and configuration fingerprint.
+	 * Confidential values are part of the fingerprint (hashed) - changed password leads to new facade.
+	 *
+	 * @param connectorInstance connector key and server
+	 * @param connectorConfiguration configuration
+	 * @return cache key
+	 */
+	protected String getCacheKey(IcConnectorInstance connectorInstance, IcConnectorConfiguration connectorConfiguration) {
+		Hasher hasher = Hashing.sha256().newHasher();
+		// connector server
+		IcConnectorServer connectorServer = connectorInstance.getConnectorServer();
+		putValue(hasher, connectorInstance.isRemote());
+		if (connectorInstance.isRemote() && connectorServer != null) {
+			putValue(hasher, connectorServer.getHost());
+			putValue(hasher, connectorServer.getPort());
+			putValue(hasher, connectorServer.isUseSsl());
+			putValue(hasher, connectorServer.getTimeout());
+			putValue(hasher, connectorServer.getPassword());
+		}
+		// configuration properties - ordered by name
+		IcConfigurationProperties properties = connectorConfiguration.getConfigurationProperties();
+		if (properties != null && properties.getProperties() != null) {
+			properties
+				.getProperties()
+				.stream()
+				.sorted(Comparator.comparing(IcConfigurationProperty::getName, Comparator.nullsFirst(Comparator.naturalOrder())))
+				.forEach(property -> {
+					putValue(hasher, property.getName());
+					putValue(hasher, property.getValue());
+				});
+		}
+		// pooling
+		putValue(hasher, connectorConfiguration.isConnectorPoolingSupported());
+		IcObjectPoolConfiguration poolConfiguration = connectorConfiguration.getConnectorPoolConfiguration();
+		if (poolConfiguration != null) {
+			putValue(hasher, poolConfiguration.getMaxObjects());
+			putValue(hasher, poolConfiguration.getMaxIdle());
+			putValue(hasher, poolConfiguration.getMaxWait());
+			putValue(hasher, poolConfiguration.getMinEvictableIdleTimeMillis());
+			putValue(hasher, poolConfiguration.getMinIdle());
+		}
+		putValue(hasher, connectorConfiguration.getProducerBufferSize());
+		// operation options - ordered by key
+		Map<String, Object> operationOptions = connectorConfiguration.getSystemOperationOptions();
+		if (operationOptions != null) {
+			new TreeMap<>(operationOptions).forEach((key, value) -> {
+				putValue(hasher, key);
+				putValue(hasher, value);
+			});
+		}
+		//
+		return String.format("%s:%s", connectorInstance.getConnectorKey().getFullName(), hasher.hash());
+	}
+
+	private void putValue(Hasher hasher, Object value) {
+		if (value != null && value.getClass().isArray()) {
+			// element by element - arrays (e.g. guarded strings) don't implement toString
+			int length = Array.getLength(value);
+			hasher.putInt(length);
+			for (int index = 0; index < length; index++) {
+				putValue(hasher, Array.get(value, index));
+			}
+			return;
+		}
+		if (value instanceof Collection) {
+			Collection<?> values = (Collection<?>) value;
+			hasher.putInt(values.size());
+			values.forEach(element -> putValue(hasher, element));
+			return;
+		}
+		if (value instanceof org.identityconnectors.common.security.GuardedByteArray) {
+			putValue(hasher, SecurityUtil.decrypt((org.identityconnectors.common.security.GuardedByteArray) value));
+			return;
+		}
+		String stringValue;
+		if (value == null) {
+			stringValue = null;
+		} else if (value instanceof GuardedString) {
+			stringValue = ((GuardedString) value).asString();
+		} else if (value instanceof org.identityconnectors.common.security.GuardedString) {
+			stringValue = SecurityUtil.decrypt((org.identityconnectors.common.security.GuardedString) value);
+		} else {
+			stringValue = Objects.toString(value);
+		}
+		// null and empty string are different
+		hasher.putBoolean(stringValue == null);
+		if (stringValue != null) {
+			hasher.putInt(stringValue.length());
+			hasher.putString(stringValue, StandardCharsets.UTF_8);
+		}
+	}
+
+	private void countCache(boolean hit) {
+		if (meterRegistry == null) {
+			return;
+		}
+		Counter
+			.builder(METRIC_CACHE)
+			.tag("result", hit ? "hit" : "miss")
+			.register(meterRegistry)
+			.increment();
+	}
 }
@@ -38,6 +38,8 @@ public class IcConnectorConfigurationImpl implements IcConnectorConfiguration {
 	private int producerBufferSize = 100;
 
 	private Map<String, Object> operationOptions;
+	
+	private String systemKey;
 
 	/**
 	 * @return the configurationProperties
@@ -114,6 +116,19 @@ public class IcConnectorConfigurationImpl implements IcConnectorConfiguration {
 	public void setOperationOptions(Map<String, Object> operationOptions) {
 		this.operationOptions = operationOptions;
 	}
+	
+	@Override
+	public String getSystemKey() {
+		return systemKey;
+	}
+	
+	/**
+	 * @param systemKey key of system, which uses this configuration
+	 * @since 13.1.0
+	 */
+	public void setSystemKey(String systemKey) {
+		this.systemKey = systemKey;
+	}
 
 	// /**
 	// * Get the configuration of the IcResultsHandler chain of the Search
@@ -3,6 +3,8 @@ package eu.bcvsolutions.idm.ic.service.api;
 import org.identityconnectors.framework.api.ConnectorFacade;
 import org.identityconnectors.framework.api.ConnectorFacadeFactory;
 
+import eu.bcvsolutions.idm.core.api.service.IdmCacheManager;
+import eu.bcvsolutions.idm.ic.IcModuleDescriptor;
 import eu.bcvsolutions.idm.ic.api.IcConnectorConfiguration;
 import eu.bcvsolutions.idm.ic.api.IcConnectorInstance;
 
@@ -12,6 +14,13 @@ import eu.bcvsolutions.idm.ic.api.IcConnectorInstance;
  * @author Peter Štrunc <peter.strunc@bcvsolutions.eu>
  */
 public interface IcConnectorFacadeFactory {
+	
+	/**
+	 * Initialized (and validated) connector facades - key is connector key and configuration fingerprint.
+	 * 
+	 * @since 13.1.0
+	 */
+	String CACHE_NAME = IdmCacheManager.getCacheName(IcModuleDescriptor.MODULE_ID, "connector-facade-cache");
 
 	/**
 	 * Basic factory method to obtain {@link ConnectorFacade} instance based on given configuration. It uses
@@ -22,5 +31,16 @@ public interface IcConnectorFacadeFactory {
 	 * @return New instance of {@link ConnectorFacade} created based on given arguments
 	 */
 	ConnectorFacade getConnectorFacade(IcConnectorInstance connectorInstance, IcConnectorConfiguration connectorConfiguration);
+	
+	/**
+	 * Evict initialized connector facades of given system - e.g. when system configuration is changed.
+	 * Facades will be created again (lazily) on the next usage. Facades of other systems are not affected.
+	 * 
+	 * @param systemKey system key - see {@link IcConnectorConfiguration#getSystemKey()}
+	 * @since 13.1.0
+	 */
+	default void evictConnectorFacades(String systemKey) {
+		// nothing is cached by default
+	}
 
 }